@@ -44,20 +44,28 @@ public class AllTests
         suite.addTestSuite( org.eclipse.birt.core.archive.FolderArchiveTest.class );
         suite.addTestSuite( org.eclipse.birt.core.archive.InputStreamRefreshTest.class );
 
+        /* in package: org.eclipse.birt.core.archive.cache */
+        suite.addTestSuite( org.eclipse.birt.core.archive.cache.BlockCacheTest.class );
+
         /* in package: org.eclipse.birt.core.archive.compound */
         suite.addTestSuite( org.eclipse.birt.core.archive.compound.ArchiveEntryInputStreamTest.class );
         suite.addTestSuite( org.eclipse.birt.core.archive.compound.ArchiveFileFactoryTest.class );
         suite.addTestSuite( org.eclipse.birt.core.archive.compound.ArchiveFileTest.class );
         suite.addTestSuite( org.eclipse.birt.core.archive.compound.ArchiveRemoveTest.class );
         suite.addTestSuite( org.eclipse.birt.core.archive.compound.ArchiveViewTest.class );
+        suite.addTestSuite( org.eclipse.birt.core.archive.compound.CompressedArchiveEntryTest.class );
+        suite.addTestSuite( org.eclipse.birt.core.archive.compound.MappedArchiveFileTest.class );
+        suite.addTestSuite( org.eclipse.birt.core.archive.compound.SharedCacheArchiveTest.class );
         suite.addTestSuite( org.eclipse.birt.core.archive.compound.UpgradeArchiveTest.class );
 
         /* in package: org.eclipse.birt.core.btree */
+        suite.addTestSuite( org.eclipse.birt.core.btree.BTreeBulkLoadTest.class );
         suite.addTestSuite( org.eclipse.birt.core.btree.BTreeCursorTest.class );
         suite.addTestSuite( org.eclipse.birt.core.btree.BTreeMultipleThreadTest.class );
         suite.addTestSuite( org.eclipse.birt.core.btree.BTreeTest.class );
         suite.addTestSuite( org.eclipse.birt.core.btree.NodeInputStreamTest.class );
         suite.addTestSuite( org.eclipse.birt.core.btree.NodeOutputStreamTest.class );
+        suite.addTestSuite( org.eclipse.birt.core.btree.PrimitiveBTreeTest.class );
 
         /* in package: org.eclipse.birt.core.config */
         suite.addTestSuite( org.eclipse.birt.core.config.FileConfigVarManagerTest.class );
@@ -68,15 +76,20 @@ public class AllTests
         suite.addTestSuite( org.eclipse.birt.core.data.DateUtilThreadTest.class );
         suite.addTestSuite( org.eclipse.birt.core.data.ExpressionParserUtilityTest.class );
         suite.addTestSuite( org.eclipse.birt.core.data.ExpressionUtilTest.class ); //
+        suite.addTestSuite( org.eclipse.birt.core.data.FastDateParserTest.class );
 
         /* in package: org.eclipse.birt.core.exception */
         suite.addTestSuite( org.eclipse.birt.core.exception.BirtExceptionTest.class );
 
         /* in package: org.eclipse.birt.core.format */
         suite.addTestSuite( org.eclipse.birt.core.format.DateFormatterTest.class );
+        suite.addTestSuite( org.eclipse.birt.core.format.FormatterCacheTest.class );
         suite.addTestSuite( org.eclipse.birt.core.format.NumberFormatterTest.class );
         suite.addTestSuite( org.eclipse.birt.core.format.StringFormatterTest.class );
 
+        /* in package: org.eclipse.birt.core.framework.jar */
+        suite.addTestSuite( org.eclipse.birt.core.framework.jar.BundleIndexTest.class );
+
         /* in package: org.eclipse.birt.core.script.bre */
         suite.addTestSuite( org.eclipse.birt.core.script.bre.BirtCompTest.class );
         suite.addTestSuite( org.eclipse.birt.core.script.bre.BirtDateTimeTest.class );
@@ -85,6 +98,7 @@ public class AllTests
         suite.addTestSuite( org.eclipse.birt.core.script.bre.BirtStrTest.class );
 
         /* in package: org.eclipse.birt.core.script */
+        suite.addTestSuite( org.eclipse.birt.core.script.CompiledScriptCacheTest.class );
         suite.addTestSuite( org.eclipse.birt.core.script.NativeDateTimeSpanTest.class );
         suite.addTestSuite( org.eclipse.birt.core.script.NativeFinanceTest.class );
         suite.addTestSuite( org.eclipse.birt.core.script.NativeJavaMapTest.class );
@@ -0,0 +1,51 @@
+package org.eclipse.birt.core.archive.cache;
+
+import junit.framework.TestCase;
+
+public class BlockCacheTest extends TestCase
+{
+
+	public void testDisabledCache( )
+	{
+		BlockCache cache = new BlockCache( );
+		assertFalse( cache.isEnabled( ) );
+		cache.putBlock( "file", 1, new byte[4096] );
+		assertNull( cache.getBlock( "file", 1 ) );
+		assertEquals( 0, cache.getUsedCacheSize( ) );
+	}
+
+	public void testHitAndMiss( )
+	{
+		BlockCache cache = new BlockCache( 64 * 1024, 4 );
+		assertNull( cache.getBlock( "file", 1 ) );
+		byte[] block = new byte[4096];
+		cache.putBlock( "file", 1, block );
+		assertSame( block, cache.getBlock( "file", 1 ) );
+		assertNull( cache.getBlock( "other", 1 ) );
+		assertEquals( 1, cache.getHitCount( ) );
+		assertEquals( 2, cache.getMissCount( ) );
+		assertEquals( 4096, cache.getUsedCacheSize( ) );
+	}
+
+	public void testEviction( )
+	{
+		// a single segment so the LRU order is global
+		BlockCache cache = new BlockCache( 4 * 4096, 1 );
+		for ( int i = 0; i < 4; i++ )
+		{
+			cache.putBlock( "file", i, new byte[4096] );
+		}
+		// touch block 0 so block 1 is the least recently used
+		assertNotNull( cache.getBlock( "file", 0 ) );
+		cache.putBlock( "file", 4, new byte[4096] );
+		assertEquals( 1, cache.getEvictionCount( ) );
+		assertNull( cache.getBlock( "file", 1 ) );
+		assertNotNull( cache.getBlock( "file", 0 ) );
+		assertNotNull( cache.getBlock( "file", 4 ) );
+		assertEquals( 4 * 4096, cache.getUsedCacheSize( ) );
+
+		cache.setMaxCacheSize( 0 );
+		assertEquals( 0, cache.getUsedCacheSize( ) );
+		assertEquals( 5, cache.getEvictionCount( ) );
+	}
+}
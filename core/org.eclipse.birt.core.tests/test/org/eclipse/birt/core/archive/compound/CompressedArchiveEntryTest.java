@@ -0,0 +1,409 @@
+
+package org.eclipse.birt.core.archive.compound;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.archive.ArchiveUtil;
+import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.core.archive.RAOutputStream;
+
+public class CompressedArchiveEntryTest extends TestCase
+{
+
+	static final String ARCHIVE_FOLDER = "./utest/";
+	static final String ARCHIVE_FILE = ARCHIVE_FOLDER + "compressed.rptdocument";
+	static final String PLAIN_FILE = ARCHIVE_FOLDER + "plain.rptdocument";
+
+	static final int STREAM_SIZE = 1024 * 1024;
+
+	public void setUp( )
+	{
+		new File( ARCHIVE_FOLDER ).mkdirs( );
+	}
+
+	public void tearDown( )
+	{
+		new File( ARCHIVE_FILE ).delete( );
+		new File( PLAIN_FILE ).delete( );
+		new File( ARCHIVE_FOLDER ).delete( );
+	}
+
+	public void testCompressedStream( ) throws IOException
+	{
+		ArchiveWriter writer = new ArchiveWriter( ARCHIVE_FILE );
+		writer.setCompressedStreams( new String[]{"/content"} );
+		writeStreams( writer );
+		writer.finish( );
+
+		writer = new ArchiveWriter( PLAIN_FILE );
+		writeStreams( writer );
+		writer.finish( );
+
+		// only the content stream is compressed
+		assertTrue( new File( ARCHIVE_FILE ).length( ) * 4 < new File(
+				PLAIN_FILE ).length( ) );
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		try
+		{
+			assertTrue( isCompressed( archive, "/content/page" ) );
+			assertTrue( !isCompressed( archive, "/data/rows" ) );
+			ArchiveReader reader = new ArchiveReader( archive );
+			checkStreams( reader );
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	public void testCompressAllStreams( ) throws IOException
+	{
+		System.setProperty( ArchiveFile.PROPERTY_COMPRESSED_ENTRIES, "/" );
+		try
+		{
+			ArchiveWriter writer = new ArchiveWriter( ARCHIVE_FILE );
+			writeStreams( writer );
+			// the flushed data can be read before the stream is closed
+			RAOutputStream out = writer.createOutputStream( "/pending" );
+			out.writeLong( 1234 );
+			writer.flush( );
+			RAInputStream in = writer.getInputStream( "/pending" );
+			assertEquals( 8, in.length( ) );
+			assertEquals( 1234, in.readLong( ) );
+			in.close( );
+			out.writeLong( 5678 );
+			writer.finish( );
+		}
+		finally
+		{
+			System.clearProperty( ArchiveFile.PROPERTY_COMPRESSED_ENTRIES );
+		}
+
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		try
+		{
+			assertTrue( isCompressed( archive, "/content/page" ) );
+			assertTrue( isCompressed( archive, "/data/rows" ) );
+			ArchiveReader reader = new ArchiveReader( archive );
+			checkStreams( reader );
+			RAInputStream in = reader.getStream( "/pending" );
+			assertEquals( 16, in.length( ) );
+			assertEquals( 1234, in.readLong( ) );
+			assertEquals( 5678, in.readLong( ) );
+			in.close( );
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	public void testRewriteAndTruncate( ) throws IOException
+	{
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		archive.setCompressedEntries( new String[]{"/"} );
+		byte[] expected = new byte[STREAM_SIZE];
+		ArchiveEntry entry = archive.createEntry( "/entry" );
+		try
+		{
+			Random random = new Random( 0 );
+			for ( int i = 0; i < 1000; i++ )
+			{
+				int pos = random.nextInt( STREAM_SIZE - 1000 );
+				int size = random.nextInt( 1000 );
+				byte[] b = new byte[size];
+				for ( int j = 0; j < size; j++ )
+				{
+					b[j] = (byte) ( pos + j );
+				}
+				System.arraycopy( b, 0, expected, pos, size );
+				entry.write( pos, b, 0, size );
+				if ( i % 100 == 0 )
+				{
+					entry.flush( );
+				}
+			}
+			entry.setLength( STREAM_SIZE );
+			// truncate and extend the entry, the truncated data is cleared
+			entry.setLength( STREAM_SIZE / 2 + 17 );
+			entry.setLength( STREAM_SIZE );
+			for ( int i = STREAM_SIZE / 2 + 17; i < STREAM_SIZE; i++ )
+			{
+				expected[i] = 0;
+			}
+		}
+		finally
+		{
+			entry.close( );
+		}
+		archive.close( );
+
+		archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		try
+		{
+			entry = archive.openEntry( "/entry" );
+			assertEquals( STREAM_SIZE, entry.getLength( ) );
+			byte[] b = new byte[STREAM_SIZE];
+			int size = 0;
+			while ( size < STREAM_SIZE )
+			{
+				size += entry.read( size, b, size, STREAM_SIZE - size );
+			}
+			assertEquals( -1, entry.read( STREAM_SIZE, b, 0, 1 ) );
+			for ( int i = 0; i < STREAM_SIZE; i++ )
+			{
+				assertEquals( expected[i], b[i] );
+			}
+			entry.close( );
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	public void testSaveAsWithOpenedEntry( ) throws IOException
+	{
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		archive.setCompressedEntries( new String[]{"/"} );
+		byte[] expected = new byte[STREAM_SIZE / 4 + 17];
+		for ( int i = 0; i < expected.length; i++ )
+		{
+			expected[i] = (byte) ( i % 251 );
+		}
+		ArchiveEntry entry = archive.createEntry( "/entry" );
+		try
+		{
+			// the data is still buffered in the entry when it is saved
+			entry.write( 0, expected, 0, expected.length );
+			archive.saveAs( PLAIN_FILE );
+		}
+		finally
+		{
+			entry.close( );
+			archive.close( );
+		}
+
+		archive = new ArchiveFile( PLAIN_FILE, "r" );
+		try
+		{
+			entry = archive.openEntry( "/entry" );
+			assertEquals( expected.length, entry.getLength( ) );
+			byte[] b = new byte[expected.length];
+			int size = 0;
+			while ( size < b.length )
+			{
+				size += entry.read( size, b, size, b.length - size );
+			}
+			for ( int i = 0; i < b.length; i++ )
+			{
+				assertEquals( expected[i], b[i] );
+			}
+			entry.close( );
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	public void testPlainEntryWithTag( ) throws IOException
+	{
+		// the plain entry which starts with the tag of the compressed entry
+		byte[] expected = new byte[CompressedArchiveEntry.HEADER_SIZE * 2];
+		ArchiveUtil.longToBytes( CompressedArchiveEntry.COMPRESSED_ENTRY_TAG,
+				expected, 0 );
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		try
+		{
+			archive.setCompressedEntries( new String[]{"/content"} );
+			ArchiveEntry entry = archive.createEntry( "/data/tagged" );
+			entry.write( 0, expected, 0, expected.length );
+			entry.close( );
+			entry = archive.createEntry( "/content/page" );
+			entry.write( 0, expected, 0, expected.length );
+			entry.close( );
+			assertFalse( archive.listEntries( "/" ).contains(
+					ArchiveFile.COMPRESSED_ENTRIES_NAME ) );
+		}
+		finally
+		{
+			archive.close( );
+		}
+
+		archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		try
+		{
+			assertTrue( isCompressed( archive, "/data/tagged" ) );
+			assertFalse( archive.isCompressed( "/data/tagged" ) );
+			assertTrue( archive.isCompressed( "/content/page" ) );
+			assertEquals( 2, archive.listEntries( "/" ).size( ) );
+			String[] names = new String[]{"/data/tagged", "/content/page"};
+			for ( String name : names )
+			{
+				ArchiveEntry entry = archive.openEntry( name );
+				try
+				{
+					assertEquals( expected.length, entry.getLength( ) );
+					byte[] b = new byte[expected.length];
+					assertEquals( b.length, entry.read( 0, b, 0, b.length ) );
+					assertTrue( Arrays.equals( expected, b ) );
+				}
+				finally
+				{
+					entry.close( );
+				}
+			}
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	public void testRepeatedFlush( ) throws IOException
+	{
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		archive.setCompressedEntries( new String[]{"/"} );
+		byte[] expected = new byte[CompressedArchiveEntry.DEFAULT_BLOCK_SIZE * 4];
+		Random random = new Random( 0 );
+		random.nextBytes( expected );
+		CompressedArchiveEntry entry = (CompressedArchiveEntry) archive
+				.createEntry( "/entry" );
+		try
+		{
+			entry.write( 0, expected, 0, expected.length );
+			entry.flush( );
+			// the table is rewritten in place
+			long size = entry.entry.getLength( );
+			for ( int i = 0; i < 100; i++ )
+			{
+				entry.setLength( expected.length );
+				entry.flush( );
+			}
+			assertEquals( size, entry.entry.getLength( ) );
+
+			// the rewritten blocks leave the stale copies behind
+			for ( int i = 0; i < 10; i++ )
+			{
+				expected[i] = (byte) i;
+				entry.write( i, expected, i, 1 );
+				entry.flush( );
+			}
+			assertTrue( entry.entry.getLength( ) > size * 2 );
+			archive.saveAs( PLAIN_FILE );
+		}
+		finally
+		{
+			entry.close( );
+			archive.close( );
+		}
+
+		// the stale copies are not saved
+		archive = new ArchiveFile( PLAIN_FILE, "r" );
+		try
+		{
+			ArchiveEntry raw = archive.af.openEntry( "/entry" );
+			try
+			{
+				assertTrue( raw.getLength( ) < expected.length * 3 / 2 );
+			}
+			finally
+			{
+				raw.close( );
+			}
+			ArchiveEntry copy = archive.openEntry( "/entry" );
+			try
+			{
+				assertEquals( expected.length, copy.getLength( ) );
+				byte[] b = new byte[expected.length];
+				int size = 0;
+				while ( size < b.length )
+				{
+					size += copy.read( size, b, size, b.length - size );
+				}
+				assertTrue( Arrays.equals( expected, b ) );
+			}
+			finally
+			{
+				copy.close( );
+			}
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	private boolean isCompressed( ArchiveFile archive, String name )
+			throws IOException
+	{
+		ArchiveEntry entry = archive.af.openEntry( name );
+		try
+		{
+			return CompressedArchiveEntry.isCompressed( entry );
+		}
+		finally
+		{
+			entry.close( );
+		}
+	}
+
+	private void writeStreams( ArchiveWriter writer ) throws IOException
+	{
+		RAOutputStream out = writer.createOutputStream( "/content/page" );
+		// leave a place holder for the count and write it at last
+		out.writeInt( 0 );
+		for ( int i = 0; i < STREAM_SIZE / 4; i++ )
+		{
+			out.writeInt( i % 1000 );
+		}
+		out.seek( 0 );
+		out.writeInt( STREAM_SIZE / 4 );
+		out.close( );
+
+		out = writer.createOutputStream( "/data/rows" );
+		for ( int i = 0; i < 1024; i++ )
+		{
+			out.writeLong( i );
+		}
+		out.close( );
+	}
+
+	private void checkStreams( ArchiveReader reader ) throws IOException
+	{
+		RAInputStream in = reader.getStream( "/content/page" );
+		try
+		{
+			assertEquals( STREAM_SIZE + 4, in.length( ) );
+			assertEquals( STREAM_SIZE / 4, in.readInt( ) );
+			// read from the random positions
+			Random random = new Random( 0 );
+			for ( int i = 0; i < 1000; i++ )
+			{
+				int index = random.nextInt( STREAM_SIZE / 4 );
+				in.seek( 4 + index * 4 );
+				assertEquals( index % 1000, in.readInt( ) );
+			}
+		}
+		finally
+		{
+			in.close( );
+		}
+		in = reader.getStream( "/data/rows" );
+		try
+		{
+			in.seek( 8 * 1000 );
+			assertEquals( 1000, in.readLong( ) );
+		}
+		finally
+		{
+			in.close( );
+		}
+	}
+}
@@ -0,0 +1,128 @@
+
+package org.eclipse.birt.core.archive.compound;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+public class MappedArchiveFileTest extends TestCase
+{
+
+	static final String ARCHIVE_FOLDER = "./utest/";
+	static final String ARCHIVE_FILE = ARCHIVE_FOLDER + "archive.rptdocument";
+
+	public void setUp( )
+	{
+		new File( ARCHIVE_FOLDER ).mkdirs( );
+		System.setProperty( MappedFile.PROPERTY_MEMORY_MAPPED_READ, "true" );
+	}
+
+	public void tearDown( )
+	{
+		System.clearProperty( MappedFile.PROPERTY_MEMORY_MAPPED_READ );
+		new File( ARCHIVE_FILE ).delete( );
+		new File( ARCHIVE_FOLDER ).delete( );
+	}
+
+	public void testMappedArchiveV3( ) throws IOException
+	{
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		createArchive( archive );
+		archive.close( );
+
+		archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		try
+		{
+			checkArchive( archive );
+			assertEquals( 0, archive.getUsedCache( ) );
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	public void testMappedArchiveV2( ) throws IOException
+	{
+		ArchiveFileV2 v2 = new ArchiveFileV2( ARCHIVE_FILE, "rw" );
+		createArchive( v2 );
+		v2.close( );
+
+		v2 = new ArchiveFileV2( ARCHIVE_FILE, "r" );
+		try
+		{
+			assertTrue( v2.isDirectRead( ) );
+			checkArchive( v2 );
+		}
+		finally
+		{
+			v2.close( );
+		}
+	}
+
+	public void testReadAfterClose( ) throws IOException
+	{
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		createArchive( archive );
+		archive.close( );
+
+		ArchiveFileV2 v2 = new ArchiveFileV2( ARCHIVE_FILE, "rw" );
+		createArchive( v2 );
+		v2.close( );
+		v2 = new ArchiveFileV2( ARCHIVE_FILE, "r" );
+		v2.close( );
+		try
+		{
+			v2.read( 0, 0, new byte[1], 0, 1 );
+			fail( );
+		}
+		catch ( IOException ex )
+		{
+		}
+	}
+
+	void createArchive( IArchiveFile archive ) throws IOException
+	{
+		int entryCount = 64;
+		for ( int i = 0; i < entryCount; i++ )
+		{
+			int length = i * 1023;
+			byte[] b = new byte[length];
+			for ( int j = 0; j < length; j++ )
+			{
+				b[j] = (byte) ( i + j );
+			}
+			ArchiveEntry entry = archive.createEntry( "/entry/" + i );
+			entry.write( 0, b, 0, length );
+			entry.close( );
+		}
+	}
+
+	void checkArchive( IArchiveFile archive ) throws IOException
+	{
+		int entryCount = 64;
+		for ( int i = 0; i < entryCount; i++ )
+		{
+			ArchiveEntry entry = archive.openEntry( "/entry/" + i );
+			try
+			{
+				int length = i * 1023;
+				assertEquals( length, entry.getLength( ) );
+				byte[] b = new byte[length + 10];
+				// read from an unaligned position to cross the block boundary
+				int offset = length / 3;
+				int size = entry.read( offset, b, 0, b.length );
+				assertEquals( length - offset, size <= 0 ? 0 : size );
+				for ( int j = 0; j < size; j++ )
+				{
+					assertEquals( (byte) ( i + j + offset ), b[j] );
+				}
+			}
+			finally
+			{
+				entry.close( );
+			}
+		}
+	}
+}
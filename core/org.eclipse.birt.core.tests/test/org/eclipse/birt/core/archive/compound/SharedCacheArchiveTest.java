@@ -0,0 +1,154 @@
+package org.eclipse.birt.core.archive.compound;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.archive.cache.BlockCache;
+
+public class SharedCacheArchiveTest extends TestCase
+{
+
+	static final String ARCHIVE_FOLDER = "./utest/";
+	static final String ARCHIVE_FILE = ARCHIVE_FOLDER + "archive.rptdocument";
+	static final int ENTRY_COUNT = 32;
+
+	public void setUp( )
+	{
+		new File( ARCHIVE_FOLDER ).mkdirs( );
+		ArchiveFile.setSharedCacheSize( 1024 * 1024 );
+		ArchiveFile.getSharedBlockCache( ).resetStatistics( );
+	}
+
+	public void tearDown( )
+	{
+		ArchiveFile.setSharedCacheSize( 0 );
+		new File( ARCHIVE_FILE ).delete( );
+		new File( ARCHIVE_FOLDER ).delete( );
+	}
+
+	public void testSharedCacheV3( ) throws Exception
+	{
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		createArchive( archive );
+		archive.close( );
+
+		archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		try
+		{
+			checkArchiveInThreads( archive );
+		}
+		finally
+		{
+			archive.close( );
+		}
+		BlockCache cache = ArchiveFile.getSharedBlockCache( );
+		long missCount = cache.getMissCount( );
+		assertTrue( cache.getHitCount( ) > 0 );
+
+		// the blocks are reused by another reader of the same document
+		archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		try
+		{
+			checkArchiveInThreads( archive );
+		}
+		finally
+		{
+			archive.close( );
+		}
+		assertEquals( missCount, cache.getMissCount( ) );
+	}
+
+	public void testSharedCacheV2( ) throws Exception
+	{
+		ArchiveFileV2 v2 = new ArchiveFileV2( ARCHIVE_FILE, "rw" );
+		createArchive( v2 );
+		v2.close( );
+
+		v2 = new ArchiveFileV2( ARCHIVE_FILE, "r" );
+		try
+		{
+			assertTrue( v2.isDirectRead( ) );
+			checkArchiveInThreads( v2 );
+		}
+		finally
+		{
+			v2.close( );
+		}
+		assertTrue( ArchiveFile.getSharedBlockCache( ).getHitCount( ) > 0 );
+	}
+
+	void createArchive( IArchiveFile archive ) throws IOException
+	{
+		for ( int i = 0; i < ENTRY_COUNT; i++ )
+		{
+			int length = i * 1023;
+			byte[] b = new byte[length];
+			for ( int j = 0; j < length; j++ )
+			{
+				b[j] = (byte) ( i + j );
+			}
+			ArchiveEntry entry = archive.createEntry( "/entry/" + i );
+			entry.write( 0, b, 0, length );
+			entry.close( );
+		}
+	}
+
+	void checkArchiveInThreads( final IArchiveFile archive ) throws Exception
+	{
+		final List<Throwable> errors = Collections
+				.synchronizedList( new ArrayList<Throwable>( ) );
+		Thread[] threads = new Thread[4];
+		for ( int i = 0; i < threads.length; i++ )
+		{
+			threads[i] = new Thread( ) {
+
+				public void run( )
+				{
+					try
+					{
+						checkArchive( archive );
+					}
+					catch ( Throwable ex )
+					{
+						errors.add( ex );
+					}
+				}
+			};
+			threads[i].start( );
+		}
+		for ( Thread thread : threads )
+		{
+			thread.join( );
+		}
+		assertTrue( errors.toString( ), errors.isEmpty( ) );
+	}
+
+	void checkArchive( IArchiveFile archive ) throws IOException
+	{
+		for ( int i = 0; i < ENTRY_COUNT; i++ )
+		{
+			ArchiveEntry entry = archive.openEntry( "/entry/" + i );
+			try
+			{
+				int length = i * 1023;
+				assertEquals( length, entry.getLength( ) );
+				byte[] b = new byte[length];
+				int size = entry.read( 0, b, 0, length );
+				assertEquals( length, size <= 0 ? 0 : size );
+				for ( int j = 0; j < length; j++ )
+				{
+					assertEquals( (byte) ( i + j ), b[j] );
+				}
+			}
+			finally
+			{
+				entry.close( );
+			}
+		}
+	}
+}
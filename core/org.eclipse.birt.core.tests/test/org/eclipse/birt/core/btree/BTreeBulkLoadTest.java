@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BTreeBulkLoadTest extends BTreeTestCase
+{
+
+	public void testBulkLoad( ) throws Exception
+	{
+		new File( "./utest/btree.dat" ).delete( );
+		FileBTreeFile file = new FileBTreeFile( "./utest/btree.dat" );
+		try
+		{
+			BTreeOption<Integer, Integer> option = createOption( );
+			option.setFile( file, true );
+			BTree<Integer, Integer> btree = new BTree<Integer, Integer>( option );
+			TreeMap<Integer, Integer> map = new TreeMap<Integer, Integer>( );
+			for ( int i = 0; i < 100000; i++ )
+			{
+				map.put( Integer.valueOf( i * 2 ), Integer.valueOf( i ) );
+			}
+			btree.bulkLoad( map.entrySet( ).iterator( ) );
+			checkBTree( btree, map );
+			btree.close( );
+
+			btree = new BTree<Integer, Integer>( option );
+			checkBTree( btree, map );
+			assertTrue( !btree.exist( Integer.valueOf( 1 ) ) );
+
+			// the loaded tree can still be updated
+			btree.insert( Integer.valueOf( 1 ), Integer.valueOf( 1 ) );
+			btree.insert( Integer.valueOf( 400001 ), Integer.valueOf( 2 ) );
+			map.put( Integer.valueOf( 1 ), Integer.valueOf( 1 ) );
+			map.put( Integer.valueOf( 400001 ), Integer.valueOf( 2 ) );
+			checkBTree( btree, map );
+			btree.close( );
+		}
+		finally
+		{
+			file.close( );
+		}
+	}
+
+	public void testBulkLoadInMemory( ) throws Exception
+	{
+		BTree<Integer, Integer> btree = new BTree<Integer, Integer>(
+				createOption( ) );
+		TreeMap<Integer, Integer> map = new TreeMap<Integer, Integer>( );
+		btree.bulkLoad( map.entrySet( ).iterator( ) );
+		assertEquals( 0, btree.getTotalKeys( ) );
+		assertTrue( !btree.createCursor( ).first( ) );
+
+		btree = new BTree<Integer, Integer>( createOption( ) );
+		for ( int i = 0; i < 10000; i++ )
+		{
+			map.put( Integer.valueOf( i ), Integer.valueOf( -i ) );
+		}
+		btree.bulkLoad( map.entrySet( ).iterator( ) );
+		checkBTree( btree, map );
+		btree.close( );
+	}
+
+	public void testBulkLoadDuplicate( ) throws Exception
+	{
+		BTreeOption<String, Integer> option = new BTreeOption<String, Integer>( );
+		option.setHasValue( true );
+		option.setAllowDuplicate( true );
+		BTree<String, Integer> btree = new BTree<String, Integer>( option );
+
+		ArrayList<String> keys = new ArrayList<String>( createSampleInput( ) );
+		Collections.sort( keys );
+		ArrayList<Map.Entry<String, Integer>> entries = new ArrayList<Map.Entry<String, Integer>>( );
+		TreeMap<String, ArrayList<Integer>> map = new TreeMap<String, ArrayList<Integer>>( );
+		for ( int i = 0; i < keys.size( ); i++ )
+		{
+			String key = keys.get( i );
+			Integer value = Integer.valueOf( i );
+			entries.add( new Entry<String, Integer>( key, value ) );
+			ArrayList<Integer> values = map.get( key );
+			if ( values == null )
+			{
+				values = new ArrayList<Integer>( );
+				map.put( key, values );
+			}
+			values.add( value );
+		}
+		btree.bulkLoad( entries.iterator( ) );
+
+		assertEquals( map.size( ), btree.getTotalKeys( ) );
+		assertEquals( keys.size( ), btree.getTotalValues( ) );
+		for ( Map.Entry<String, ArrayList<Integer>> entry : map.entrySet( ) )
+		{
+			Collection<Integer> values = btree.getValues( entry.getKey( ) );
+			assertEquals( entry.getValue( ).size( ), values.size( ) );
+			assertTrue( values.containsAll( entry.getValue( ) ) );
+		}
+		btree.close( );
+	}
+
+	public void testUnsortedKeys( ) throws Exception
+	{
+		BTree<Integer, Integer> btree = new BTree<Integer, Integer>(
+				createOption( ) );
+		ArrayList<Map.Entry<Integer, Integer>> entries = new ArrayList<Map.Entry<Integer, Integer>>( );
+		entries.add( new Entry<Integer, Integer>( 2, 2 ) );
+		entries.add( new Entry<Integer, Integer>( 1, 1 ) );
+		try
+		{
+			btree.bulkLoad( entries.iterator( ) );
+			fail( );
+		}
+		catch ( IOException ex )
+		{
+		}
+		btree.close( );
+	}
+
+	public void testNonEmptyTree( ) throws Exception
+	{
+		BTree<Integer, Integer> btree = new BTree<Integer, Integer>(
+				createOption( ) );
+		btree.insert( Integer.valueOf( 1 ), Integer.valueOf( 1 ) );
+		TreeMap<Integer, Integer> map = new TreeMap<Integer, Integer>( );
+		map.put( Integer.valueOf( 2 ), Integer.valueOf( 2 ) );
+		try
+		{
+			btree.bulkLoad( map.entrySet( ).iterator( ) );
+			fail( );
+		}
+		catch ( IOException ex )
+		{
+		}
+		btree.close( );
+	}
+
+	private BTreeOption<Integer, Integer> createOption( )
+	{
+		BTreeOption<Integer, Integer> option = new BTreeOption<Integer, Integer>( );
+		option.setHasValue( true );
+		option.setKeySize( 4 );
+		option.setKeySerializer( new IntegerSerializer( ) );
+		option.setValueSize( 4 );
+		option.setValueSerializer( new IntegerSerializer( ) );
+		return option;
+	}
+
+	private void checkBTree( BTree<Integer, Integer> btree,
+			TreeMap<Integer, Integer> map ) throws IOException
+	{
+		assertEquals( map.size( ), btree.getTotalKeys( ) );
+		assertEquals( map.size( ), btree.getTotalValues( ) );
+		for ( Map.Entry<Integer, Integer> entry : map.entrySet( ) )
+		{
+			assertEquals( entry.getValue( ), btree.getValue( entry.getKey( ) ) );
+		}
+		// the cursor should visit all the keys in order
+		BTreeCursor<Integer, Integer> cursor = btree.createCursor( );
+		try
+		{
+			Iterator<Integer> iter = map.keySet( ).iterator( );
+			while ( cursor.next( ) )
+			{
+				assertEquals( iter.next( ), cursor.getKey( ) );
+			}
+			assertTrue( !iter.hasNext( ) );
+			iter = map.descendingKeySet( ).iterator( );
+			cursor.afterLast( );
+			while ( cursor.previous( ) )
+			{
+				assertEquals( iter.next( ), cursor.getKey( ) );
+			}
+			assertTrue( !iter.hasNext( ) );
+		}
+		finally
+		{
+			cursor.close( );
+		}
+	}
+
+	private static class Entry<K, V> implements Map.Entry<K, V>
+	{
+
+		private final K key;
+		private final V value;
+
+		Entry( K key, V value )
+		{
+			this.key = key;
+			this.value = value;
+		}
+
+		public K getKey( )
+		{
+			return key;
+		}
+
+		public V getValue( )
+		{
+			return value;
+		}
+
+		public V setValue( V value )
+		{
+			throw new UnsupportedOperationException( );
+		}
+	}
+}
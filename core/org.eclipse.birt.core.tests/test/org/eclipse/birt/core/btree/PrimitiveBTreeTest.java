@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Random;
+
+public class PrimitiveBTreeTest extends BTreeTestCase
+{
+
+	public void testIntegerBTree( ) throws Exception
+	{
+		new File( "./utest/btree.dat" ).delete( );
+		FileBTreeFile file = new FileBTreeFile( "./utest/btree.dat" );
+		try
+		{
+			BTreeOption<Integer, Integer> option = new BTreeOption<Integer, Integer>( );
+			option.setHasValue( true );
+			option.setValueSize( 4 );
+			option.setValueSerializer( new IntegerBTree.IntegerSerializer( ) );
+			option.setFile( file, true );
+			IntegerBTree<Integer> btree = new IntegerBTree<Integer>( option );
+			// insert the negative and positive keys in random order
+			Random random = new Random( 0 );
+			int[] keys = new int[20000];
+			for ( int i = 0; i < keys.length; i++ )
+			{
+				keys[i] = i - keys.length / 2;
+			}
+			for ( int i = keys.length - 1; i > 0; i-- )
+			{
+				int j = random.nextInt( i + 1 );
+				int key = keys[i];
+				keys[i] = keys[j];
+				keys[j] = key;
+			}
+			for ( int key : keys )
+			{
+				btree.insert( key, Integer.valueOf( key * 3 ) );
+			}
+			btree.insert( Integer.MIN_VALUE, Integer.valueOf( 1 ) );
+			btree.insert( Integer.MAX_VALUE, Integer.valueOf( 2 ) );
+			btree.close( );
+
+			btree = new IntegerBTree<Integer>( option );
+			assertEquals( keys.length + 2, btree.getTotalKeys( ) );
+			for ( int key : keys )
+			{
+				assertTrue( btree.exist( key ) );
+				assertEquals( Integer.valueOf( key * 3 ), btree.getValue( key ) );
+			}
+			assertEquals( Integer.valueOf( 1 ),
+					btree.getValue( Integer.MIN_VALUE ) );
+			assertEquals( Integer.valueOf( 2 ),
+					btree.getValue( Integer.MAX_VALUE ) );
+			assertTrue( !btree.exist( keys.length ) );
+			assertNull( btree.getValue( -keys.length ) );
+
+			// the cursor returns the keys in numeric order
+			BTreeCursor<Integer, Integer> cursor = btree.createCursor( );
+			assertTrue( cursor.first( ) );
+			assertEquals( Integer.valueOf( Integer.MIN_VALUE ), cursor.getKey( ) );
+			int lastKey = cursor.getKey( ).intValue( );
+			while ( cursor.next( ) )
+			{
+				int key = cursor.getKey( ).intValue( );
+				assertTrue( key > lastKey );
+				lastKey = key;
+			}
+			assertEquals( Integer.MAX_VALUE, lastKey );
+			cursor.close( );
+			btree.close( );
+		}
+		finally
+		{
+			file.close( );
+		}
+	}
+
+	public void testLongBTree( ) throws Exception
+	{
+		BTreeOption<Long, Long> option = new BTreeOption<Long, Long>( );
+		option.setHasValue( true );
+		option.setAllowDuplicate( true );
+		option.setValueSize( 8 );
+		option.setValueSerializer( new LongBTree.LongSerializer( ) );
+		LongBTree<Long> btree = new LongBTree<Long>( option );
+		long base = 1L << 40;
+		for ( int i = 0; i < 10000; i++ )
+		{
+			long key = base - ( i % 1000 ) * 4096L;
+			btree.insert( key, Long.valueOf( i ) );
+		}
+		assertEquals( 1000, btree.getTotalKeys( ) );
+		assertEquals( 10000, btree.getTotalValues( ) );
+		for ( int i = 0; i < 1000; i++ )
+		{
+			Collection<Long> values = btree.getValues( base - i * 4096L );
+			assertEquals( 10, values.size( ) );
+			assertTrue( values.contains( Long.valueOf( i ) ) );
+		}
+		assertTrue( !btree.exist( base + 1 ) );
+		assertTrue( btree.exist( Long.valueOf( base ) ) );
+		btree.close( );
+	}
+
+	public void testBytesToLong( )
+	{
+		long[] values = new long[]{0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE,
+				0x80000000L, 0xFFFFFFFFL, -0x80000001L};
+		byte[] bytes = new byte[8];
+		for ( long value : values )
+		{
+			BTreeUtils.longToBytes( value, bytes );
+			assertEquals( value, BTreeUtils.bytesToLong( bytes ) );
+		}
+	}
+}
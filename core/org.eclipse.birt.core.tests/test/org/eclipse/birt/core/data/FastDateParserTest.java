@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.data;
+
+import java.util.Date;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.ULocale;
+
+public class FastDateParserTest extends TestCase
+{
+
+	private static final TimeZone[] TIME_ZONES = new TimeZone[]{
+			null,
+			TimeZone.getTimeZone( "GMT" ),
+			TimeZone.getTimeZone( "America/New_York" ),
+			TimeZone.getTimeZone( "Asia/Kolkata" )
+	};
+
+	public void testParse( ) throws Exception
+	{
+		String[] sources = new String[]{
+				"2008",
+				"2008-02",
+				"2008-2-29",
+				"2008-02-29 23:59",
+				"2008-02-29T23:59:59",
+				"2008-02-29 23:59:59.5",
+				"2008-02-29 23:59:59.05",
+				"2008-02-29 23:59:59.123456",
+				"2008-02-29 1:2:3.4",
+				"2008-02-29T12:00:00Z",
+				"2008-02-29 12:00:00.123z",
+				"2008-02-29 12:00:00 Z",
+				"2020-03-08 02:30",
+				"2020-11-01 01:30"
+		};
+		for ( int i = 0; i < sources.length; i++ )
+		{
+			for ( int j = 0; j < TIME_ZONES.length; j++ )
+			{
+				assertNotNull( sources[i], FastDateParser.parse( sources[i],
+						TIME_ZONES[j] ) );
+				assertParse( sources[i], TIME_ZONES[j] );
+			}
+		}
+	}
+
+	public void testNotSupported( ) throws Exception
+	{
+		String[] sources = new String[]{
+				"",
+				"20",
+				"1000-01-01",
+				"12345-01-01",
+				"2008-13-01",
+				"2009-02-29",
+				"2008-01-32",
+				"2008-01-01 24:00",
+				"2008-01-01 10:60",
+				"2008-01-01 10:00:60",
+				"2008-01-01 10",
+				"2008-01-01 10:00.5",
+				"2008-01-01 1:00:00.1234",
+				"2008-01-01 10:00:00.1234Z",
+				"2008-01-01  10:00",
+				"2008-01-01 10:00:00x",
+				"2008-01-01 10:00:00+08:00",
+				"2008-01-01 10:00:00 GMT",
+				"10:00:00.000",
+				"01/31/2008"
+		};
+		for ( int i = 0; i < sources.length; i++ )
+		{
+			assertNull( sources[i], FastDateParser.parse( sources[i], null ) );
+		}
+	}
+
+	public void testRandom( ) throws Exception
+	{
+		Random random = new Random( 0 );
+		StringBuffer buffer = new StringBuffer( );
+		for ( int i = 0; i < 5000; i++ )
+		{
+			buffer.setLength( 0 );
+			appendNumber( buffer, 1500 + random.nextInt( 700 ), 4 );
+			int fields = random.nextInt( 7 );
+			if ( fields > 0 )
+			{
+				buffer.append( '-' );
+				appendNumber( buffer, random.nextInt( 14 ), random.nextInt( 3 ) );
+			}
+			if ( fields > 1 )
+			{
+				buffer.append( '-' );
+				appendNumber( buffer, random.nextInt( 33 ), random.nextInt( 3 ) );
+			}
+			if ( fields > 2 )
+			{
+				buffer.append( random.nextBoolean( ) ? ' ' : 'T' );
+				appendNumber( buffer, random.nextInt( 25 ), random.nextInt( 3 ) );
+				buffer.append( ':' );
+				appendNumber( buffer, random.nextInt( 61 ), random.nextInt( 3 ) );
+			}
+			if ( fields > 3 )
+			{
+				buffer.append( ':' );
+				appendNumber( buffer, random.nextInt( 61 ), random.nextInt( 3 ) );
+			}
+			if ( fields > 4 )
+			{
+				buffer.append( '.' );
+				int digits = 1 + random.nextInt( 6 );
+				for ( int j = 0; j < digits; j++ )
+				{
+					buffer.append( (char) ( '0' + random.nextInt( 10 ) ) );
+				}
+			}
+			if ( random.nextInt( 4 ) == 0 )
+			{
+				buffer.append( random.nextBoolean( ) ? "Z" : " z" );
+			}
+			assertParse( buffer.toString( ),
+					TIME_ZONES[random.nextInt( TIME_ZONES.length )] );
+		}
+	}
+
+	public void testToDate( ) throws Exception
+	{
+		TimeZone timeZone = TimeZone.getTimeZone( "GMT" );
+		assertEquals( DateFormatISO8601.parsePattern( "2008-01-31 12:30:00",
+				timeZone ), DataTypeUtil.toDate( "2008-01-31T12:30:00",
+				timeZone ) );
+		assertEquals( DateFormatISO8601.parsePattern( "2008-01-31 12:30:00",
+				null ), DataTypeUtil.toDate( " 2008-01-31 12:30:00 " ) );
+		assertNull( DataTypeUtil.toDate( " " ) );
+		assertNull( DataTypeUtil.toDate( " ", timeZone ) );
+
+		// the locale styles are tried without the exceptions
+		assertEquals( DataTypeUtil.toDate( "January 31, 2008", ULocale.US ),
+				DataTypeUtil.toDate( "January 31, 2008" ) );
+		assertEquals( DataTypeUtil.toDate( "1/31/08 12:30 PM", ULocale.US ),
+				DataTypeUtil.toDate( "1/31/08 12:30 PM" ) );
+		try
+		{
+			DataTypeUtil.toDate( "not a date", ULocale.US );
+			fail( );
+		}
+		catch ( Exception e )
+		{
+		}
+		try
+		{
+			DataTypeUtil.toDate( "2008-13-45" );
+			fail( );
+		}
+		catch ( Exception e )
+		{
+		}
+	}
+
+	/**
+	 * assert the fast parser returns the same date as the patterns.
+	 */
+	private void assertParse( String source, TimeZone timeZone )
+	{
+		Date date = FastDateParser.parse( source, timeZone );
+		if ( date != null )
+		{
+			assertEquals( source,
+					DateFormatISO8601.parsePattern( source, timeZone ),
+					date );
+		}
+		assertEquals( source,
+				DateFormatISO8601.parsePattern( source, timeZone ),
+				DateFormatISO8601.tryParse( source, timeZone ) );
+	}
+
+	private void appendNumber( StringBuffer buffer, int value, int width )
+	{
+		String text = String.valueOf( value );
+		for ( int i = text.length( ); i < width; i++ )
+		{
+			buffer.append( '0' );
+		}
+		buffer.append( text );
+	}
+}
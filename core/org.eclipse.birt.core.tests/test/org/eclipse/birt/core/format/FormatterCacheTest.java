@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Date;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import com.ibm.icu.text.SimpleDateFormat;
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.ULocale;
+
+public class FormatterCacheTest extends TestCase
+{
+
+	private static final ULocale[] LOCALES = new ULocale[]{
+			ULocale.US, ULocale.GERMANY, ULocale.FRANCE, new ULocale( "de_CH" )
+	};
+
+	public void testCache( ) throws Exception
+	{
+		final FormatterCache cache = new FormatterCache( 2 );
+		NumberFormatter fmt = cache.getNumberFormatter( "#,##0.00", ULocale.US );
+		assertSame( fmt, cache.getNumberFormatter( "#,##0.00", ULocale.US ) );
+		assertNotSame( fmt, cache.getNumberFormatter( "#,##0.00",
+				ULocale.GERMANY ) );
+		assertEquals( 2, cache.size( ) );
+
+		TimeZone gmt = TimeZone.getTimeZone( "GMT" );
+		DateFormatter df = cache.getDateFormatter( "yyyy-MM-dd", ULocale.US, gmt );
+		assertSame( df, cache.getDateFormatter( "yyyy-MM-dd", ULocale.US, gmt ) );
+		assertNotSame( df, cache.getDateFormatter( "yyyy-MM-dd",
+				ULocale.US,
+				TimeZone.getTimeZone( "PST" ) ) );
+		// the least recently used formatters are released
+		assertEquals( 2, cache.size( ) );
+		assertNotSame( fmt, cache.getNumberFormatter( "#,##0.00", ULocale.US ) );
+
+		// each thread has its own formatters
+		final StringFormatter sf = cache.getStringFormatter( ">", null );
+		assertSame( sf, cache.getStringFormatter( ">", ULocale.getDefault( ) ) );
+		final Object[] other = new Object[1];
+		Thread thread = new Thread( ) {
+
+			public void run( )
+			{
+				other[0] = cache.getStringFormatter( ">", null );
+			}
+		};
+		thread.start( );
+		thread.join( );
+		assertNotNull( other[0] );
+		assertNotSame( sf, other[0] );
+
+		cache.clear( );
+		assertEquals( 0, cache.size( ) );
+	}
+
+	public void testNumberFormat( )
+	{
+		String[] patterns = new String[]{
+				"#,##0.00", "0.###", "#,##0", "0", "0.0", "#,##0.0#", "0.000000"
+		};
+		Random random = new Random( 0 );
+		for ( int i = 0; i < patterns.length; i++ )
+		{
+			for ( int j = 0; j < LOCALES.length; j++ )
+			{
+				NumberFormatter fmt = new NumberFormatter( patterns[i],
+						LOCALES[j] );
+				DecimalFormat expected = new DecimalFormat( patterns[i],
+						new DecimalFormatSymbols( LOCALES[j].toLocale( ) ) );
+				assertNotNull( FastNumberFormat.create( expected ) );
+				double[] values = new double[]{
+						0,
+						0.5,
+						1.5,
+						2.5,
+						-2.5,
+						0.125,
+						1.005,
+						-0.0001,
+						999.995,
+						123456789.987654321,
+						-1234567.5,
+						1e15,
+						1e20,
+						Double.MIN_VALUE,
+						Double.MAX_VALUE
+				};
+				for ( int k = 0; k < values.length; k++ )
+				{
+					assertEquals( expected.format( values[k] ),
+							fmt.format( values[k] ) );
+				}
+				for ( int k = 0; k < 2000; k++ )
+				{
+					double value = ( random.nextDouble( ) - 0.5 )
+							* Math.pow( 10, random.nextInt( 12 ) );
+					if ( k % 2 == 0 )
+					{
+						// the values near the half of the last digit
+						value = Math.round( value * 1000 ) / 1000.0 + 0.0005;
+					}
+					assertEquals( expected.format( value ), fmt.format( value ) );
+					long longValue = random.nextLong( ) >> random.nextInt( 64 );
+					assertEquals( expected.format( longValue ),
+							fmt.format( longValue ) );
+					assertEquals( expected.format( longValue ),
+							fmt.format( Long.valueOf( longValue ) ) );
+				}
+				assertEquals( expected.format( Long.MIN_VALUE ),
+						fmt.format( Long.MIN_VALUE ) );
+			}
+		}
+	}
+
+	public void testNumberFormatNotSupported( )
+	{
+		String[] patterns = new String[]{
+				"0.00%", "0.00E00", "¤#,##0.00", "#,##0.00;(#,##0.00)"
+		};
+		for ( int i = 0; i < patterns.length; i++ )
+		{
+			DecimalFormat format = new DecimalFormat( patterns[i],
+					new DecimalFormatSymbols( ULocale.US.toLocale( ) ) );
+			assertNull( patterns[i], FastNumberFormat.create( format ) );
+			assertEquals( format.format( -1234.5678 ), new NumberFormatter( patterns[i],
+					ULocale.US ).format( -1234.5678 ) );
+		}
+	}
+
+	public void testDateFormat( )
+	{
+		String[] patterns = new String[]{
+				"yyyy-MM-dd",
+				"yyyy-MM-dd HH:mm:ss",
+				"yyyy-MM-dd'T'HH:mm:ss.SSS",
+				"dd.MM.yyyy HH:mm",
+				"'Date: 'MM/dd/yyyy"
+		};
+		TimeZone[] timeZones = new TimeZone[]{
+				TimeZone.getTimeZone( "GMT" ),
+				TimeZone.getTimeZone( "America/Los_Angeles" ),
+				TimeZone.getTimeZone( "Asia/Kolkata" )
+		};
+		Random random = new Random( 0 );
+		for ( int i = 0; i < patterns.length; i++ )
+		{
+			for ( int j = 0; j < timeZones.length; j++ )
+			{
+				DateFormatter fmt = new DateFormatter( patterns[i],
+						ULocale.US,
+						timeZones[j] );
+				SimpleDateFormat expected = new SimpleDateFormat( patterns[i],
+						ULocale.US );
+				expected.setTimeZone( timeZones[j] );
+				assertNotNull( FastDateFormat.create( expected, ULocale.US ) );
+				for ( int k = 0; k < 1000; k++ )
+				{
+					Date date = new Date( random.nextLong( ) % 400000000000000L );
+					assertEquals( expected.format( date ), fmt.format( date ) );
+				}
+			}
+		}
+	}
+
+	public void testDateFormatNotSupported( )
+	{
+		String[] patterns = new String[]{
+				"yy-MM-dd", "MMM d, yyyy", "yyyy-MM-dd hh:mm a", "HH 'o''clock'"
+		};
+		Date date = new Date( );
+		for ( int i = 0; i < patterns.length; i++ )
+		{
+			SimpleDateFormat format = new SimpleDateFormat( patterns[i],
+					ULocale.US );
+			assertNull( patterns[i], FastDateFormat.create( format, ULocale.US ) );
+			assertEquals( format.format( date ), new DateFormatter( patterns[i],
+					ULocale.US ).format( date ) );
+		}
+		SimpleDateFormat format = new SimpleDateFormat( "yyyy-MM-dd",
+				new ULocale( "th_TH@calendar=buddhist" ) );
+		assertNull( FastDateFormat.create( format, ULocale.US ) );
+	}
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.framework.jar;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.framework.PlatformConfig;
+import org.eclipse.core.runtime.IConfigurationElement;
+
+public class BundleIndexTest extends TestCase
+{
+
+	private static final String MANIFEST = "Manifest-Version: 1.0\n"
+			+ "Bundle-SymbolicName: test.bundle;singleton:=true\n"
+			+ "Bundle-Version: 1.0.0\n";
+
+	private static final String PLUGIN = "<?xml version=\"1.0\"?>\n"
+			+ "<plugin>\n"
+			+ "<extension-point id=\"service\" name=\"Service\" schema=\"schema/service.exsd\"/>\n"
+			+ "<extension id=\"impl\" name=\"%label\" point=\"test.bundle.service\">\n"
+			+ "  <service class=\"%className\" priority=\"{0}\">\n"
+			+ "    <property name=\"key\" value=\"value\"/>\n"
+			+ "  </service>\n"
+			+ "</extension>\n"
+			+ "</plugin>\n";
+
+	private static final String PROPERTIES = "label=Test Service\nclassName=test.Service\n";
+
+	private File folder;
+	private PlatformConfig config;
+
+	protected void setUp( ) throws Exception
+	{
+		folder = new File( System.getProperty( "java.io.tmpdir" ),
+				"BundleIndexTest" );
+		removeFile( folder );
+		folder.mkdirs( );
+		config = new PlatformConfig( );
+		config.setProperty( PlatformConfig.BUNDLE_INDEX, new File( folder,
+				"bundles.idx" ).getPath( ) );
+	}
+
+	protected void tearDown( ) throws Exception
+	{
+		removeFile( folder );
+	}
+
+	public void testFolderBundle( ) throws Exception
+	{
+		File bundleFolder = new File( folder, "bundle" );
+		writeFile( new File( bundleFolder, BundleLoader.MANIFEST_ENTRY ),
+				MANIFEST );
+		writeFile( new File( bundleFolder, BundleLoader.PROPERTIES_ENTRY ),
+				PROPERTIES );
+		File pluginFile = new File( bundleFolder, BundleLoader.PLUGIN_ENTRY );
+		writeFile( pluginFile, PLUGIN.replace( "{0}", "1" ) );
+		URL root = bundleFolder.toURI( ).toURL( );
+
+		// the bundle is parsed and saved into the index
+		Bundle parsed = installBundle( root );
+		assertNull( parsed.getExtensions( )[0].configurationData );
+		assertTrue( new File( folder, "bundles.idx" ).exists( ) );
+
+		// the bundle is loaded from the index
+		Bundle indexed = installBundle( root );
+		assertNotNull( indexed.getExtensions( )[0].configurationData );
+		assertBundle( indexed, "1" );
+		assertNull( indexed.getExtensions( )[0].configurationData );
+
+		// the bundle is parsed again after it is changed
+		writeFile( pluginFile, PLUGIN.replace( "{0}", "20" ) );
+		Bundle changed = installBundle( root );
+		assertNull( changed.getExtensions( )[0].configurationData );
+		assertBundle( changed, "20" );
+		assertBundle( installBundle( root ), "20" );
+	}
+
+	public void testJarBundle( ) throws Exception
+	{
+		File jarFile = new File( folder, "bundle.jar" );
+		JarOutputStream out = new JarOutputStream( new FileOutputStream(
+				jarFile ) );
+		try
+		{
+			writeEntry( out, BundleLoader.MANIFEST_ENTRY, MANIFEST );
+			writeEntry( out, BundleLoader.PLUGIN_ENTRY, PLUGIN.replace( "{0}",
+					"1" ) );
+			writeEntry( out, BundleLoader.PROPERTIES_ENTRY, PROPERTIES );
+		}
+		finally
+		{
+			out.close( );
+		}
+		URL root = new URL( "jar:" + jarFile.toURI( ).toURL( ) + "!/" );
+		assertNotNull( BundleIndex.getFingerprint( root ) );
+
+		installBundle( root );
+		Bundle indexed = installBundle( root );
+		assertNotNull( indexed.getExtensions( )[0].configurationData );
+		assertBundle( indexed, "1" );
+	}
+
+	public void testNotBundle( ) throws Exception
+	{
+		File jarFolder = new File( folder, "library" );
+		writeFile( new File( jarFolder, BundleLoader.MANIFEST_ENTRY ),
+				"Manifest-Version: 1.0\n" );
+		URL root = jarFolder.toURI( ).toURL( );
+		ServicePlatform platform = new ServicePlatform( config );
+		platform.installBundle( root );
+		platform.saveBundleIndex( );
+		assertNull( new BundleIndex( new File( folder, "bundles.idx" ) ).loadBundle( platform,
+				root ) );
+	}
+
+	private Bundle installBundle( URL root ) throws Exception
+	{
+		ServicePlatform platform = new ServicePlatform( config );
+		platform.installBundle( root );
+		platform.saveBundleIndex( );
+		return (Bundle) platform.getBundle( "test.bundle" );
+	}
+
+	private void assertBundle( Bundle bundle, String priority )
+	{
+		assertEquals( "test.bundle", bundle.getSymbolicName( ) );
+		assertEquals( "1.0.0", bundle.getVersion( ) );
+
+		ExtensionPoint point = bundle.getExtensionPoints( )[0];
+		assertEquals( "test.bundle.service", point.getUniqueIdentifier( ) );
+		assertEquals( "schema/service.exsd", point.getSchemaReference( ) );
+
+		Extension extension = bundle.getExtensions( )[0];
+		assertEquals( "test.bundle.impl", extension.getUniqueIdentifier( ) );
+		assertEquals( "Test Service", extension.getLabel( ) );
+		assertEquals( "test.bundle.service",
+				extension.getExtensionPointUniqueIdentifier( ) );
+
+		IConfigurationElement[] configs = extension.getConfigurationElements( );
+		assertEquals( 1, configs.length );
+		assertEquals( "service", configs[0].getName( ) );
+		assertEquals( "test.Service", configs[0].getAttribute( "class" ) );
+		assertEquals( priority, configs[0].getAttribute( "priority" ) );
+		assertSame( extension, configs[0].getDeclaringExtension( ) );
+		IConfigurationElement[] children = configs[0].getChildren( "property" );
+		assertEquals( 1, children.length );
+		assertEquals( "value", children[0].getAttribute( "value" ) );
+		assertSame( configs[0], children[0].getParent( ) );
+	}
+
+	private void writeFile( File file, String content ) throws IOException
+	{
+		file.getParentFile( ).mkdirs( );
+		OutputStream out = new FileOutputStream( file );
+		try
+		{
+			out.write( content.getBytes( "UTF-8" ) );
+		}
+		finally
+		{
+			out.close( );
+		}
+	}
+
+	private void writeEntry( JarOutputStream out, String name, String content )
+			throws IOException
+	{
+		out.putNextEntry( new ZipEntry( name ) );
+		out.write( content.getBytes( "UTF-8" ) );
+		out.closeEntry( );
+	}
+
+	private void removeFile( File file )
+	{
+		File[] children = file.listFiles( );
+		if ( children != null )
+		{
+			for ( File child : children )
+			{
+				removeFile( child );
+			}
+		}
+		file.delete( );
+	}
+}
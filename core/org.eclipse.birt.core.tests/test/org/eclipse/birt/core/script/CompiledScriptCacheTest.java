@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.script;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+
+public class CompiledScriptCacheTest extends TestCase
+{
+
+	public void testCache( )
+	{
+		Context cx = Context.enter( );
+		try
+		{
+			CompiledScriptCache cache = new CompiledScriptCache( 4, 1 );
+			Script script = cx.compileString( "1 + 1", "test", 1, null );
+			assertNull( cache.get( "1 + 1", null ) );
+			cache.put( "1 + 1", null, script );
+			assertSame( script, cache.get( "1 + 1", null ) );
+			// the script is compiled in another security domain
+			assertNull( cache.get( "1 + 1", "domain" ) );
+			assertEquals( 1, cache.getHitCount( ) );
+			assertEquals( 2, cache.getMissCount( ) );
+
+			for ( int i = 0; i < 4; i++ )
+			{
+				cache.put( "script" + i, null, script );
+			}
+			assertEquals( 4, cache.size( ) );
+			assertEquals( 1, cache.getEvictionCount( ) );
+			// the least recently used one is evicted
+			assertNull( cache.get( "1 + 1", null ) );
+
+			cache.setMaxSize( 0 );
+			assertEquals( 0, cache.size( ) );
+			cache.put( "1 + 1", null, script );
+			assertEquals( 0, cache.size( ) );
+		}
+		finally
+		{
+			Context.exit( );
+		}
+	}
+
+	public void testMaxSize( )
+	{
+		Context cx = Context.enter( );
+		try
+		{
+			Script script = cx.compileString( "1 + 1", "test", 1, null );
+			int[] maxSizes = new int[]{1, 15, 17, 100};
+			for ( int i = 0; i < maxSizes.length; i++ )
+			{
+				CompiledScriptCache cache = new CompiledScriptCache( maxSizes[i],
+						16 );
+				for ( int j = 0; j < 1000; j++ )
+				{
+					cache.put( "script" + j, null, script );
+					assertTrue( cache.size( ) <= maxSizes[i] );
+				}
+				// the scripts fill all the segments
+				assertEquals( maxSizes[i], cache.size( ) );
+			}
+		}
+		finally
+		{
+			Context.exit( );
+		}
+	}
+
+	public void testEvaluateScript( ) throws Exception
+	{
+		CompiledScriptCache cache = JavascriptEvalUtil.getScriptCache( );
+		int maxSize = cache.getMaxSize( );
+		try
+		{
+			JavascriptEvalUtil.setScriptCacheSize( 1000 );
+			cache.resetStatistics( );
+			final AtomicInteger failures = new AtomicInteger( );
+			ArrayList<Thread> threads = new ArrayList<Thread>( );
+			for ( int i = 0; i < 8; i++ )
+			{
+				Thread thread = new Thread( ) {
+
+					public void run( )
+					{
+						Context cx = Context.enter( );
+						try
+						{
+							Scriptable scope = cx.initStandardObjects( );
+							for ( int j = 0; j < 500; j++ )
+							{
+								Object value = JavascriptEvalUtil
+										.evaluateScript( cx, scope, j + " * 2",
+												"test", 1 );
+								if ( ( (Number) value ).intValue( ) != j * 2 )
+								{
+									failures.incrementAndGet( );
+								}
+							}
+						}
+						catch ( Exception ex )
+						{
+							failures.incrementAndGet( );
+						}
+						finally
+						{
+							Context.exit( );
+						}
+					}
+				};
+				threads.add( thread );
+				thread.start( );
+			}
+			for ( Thread thread : threads )
+			{
+				thread.join( );
+			}
+			assertEquals( 0, failures.get( ) );
+			assertEquals( 8 * 500, cache.getHitCount( ) + cache.getMissCount( ) );
+			assertTrue( cache.getHitCount( ) >= 7 * 500 - 500 );
+			assertEquals( 0, cache.getEvictionCount( ) );
+		}
+		finally
+		{
+			JavascriptEvalUtil.setScriptCacheSize( maxSize );
+		}
+	}
+}
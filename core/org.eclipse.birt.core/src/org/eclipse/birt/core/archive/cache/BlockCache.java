@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.archive.cache;
+
+import java.io.File;
+
+import org.eclipse.birt.core.util.SegmentedLRUCache;
+
+/**
+ * A block cache shared by all the archives opened in read only mode.
+ * <p>
+ * The cached block is an immutable copy of the block data, so it can be read
+ * by multiple threads without any lock. The blocks are kept in a
+ * SegmentedLRUCache weighed by their lengths, so the readers of different
+ * blocks seldom contend with each other.
+ * <p>
+ * The block is identified by the file key and the block id. The file key
+ * should be changed once the file content is changed, so the stale blocks are
+ * never returned.
+ */
+public class BlockCache
+{
+
+	private final SegmentedLRUCache<BlockKey, byte[]> blocks;
+
+	/**
+	 * create a disabled cache with the default concurrency level.
+	 */
+	public BlockCache( )
+	{
+		this( 0, SegmentedLRUCache.DEFAULT_CONCURRENCY_LEVEL );
+	}
+
+	/**
+	 * create the cache.
+	 *
+	 * @param maxCacheSize
+	 *            the max size of cached data in bytes, 0 disables the cache.
+	 * @param concurrencyLevel
+	 *            the estimated count of threads accessing the cache, it is
+	 *            round to the power of 2.
+	 */
+	public BlockCache( long maxCacheSize, int concurrencyLevel )
+	{
+		blocks = new SegmentedLRUCache<BlockKey, byte[]>( maxCacheSize,
+				concurrencyLevel ) {
+
+			protected long sizeOf( byte[] data )
+			{
+				return data.length;
+			}
+		};
+	}
+
+	/**
+	 * set the max size of the cached data in bytes.
+	 *
+	 * @param maxCacheSize
+	 *            the cache size, 0 disables the cache and releases all the
+	 *            cached blocks.
+	 */
+	public void setMaxCacheSize( long maxCacheSize )
+	{
+		blocks.setMaxSize( maxCacheSize );
+	}
+
+	public long getMaxCacheSize( )
+	{
+		return blocks.getMaxSize( );
+	}
+
+	public boolean isEnabled( )
+	{
+		return blocks.getMaxSize( ) > 0;
+	}
+
+	/**
+	 * create the key for a file opened in read only mode.
+	 *
+	 * The key contains the file length and the last modified time, so a file
+	 * re-written after it was cached gets a new key.
+	 *
+	 * @param fileName
+	 *            the canonical file name.
+	 * @param length
+	 *            the file length.
+	 * @return the file key.
+	 */
+	public static Object getFileKey( String fileName, long length )
+	{
+		long lastModified = new File( fileName ).lastModified( );
+		return fileName + ':' + length + ':' + lastModified;
+	}
+
+	/**
+	 * get the cached block data.
+	 *
+	 * The returned data is shared by all the readers, it must not be changed.
+	 *
+	 * @param fileKey
+	 *            the key of the file.
+	 * @param blockId
+	 *            the block id.
+	 * @return the block data, null if the block is not cached.
+	 */
+	public byte[] getBlock( Object fileKey, int blockId )
+	{
+		return blocks.get( new BlockKey( fileKey, blockId ) );
+	}
+
+	/**
+	 * add the block data into the cache.
+	 *
+	 * The data must not be changed after it is added.
+	 *
+	 * @param fileKey
+	 *            the key of the file.
+	 * @param blockId
+	 *            the block id.
+	 * @param data
+	 *            the block data.
+	 */
+	public void putBlock( Object fileKey, int blockId, byte[] data )
+	{
+		blocks.put( new BlockKey( fileKey, blockId ), data );
+	}
+
+	/**
+	 * remove all the cached blocks.
+	 */
+	public void clear( )
+	{
+		blocks.clear( );
+	}
+
+	/**
+	 * @return the size of the cached data in bytes.
+	 */
+	public long getUsedCacheSize( )
+	{
+		return blocks.getUsedSize( );
+	}
+
+	public long getHitCount( )
+	{
+		return blocks.getHitCount( );
+	}
+
+	public long getMissCount( )
+	{
+		return blocks.getMissCount( );
+	}
+
+	public long getEvictionCount( )
+	{
+		return blocks.getEvictionCount( );
+	}
+
+	public void resetStatistics( )
+	{
+		blocks.resetStatistics( );
+	}
+
+	private static class BlockKey
+	{
+
+		final Object fileKey;
+		final int blockId;
+
+		BlockKey( Object fileKey, int blockId )
+		{
+			this.fileKey = fileKey;
+			this.blockId = blockId;
+		}
+
+		public int hashCode( )
+		{
+			return fileKey.hashCode( ) * 31 + blockId;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( this == obj )
+			{
+				return true;
+			}
+			if ( !( obj instanceof BlockKey ) )
+			{
+				return false;
+			}
+			BlockKey key = (BlockKey) obj;
+			return blockId == key.blockId && fileKey.equals( key.fileKey );
+		}
+	}
+}
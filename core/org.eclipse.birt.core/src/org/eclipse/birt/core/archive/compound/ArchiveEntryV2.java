@@ -93,6 +93,11 @@ class ArchiveEntryV2 extends ArchiveEntry implements ArchiveConstants
 			return 0;
 		}
 
+		if ( af.isDirectRead( ) )
+		{
+			return readDirect( pos, b, off, len );
+		}
+
 		// read first block
 		int blockId = (int) ( pos / BLOCK_SIZE );
 		int blockOff = (int) ( pos % BLOCK_SIZE );
@@ -127,6 +132,42 @@ class ArchiveEntryV2 extends ArchiveEntry implements ArchiveConstants
 		return readSize;
 	}
 
+	/**
+	 * read the data from the archive directly, the file cache is skipped as
+	 * the data is already in the memory.
+	 */
+	private int readDirect( long pos, byte[] b, int off, int len )
+			throws IOException
+	{
+		int readSize = 0;
+		while ( readSize < len )
+		{
+			int blockId = (int) ( pos / BLOCK_SIZE );
+			int blockOff = (int) ( pos % BLOCK_SIZE );
+			int size = BLOCK_SIZE - blockOff;
+			if ( size > len - readSize )
+			{
+				size = len - readSize;
+			}
+			int fileBlockId = index.getBlock( blockId );
+			if ( fileBlockId == -1 )
+			{
+				throw new IOException( CoreMessages.getFormattedString(
+						ResourceConstants.INVALID_INDEX,
+						new Object[]{blockId} ) );
+			}
+			int count = af.read( fileBlockId, blockOff, b, off + readSize,
+					size );
+			if ( count < size )
+			{
+				return readSize + count;
+			}
+			readSize += size;
+			pos += size;
+		}
+		return readSize;
+	}
+
 	public synchronized void write( long pos, byte[] b, int off, int len )
 			throws IOException
 	{
@@ -11,17 +11,29 @@
 
 package org.eclipse.birt.core.archive.compound;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.birt.core.archive.FolderArchiveFile;
+import org.eclipse.birt.core.archive.cache.BlockCache;
 import org.eclipse.birt.core.archive.cache.SystemCacheManager;
 import org.eclipse.birt.core.archive.compound.v3.Ext2FileSystem;
 import org.eclipse.birt.core.i18n.CoreMessages;
@@ -39,6 +51,23 @@ public class ArchiveFile implements IArchiveFile
 			1024 );
 	public static final boolean enableFileCache = true;
 	public static final int FILE_CACHE_SIZE = 1024;
+	/**
+	 * the block cache shared by all the archives opened in read only mode. It
+	 * is disabled by default.
+	 */
+	public static final BlockCache sharedBlockCache = new BlockCache( );
+	/**
+	 * the system property to compress the entries created by the archive. The
+	 * value is the prefixes of the entry names separated by ',', "/"
+	 * compresses all the entries.
+	 */
+	public static final String PROPERTY_COMPRESSED_ENTRIES = "org.eclipse.birt.core.archive.compound.COMPRESSED_ENTRIES";
+
+	/**
+	 * the entry which saves the names of the compressed entries, so only
+	 * they are uncompressed when they are opened.
+	 */
+	static final String COMPRESSED_ENTRIES_NAME = "/.compressed.entries";
 
 	static final long ARCHIVE_V2_TAG = ArchiveConstants.DOCUMENT_TAG;
 	static final long ARCHIVE_V3_TAG = Ext2FileSystem.EXT2_MAGIC_TAG;
@@ -55,6 +84,24 @@ public class ArchiveFile implements IArchiveFile
 
 	protected IArchiveFile af;
 
+	/**
+	 * the name prefixes of the entries to be compressed, null if no entry is
+	 * compressed.
+	 */
+	protected String[] compressedEntries;
+	protected int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	/**
+	 * the opened compressed entries, they must be flushed before the archive
+	 * is flushed.
+	 */
+	private final ArrayList<CompressedArchiveEntry> openedEntries = new ArrayList<CompressedArchiveEntry>( );
+	/**
+	 * the names of the entries which are compressed, saved in the
+	 * COMPRESSED_ENTRIES_NAME entry when the archive is flushed.
+	 */
+	private final HashSet<String> compressedEntryNames = new HashSet<String>( );
+	private boolean compressedEntryNamesDirty;
+
 	public ArchiveFile( String fileName, String mode ) throws IOException
 	{
 		// set blank string as the default system id of the archive file.
@@ -103,6 +150,70 @@ public class ArchiveFile implements IArchiveFile
 			f3.setSystemId( systemId );
 			this.af = f3;
 		}
+		if ( !"r".equals( mode ) && !"rwf".equals( mode ) )
+		{
+			String entries = getSystemProperty( PROPERTY_COMPRESSED_ENTRIES );
+			if ( entries != null && entries.trim( ).length( ) > 0 )
+			{
+				setCompressedEntries( entries.trim( ).split( "\\s*,\\s*" ) );
+			}
+		}
+		loadCompressedEntryNames( );
+	}
+
+	private static String getSystemProperty( final String name )
+	{
+		return AccessController.doPrivileged( new PrivilegedAction<String>( ) {
+
+			public String run( )
+			{
+				return System.getProperty( name );
+			}
+		} );
+	}
+
+	/**
+	 * compress the entries created later.
+	 * <p>
+	 * The compressed entry is divided into blocks and each block is
+	 * compressed separately, so it can still be read from any position. The
+	 * entry is uncompressed by the reader automatically.
+	 * 
+	 * @param namePrefixes
+	 *            the prefixes of the entry names to be compressed, "/"
+	 *            compresses all the entries, null disables the compression.
+	 */
+	public void setCompressedEntries( String[] namePrefixes )
+	{
+		this.compressedEntries = namePrefixes;
+	}
+
+	/**
+	 * set the compression level of the compressed entries.
+	 * 
+	 * @param level
+	 *            the level of the deflater, from 0 to 9.
+	 * @see Deflater#setLevel(int)
+	 */
+	public void setCompressionLevel( int level )
+	{
+		this.compressionLevel = level;
+	}
+
+	protected boolean isCompressedEntry( String name )
+	{
+		if ( compressedEntries == null || af instanceof FolderArchiveFile )
+		{
+			return false;
+		}
+		for ( String prefix : compressedEntries )
+		{
+			if ( name.startsWith( prefix ) )
+			{
+				return true;
+			}
+		}
+		return false;
 	}
 
 	protected void openArchiveForReading( ) throws IOException
@@ -228,6 +339,17 @@ public class ArchiveFile implements IArchiveFile
 	{
 		if ( isArchiveFileAvailable( af ) )
 		{
+			// close the compressed entries to write the buffered data
+			ArrayList<CompressedArchiveEntry> entries;
+			synchronized ( openedEntries )
+			{
+				entries = new ArrayList<CompressedArchiveEntry>( openedEntries );
+			}
+			for ( CompressedArchiveEntry entry : entries )
+			{
+				entry.close( );
+			}
+			saveCompressedEntryNames( );
 			af.close( );
 			af = null;
 			if ( tmpFileName != null )
@@ -277,22 +399,61 @@ public class ArchiveFile implements IArchiveFile
 		}
 	}
 
+	/**
+	 * set the size of the block cache shared by all the archives opened in
+	 * read only mode.
+	 * 
+	 * The archive opened after the setting uses the shared cache, so multiple
+	 * threads can read the same archive in parallel.
+	 * 
+	 * @param size
+	 *            the cache size in bytes, 0 disables the shared cache.
+	 */
+	static public void setSharedCacheSize( long size )
+	{
+		sharedBlockCache.setMaxCacheSize( size );
+		if ( size <= 0 )
+		{
+			sharedBlockCache.clear( );
+		}
+	}
+
+	static public BlockCache getSharedBlockCache( )
+	{
+		return sharedBlockCache;
+	}
+
 	public void saveAs( String fileName ) throws IOException
 	{
+		// the compressed entries are copied as they are, write the data
+		// buffered in the opened ones first
+		flushOpenedEntries( );
 		ArchiveFileV3 file = new ArchiveFileV3( fileName, "rw" );
 		try
 		{
 			file.setSystemId( systemId );
 			List<String> entries = listEntries( "/" );
+			List<String> compressedNames = new ArrayList<String>( );
 			for ( String name : entries )
 			{
 				ArchiveEntry tgt = file.createEntry( name );
 				try
 				{
-					ArchiveEntry src = openEntry( name );
+					ArchiveEntry src = af.openEntry( name );
 					try
 					{
-						copyEntry( src, tgt );
+						if ( isCompressed( name ) )
+						{
+							// copy the compressed blocks without the stale
+							// copies left by the flushes
+							CompressedArchiveEntry.openEntry( this, src,
+									compressionLevel ).copyTo( tgt );
+							compressedNames.add( name );
+						}
+						else
+						{
+							copyEntry( src, tgt );
+						}
 					}
 					finally
 					{
@@ -304,6 +465,10 @@ public class ArchiveFile implements IArchiveFile
 					tgt.close( );
 				}
 			}
+			if ( !compressedNames.isEmpty( ) )
+			{
+				writeCompressedEntryNames( file, compressedNames );
+			}
 		}
 		finally
 		{
@@ -321,6 +486,7 @@ public class ArchiveFile implements IArchiveFile
 	{
 		if ( isArchiveFileAvailable( af ) )
 		{
+			saveCompressedEntryNames( );
 			af.save( );
 			/*
 			 * if ( af instanceof ArchiveFileV2 ) { ( (ArchiveFileV2) af ).save(
@@ -348,10 +514,30 @@ public class ArchiveFile implements IArchiveFile
 		}
 	}
 
+	/**
+	 * the compressed entries buffer the data, write it into the underlying
+	 * entries.
+	 */
+	private void flushOpenedEntries( ) throws IOException
+	{
+		CompressedArchiveEntry[] entries;
+		synchronized ( openedEntries )
+		{
+			entries = openedEntries
+					.toArray( new CompressedArchiveEntry[openedEntries.size( )] );
+		}
+		for ( CompressedArchiveEntry entry : entries )
+		{
+			entry.flush( );
+		}
+	}
+
 	synchronized public void flush( ) throws IOException
 	{
 		if ( isArchiveFileAvailable( af ) )
 		{
+			flushOpenedEntries( );
+			saveCompressedEntryNames( );
 			af.flush( );
 		}
 		else
@@ -366,6 +552,7 @@ public class ArchiveFile implements IArchiveFile
 		if ( isArchiveFileAvailable( af ) )
 		{
 			af.refresh( );
+			loadCompressedEntryNames( );
 		}
 		else
 		{
@@ -388,7 +575,21 @@ public class ArchiveFile implements IArchiveFile
 	{
 		if ( isArchiveFileAvailable( af ) )
 		{
-			return af.openEntry( name );
+			ArchiveEntry entry = af.openEntry( name );
+			try
+			{
+				if ( isCompressed( name ) )
+				{
+					return addEntry( CompressedArchiveEntry.openEntry( this,
+							entry, compressionLevel ) );
+				}
+			}
+			catch ( IOException ex )
+			{
+				entry.close( );
+				throw ex;
+			}
+			return entry;
 		}
 		else
 		{
@@ -401,7 +602,13 @@ public class ArchiveFile implements IArchiveFile
 	{
 		if ( isArchiveFileAvailable( af ) )
 		{
-			return af.listEntries( namePattern );
+			List<String> entries = af.listEntries( namePattern );
+			if ( entries.contains( COMPRESSED_ENTRIES_NAME ) )
+			{
+				entries = new ArrayList<String>( entries );
+				entries.remove( COMPRESSED_ENTRIES_NAME );
+			}
+			return entries;
 		}
 		else
 		{
@@ -414,7 +621,23 @@ public class ArchiveFile implements IArchiveFile
 	{
 		if ( isArchiveFileAvailable( af ) )
 		{
-			return af.createEntry( name );
+			ArchiveEntry entry = af.createEntry( name );
+			boolean compressed = isCompressedEntry( name );
+			setCompressed( name, compressed );
+			if ( compressed )
+			{
+				try
+				{
+					return addEntry( CompressedArchiveEntry.createEntry( this,
+							entry, compressionLevel ) );
+				}
+				catch ( IOException ex )
+				{
+					entry.close( );
+					throw ex;
+				}
+			}
+			return entry;
 		}
 		else
 		{
@@ -423,10 +646,28 @@ public class ArchiveFile implements IArchiveFile
 		}
 	}
 
+	private ArchiveEntry addEntry( CompressedArchiveEntry entry )
+	{
+		synchronized ( openedEntries )
+		{
+			openedEntries.add( entry );
+		}
+		return entry;
+	}
+
+	void closeEntry( CompressedArchiveEntry entry )
+	{
+		synchronized ( openedEntries )
+		{
+			openedEntries.remove( entry );
+		}
+	}
+
 	synchronized public boolean removeEntry( String name ) throws IOException
 	{
 		if ( isArchiveFileAvailable( af ) )
 		{
+			setCompressed( name, false );
 			return af.removeEntry( name );
 		}
 		else
@@ -436,6 +677,127 @@ public class ArchiveFile implements IArchiveFile
 		}
 	}
 
+	/**
+	 * test if the entry is created as a compressed entry.
+	 */
+	boolean isCompressed( String name )
+	{
+		synchronized ( compressedEntryNames )
+		{
+			return compressedEntryNames.contains( name );
+		}
+	}
+
+	private void setCompressed( String name, boolean compressed )
+	{
+		synchronized ( compressedEntryNames )
+		{
+			boolean changed = compressed ? compressedEntryNames.add( name )
+					: compressedEntryNames.remove( name );
+			if ( changed )
+			{
+				compressedEntryNamesDirty = true;
+			}
+		}
+	}
+
+	/**
+	 * load the names of the compressed entries saved in the archive.
+	 */
+	private void loadCompressedEntryNames( ) throws IOException
+	{
+		if ( !isArchiveFileAvailable( af ) )
+		{
+			return;
+		}
+		synchronized ( compressedEntryNames )
+		{
+			if ( compressedEntryNamesDirty
+					|| !af.exists( COMPRESSED_ENTRIES_NAME ) )
+			{
+				return;
+			}
+			ArchiveEntry entry = af.openEntry( COMPRESSED_ENTRIES_NAME );
+			try
+			{
+				byte[] bytes = new byte[(int) entry.getLength( )];
+				int size = 0;
+				while ( size < bytes.length )
+				{
+					int read = entry.read( size, bytes, size, bytes.length
+							- size );
+					if ( read <= 0 )
+					{
+						throw new EOFException( );
+					}
+					size += read;
+				}
+				DataInputStream in = new DataInputStream(
+						new ByteArrayInputStream( bytes ) );
+				int count = IOUtil.readInt( in );
+				compressedEntryNames.clear( );
+				for ( int i = 0; i < count; i++ )
+				{
+					compressedEntryNames.add( IOUtil.readString( in ) );
+				}
+			}
+			finally
+			{
+				entry.close( );
+			}
+		}
+	}
+
+	/**
+	 * save the names of the compressed entries if they are changed.
+	 */
+	private void saveCompressedEntryNames( ) throws IOException
+	{
+		synchronized ( compressedEntryNames )
+		{
+			if ( !compressedEntryNamesDirty )
+			{
+				return;
+			}
+			if ( compressedEntryNames.isEmpty( ) )
+			{
+				if ( af.exists( COMPRESSED_ENTRIES_NAME ) )
+				{
+					af.removeEntry( COMPRESSED_ENTRIES_NAME );
+				}
+			}
+			else
+			{
+				writeCompressedEntryNames( af, compressedEntryNames );
+			}
+			compressedEntryNamesDirty = false;
+		}
+	}
+
+	private static void writeCompressedEntryNames( IArchiveFile file,
+			Collection<String> names ) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+		DataOutputStream out = new DataOutputStream( bytes );
+		IOUtil.writeInt( out, names.size( ) );
+		for ( String name : names )
+		{
+			IOUtil.writeString( out, name );
+		}
+		out.flush( );
+		byte[] b = bytes.toByteArray( );
+		ArchiveEntry entry = file.createEntry( COMPRESSED_ENTRIES_NAME );
+		try
+		{
+			entry.write( 0, b, 0, b.length );
+			entry.setLength( b.length );
+		}
+		finally
+		{
+			entry.close( );
+		}
+	}
+
 	public Object lockEntry( String name ) throws IOException
 	{
 		return af.lockEntry( name );
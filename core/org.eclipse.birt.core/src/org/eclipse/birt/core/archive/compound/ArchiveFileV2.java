@@ -15,12 +15,15 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import org.eclipse.birt.core.archive.cache.BlockCache;
 import org.eclipse.birt.core.archive.cache.CacheListener;
 import org.eclipse.birt.core.archive.cache.Cacheable;
 import org.eclipse.birt.core.archive.cache.FileCacheManager;
@@ -40,6 +43,18 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 	/** the physical file correspond to this compound file system */
 	protected RandomAccessFile rf;
 
+	/**
+	 * the memory mapped view of the file, only used in read only mode.
+	 */
+	protected volatile MappedFile mappedFile;
+
+	/**
+	 * the block cache shared with other archives, only used in read only
+	 * mode.
+	 */
+	protected volatile BlockCache sharedCache;
+	protected Object sharedCacheKey;
+
 	/**
 	 * if the file is closed.
 	 */
@@ -303,6 +318,10 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 				}
 			}
 
+			if ( !isWritable && MappedFile.isEnabled( ) )
+			{
+				mappedFile = new MappedFile( rf );
+			}
 			head = ArchiveHeader.read( rf );
 			if ( systemId == null )
 			{
@@ -315,6 +334,7 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 			BLOCK_SIZE = head.blockSize;
 			totalBlocks = (int) ( ( rf.length( ) + BLOCK_SIZE - 1 ) / BLOCK_SIZE );
 			totalDiskBlocks = totalBlocks;
+			setupSharedCache( );
 			allocTbl = AllocTable.loadTable( this );
 			entryTbl = NameTable.loadTable( this );
 			entries = new HashMap<String, NameEntry>( );
@@ -325,6 +345,12 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 		}
 		catch ( IOException ex )
 		{
+			sharedCache = null;
+			if ( mappedFile != null )
+			{
+				mappedFile.close( );
+				mappedFile = null;
+			}
 			if ( rf != null )
 			{
 				rf.close( );
@@ -334,6 +360,20 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 		}
 	}
 
+	/**
+	 * use the block cache shared by all read only archives if the file is not
+	 * mapped into the memory.
+	 */
+	private void setupSharedCache( ) throws IOException
+	{
+		BlockCache cache = ArchiveFile.sharedBlockCache;
+		if ( !isWritable && mappedFile == null && cache.isEnabled( ) )
+		{
+			sharedCacheKey = BlockCache.getFileKey( archiveName, rf.length( ) );
+			sharedCache = cache;
+		}
+	}
+
 	/**
 	 * create the document
 	 * 
@@ -403,6 +443,12 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 				flush( );
 			}
 		}
+		sharedCache = null;
+		if ( mappedFile != null )
+		{
+			mappedFile.close( );
+			mappedFile = null;
+		}
 		if ( rf != null )
 		{
 			rf.close( );
@@ -451,6 +497,17 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 		{
 			totalBlocks = (int) ( ( rf.length( ) + BLOCK_SIZE - 1 ) / BLOCK_SIZE );
 			totalDiskBlocks = totalBlocks;
+			if ( mappedFile != null )
+			{
+				// the file may be extended by the writer, map it again.
+				mappedFile.close( );
+				mappedFile = new MappedFile( rf );
+			}
+			if ( sharedCache != null )
+			{
+				// the file is changed, the cached blocks are out of date.
+				setupSharedCache( );
+			}
 			head.refresh( this );
 			allocTbl.refresh( );
 			entryTbl.refresh( );
@@ -615,8 +672,97 @@ public class ArchiveFileV2 implements IArchiveFile, ArchiveConstants
 	 *            read length
 	 * @throws IOException
 	 */
-	synchronized int read( int blockId, int blockOff, byte[] b, int off, int len )
+	int read( int blockId, int blockOff, byte[] b, int off, int len )
 			throws IOException
+	{
+		MappedFile mapped = mappedFile;
+		if ( mapped != null )
+		{
+			// the mapped file is read only, needn't synchronize the read
+			long pos = (long) blockId * BLOCK_SIZE + blockOff;
+			return mapped.read( pos, b, off, len );
+		}
+		BlockCache cache = sharedCache;
+		if ( cache != null )
+		{
+			return readSharedCache( cache, blockId, blockOff, b, off, len );
+		}
+		return readFile( blockId, blockOff, b, off, len );
+	}
+
+	/**
+	 * test if the data should be read directly from the archive file.
+	 * 
+	 * the data is read directly if the file is mapped or shared cache is
+	 * used, so the entry needn't lock the file cache for each read.
+	 * 
+	 * @return true if the file cache is not needed.
+	 */
+	boolean isDirectRead( )
+	{
+		return mappedFile != null || sharedCache != null;
+	}
+
+	private int readSharedCache( BlockCache cache, int blockId, int blockOff,
+			byte[] b, int off, int len ) throws IOException
+	{
+		int readSize = 0;
+		while ( readSize < len )
+		{
+			byte[] block = cache.getBlock( sharedCacheKey, blockId );
+			if ( block == null )
+			{
+				block = readBlock( blockId );
+				cache.putBlock( sharedCacheKey, blockId, block );
+			}
+			int size = block.length - blockOff;
+			if ( size <= 0 )
+			{
+				break;
+			}
+			if ( size > len - readSize )
+			{
+				size = len - readSize;
+			}
+			System.arraycopy( block, blockOff, b, off + readSize, size );
+			readSize += size;
+			blockOff = 0;
+			blockId++;
+		}
+		return readSize;
+	}
+
+	/**
+	 * read the whole block with the positional read, so it needn't
+	 * synchronize with other readers. The returned data is shorter than the
+	 * block size if the block is the last one.
+	 */
+	private byte[] readBlock( int blockId ) throws IOException
+	{
+		assertOpen( );
+		FileChannel channel = rf.getChannel( );
+		long pos = (long) blockId * BLOCK_SIZE;
+		long remainSize = channel.size( ) - pos;
+		if ( remainSize <= 0 )
+		{
+			return new byte[0];
+		}
+		byte[] block = new byte[remainSize < BLOCK_SIZE
+				? (int) remainSize
+				: BLOCK_SIZE];
+		ByteBuffer buffer = ByteBuffer.wrap( block );
+		while ( buffer.hasRemaining( ) )
+		{
+			if ( channel.read( buffer, pos + buffer.position( ) ) < 0 )
+			{
+				break;
+			}
+		}
+		return block;
+	}
+
+	private synchronized int readFile( int blockId, int blockOff, byte[] b,
+			int off, int len ) throws IOException
 	{
 		assertOpen( );
 		long pos = (long) blockId * BLOCK_SIZE + blockOff;
@@ -42,6 +42,10 @@ public class ArchiveFileV3 implements IArchiveFile
 
 	{
 		fs = new Ext2FileSystem( fileName, rf, mode );
+		if ( fs.isReadOnly( ) )
+		{
+			fs.setSharedCache( ArchiveFile.sharedBlockCache );
+		}
 		if ( ArchiveFile.enableFileCache && fs.isRemoveOnExit( ) )
 		{
 			fs.setCacheSize( ArchiveFile.FILE_CACHE_SIZE );
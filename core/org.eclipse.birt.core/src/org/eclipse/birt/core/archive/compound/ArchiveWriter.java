@@ -54,6 +54,23 @@ public class ArchiveWriter implements IDocArchiveWriter
 		return archive;
 	}
 
+	/**
+	 * compress the streams created later, the compressed streams still
+	 * support the random access.
+	 * 
+	 * @param namePrefixes
+	 *            the prefixes of the stream names to be compressed, "/"
+	 *            compresses all the streams, null disables the compression.
+	 * @see ArchiveFile#setCompressedEntries(String[])
+	 */
+	public void setCompressedStreams( String[] namePrefixes )
+	{
+		if ( archive instanceof ArchiveFile )
+		{
+			( (ArchiveFile) archive ).setCompressedEntries( namePrefixes );
+		}
+	}
+
 	public RAOutputStream createRandomAccessStream( String relativePath )
 			throws IOException
 	{
@@ -0,0 +1,611 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.archive.compound;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.eclipse.birt.core.archive.ArchiveUtil;
+import org.eclipse.birt.core.i18n.CoreMessages;
+import org.eclipse.birt.core.i18n.ResourceConstants;
+
+/**
+ * an archive entry whose data is compressed block by block.
+ * <p>
+ * The data is divided into blocks of fixed size, each block is compressed by
+ * the deflater and appended to the underlying entry. The position of each
+ * compressed block is saved in the block table, so reading any position of
+ * the entry only needs to decompress one block.
+ * <p>
+ * The layout of the underlying entry is:
+ *
+ * <pre>
+ * header: tag(long) version(int) block size(int) length(long) table position(long)
+ * blocks: the compressed blocks
+ * table:  block count(int) [block position(long) compressed size(int)]*
+ * </pre>
+ *
+ * The header and the table are updated when the entry is flushed, the data
+ * written after that is invisible to the readers. A block changed after the
+ * flush is compressed and appended again, the flushed copy is never
+ * overwritten so the readers of the flushed data are not affected.
+ * <p>
+ * The table is written in a region with room for more blocks, and rewritten
+ * in place by the later flushes until the blocks outgrow it, so the flushes
+ * do not leave the old tables behind. The stale copies of the blocks are
+ * dropped when the archive is saved as another file.
+ */
+class CompressedArchiveEntry extends ArchiveEntry
+{
+
+	/**
+	 * the tag of the compressed entry: "BIRTCENT"
+	 */
+	static final long COMPRESSED_ENTRY_TAG = 0x4249525443454E54L;
+	static final int VERSION_0 = 0;
+	static final int HEADER_SIZE = 32;
+	static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+	protected ArchiveFile archive;
+	protected ArchiveEntry entry;
+	protected int level;
+
+	protected int blockSize;
+	protected long length;
+	protected int blockCount;
+	protected long[] blockPositions;
+	protected int[] blockSizes;
+
+	/**
+	 * the end of the compressed data
+	 */
+	protected long dataEnd;
+	/**
+	 * the end of the data which has been flushed
+	 */
+	protected long flushedDataEnd;
+	protected boolean tableDirty;
+	/**
+	 * the position of the table, 0 if it is not written yet
+	 */
+	protected long tablePosition;
+	/**
+	 * the count of the blocks the region of the table has room for
+	 */
+	protected int tableCapacity;
+
+	protected byte[] buffer;
+	protected int bufferBlock;
+	protected boolean bufferDirty;
+	protected byte[] compressBuffer;
+
+	private Deflater deflater;
+	private Inflater inflater;
+
+	private CompressedArchiveEntry( ArchiveFile archive, ArchiveEntry entry,
+			int level )
+	{
+		super( entry.getName( ) );
+		this.archive = archive;
+		this.entry = entry;
+		this.level = level;
+		this.blockPositions = new long[16];
+		this.blockSizes = new int[16];
+		this.bufferBlock = -1;
+	}
+
+	/**
+	 * create an empty compressed entry.
+	 *
+	 * @param archive
+	 *            the archive which creates the entry.
+	 * @param entry
+	 *            the underlying entry, the existing data is removed.
+	 * @param level
+	 *            the compression level of the deflater.
+	 */
+	static CompressedArchiveEntry createEntry( ArchiveFile archive,
+			ArchiveEntry entry, int level ) throws IOException
+	{
+		CompressedArchiveEntry compressed = new CompressedArchiveEntry(
+				archive, entry, level );
+		compressed.blockSize = DEFAULT_BLOCK_SIZE;
+		compressed.dataEnd = HEADER_SIZE;
+		compressed.flushedDataEnd = HEADER_SIZE;
+		entry.setLength( 0 );
+		// write the header at once so the entry can be opened as a
+		// compressed entry before it is flushed.
+		writeHeader( entry, compressed.blockSize, 0, 0 );
+		return compressed;
+	}
+
+	/**
+	 * open an existing compressed entry.
+	 *
+	 * @param archive
+	 *            the archive which opens the entry.
+	 * @param entry
+	 *            the underlying entry, it must be a compressed entry.
+	 * @param level
+	 *            the compression level used to write the entry.
+	 */
+	static CompressedArchiveEntry openEntry( ArchiveFile archive,
+			ArchiveEntry entry, int level ) throws IOException
+	{
+		CompressedArchiveEntry compressed = new CompressedArchiveEntry(
+				archive, entry, level );
+		compressed.readTable( );
+		return compressed;
+	}
+
+	/**
+	 * test if the entry has the format of a compressed entry. The archive
+	 * does not use it to decide whether to uncompress an entry, as a plain
+	 * entry may start with the same tag, it records the names of the
+	 * compressed entries instead.
+	 *
+	 * @param entry
+	 *            the underlying entry.
+	 * @return true if the entry starts with the tag of the compressed entry.
+	 */
+	static boolean isCompressed( ArchiveEntry entry ) throws IOException
+	{
+		if ( entry.getLength( ) < HEADER_SIZE )
+		{
+			return false;
+		}
+		byte[] tag = new byte[8];
+		readFully( entry, 0, tag, 0, 8 );
+		return ArchiveUtil.bytesToLong( tag ) == COMPRESSED_ENTRY_TAG;
+	}
+
+	@Override
+	synchronized public long getLength( ) throws IOException
+	{
+		return length;
+	}
+
+	@Override
+	synchronized public void setLength( long newLength ) throws IOException
+	{
+		if ( newLength < length )
+		{
+			int count = (int) ( ( newLength + blockSize - 1 ) / blockSize );
+			if ( bufferBlock >= count )
+			{
+				bufferBlock = -1;
+				bufferDirty = false;
+			}
+			if ( blockCount > count )
+			{
+				blockCount = count;
+			}
+			int tailSize = (int) ( newLength % blockSize );
+			if ( tailSize != 0 )
+			{
+				// clear the truncated data, the entry may be extended later.
+				loadBlock( count - 1 );
+				Arrays.fill( buffer, tailSize, blockSize, (byte) 0 );
+				bufferDirty = true;
+			}
+		}
+		length = newLength;
+		tableDirty = true;
+	}
+
+	@Override
+	synchronized public int read( long pos, byte[] b, int off, int len )
+			throws IOException
+	{
+		if ( pos >= length )
+		{
+			return -1;
+		}
+		if ( pos + len > length )
+		{
+			len = (int) ( length - pos );
+		}
+		int readSize = 0;
+		while ( readSize < len )
+		{
+			int blockId = (int) ( pos / blockSize );
+			int blockOff = (int) ( pos % blockSize );
+			int size = blockSize - blockOff;
+			if ( size > len - readSize )
+			{
+				size = len - readSize;
+			}
+			loadBlock( blockId );
+			System.arraycopy( buffer, blockOff, b, off + readSize, size );
+			readSize += size;
+			pos += size;
+		}
+		return readSize;
+	}
+
+	@Override
+	synchronized public void write( long pos, byte[] b, int off, int len )
+			throws IOException
+	{
+		while ( len > 0 )
+		{
+			int blockId = (int) ( pos / blockSize );
+			int blockOff = (int) ( pos % blockSize );
+			int size = blockSize - blockOff;
+			if ( size > len )
+			{
+				size = len;
+			}
+			loadBlock( blockId );
+			System.arraycopy( b, off, buffer, blockOff, size );
+			bufferDirty = true;
+			pos += size;
+			off += size;
+			len -= size;
+			if ( pos > length )
+			{
+				length = pos;
+			}
+		}
+	}
+
+	@Override
+	synchronized public void flush( ) throws IOException
+	{
+		// flush the data buffered by the output stream
+		super.flush( );
+		if ( bufferDirty )
+		{
+			saveBlock( );
+		}
+		if ( tableDirty )
+		{
+			writeTable( );
+		}
+		entry.flush( );
+	}
+
+	@Override
+	synchronized public void refresh( ) throws IOException
+	{
+		entry.refresh( );
+		if ( !bufferDirty && !tableDirty )
+		{
+			bufferBlock = -1;
+			readTable( );
+		}
+	}
+
+	@Override
+	synchronized public void close( ) throws IOException
+	{
+		try
+		{
+			if ( bufferDirty )
+			{
+				saveBlock( );
+			}
+			if ( tableDirty )
+			{
+				writeTable( );
+			}
+		}
+		finally
+		{
+			if ( deflater != null )
+			{
+				deflater.end( );
+				deflater = null;
+			}
+			if ( inflater != null )
+			{
+				inflater.end( );
+				inflater = null;
+			}
+			archive.closeEntry( this );
+			entry.close( );
+		}
+	}
+
+	/**
+	 * load the block into the buffer, the dirty block in the buffer is saved
+	 * first.
+	 */
+	private void loadBlock( int blockId ) throws IOException
+	{
+		if ( bufferBlock == blockId )
+		{
+			return;
+		}
+		if ( bufferDirty )
+		{
+			saveBlock( );
+		}
+		if ( buffer == null )
+		{
+			buffer = new byte[blockSize];
+		}
+		bufferBlock = -1;
+		if ( blockId < blockCount && blockPositions[blockId] != -1 )
+		{
+			int size = blockSizes[blockId];
+			if ( compressBuffer == null || compressBuffer.length < size )
+			{
+				compressBuffer = new byte[size];
+			}
+			readFully( entry, blockPositions[blockId], compressBuffer, 0, size );
+			if ( inflater == null )
+			{
+				inflater = new Inflater( );
+			}
+			inflater.reset( );
+			inflater.setInput( compressBuffer, 0, size );
+			try
+			{
+				int dataSize = 0;
+				while ( dataSize < blockSize && !inflater.finished( ) )
+				{
+					int inflated = inflater.inflate( buffer, dataSize,
+							blockSize - dataSize );
+					if ( inflated == 0 && inflater.needsInput( ) )
+					{
+						break;
+					}
+					dataSize += inflated;
+				}
+				Arrays.fill( buffer, dataSize, blockSize, (byte) 0 );
+			}
+			catch ( DataFormatException ex )
+			{
+				IOException ioex = new IOException(
+						CoreMessages.getFormattedString(
+								ResourceConstants.CORRUPTED_BLOCK,
+								new Object[]{name, blockId} ) );
+				ioex.initCause( ex );
+				throw ioex;
+			}
+		}
+		else
+		{
+			Arrays.fill( buffer, (byte) 0 );
+		}
+		bufferBlock = blockId;
+	}
+
+	/**
+	 * compress the block in the buffer and append it to the underlying entry.
+	 */
+	private void saveBlock( ) throws IOException
+	{
+		int blockId = bufferBlock;
+		long blockStart = (long) blockId * blockSize;
+		int dataSize = (int) Math.min( blockSize, length - blockStart );
+		bufferDirty = false;
+		if ( dataSize <= 0 )
+		{
+			return;
+		}
+		if ( deflater == null )
+		{
+			deflater = new Deflater( level );
+		}
+		deflater.reset( );
+		deflater.setInput( buffer, 0, dataSize );
+		deflater.finish( );
+		if ( compressBuffer == null || compressBuffer.length < blockSize )
+		{
+			compressBuffer = new byte[blockSize];
+		}
+		int size = 0;
+		while ( !deflater.finished( ) )
+		{
+			if ( size == compressBuffer.length )
+			{
+				byte[] newBuffer = new byte[compressBuffer.length * 2];
+				System.arraycopy( compressBuffer, 0, newBuffer, 0, size );
+				compressBuffer = newBuffer;
+			}
+			size += deflater.deflate( compressBuffer, size,
+					compressBuffer.length - size );
+		}
+
+		ensureBlockCount( blockId + 1 );
+		long position = blockPositions[blockId];
+		if ( position >= flushedDataEnd
+				&& position + blockSizes[blockId] == dataEnd )
+		{
+			// the old copy is the last one and invisible to the readers, so
+			// it can be overwritten.
+			dataEnd = position;
+		}
+		entry.write( dataEnd, compressBuffer, 0, size );
+		blockPositions[blockId] = dataEnd;
+		blockSizes[blockId] = size;
+		dataEnd += size;
+		tableDirty = true;
+	}
+
+	private void ensureBlockCount( int count )
+	{
+		if ( count > blockPositions.length )
+		{
+			int capacity = Math.max( count, blockPositions.length * 2 );
+			long[] positions = new long[capacity];
+			int[] sizes = new int[capacity];
+			System.arraycopy( blockPositions, 0, positions, 0, blockCount );
+			System.arraycopy( blockSizes, 0, sizes, 0, blockCount );
+			blockPositions = positions;
+			blockSizes = sizes;
+		}
+		while ( blockCount < count )
+		{
+			blockPositions[blockCount] = -1;
+			blockSizes[blockCount] = 0;
+			blockCount++;
+		}
+	}
+
+	private void writeTable( ) throws IOException
+	{
+		// the blocks beyond the length have been truncated
+		int count = (int) Math.min( blockCount,
+				( length + blockSize - 1 ) / blockSize );
+		if ( tablePosition == 0 || count > tableCapacity )
+		{
+			// allocate a region with room for the blocks written later, the
+			// old region is left behind only when it is outgrown.
+			tableCapacity = Math.max( count * 2, 16 );
+			tablePosition = dataEnd;
+			byte[] region = new byte[4 + tableCapacity * 12];
+			entry.write( tablePosition, region, 0, region.length );
+			dataEnd = tablePosition + region.length;
+		}
+		byte[] table = createTable( blockPositions, blockSizes, count );
+		entry.write( tablePosition, table, 0, table.length );
+		writeHeader( entry, blockSize, length, tablePosition );
+		flushedDataEnd = dataEnd;
+		tableDirty = false;
+	}
+
+	private static byte[] createTable( long[] positions, int[] sizes,
+			int count )
+	{
+		byte[] table = new byte[4 + count * 12];
+		ArchiveUtil.integerToBytes( count, table, 0 );
+		for ( int i = 0; i < count; i++ )
+		{
+			ArchiveUtil.longToBytes( positions[i], table, 4 + i * 12 );
+			ArchiveUtil.integerToBytes( sizes[i], table, 12 + i * 12 );
+		}
+		return table;
+	}
+
+	/**
+	 * copy the flushed data to the target entry, with only the current copy
+	 * of each block and a single table.
+	 *
+	 * @param target
+	 *            the empty underlying entry to copy to.
+	 */
+	synchronized void copyTo( ArchiveEntry target ) throws IOException
+	{
+		int count = (int) Math.min( blockCount,
+				( length + blockSize - 1 ) / blockSize );
+		long[] positions = new long[count];
+		int[] sizes = new int[count];
+		long position = HEADER_SIZE;
+		byte[] b = new byte[blockSize];
+		for ( int i = 0; i < count; i++ )
+		{
+			if ( blockPositions[i] == -1 )
+			{
+				positions[i] = -1;
+				continue;
+			}
+			int size = blockSizes[i];
+			if ( b.length < size )
+			{
+				b = new byte[size];
+			}
+			readFully( entry, blockPositions[i], b, 0, size );
+			target.write( position, b, 0, size );
+			positions[i] = position;
+			sizes[i] = size;
+			position += size;
+		}
+		byte[] table = createTable( positions, sizes, count );
+		target.write( position, table, 0, table.length );
+		writeHeader( target, blockSize, length, position );
+	}
+
+	private static void writeHeader( ArchiveEntry entry, int blockSize,
+			long length, long tablePosition ) throws IOException
+	{
+		byte[] header = new byte[HEADER_SIZE];
+		ArchiveUtil.longToBytes( COMPRESSED_ENTRY_TAG, header, 0 );
+		ArchiveUtil.integerToBytes( VERSION_0, header, 8 );
+		ArchiveUtil.integerToBytes( blockSize, header, 12 );
+		ArchiveUtil.longToBytes( length, header, 16 );
+		ArchiveUtil.longToBytes( tablePosition, header, 24 );
+		entry.write( 0, header, 0, HEADER_SIZE );
+	}
+
+	private void readTable( ) throws IOException
+	{
+		byte[] header = new byte[HEADER_SIZE];
+		readFully( entry, 0, header, 0, HEADER_SIZE );
+		long tag = ArchiveUtil.bytesToLong( header, 0 );
+		if ( tag != COMPRESSED_ENTRY_TAG )
+		{
+			throw new IOException( CoreMessages.getFormattedString(
+					ResourceConstants.INVALID_MAGIC_TAG, new Object[]{tag} ) );
+		}
+		int version = ArchiveUtil.bytesToInteger( header, 8 );
+		if ( version != VERSION_0 )
+		{
+			throw new IOException( CoreMessages.getFormattedString(
+					ResourceConstants.UNSUPPORTED_VERSION,
+					new Object[]{version} ) );
+		}
+		int size = ArchiveUtil.bytesToInteger( header, 12 );
+		if ( size <= 0 || ( buffer != null && size != blockSize ) )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.UNSUPPORTED_BLOCK_SIZE ) );
+		}
+		blockSize = size;
+		length = ArchiveUtil.bytesToLong( header, 16 );
+		tablePosition = ArchiveUtil.bytesToLong( header, 24 );
+		blockCount = 0;
+		tableCapacity = 0;
+		if ( tablePosition != 0 )
+		{
+			byte[] countBytes = new byte[4];
+			readFully( entry, tablePosition, countBytes, 0, 4 );
+			int count = ArchiveUtil.bytesToInteger( countBytes );
+			byte[] table = new byte[count * 12];
+			readFully( entry, tablePosition + 4, table, 0, table.length );
+			ensureBlockCount( count );
+			for ( int i = 0; i < count; i++ )
+			{
+				blockPositions[i] = ArchiveUtil.bytesToLong( table, i * 12 );
+				blockSizes[i] = ArchiveUtil.bytesToInteger( table, i * 12 + 8 );
+			}
+			// the room of the table is unknown, it is reallocated when the
+			// entry grows
+			tableCapacity = count;
+		}
+		// the blocks may be written after the table
+		dataEnd = Math.max( HEADER_SIZE, entry.getLength( ) );
+		flushedDataEnd = dataEnd;
+	}
+
+	private static void readFully( ArchiveEntry entry, long pos, byte[] b,
+			int off, int len ) throws IOException
+	{
+		while ( len > 0 )
+		{
+			int size = entry.read( pos, b, off, len );
+			if ( size <= 0 )
+			{
+				throw new EOFException( );
+			}
+			pos += size;
+			off += size;
+			len -= size;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.archive.compound;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+import org.eclipse.birt.core.i18n.CoreMessages;
+import org.eclipse.birt.core.i18n.ResourceConstants;
+
+/**
+ * a read only view of the archive file which is mapped into the memory.
+ * <p>
+ * The file is mapped as several segments (each segment is at most 1G bytes)
+ * so the archive larger than 2G is supported. The read doesn't move any file
+ * pointer, so it needn't be synchronized and multiple threads can read the
+ * same archive in parallel. The data is loaded by the OS page cache, no heap
+ * block cache is required.
+ * <p>
+ * The mapped view is enabled by the system property
+ * {@link #PROPERTY_MEMORY_MAPPED_READ} and only used by the archive opened in
+ * "r" mode.
+ */
+public class MappedFile
+{
+
+	/**
+	 * the system property to enable the memory mapped read of the archive
+	 * opened in read only mode.
+	 */
+	public static final String PROPERTY_MEMORY_MAPPED_READ = "org.eclipse.birt.core.archive.compound.MEMORY_MAPPED_READ";
+
+	static final int SEGMENT_SIZE_BITS = 30;
+	static final long SEGMENT_SIZE = 1L << SEGMENT_SIZE_BITS;
+	static final long SEGMENT_OFFSET_MASK = SEGMENT_SIZE - 1;
+
+	private final long length;
+	private MappedByteBuffer[] segments;
+
+	/**
+	 * map the whole file into the memory.
+	 *
+	 * The mapping is still valid after the file is closed.
+	 *
+	 * @param rf
+	 *            the file to be mapped.
+	 * @throws IOException
+	 */
+	public MappedFile( RandomAccessFile rf ) throws IOException
+	{
+		FileChannel channel = rf.getChannel( );
+		length = channel.size( );
+		int segmentCount = (int) ( ( length + SEGMENT_SIZE - 1 ) >> SEGMENT_SIZE_BITS );
+		segments = new MappedByteBuffer[segmentCount];
+		for ( int i = 0; i < segmentCount; i++ )
+		{
+			long start = ( (long) i ) << SEGMENT_SIZE_BITS;
+			long size = length - start;
+			if ( size > SEGMENT_SIZE )
+			{
+				size = SEGMENT_SIZE;
+			}
+			segments[i] = channel.map( FileChannel.MapMode.READ_ONLY, start,
+					size );
+		}
+	}
+
+	/**
+	 * test if the memory mapped read is enabled.
+	 *
+	 * @return true if the system property is set to "true".
+	 */
+	public static boolean isEnabled( )
+	{
+		String value = AccessController
+				.doPrivileged( new PrivilegedAction<String>( ) {
+
+					public String run( )
+					{
+						return System.getProperty( PROPERTY_MEMORY_MAPPED_READ );
+					}
+				} );
+		return Boolean.valueOf( value ).booleanValue( );
+	}
+
+	public long length( )
+	{
+		return length;
+	}
+
+	/**
+	 * read the data from the mapped file.
+	 *
+	 * @param position
+	 *            the position in the file.
+	 * @param b
+	 *            the buffer to store the data.
+	 * @param off
+	 *            the offset in the buffer.
+	 * @param len
+	 *            the size to be read.
+	 * @return the actual size read, it is less than the <code>len</code> if the
+	 *         read reaches the end of the file.
+	 * @throws IOException
+	 *             the file has been closed.
+	 */
+	public int read( long position, byte[] b, int off, int len )
+			throws IOException
+	{
+		MappedByteBuffer[] buffers = segments;
+		if ( buffers == null )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.FILE_HAS_BEEN_CLOSED ) );
+		}
+		if ( position >= length || len <= 0 )
+		{
+			return 0;
+		}
+		if ( position + len > length )
+		{
+			len = (int) ( length - position );
+		}
+		int readSize = 0;
+		while ( readSize < len )
+		{
+			int segment = (int) ( position >> SEGMENT_SIZE_BITS );
+			int segmentOff = (int) ( position & SEGMENT_OFFSET_MASK );
+			// use a private view so the position of the shared buffer is
+			// never changed.
+			ByteBuffer view = buffers[segment].duplicate( );
+			int size = view.limit( ) - segmentOff;
+			if ( size > len - readSize )
+			{
+				size = len - readSize;
+			}
+			view.position( segmentOff );
+			view.get( b, off + readSize, size );
+			readSize += size;
+			position += size;
+		}
+		return readSize;
+	}
+
+	/**
+	 * release the mapped segments. The memory is unmapped once the segments
+	 * are garbage collected.
+	 */
+	public void close( )
+	{
+		segments = null;
+	}
+}
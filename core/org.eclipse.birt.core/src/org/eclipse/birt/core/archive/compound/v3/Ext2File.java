@@ -89,7 +89,9 @@ public class Ext2File
 		this.node = node;
 		this.blocks = new FatBlockList( fs, node );
 		this.fs.registerOpenedFile( this );
-		this.enableCache = enableCache;
+		// the mapped or shared cached file system serves the data directly,
+		// the file cache only adds an extra copy and lock.
+		this.enableCache = enableCache && !fs.isDirectRead( );
 		this.cachedBlockId = -1;
 		this.cachedBlock = DataBlock.READ_ONLY_BLOCK;
 	}
@@ -211,11 +213,17 @@ public class Ext2File
 		int fileBlockId = getDataBlock( blockId );
 		if ( size <= blockSize )
 		{
-			fs.readBlock( fileBlockId, blockOff, buffer, off, size );
+			if ( fileBlockId != -1 )
+			{
+				fs.readBlock( fileBlockId, blockOff, buffer, off, size );
+			}
 		}
 		else
 		{
-			fs.readBlock( fileBlockId, blockOff, buffer, off, blockSize );
+			if ( fileBlockId != -1 )
+			{
+				fs.readBlock( fileBlockId, blockOff, buffer, off, blockSize );
+			}
 			off += blockSize;
 			int remainSize = size - blockSize;
 			int wholeBlocks = remainSize >> BLOCK_SIZE_BITS;
@@ -19,15 +19,19 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map.Entry;
 
+import org.eclipse.birt.core.archive.cache.BlockCache;
 import org.eclipse.birt.core.archive.cache.CacheListener;
 import org.eclipse.birt.core.archive.cache.Cacheable;
 import org.eclipse.birt.core.archive.cache.FileCacheManager;
 import org.eclipse.birt.core.archive.cache.SystemCacheManager;
+import org.eclipse.birt.core.archive.compound.MappedFile;
 import org.eclipse.birt.core.i18n.CoreMessages;
 import org.eclipse.birt.core.i18n.ResourceConstants;
 
@@ -42,6 +46,16 @@ public class Ext2FileSystem
 {
 
 	private volatile RandomAccessFile rf;
+	/**
+	 * the memory mapped view of the file, only used in read only mode.
+	 */
+	private volatile MappedFile mappedFile;
+	/**
+	 * the block cache shared with other archives, only used in read only
+	 * mode.
+	 */
+	private volatile BlockCache sharedCache;
+	private Object sharedCacheKey;
 	private long length;
 	private int maxBlockId;
 
@@ -154,6 +168,10 @@ public class Ext2FileSystem
 		length = rf.length( );
 		maxBlockId = (int) ( ( length + BLOCK_SIZE - 1 ) / BLOCK_SIZE ) + 1;
 
+		if ( readOnly && MappedFile.isEnabled( ) )
+		{
+			mappedFile = new MappedFile( rf );
+		}
 		readHeader( );
 		nodeTable.read( );
 		entryTable.read( );
@@ -220,6 +238,12 @@ public class Ext2FileSystem
 		}
 		finally
 		{
+			sharedCache = null;
+			if ( mappedFile != null )
+			{
+				mappedFile.close( );
+				mappedFile = null;
+			}
 			if ( rf != null )
 			{
 				rf.close( );
@@ -284,6 +308,52 @@ public class Ext2FileSystem
 		return removeOnExit;
 	}
 
+	/**
+	 * test if the file is read from the memory mapped view.
+	 * 
+	 * the mapped view is only used in read only mode, the data is read
+	 * directly from the mapped buffer, so the block cache is not needed.
+	 * 
+	 * @return true if the file is mapped into the memory.
+	 */
+	public boolean isMapped( )
+	{
+		return mappedFile != null;
+	}
+
+	/**
+	 * use the shared block cache to read the file.
+	 * 
+	 * The shared cache is only used if the file is opened in read only mode
+	 * and it is not mapped into the memory. It must be set before any stream
+	 * is opened.
+	 * 
+	 * @param cache
+	 *            the block cache shared by the read only archives.
+	 */
+	public void setSharedCache( BlockCache cache )
+	{
+		if ( readOnly && mappedFile == null && cache != null
+				&& cache.isEnabled( ) )
+		{
+			sharedCacheKey = BlockCache.getFileKey( fileName, length );
+			sharedCache = cache;
+		}
+	}
+
+	/**
+	 * test if the data block should be read directly from the file system.
+	 * 
+	 * the data is read directly if the file is mapped or shared cache is
+	 * used, so the opened file needn't lock the file cache for each read.
+	 * 
+	 * @return true if the file cache is not needed.
+	 */
+	boolean isDirectRead( )
+	{
+		return mappedFile != null || sharedCache != null;
+	}
+
 	synchronized void registerOpenedFile( Ext2File file )
 	{
 		openedFiles.add( file );
@@ -587,8 +657,8 @@ public class Ext2FileSystem
 		readBlock( blockId, offset, buffer, offset, size );
 	}
 
-	synchronized void readBlock( int blockId, int blockOff, byte[] buffer,
-			int offset, int size ) throws IOException
+	void readBlock( int blockId, int blockOff, byte[] buffer, int offset,
+			int size ) throws IOException
 	{
 		assert buffer != null;
 		assert blockId >= 0;
@@ -598,17 +668,66 @@ public class Ext2FileSystem
 		assert blockOff + size <= BLOCK_SIZE;
 
 		long position = ( ( (long) blockId ) << BLOCK_SIZE_BITS ) + blockOff;
-		if ( position < length )
+		MappedFile mapped = mappedFile;
+		if ( mapped != null )
+		{
+			// the mapped file is read only, needn't synchronize the read
+			mapped.read( position, buffer, offset, size );
+			return;
+		}
+		BlockCache cache = sharedCache;
+		if ( cache != null )
 		{
-			long remainSize = length - position;
-			rf.seek( position );
-			if ( remainSize < size )
+			byte[] block = cache.getBlock( sharedCacheKey, blockId );
+			if ( block == null )
 			{
-				size = (int) remainSize;
+				block = new byte[BLOCK_SIZE];
+				readFully( ( (long) blockId ) << BLOCK_SIZE_BITS, block );
+				cache.putBlock( sharedCacheKey, blockId, block );
+			}
+			System.arraycopy( block, blockOff, buffer, offset, size );
+			return;
+		}
+		synchronized ( this )
+		{
+			if ( position < length )
+			{
+				long remainSize = length - position;
+				rf.seek( position );
+				if ( remainSize < size )
+				{
+					size = (int) remainSize;
+				}
+				rf.readFully( buffer, offset, size );
 			}
-			rf.readFully( buffer, offset, size );
 		}
+	}
 
+	/**
+	 * read the whole block with the positional read, so it needn't
+	 * synchronize with other readers. The part after the file end is left as
+	 * 0.
+	 */
+	private void readFully( long position, byte[] block ) throws IOException
+	{
+		if ( position >= length )
+		{
+			return;
+		}
+		int size = block.length;
+		if ( length - position < size )
+		{
+			size = (int) ( length - position );
+		}
+		FileChannel channel = rf.getChannel( );
+		ByteBuffer buffer = ByteBuffer.wrap( block, 0, size );
+		while ( buffer.hasRemaining( ) )
+		{
+			if ( channel.read( buffer, position + buffer.position( ) ) < 0 )
+			{
+				break;
+			}
+		}
 	}
 
 	void writeBlock( int blockId, byte[] buffer, int offset, int size )
@@ -221,9 +221,35 @@ public class BTree<K, V> implements BTreeConstants
 		{
 			throw new NullPointerException( "k can not be null" );
 		}
+		return findEntry( createKey( k ) );
+	}
+
+	/**
+	 * find the entry whose key equals to the key.
+	 * 
+	 * The keys are compared by {@link #compare(BTreeValue, BTreeValue)}, so
+	 * the key objects needn't be created by the tree which compares the key
+	 * bytes directly.
+	 * 
+	 * @param key
+	 *            the key to be searched.
+	 * @return the entry, null if the key doesn't exist.
+	 * @throws IOException
+	 */
+	LeafEntry<K, V> findExactEntry( BTreeValue<K> key ) throws IOException
+	{
+		LeafEntry<K, V> entry = findEntry( key );
+		if ( entry != null && compare( key, entry.getKey( ) ) == 0 )
+		{
+			return entry;
+		}
+		return null;
+	}
+
+	LeafEntry<K, V> findEntry( BTreeValue<K> key ) throws IOException
+	{
 		if ( rootNodeId != -1 )
 		{
-			BTreeValue<K> key = createKey( k );
 			BTreeNode<K, V> root = loadBTreeNode( rootNodeId );
 			try
 			{
@@ -285,7 +311,7 @@ public class BTree<K, V> implements BTreeConstants
 		return insertEntry( key, values );
 	}
 
-	private LeafEntry<K, V> insertEntry( BTreeValue<K> key,
+	LeafEntry<K, V> insertEntry( BTreeValue<K> key,
 			BTreeValue<V>[] values ) throws IOException
 	{
 		if ( rootNodeId == -1 )
@@ -395,9 +421,7 @@ public class BTree<K, V> implements BTreeConstants
 			K entryKey = getKey( entry.getKey( ) );
 			if ( comparator.compare( key, entryKey ) == 0 )
 			{
-				BTreeValues<V> values = entry.getValues( );
-				BTreeValues.Value<V> value = values.getFirstValue( );
-				return getValue( value.getValue( ) );
+				return getFirstValue( entry );
 			}
 		}
 		return null;
@@ -415,20 +439,32 @@ public class BTree<K, V> implements BTreeConstants
 			K entryKey = getKey( entry.getKey( ) );
 			if ( comparator.compare( key, entryKey ) == 0 )
 			{
-				BTreeValues<V> values = entry.getValues( );
-				ArrayList<V> list = new ArrayList<V>( values.getValueCount( ) );
-				BTreeValues.Value<V> value = values.getFirstValue( );
-				while ( value != null )
-				{
-					list.add( getValue( value.getValue( ) ) );
-					value = value.getNext( );
-				}
-				return list;
+				return getAllValues( entry );
 			}
 		}
 		return null;
 	}
 
+	V getFirstValue( LeafEntry<K, V> entry ) throws IOException
+	{
+		BTreeValues<V> values = entry.getValues( );
+		BTreeValues.Value<V> value = values.getFirstValue( );
+		return getValue( value.getValue( ) );
+	}
+
+	Collection<V> getAllValues( LeafEntry<K, V> entry ) throws IOException
+	{
+		BTreeValues<V> values = entry.getValues( );
+		ArrayList<V> list = new ArrayList<V>( values.getValueCount( ) );
+		BTreeValues.Value<V> value = values.getFirstValue( );
+		while ( value != null )
+		{
+			list.add( getValue( value.getValue( ) ) );
+			value = value.getNext( );
+		}
+		return list;
+	}
+
 	public boolean exist( K key ) throws IOException
 	{
 		LeafEntry<K, V> entry = findEntry( key );
@@ -463,6 +499,37 @@ public class BTree<K, V> implements BTreeConstants
 		insertEntry( k, vs );
 	}
 
+	/**
+	 * build the tree from the entries which are sorted by the key in
+	 * ascending order.
+	 * <p>
+	 * The tree is built from the bottom up: the leaf nodes and index nodes are
+	 * fully packed and written in sequence, so the cost is linear to the
+	 * entry count. The values of the equal keys are appended if the tree
+	 * allows duplicate keys, otherwise the last value is kept. It can only be
+	 * used to build an empty tree.
+	 * 
+	 * @param entries
+	 *            the sorted entries.
+	 * @throws IOException
+	 *             the tree is not empty or the entries are not sorted.
+	 */
+	public void bulkLoad( Iterator<? extends Map.Entry<K, V>> entries )
+			throws IOException
+	{
+		if ( readOnly )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.READ_ONLY_TREE ) );
+		}
+		if ( rootNodeId != -1 )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.NON_EMPTY_TREE ) );
+		}
+		new BTreeBulkLoader<K, V>( this ).load( entries );
+	}
+
 	public void remove( K key ) throws IOException
 	{
 		LeafEntry<K, V> entry = findEntry( key );
@@ -587,6 +654,28 @@ public class BTree<K, V> implements BTreeConstants
 		}
 	}
 
+	/**
+	 * write the node into the file if it is changed and unlock it.
+	 * 
+	 * @param node
+	 *            the node which won't be changed any more.
+	 * @throws IOException
+	 */
+	void releaseNode( BTreeNode<K, V> node ) throws IOException
+	{
+		try
+		{
+			if ( file != null && node.isDirty( ) )
+			{
+				writeNode( node );
+			}
+		}
+		finally
+		{
+			node.unlock( );
+		}
+	}
+
 	synchronized BTreeNode<K, V> loadBTreeNode( int nodeId ) throws IOException
 	{
 		BTreeNode<K, V> node = nodeCaches.get( nodeId );
@@ -722,6 +811,36 @@ public class BTree<K, V> implements BTreeConstants
 		return valueNode;
 	}
 
+	/**
+	 * create the value list saved in the leaf entry.
+	 * 
+	 * @param vs
+	 *            the values of the entry.
+	 * @return the value list, null if the tree has no value.
+	 * @throws IOException
+	 */
+	BTreeValues<V> createValues( BTreeValue<V>[] vs ) throws IOException
+	{
+		if ( !hasValue( ) )
+		{
+			return null;
+		}
+		if ( allowDuplicate( ) )
+		{
+			BTreeValues<V> values = new InlineValueList<K, V>( this );
+			for ( BTreeValue<V> v : vs )
+			{
+				values.append( v );
+			}
+			if ( values.getValueSize( ) > MAX_NODE_SIZE / 2 )
+			{
+				values = createExternalValueList( values );
+			}
+			return values;
+		}
+		return new SingleValueList<K, V>( this, vs[0] );
+	}
+
 	ExternalValueList<K, V> createExternalValueList( BTreeValues<V> values )
 			throws IOException
 	{
@@ -856,7 +975,7 @@ public class BTree<K, V> implements BTreeConstants
 		return v;
 	}
 
-	private BTreeValue<V> createValue( V value ) throws IOException
+	BTreeValue<V> createValue( V value ) throws IOException
 	{
 		byte[] valueBytes = valueSerializer.getBytes( value );
 		int valueSize = getValueSize( );
@@ -964,11 +1083,22 @@ public class BTree<K, V> implements BTreeConstants
 		return allowDuplicate;
 	}
 
+	boolean allowNullKey( )
+	{
+		return allowNullKey;
+	}
+
 	int getRootNodeId( )
 	{
 		return rootNodeId;
 	}
 
+	void setRootNode( int rootNodeId, int totalLevels )
+	{
+		this.rootNodeId = rootNodeId;
+		this.totalLevels = totalLevels;
+	}
+
 	protected class ReusableBTreeFile implements NodeFile
 	{
 
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.birt.core.i18n.CoreMessages;
+import org.eclipse.birt.core.i18n.ResourceConstants;
+
+/**
+ * build the btree from the sorted entries.
+ * <p>
+ * The loader keeps one opened node for each level. The entry is appended to
+ * the opened leaf node, once the leaf node is full, a new leaf node is created
+ * and the full node is written to the file, the first key of the new node is
+ * appended to the parent level in the same way. So only the opened nodes are
+ * kept in the memory and the nodes are written in the key order.
+ *
+ * @param <K>
+ * @param <V>
+ */
+class BTreeBulkLoader<K, V> implements BTreeConstants
+{
+
+	private final BTree<K, V> btree;
+
+	/**
+	 * the opened leaf node
+	 */
+	private LeafNode<K, V> leafNode;
+	/**
+	 * the opened index node of each level, the first one is the parent of the
+	 * leaf nodes.
+	 */
+	private final ArrayList<IndexNode<K, V>> indexNodes = new ArrayList<IndexNode<K, V>>( );
+	/**
+	 * the first node id of each level, the first one is the first leaf node.
+	 */
+	private final ArrayList<Integer> firstNodeIds = new ArrayList<Integer>( );
+
+	BTreeBulkLoader( BTree<K, V> btree )
+	{
+		this.btree = btree;
+	}
+
+	void load( Iterator<? extends Map.Entry<K, V>> entries )
+			throws IOException
+	{
+		try
+		{
+			BTreeValue<K> lastKey = null;
+			ArrayList<BTreeValue<V>> values = new ArrayList<BTreeValue<V>>( );
+			while ( entries.hasNext( ) )
+			{
+				Map.Entry<K, V> entry = entries.next( );
+				K k = entry.getKey( );
+				if ( k == null && !btree.allowNullKey( ) )
+				{
+					throw new NullPointerException( "key can not be null" );
+				}
+				BTreeValue<K> key = btree.createKey( k );
+				if ( lastKey != null )
+				{
+					int result = btree.compare( lastKey, key );
+					if ( result > 0 )
+					{
+						throw new IOException( CoreMessages.getFormattedString(
+								ResourceConstants.UNSORTED_KEYS,
+								new Object[]{k} ) );
+					}
+					if ( result < 0 )
+					{
+						appendEntry( lastKey, values );
+						values.clear( );
+						lastKey = key;
+					}
+				}
+				else
+				{
+					lastKey = key;
+				}
+				if ( btree.hasValue( ) )
+				{
+					if ( !values.isEmpty( ) && !btree.allowDuplicate( ) )
+					{
+						// keep the last value as the insert does
+						values.clear( );
+					}
+					values.add( btree.createValue( entry.getValue( ) ) );
+				}
+			}
+			if ( lastKey != null )
+			{
+				appendEntry( lastKey, values );
+			}
+		}
+		finally
+		{
+			finish( );
+		}
+	}
+
+	private void appendEntry( BTreeValue<K> key,
+			ArrayList<BTreeValue<V>> values ) throws IOException
+	{
+		@SuppressWarnings("unchecked")
+		BTreeValue<V>[] vs = values.toArray( (BTreeValue<V>[]) new BTreeValue[values
+				.size( )] );
+		LeafEntry<K, V> entry = new LeafEntry<K, V>( leafNode, key,
+				btree.createValues( vs ) );
+		if ( leafNode == null )
+		{
+			leafNode = btree.createLeafNode( );
+			leafNode.setPrevNodeId( -1 );
+			leafNode.setNextNodeId( -1 );
+			firstNodeIds.add( Integer.valueOf( leafNode.getNodeId( ) ) );
+			leafNode.append( entry );
+		}
+		else if ( !leafNode.append( entry ) )
+		{
+			LeafNode<K, V> newNode = btree.createLeafNode( );
+			newNode.setPrevNodeId( leafNode.getNodeId( ) );
+			newNode.setNextNodeId( -1 );
+			leafNode.setNextNodeId( newNode.getNodeId( ) );
+			LeafNode<K, V> fullNode = leafNode;
+			leafNode = newNode;
+			btree.releaseNode( fullNode );
+			// an empty node can always hold the entry
+			leafNode.append( entry );
+			appendIndex( 0, key, leafNode.getNodeId( ) );
+		}
+		btree.increaseTotalKeys( );
+		if ( btree.hasValue( ) )
+		{
+			btree.increaseTotalValues( vs.length );
+		}
+	}
+
+	private void appendIndex( int level, BTreeValue<K> key, int childNodeId )
+			throws IOException
+	{
+		if ( level == indexNodes.size( ) )
+		{
+			// the first node of this level, the first child is the first node
+			// of the lower level
+			IndexNode<K, V> indexNode = btree.createIndexNode( );
+			indexNode.setPrevNodeId( -1 );
+			indexNode.setNextNodeId( -1 );
+			indexNode.setFirstChild( firstNodeIds.get( level ).intValue( ) );
+			indexNodes.add( indexNode );
+			firstNodeIds.add( Integer.valueOf( indexNode.getNodeId( ) ) );
+		}
+		IndexNode<K, V> indexNode = indexNodes.get( level );
+		if ( !indexNode.append( key, childNodeId ) )
+		{
+			// the key is moved to the upper level as the split does
+			IndexNode<K, V> newNode = btree.createIndexNode( );
+			newNode.setPrevNodeId( indexNode.getNodeId( ) );
+			newNode.setNextNodeId( -1 );
+			newNode.setFirstChild( childNodeId );
+			indexNode.setNextNodeId( newNode.getNodeId( ) );
+			indexNodes.set( level, newNode );
+			btree.releaseNode( indexNode );
+			appendIndex( level + 1, key, newNode.getNodeId( ) );
+		}
+	}
+
+	private void finish( ) throws IOException
+	{
+		int rootNodeId = -1;
+		int totalLevels = 0;
+		if ( leafNode != null )
+		{
+			rootNodeId = leafNode.getNodeId( );
+			totalLevels = 1;
+			btree.releaseNode( leafNode );
+			leafNode = null;
+		}
+		for ( IndexNode<K, V> indexNode : indexNodes )
+		{
+			// the opened node of the top level is the root
+			rootNodeId = indexNode.getNodeId( );
+			totalLevels++;
+			btree.releaseNode( indexNode );
+		}
+		indexNodes.clear( );
+		btree.setRootNode( rootNodeId, totalLevels );
+	}
+}
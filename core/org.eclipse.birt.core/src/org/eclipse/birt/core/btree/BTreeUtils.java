@@ -27,4 +27,25 @@ public class BTreeUtils
 		b[2] = (byte) ( ( v >>> 8 ) & 0xFF );
 		b[3] = (byte) ( ( v >>> 0 ) & 0xFF );
 	}
+
+	static public long bytesToLong( byte[] b )
+	{
+		long high = ( ( b[0] & 0xFF ) << 24 ) + ( ( b[1] & 0xFF ) << 16 )
+				+ ( ( b[2] & 0xFF ) << 8 ) + ( ( b[3] & 0xFF ) << 0 );
+		long low = ( ( b[4] & 0xFF ) << 24 ) + ( ( b[5] & 0xFF ) << 16 )
+				+ ( ( b[6] & 0xFF ) << 8 ) + ( ( b[7] & 0xFF ) << 0 );
+		return ( high << 32 ) + ( low & 0xFFFFFFFFL );
+	}
+
+	static public void longToBytes( long v, byte[] b )
+	{
+		b[0] = (byte) ( ( v >>> 56 ) & 0xFF );
+		b[1] = (byte) ( ( v >>> 48 ) & 0xFF );
+		b[2] = (byte) ( ( v >>> 40 ) & 0xFF );
+		b[3] = (byte) ( ( v >>> 32 ) & 0xFF );
+		b[4] = (byte) ( ( v >>> 24 ) & 0xFF );
+		b[5] = (byte) ( ( v >>> 16 ) & 0xFF );
+		b[6] = (byte) ( ( v >>> 8 ) & 0xFF );
+		b[7] = (byte) ( ( v >>> 0 ) & 0xFF );
+	}
 }
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+
+import org.eclipse.birt.core.i18n.CoreMessages;
+import org.eclipse.birt.core.i18n.ResourceConstants;
+
+/**
+ * a btree whose key is saved in a fixed number of bytes.
+ * <p>
+ * The keys in the nodes are compared by the key bytes with the key codec
+ * directly, so searching the tree needn't create any key object. The subclass
+ * adds the methods accepting the primitive key, which encode the key with the
+ * codec and call the methods of this class, so the key is never boxed.
+ * <p>
+ * The null key is not supported.
+ * 
+ * @param <K>
+ * @param <V>
+ */
+public class FixedKeyBTree<K, V> extends BTree<K, V>
+{
+
+	public FixedKeyBTree( BTreeOption<K, V> option, KeyCodec<K> codec )
+			throws IOException
+	{
+		super( setupOption( option, codec ) );
+	}
+
+	private static <K, V> BTreeOption<K, V> setupOption(
+			BTreeOption<K, V> option, KeyCodec<K> codec )
+	{
+		option.setKeySize( codec.getKeySize( ) );
+		option.setKeySerializer( codec );
+		option.setComparator( codec );
+		option.setAllowNullKey( false );
+		return option;
+	}
+
+	boolean existKey( BTreeValue<K> key ) throws IOException
+	{
+		return findExactEntry( key ) != null;
+	}
+
+	V getKeyValue( BTreeValue<K> key ) throws IOException
+	{
+		if ( !hasValue( ) )
+		{
+			return null;
+		}
+		LeafEntry<K, V> entry = findExactEntry( key );
+		if ( entry != null )
+		{
+			return getFirstValue( entry );
+		}
+		return null;
+	}
+
+	Collection<V> getKeyValues( BTreeValue<K> key ) throws IOException
+	{
+		if ( !hasValue( ) )
+		{
+			return null;
+		}
+		LeafEntry<K, V> entry = findExactEntry( key );
+		if ( entry != null )
+		{
+			return getAllValues( entry );
+		}
+		return null;
+	}
+
+	void insertKey( BTreeValue<K> key, V value ) throws IOException
+	{
+		if ( readOnly )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.READ_ONLY_TREE ) );
+		}
+		@SuppressWarnings("unchecked")
+		BTreeValue<V>[] values = (BTreeValue<V>[]) new BTreeValue[1];
+		if ( hasValue( ) )
+		{
+			values[0] = createValue( value );
+		}
+		insertEntry( key, values );
+	}
+
+	void removeKey( BTreeValue<K> key ) throws IOException
+	{
+		LeafEntry<K, V> entry = findExactEntry( key );
+		if ( entry != null )
+		{
+			removeEntry( entry );
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	int compare( BTreeValue<K> k1, BTreeValue<K> k2 ) throws IOException
+	{
+		return ( (KeyCodec<K>) keySerializer ).compare( k1.getBytes( ),
+				k2.getBytes( ) );
+	}
+
+	/**
+	 * the codec of the fixed size key, it can also be used as the serializer
+	 * of the fixed size value.
+	 * 
+	 * @param <K>
+	 */
+	public static abstract class KeyCodec<K>
+			implements
+				BTreeSerializer<K>,
+				Comparator<K>
+	{
+
+		/**
+		 * @return the count of the bytes of the key.
+		 */
+		public abstract int getKeySize( );
+
+		/**
+		 * compare the keys saved in the bytes.
+		 */
+		public abstract int compare( byte[] k1, byte[] k2 );
+	}
+}
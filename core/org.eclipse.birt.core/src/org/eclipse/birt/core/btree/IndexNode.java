@@ -270,6 +270,35 @@ public class IndexNode<K, V> extends BTreeNode<K, V>
 		return;
 	}
 
+	/**
+	 * append the child node after the last entry of this node. The key must
+	 * be larger than the keys in this node.
+	 * 
+	 * It is used by the bulk load to fill the node without split.
+	 * 
+	 * @param key
+	 *            the first key of the child node.
+	 * @param childNodeId
+	 *            the child node id.
+	 * @return false if the node should be split after appending the child
+	 *         node, the child is not appended in this case.
+	 */
+	boolean append( BTreeValue<K> key, int childNodeId )
+	{
+		IndexEntry<K, V> newEntry = new IndexEntry<K, V>( this, key,
+				childNodeId );
+		int entrySize = getEntrySize( newEntry );
+		if ( nodeSize + entrySize > MAX_NODE_SIZE
+				&& entries.size( ) >= MIN_ENTRY_COUNT )
+		{
+			return false;
+		}
+		entries.add( newEntry );
+		nodeSize += entrySize;
+		dirty = true;
+		return true;
+	}
+
 	public boolean needSplit( )
 	{
 		return nodeSize > MAX_NODE_SIZE && entries.size( ) > MIN_ENTRY_COUNT;
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * a btree whose key is an int.
+ * <p>
+ * The key is saved as 4 bytes in big endian order. The methods accept the
+ * primitive key should be used to avoid boxing the key.
+ * 
+ * @param <V>
+ */
+public class IntegerBTree<V> extends FixedKeyBTree<Integer, V>
+{
+
+	public IntegerBTree( ) throws IOException
+	{
+		this( new BTreeOption<Integer, V>( ) );
+	}
+
+	public IntegerBTree( BTreeOption<Integer, V> option ) throws IOException
+	{
+		super( option, new IntegerSerializer( ) );
+	}
+
+	public boolean exist( int key ) throws IOException
+	{
+		return existKey( createKey( key ) );
+	}
+
+	public V getValue( int key ) throws IOException
+	{
+		return getKeyValue( createKey( key ) );
+	}
+
+	public Collection<V> getValues( int key ) throws IOException
+	{
+		return getKeyValues( createKey( key ) );
+	}
+
+	public void insert( int key, V value ) throws IOException
+	{
+		insertKey( createKey( key ), value );
+	}
+
+	public void remove( int key ) throws IOException
+	{
+		removeKey( createKey( key ) );
+	}
+
+	private BTreeValue<Integer> createKey( int key )
+	{
+		byte[] bytes = new byte[4];
+		BTreeUtils.integerToBytes( key, bytes );
+		return new BTreeValue<Integer>( bytes );
+	}
+
+	/**
+	 * the codec of the int key.
+	 */
+	public static class IntegerSerializer extends KeyCodec<Integer>
+	{
+
+		public int getKeySize( )
+		{
+			return 4;
+		}
+
+		public byte[] getBytes( Integer object ) throws IOException
+		{
+			byte[] bytes = new byte[4];
+			BTreeUtils.integerToBytes( object.intValue( ), bytes );
+			return bytes;
+		}
+
+		public Integer getObject( byte[] bytes ) throws IOException,
+				ClassNotFoundException
+		{
+			return Integer.valueOf( BTreeUtils.bytesToInteger( bytes ) );
+		}
+
+		public int compare( byte[] k1, byte[] k2 )
+		{
+			return compare( BTreeUtils.bytesToInteger( k1 ),
+					BTreeUtils.bytesToInteger( k2 ) );
+		}
+
+		public int compare( Integer o1, Integer o2 )
+		{
+			return compare( o1.intValue( ), o2.intValue( ) );
+		}
+
+		private int compare( int v1, int v2 )
+		{
+			return v1 < v2 ? -1 : ( v1 == v2 ? 0 : 1 );
+		}
+	}
+}
@@ -210,26 +210,7 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 
 		index = -( index + 1 );
 		// now we should insert the entry before the insert point
-		BTreeValues<V> values = null;
-		if ( btree.hasValue( ) )
-		{
-			if ( btree.allowDuplicate( ) )
-			{
-				values = new InlineValueList<K, V>( btree );
-				for ( BTreeValue<V> v : vs )
-				{
-					values.append( v );
-				}
-				if ( values.getValueSize( ) > MAX_NODE_SIZE / 2 )
-				{
-					values = btree.createExternalValueList( values );
-				}
-			}
-			else
-			{
-				values = new SingleValueList<K, V>( btree, vs[0] );
-			}
-		}
+		BTreeValues<V> values = btree.createValues( vs );
 		LeafEntry<K, V> entry = new LeafEntry<K, V>( this, key, values );
 		insert( index, entry );
 
@@ -273,6 +254,30 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 		nodeSize += getEntrySize( entry );
 	}
 
+	/**
+	 * append the entry after the last entry of this node. The key of the
+	 * entry must be larger than the keys in this node.
+	 * 
+	 * It is used by the bulk load to fill the node without split.
+	 * 
+	 * @param entry
+	 *            the entry to be appended.
+	 * @return false if the node should be split after appending the entry,
+	 *         the entry is not appended in this case.
+	 * @throws IOException
+	 */
+	boolean append( LeafEntry<K, V> entry ) throws IOException
+	{
+		if ( nodeSize + getEntrySize( entry ) > MAX_NODE_SIZE
+				&& entries.size( ) >= MIN_ENTRY_COUNT )
+		{
+			return false;
+		}
+		dirty = true;
+		insert( entries.size( ), entry );
+		return true;
+	}
+
 	public boolean needSplit( )
 	{
 		return nodeSize > MAX_NODE_SIZE && entries.size( ) > MIN_ENTRY_COUNT;
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * a btree whose key is a long.
+ * <p>
+ * The key is saved as 8 bytes in big endian order. The methods accept the
+ * primitive key should be used to avoid boxing the key.
+ * 
+ * @param <V>
+ */
+public class LongBTree<V> extends FixedKeyBTree<Long, V>
+{
+
+	public LongBTree( ) throws IOException
+	{
+		this( new BTreeOption<Long, V>( ) );
+	}
+
+	public LongBTree( BTreeOption<Long, V> option ) throws IOException
+	{
+		super( option, new LongSerializer( ) );
+	}
+
+	public boolean exist( long key ) throws IOException
+	{
+		return existKey( createKey( key ) );
+	}
+
+	public V getValue( long key ) throws IOException
+	{
+		return getKeyValue( createKey( key ) );
+	}
+
+	public Collection<V> getValues( long key ) throws IOException
+	{
+		return getKeyValues( createKey( key ) );
+	}
+
+	public void insert( long key, V value ) throws IOException
+	{
+		insertKey( createKey( key ), value );
+	}
+
+	public void remove( long key ) throws IOException
+	{
+		removeKey( createKey( key ) );
+	}
+
+	private BTreeValue<Long> createKey( long key )
+	{
+		byte[] bytes = new byte[8];
+		BTreeUtils.longToBytes( key, bytes );
+		return new BTreeValue<Long>( bytes );
+	}
+
+	/**
+	 * the codec of the long key.
+	 */
+	public static class LongSerializer extends KeyCodec<Long>
+	{
+
+		public int getKeySize( )
+		{
+			return 8;
+		}
+
+		public byte[] getBytes( Long object ) throws IOException
+		{
+			byte[] bytes = new byte[8];
+			BTreeUtils.longToBytes( object.longValue( ), bytes );
+			return bytes;
+		}
+
+		public Long getObject( byte[] bytes ) throws IOException,
+				ClassNotFoundException
+		{
+			return Long.valueOf( BTreeUtils.bytesToLong( bytes ) );
+		}
+
+		public int compare( byte[] k1, byte[] k2 )
+		{
+			return compare( BTreeUtils.bytesToLong( k1 ),
+					BTreeUtils.bytesToLong( k2 ) );
+		}
+
+		public int compare( Long o1, Long o2 )
+		{
+			return compare( o1.longValue( ), o2.longValue( ) );
+		}
+
+		private int compare( long v1, long v2 )
+		{
+			return v1 < v2 ? -1 : ( v1 == v2 ? 0 : 1 );
+		}
+	}
+}
@@ -22,6 +22,7 @@ import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.SimpleDateFormat;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import com.ibm.icu.util.Calendar;
 import com.ibm.icu.util.TimeZone;
 
@@ -37,6 +38,7 @@ import javax.sql.rowset.serial.SerialBlob;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.exception.CoreException;
 import org.eclipse.birt.core.format.DateFormatter;
+import org.eclipse.birt.core.format.FormatterCache;
 import org.eclipse.birt.core.i18n.ResourceConstants;
 import org.eclipse.birt.core.i18n.ResourceHandle;
 import org.eclipse.birt.core.script.JavascriptEvalUtil;
@@ -61,8 +63,6 @@ public final class DataTypeUtil
 	private static Pattern p1 = Pattern.compile( ".*[0-9]+:[0-9]+:[0-9]+.*" );
 	private static Pattern p2 = Pattern.compile( ".*[0-9]+:[0-9]+.*" );
 	
-	// cache DateFormatter of ICU
-	private static Map dfMap = new HashMap( );
 	private static Map nfMap = new HashMap( );
 	// Default Date/Time Style
 	private static int DEFAULT_DATE_STYLE = DateFormat.FULL;
@@ -801,9 +801,34 @@ public final class DataTypeUtil
 		if ( source == null )
 			return null;
 
-		DateFormat dateFormat = null;
-		Date resultDate = null;
-		
+		Date resultDate = parseDate( source, locale, timeZone );
+
+		// for the String can not be parsed, throws a BirtException
+		if ( resultDate == null )
+		{
+			throw new CoreException( 
+					ResourceConstants.CONVERT_FAILS,
+					new Object[]{
+							source.toString( ), "Date"
+					} );
+		}
+
+		return resultDate;
+	}
+
+	/**
+	 * parse the String with the date and time styles of the locale, the
+	 * styles are tried with ParsePosition so no exception is thrown for the
+	 * styles which do not match.
+	 * 
+	 * @param source
+	 * @param locale
+	 * @param timeZone
+	 * @return the date, null if the String can not be parsed.
+	 */
+	private static Date parseDate( String source, ULocale locale,
+			TimeZone timeZone )
+	{
 		boolean existTime = p1.matcher( source ).matches( )
 				|| p2.matcher( source ).matches( );
 
@@ -811,66 +836,51 @@ public final class DataTypeUtil
 		{
 			for ( int j = DEFAULT_DATE_STYLE; j <= DateFormat.SHORT; j++ )
 			{
-				dateFormat = DateFormatFactory.getDateTimeInstance( i, j, locale );
-				TimeZone savedTimeZone = null; 
-				if( timeZone != null )
+				Date resultDate = parseDate( source,
+						DateFormatFactory.getDateTimeInstance( i, j, locale ),
+						timeZone );
+				if ( resultDate != null )
 				{
-					savedTimeZone = dateFormat.getTimeZone( );
-					dateFormat.setTimeZone( timeZone );
-				}
-				try
-				{
-					resultDate = dateFormat.parse( source );
 					return resultDate;
 				}
-				catch ( ParseException e1 )
-				{
-				}
-				finally 
-				{
-					if( savedTimeZone != null )
-						dateFormat.setTimeZone( savedTimeZone );
-				}
 			}
 
 			// only Date, no Time 
 			if ( !existTime )
 			{
-				dateFormat = DateFormatFactory.getDateInstance( i, locale );
-				TimeZone savedTimeZone = null; 
-				if( timeZone != null )
+				Date resultDate = parseDate( source,
+						DateFormatFactory.getDateInstance( i, locale ),
+						timeZone );
+				if ( resultDate != null )
 				{
-					savedTimeZone = dateFormat.getTimeZone( );
-					dateFormat.setTimeZone( timeZone );
-				}
-				try
-				{
-					resultDate = dateFormat.parse( source );
 					return resultDate;
 				}
-				catch ( ParseException e1 )
-				{
-				}
-				finally 
-				{
-					if( savedTimeZone != null )
-						dateFormat.setTimeZone( savedTimeZone );
-				}
 			}
 		}
+		return null;
+	}
 
-		// for the String can not be parsed, throws a BirtException
-		if ( resultDate == null )
+	private static Date parseDate( String source, DateFormat dateFormat,
+			TimeZone timeZone )
+	{
+		TimeZone savedTimeZone = null;
+		if ( timeZone != null )
 		{
-			throw new CoreException( 
-					ResourceConstants.CONVERT_FAILS,
-					new Object[]{
-							source.toString( ), "Date"
-					} );
+			savedTimeZone = dateFormat.getTimeZone( );
+			dateFormat.setTimeZone( timeZone );
+		}
+		ParsePosition position = new ParsePosition( 0 );
+		try
+		{
+			Date resultDate = dateFormat.parse( source, position );
+			// the same check as DateFormat.parse( String )
+			return position.getIndex( ) == 0 ? null : resultDate;
+		}
+		finally
+		{
+			if ( savedTimeZone != null )
+				dateFormat.setTimeZone( savedTimeZone );
 		}
-
-		// never access here
-		return resultDate;
 	}
 
 	/**
@@ -884,23 +894,22 @@ public final class DataTypeUtil
 	public static Date toDate( String source, TimeZone timeZone ) throws BirtException
 	{
 		assert timeZone != null;
-		try
+		if ( source == null || source.trim( ).length( ) == 0 )
 		{
-			return toDateISO8601( source, timeZone );
+			return null;
 		}
-		catch ( BirtException e )
+		Date resultDate = DateFormatISO8601.tryParse( source, timeZone );
+		if ( resultDate == null )
 		{
-			try
-			{
-				// format the String for JRE default locale
-				return toDate( source, JRE_DEFAULT_LOCALE, timeZone );
-			}
-			catch ( BirtException use )
-			{
-				// format the String for Locale.US
-				return toDate( source, DEFAULT_LOCALE, timeZone );
-			}
+			// format the String for JRE default locale
+			resultDate = parseDate( source, JRE_DEFAULT_LOCALE, timeZone );
 		}
+		if ( resultDate == null )
+		{
+			// format the String for Locale.US
+			return toDate( source, DEFAULT_LOCALE, timeZone );
+		}
+		return resultDate;
 	}
 	
 	/**
@@ -1495,58 +1504,26 @@ public final class DataTypeUtil
 	private static Date toDate( String source ) throws BirtException
 	{
 		source = source.trim( );
-		try
+		if ( source.length( ) == 0 )
 		{
-			return toDateISO8601( source, null );
+			return null;
 		}
-		catch ( BirtException e )
+		Date resultDate = DateFormatISO8601.tryParse( source, null );
+		if ( resultDate == null )
 		{
-			try
-			{
-				// format the String for JRE default locale
-				return toDate( source, JRE_DEFAULT_LOCALE );
-			}
-			catch ( BirtException use )
-			{
-				try
-				{
-					// format the String for Locale.US
-					return toDate( source, DEFAULT_LOCALE );
-				}
-				catch ( BirtException de )
-				{
-					return toDateForSpecialFormat( source );
-				}
-			}
+			// format the String for JRE default locale
+			resultDate = parseDate( source, JRE_DEFAULT_LOCALE, null );
 		}
-	}
-
-	/**
-	 * convert String with ISO8601 date format to java.util.Date
-	 * 
-	 * @param source
-	 *            the String to be convert
-	 * @param locate
-	 * 			  the locate of the string
-	 * @return result Date
-	 */
-	private static Date toDateISO8601( String source, TimeZone timeZone ) throws BirtException
-	{
-		Date resultDate = null;
-
-		try
+		if ( resultDate == null )
 		{
-			resultDate = DateFormatISO8601.parse( source, timeZone );
-			return resultDate;
+			// format the String for Locale.US
+			resultDate = parseDate( source, DEFAULT_LOCALE, null );
 		}
-		catch ( ParseException e1 )
+		if ( resultDate == null )
 		{
-			throw new CoreException( 
-					ResourceConstants.CONVERT_FAILS,
-					new Object[]{
-							source.toString( ), "Date"
-					} );
+			return toDateForSpecialFormat( source );
 		}
+		return resultDate;
 	}
 
 	private static Date toDateForSpecialFormat( String source ) throws BirtException
@@ -1573,23 +1550,9 @@ public final class DataTypeUtil
 	 */
 	private static String toString( Date source, ULocale locale )
 	{
-		DateFormatter df = null;
-
-		// avoid any multi-thread issue
-		df = (DateFormatter) ( dfMap.get( locale ) );
-		if ( df == null )
-		{
-			synchronized ( dfMap )
-			{
-				df = (DateFormatter) ( dfMap.get( locale ) );
-				if ( df == null )
-				{
-					df = new DateFormatter( locale );
-					dfMap.put( locale, df );
-				}
-			}
-		}
-
+		// the formatter is not thread safe, use the one of current thread
+		DateFormatter df = FormatterCache.getInstance( )
+				.getDateFormatter( null, locale, null );
 		return df.format( (Date) source );
 	}
 
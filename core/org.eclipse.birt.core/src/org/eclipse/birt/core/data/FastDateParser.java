@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.data;
+
+import java.util.Date;
+
+import com.ibm.icu.util.Calendar;
+import com.ibm.icu.util.TimeZone;
+
+/**
+ * Parses the common ISO8601 dates, such as "2008-01-31 12:30:00.000", by
+ * scanning the characters instead of trying the patterns of
+ * <code>DateFormatISO8601</code> one by one.
+ * <p>
+ * The forms yyyy, yyyy-MM, yyyy-MM-dd and yyyy-MM-dd HH:mm[:ss[.SSS]] are
+ * supported, with 'T' or a blank between the date and the time, and an
+ * optional trailing 'Z' which is ignored as <code>DateFormatISO8601</code>
+ * does. The other forms, such as the time zone offsets, are left to the
+ * patterns. Each thread has its own calendar.
+ */
+class FastDateParser
+{
+
+	private static final int[] DAYS_OF_MONTH = new int[]{
+			31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31
+	};
+
+	/**
+	 * the calendar of the current thread, null if the default calendar is not
+	 * Gregorian.
+	 */
+	private static ThreadLocal<ParserCalendar> calendars = new ThreadLocal<ParserCalendar>( ) {
+
+		protected ParserCalendar initialValue( )
+		{
+			Calendar calendar = Calendar.getInstance( );
+			if ( !"gregorian".equals( calendar.getType( ) ) )
+			{
+				return null;
+			}
+			return new ParserCalendar( calendar );
+		}
+	};
+
+	private FastDateParser( )
+	{
+	}
+
+	/**
+	 * parse the trimmed string.
+	 *
+	 * @param source
+	 *            the trimmed string.
+	 * @param timeZone
+	 *            the time zone, null for the default time zone.
+	 * @return the date, null if the string is not in the supported forms.
+	 */
+	static Date parse( String source, TimeZone timeZone )
+	{
+		int length = source.length( );
+		boolean zone = false;
+		if ( length > 0 )
+		{
+			char last = source.charAt( length - 1 );
+			if ( last == 'Z' || last == 'z' )
+			{
+				// the milliseconds are not truncated with the zone
+				zone = true;
+				length--;
+				while ( length > 0 && source.charAt( length - 1 ) <= ' ' )
+				{
+					length--;
+				}
+			}
+		}
+
+		// yyyy
+		int pos = scanDigits( source, 0, length );
+		int year = parseNumber( source, 0, pos, 4, 4 );
+		if ( year <= 1582 )
+		{
+			// the dates before the Gregorian cutover are left to the patterns
+			return null;
+		}
+		int month = 1;
+		int day = 1;
+		if ( pos < length )
+		{
+			// -MM
+			if ( source.charAt( pos ) != '-' )
+			{
+				return null;
+			}
+			int end = scanDigits( source, pos + 1, length );
+			month = parseNumber( source, pos + 1, end, 1, 2 );
+			if ( month < 1 || month > 12 )
+			{
+				return null;
+			}
+			pos = end;
+		}
+		if ( pos < length )
+		{
+			// -dd
+			if ( source.charAt( pos ) != '-' )
+			{
+				return null;
+			}
+			int end = scanDigits( source, pos + 1, length );
+			day = parseNumber( source, pos + 1, end, 1, 2 );
+			if ( day < 1 || day > getDaysOfMonth( year, month ) )
+			{
+				return null;
+			}
+			pos = end;
+		}
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		int millisecond = 0;
+		if ( pos < length )
+		{
+			// (T| )HH:mm
+			char c = source.charAt( pos );
+			if ( c != ' ' && c != 'T' )
+			{
+				return null;
+			}
+			int end = scanDigits( source, pos + 1, length );
+			hour = parseNumber( source, pos + 1, end, 1, 2 );
+			if ( hour < 0 || hour > 23 || end >= length
+					|| source.charAt( end ) != ':' )
+			{
+				return null;
+			}
+			boolean twoDigits = end - pos == 3;
+			pos = end;
+			end = scanDigits( source, pos + 1, length );
+			minute = parseNumber( source, pos + 1, end, 1, 2 );
+			if ( minute < 0 || minute > 59 )
+			{
+				return null;
+			}
+			twoDigits = twoDigits && end - pos == 3;
+			pos = end;
+			if ( pos < length )
+			{
+				// :ss
+				if ( source.charAt( pos ) != ':' )
+				{
+					return null;
+				}
+				end = scanDigits( source, pos + 1, length );
+				second = parseNumber( source, pos + 1, end, 1, 2 );
+				if ( second < 0 || second > 59 )
+				{
+					return null;
+				}
+				twoDigits = twoDigits && end - pos == 3;
+				pos = end;
+			}
+			if ( pos < length )
+			{
+				// .SSS, the digits after the milliseconds are truncated only
+				// for HH:mm:ss
+				if ( source.charAt( pos ) != '.' )
+				{
+					return null;
+				}
+				end = scanDigits( source, pos + 1, length );
+				if ( end != length
+						|| ( end - pos - 1 > 3 && ( zone || !twoDigits ) ) )
+				{
+					return null;
+				}
+				end = Math.min( end, pos + 4 );
+				millisecond = parseNumber( source, pos + 1, end, 1, 3 );
+				if ( millisecond < 0 )
+				{
+					return null;
+				}
+				// the fraction is left justified
+				for ( int i = end - pos - 1; i < 3; i++ )
+				{
+					millisecond *= 10;
+				}
+				pos = length;
+			}
+		}
+		if ( pos != length )
+		{
+			return null;
+		}
+
+		ParserCalendar parserCalendar = calendars.get( );
+		if ( parserCalendar == null )
+		{
+			return null;
+		}
+		return parserCalendar.getTime( year,
+				month,
+				day,
+				hour,
+				minute,
+				second,
+				millisecond,
+				timeZone );
+	}
+
+	/**
+	 * @return the end of the digits from the start.
+	 */
+	private static int scanDigits( String source, int start, int end )
+	{
+		int pos = start;
+		while ( pos < end )
+		{
+			char c = source.charAt( pos );
+			if ( c < '0' || c > '9' )
+			{
+				break;
+			}
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * parse the ASCII digits between the start and the end.
+	 *
+	 * @return the number, -1 if the count of the digits is out of the range
+	 *         or any character is not a digit.
+	 */
+	private static int parseNumber( String source, int start, int end,
+			int minDigits, int maxDigits )
+	{
+		if ( end - start < minDigits || end - start > maxDigits )
+		{
+			return -1;
+		}
+		int value = 0;
+		for ( int i = start; i < end; i++ )
+		{
+			char c = source.charAt( i );
+			if ( c < '0' || c > '9' )
+			{
+				return -1;
+			}
+			value = value * 10 + ( c - '0' );
+		}
+		return value;
+	}
+
+	private static int getDaysOfMonth( int year, int month )
+	{
+		if ( month == 2
+				&& ( year % 4 != 0 || ( year % 100 == 0 && year % 400 != 0 ) ) )
+		{
+			return 28;
+		}
+		return DAYS_OF_MONTH[month - 1];
+	}
+
+	/**
+	 * the calendar with the default time zone of the thread, which is the
+	 * time zone used by the patterns of <code>DateFormatFactory</code>.
+	 */
+	private static class ParserCalendar
+	{
+
+		private final Calendar calendar;
+		private final TimeZone defaultTimeZone;
+
+		ParserCalendar( Calendar calendar )
+		{
+			this.calendar = calendar;
+			this.defaultTimeZone = calendar.getTimeZone( );
+		}
+
+		Date getTime( int year, int month, int day, int hour, int minute,
+				int second, int millisecond, TimeZone timeZone )
+		{
+			calendar.setTimeZone( timeZone == null
+					? defaultTimeZone
+					: timeZone );
+			calendar.clear( );
+			calendar.set( year, month - 1, day, hour, minute, second );
+			calendar.set( Calendar.MILLISECOND, millisecond );
+			return calendar.getTime( );
+		}
+	}
+}
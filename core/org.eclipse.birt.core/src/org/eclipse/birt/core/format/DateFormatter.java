@@ -52,6 +52,16 @@ public class DateFormatter implements IFormatter
 	private com.ibm.icu.text.DateFormat timeFormat;
 
 	private com.ibm.icu.text.DateFormat dateFormat;
+
+	/**
+	 * format the numeric patterns of each kind of dates without the date
+	 * format, null if the pattern is not supported.
+	 */
+	private FastDateFormat fastDateTimeFormat;
+
+	private FastDateFormat fastTimeFormat;
+
+	private FastDateFormat fastDateFormat;
 	/**
 	 * Comment for <code>locale</code> used for record Locale information
 	 */
@@ -168,6 +178,10 @@ public class DateFormatter implements IFormatter
 		}
 		
 		applyTimeZone( );
+
+		fastDateTimeFormat = FastDateFormat.create( dateTimeFormat, locale );
+		fastDateFormat = FastDateFormat.create( dateFormat, locale );
+		fastTimeFormat = FastDateFormat.create( timeFormat, locale );
 	}
 	
 	/**
@@ -521,17 +535,23 @@ public class DateFormatter implements IFormatter
 			{
 				if ( dateFormat != null )
 				{
-					return dateFormat.format( date );
+					return fastDateFormat != null
+							? fastDateFormat.format( date )
+							: dateFormat.format( date );
 				}
 			}
 			else if ( date instanceof java.sql.Time )
 			{
 				if ( timeFormat != null )
 				{
-					return timeFormat.format( date );
+					return fastTimeFormat != null
+							? fastTimeFormat.format( date )
+							: timeFormat.format( date );
 				}
 			}
-			return dateTimeFormat.format( date );
+			return fastDateTimeFormat != null
+					? fastDateTimeFormat.format( date )
+					: dateTimeFormat.format( date );
 		}
 		catch ( Exception e )
 		{
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.text.NumberingSystem;
+import com.ibm.icu.text.SimpleDateFormat;
+import com.ibm.icu.util.Calendar;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Formats the dates of the numeric patterns, such as "yyyy-MM-dd HH:mm:ss",
+ * into a reusable buffer instead of going through the field formatters of
+ * <code>SimpleDateFormat</code>.
+ * <p>
+ * Only the fields yyyy, MM, dd, HH, mm, ss and SSS of the Gregorian calendar
+ * and the literal text are supported, and the fields are read from a copy of
+ * the calendar of the date format, so the time zone is the same. The instance
+ * is not thread safe.
+ */
+class FastDateFormat
+{
+
+	private static final int LITERAL = -1;
+
+	/**
+	 * the calendar fields, or LITERAL for the literal text.
+	 */
+	private final int[] fields;
+	private final int[] widths;
+	private final String[] literals;
+	private final Calendar calendar;
+
+	private final char[] buffer;
+
+	private FastDateFormat( List<Object> tokens, Calendar calendar )
+	{
+		int count = tokens.size( ) / 2;
+		int length = 0;
+		this.fields = new int[count];
+		this.widths = new int[count];
+		this.literals = new String[count];
+		for ( int i = 0; i < count; i++ )
+		{
+			Object token = tokens.get( i * 2 );
+			if ( token instanceof String )
+			{
+				fields[i] = LITERAL;
+				literals[i] = (String) token;
+				length += literals[i].length( );
+			}
+			else
+			{
+				fields[i] = ( (Integer) token ).intValue( );
+				widths[i] = ( (Integer) tokens.get( i * 2 + 1 ) ).intValue( );
+				// the year may be longer than the width
+				length += Math.max( widths[i], 10 );
+			}
+		}
+		this.buffer = new char[length];
+		this.calendar = calendar;
+	}
+
+	/**
+	 * create the fast format for the date format.
+	 *
+	 * @param format
+	 *            the date format with the time zone applied.
+	 * @param locale
+	 *            the locale of the format.
+	 * @return the fast format, null if the pattern is not supported.
+	 */
+	static FastDateFormat create( DateFormat format, ULocale locale )
+	{
+		if ( !( format instanceof SimpleDateFormat ) )
+		{
+			return null;
+		}
+		// the other calendars and the numbering systems are left to the date
+		// format
+		Calendar calendar = format.getCalendar( );
+		NumberingSystem numbers = NumberingSystem.getInstance( locale );
+		if ( !"gregorian".equals( calendar.getType( ) )
+				|| numbers.isAlgorithmic( )
+				|| !"0123456789".equals( numbers.getDescription( ) ) )
+		{
+			return null;
+		}
+		List<Object> tokens = parsePattern( ( (SimpleDateFormat) format ).toPattern( ) );
+		if ( tokens == null )
+		{
+			return null;
+		}
+		return new FastDateFormat( tokens, (Calendar) calendar.clone( ) );
+	}
+
+	/**
+	 * parse the pattern into the pairs of the calendar field and the width, or
+	 * the literal text and null.
+	 *
+	 * @return the tokens, null if the pattern contains any unsupported field.
+	 */
+	private static List<Object> parsePattern( String pattern )
+	{
+		// the escaped quote is left to the date format
+		if ( pattern.indexOf( "''" ) >= 0 )
+		{
+			return null;
+		}
+		List<Object> tokens = new ArrayList<Object>( );
+		StringBuffer literal = new StringBuffer( );
+		int length = pattern.length( );
+		int i = 0;
+		while ( i < length )
+		{
+			char c = pattern.charAt( i );
+			if ( c == '\'' )
+			{
+				int end = pattern.indexOf( '\'', i + 1 );
+				if ( end < 0 )
+				{
+					return null;
+				}
+				literal.append( pattern, i + 1, end );
+				i = end + 1;
+				continue;
+			}
+			if ( !( c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' ) )
+			{
+				literal.append( c );
+				i++;
+				continue;
+			}
+			int end = i + 1;
+			while ( end < length && pattern.charAt( end ) == c )
+			{
+				end++;
+			}
+			int field = getField( c, end - i );
+			if ( field == LITERAL )
+			{
+				return null;
+			}
+			if ( literal.length( ) > 0 )
+			{
+				tokens.add( literal.toString( ) );
+				tokens.add( null );
+				literal.setLength( 0 );
+			}
+			tokens.add( Integer.valueOf( field ) );
+			tokens.add( Integer.valueOf( end - i ) );
+			i = end;
+		}
+		if ( literal.length( ) > 0 )
+		{
+			tokens.add( literal.toString( ) );
+			tokens.add( null );
+		}
+		return tokens;
+	}
+
+	private static int getField( char c, int width )
+	{
+		switch ( c )
+		{
+			case 'y' :
+				return width == 4 ? Calendar.YEAR : LITERAL;
+			case 'M' :
+				return width == 2 ? Calendar.MONTH : LITERAL;
+			case 'd' :
+				return width == 2 ? Calendar.DAY_OF_MONTH : LITERAL;
+			case 'H' :
+				return width == 2 ? Calendar.HOUR_OF_DAY : LITERAL;
+			case 'm' :
+				return width == 2 ? Calendar.MINUTE : LITERAL;
+			case 's' :
+				return width == 2 ? Calendar.SECOND : LITERAL;
+			case 'S' :
+				return width == 3 ? Calendar.MILLISECOND : LITERAL;
+		}
+		return LITERAL;
+	}
+
+	/**
+	 * format the date.
+	 *
+	 * @return the formatted string.
+	 */
+	String format( Date date )
+	{
+		calendar.setTime( date );
+		int pos = 0;
+		for ( int i = 0; i < fields.length; i++ )
+		{
+			if ( fields[i] == LITERAL )
+			{
+				String literal = literals[i];
+				literal.getChars( 0, literal.length( ), buffer, pos );
+				pos += literal.length( );
+				continue;
+			}
+			int value = calendar.get( fields[i] );
+			if ( fields[i] == Calendar.MONTH )
+			{
+				value++;
+			}
+			pos = appendNumber( value, widths[i], pos );
+		}
+		return new String( buffer, 0, pos );
+	}
+
+	/**
+	 * append the number padded with the zeros to the width.
+	 */
+	private int appendNumber( int value, int width, int pos )
+	{
+		int digits = 1;
+		for ( int v = value / 10; v > 0; v /= 10 )
+		{
+			digits++;
+		}
+		for ( int i = digits; i < width; i++ )
+		{
+			buffer[pos++] = '0';
+		}
+		int end = pos + digits;
+		for ( int i = end - 1; i >= pos; i-- )
+		{
+			buffer[i] = (char) ( '0' + value % 10 );
+			value /= 10;
+		}
+		return end;
+	}
+}
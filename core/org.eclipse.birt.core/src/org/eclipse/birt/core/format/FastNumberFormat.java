@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+
+/**
+ * Formats the numbers of the plain decimal patterns, such as "#,##0.00" and
+ * "0.###", into a reusable buffer instead of going through the digit list and
+ * the string buffer of <code>DecimalFormat</code>.
+ * <p>
+ * The output is the same as the decimal format it is created from. A value
+ * which can't be formatted exactly in that way, such as a double close to the
+ * half of the last digit or too large for a long, is reported by returning
+ * null, and the caller should use the decimal format instead. The instance is
+ * not thread safe.
+ */
+class FastNumberFormat
+{
+
+	private static final long[] POWERS_OF_TEN = new long[]{
+			1L,
+			10L,
+			100L,
+			1000L,
+			10000L,
+			100000L,
+			1000000L,
+			10000000L,
+			100000000L,
+			1000000000L
+	};
+
+	/**
+	 * the doubles are scaled to the long without losing the precision below
+	 * this bound.
+	 */
+	private static final double MAX_SCALED_VALUE = 1L << 52;
+
+	private final char zeroDigit;
+	private final char groupingSeparator;
+	private final char decimalSeparator;
+	private final String negativePrefix;
+	private final int groupingSize;
+	private final int minIntegerDigits;
+	private final int minFractionDigits;
+	private final int maxFractionDigits;
+
+	private final char[] buffer = new char[64];
+
+	private FastNumberFormat( DecimalFormat format )
+	{
+		DecimalFormatSymbols symbols = format.getDecimalFormatSymbols( );
+		this.zeroDigit = symbols.getZeroDigit( );
+		this.groupingSeparator = symbols.getGroupingSeparator( );
+		this.decimalSeparator = symbols.getDecimalSeparator( );
+		this.negativePrefix = format.getNegativePrefix( );
+		this.groupingSize = format.isGroupingUsed( )
+				? format.getGroupingSize( )
+				: 0;
+		this.minIntegerDigits = format.getMinimumIntegerDigits( );
+		this.minFractionDigits = format.getMinimumFractionDigits( );
+		this.maxFractionDigits = format.getMaximumFractionDigits( );
+	}
+
+	/**
+	 * create the fast format for the number format.
+	 *
+	 * @param format
+	 *            the number format.
+	 * @return the fast format, null if the pattern is not a plain decimal
+	 *         pattern.
+	 */
+	static FastNumberFormat create( NumberFormat format )
+	{
+		if ( !( format instanceof DecimalFormat ) )
+		{
+			return null;
+		}
+		DecimalFormat decimalFormat = (DecimalFormat) format;
+		// the prefix, suffix, percent, exponent and currency are left to the
+		// decimal format
+		if ( decimalFormat.getMultiplier( ) != 1
+				|| decimalFormat.getPositivePrefix( ).length( ) > 0
+				|| decimalFormat.getPositiveSuffix( ).length( ) > 0
+				|| decimalFormat.getNegativeSuffix( ).length( ) > 0
+				|| decimalFormat.getNegativePrefix( ).length( ) > 1
+				|| decimalFormat.toPattern( ).indexOf( 'E' ) >= 0
+				|| decimalFormat.isDecimalSeparatorAlwaysShown( )
+				|| decimalFormat.getRoundingMode( ) != RoundingMode.HALF_EVEN )
+		{
+			return null;
+		}
+		if ( decimalFormat.getMinimumIntegerDigits( ) < 1
+				|| decimalFormat.getMaximumIntegerDigits( ) < 20
+				|| decimalFormat.getMaximumFractionDigits( ) >= POWERS_OF_TEN.length )
+		{
+			return null;
+		}
+		return new FastNumberFormat( decimalFormat );
+	}
+
+	/**
+	 * format the double value.
+	 *
+	 * @return the formatted string, null if the value should be formatted by
+	 *         the decimal format.
+	 */
+	String format( double value )
+	{
+		boolean negative = value < 0;
+		double scaled = Math.abs( value ) * POWERS_OF_TEN[maxFractionDigits];
+		if ( !( scaled < MAX_SCALED_VALUE ) )
+		{
+			return null;
+		}
+		double floor = Math.floor( scaled );
+		double fraction = scaled - floor;
+		long digits = (long) floor;
+		if ( maxFractionDigits > 0 )
+		{
+			// the exact value or its shortest decimal form may be on the
+			// other side of the half
+			if ( Math.abs( fraction - 0.5 ) <= 2 * Math.ulp( scaled ) )
+			{
+				return null;
+			}
+		}
+		if ( fraction > 0.5 || ( fraction == 0.5 && ( digits & 1 ) != 0 ) )
+		{
+			digits++;
+		}
+		if ( negative && digits == 0 )
+		{
+			// the sign of the negative value rounded to zero
+			return null;
+		}
+		return format( negative, digits, maxFractionDigits );
+	}
+
+	/**
+	 * format the long value.
+	 *
+	 * @return the formatted string, null if the value should be formatted by
+	 *         the decimal format.
+	 */
+	String format( long value )
+	{
+		if ( value == Long.MIN_VALUE )
+		{
+			return null;
+		}
+		return format( value < 0, Math.abs( value ), 0 );
+	}
+
+	/**
+	 * write the digits from right to left into the buffer.
+	 *
+	 * @param digits
+	 *            the absolute value scaled by the power of ten of the scale.
+	 * @param scale
+	 *            the count of the fraction digits in the value.
+	 */
+	private String format( boolean negative, long digits, int scale )
+	{
+		int pos = buffer.length;
+		long integer = digits / POWERS_OF_TEN[scale];
+		long fraction = digits % POWERS_OF_TEN[scale];
+
+		// the trailing zeros are omitted down to the min fraction digits
+		int fractionDigits = Math.max( scale, minFractionDigits );
+		while ( fractionDigits > minFractionDigits && fraction % 10 == 0 )
+		{
+			fraction /= 10;
+			fractionDigits--;
+		}
+		if ( fractionDigits > 0 )
+		{
+			for ( int i = fractionDigits; i > scale; i-- )
+			{
+				buffer[--pos] = zeroDigit;
+			}
+			for ( int i = Math.min( fractionDigits, scale ); i > 0; i-- )
+			{
+				buffer[--pos] = (char) ( zeroDigit + fraction % 10 );
+				fraction /= 10;
+			}
+			buffer[--pos] = decimalSeparator;
+		}
+
+		int count = 0;
+		while ( integer > 0 || count < minIntegerDigits )
+		{
+			if ( groupingSize > 0 && count > 0 && count % groupingSize == 0 )
+			{
+				buffer[--pos] = groupingSeparator;
+			}
+			buffer[--pos] = (char) ( zeroDigit + integer % 10 );
+			integer /= 10;
+			count++;
+		}
+		if ( negative )
+		{
+			for ( int i = negativePrefix.length( ) - 1; i >= 0; i-- )
+			{
+				buffer[--pos] = negativePrefix.charAt( i );
+			}
+		}
+		return new String( buffer, pos, buffer.length - pos );
+	}
+}
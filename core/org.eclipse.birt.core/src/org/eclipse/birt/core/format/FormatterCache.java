@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Cache of the formatters identified by the pattern, locale and time zone.
+ * <p>
+ * The formatters are not thread safe, so each thread has its own formatters,
+ * and a formatter returned by the cache should only be used by the calling
+ * thread. Each thread keeps at most <code>maxSize</code> formatters and
+ * releases the least recently used ones. The returned formatter is shared by
+ * all the callers in the same thread, so it should not be changed by
+ * <code>applyPattern</code> or the other setters.
+ */
+public class FormatterCache
+{
+
+	public static final int DEFAULT_MAX_SIZE = 128;
+
+	private static final FormatterCache instance = new FormatterCache( DEFAULT_MAX_SIZE );
+
+	private static final int NUMBER = 0;
+	private static final int DATE = 1;
+	private static final int STRING = 2;
+
+	private final int maxSize;
+
+	private final ThreadLocal<Map<FormatterKey, IFormatter>> formatters = new ThreadLocal<Map<FormatterKey, IFormatter>>( ) {
+
+		@Override
+		protected Map<FormatterKey, IFormatter> initialValue( )
+		{
+			return new LinkedHashMap<FormatterKey, IFormatter>( 16, 0.75f, true ) {
+
+				private static final long serialVersionUID = 1L;
+
+				protected boolean removeEldestEntry(
+						Map.Entry<FormatterKey, IFormatter> eldest )
+				{
+					return size( ) > maxSize;
+				}
+			};
+		}
+	};
+
+	/**
+	 * @return the cache shared by the whole application.
+	 */
+	public static FormatterCache getInstance( )
+	{
+		return instance;
+	}
+
+	/**
+	 * @param maxSize
+	 *            the max count of the formatters cached by each thread.
+	 */
+	public FormatterCache( int maxSize )
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * get the number formatter of the current thread.
+	 *
+	 * @param pattern
+	 *            the number pattern.
+	 * @param locale
+	 *            the locale, null for the default locale.
+	 * @return the number formatter.
+	 */
+	public NumberFormatter getNumberFormatter( String pattern, ULocale locale )
+	{
+		locale = locale == null ? ULocale.getDefault( ) : locale;
+		FormatterKey key = new FormatterKey( NUMBER, pattern, locale, null );
+		Map<FormatterKey, IFormatter> cache = formatters.get( );
+		NumberFormatter fmt = (NumberFormatter) cache.get( key );
+		if ( fmt == null )
+		{
+			fmt = new NumberFormatter( pattern, locale );
+			cache.put( key, fmt );
+		}
+		return fmt;
+	}
+
+	/**
+	 * get the date formatter of the current thread.
+	 *
+	 * @param pattern
+	 *            the date pattern.
+	 * @param locale
+	 *            the locale, null for the default locale.
+	 * @param timeZone
+	 *            the time zone, null for the default time zone.
+	 * @return the date formatter.
+	 */
+	public DateFormatter getDateFormatter( String pattern, ULocale locale,
+			TimeZone timeZone )
+	{
+		locale = locale == null ? ULocale.getDefault( ) : locale;
+		FormatterKey key = new FormatterKey( DATE, pattern, locale, timeZone );
+		Map<FormatterKey, IFormatter> cache = formatters.get( );
+		DateFormatter fmt = (DateFormatter) cache.get( key );
+		if ( fmt == null )
+		{
+			fmt = new DateFormatter( pattern, locale, timeZone );
+			cache.put( key, fmt );
+		}
+		return fmt;
+	}
+
+	/**
+	 * get the string formatter of the current thread.
+	 *
+	 * @param pattern
+	 *            the string pattern.
+	 * @param locale
+	 *            the locale, null for the default locale.
+	 * @return the string formatter.
+	 */
+	public StringFormatter getStringFormatter( String pattern, ULocale locale )
+	{
+		locale = locale == null ? ULocale.getDefault( ) : locale;
+		FormatterKey key = new FormatterKey( STRING, pattern, locale, null );
+		Map<FormatterKey, IFormatter> cache = formatters.get( );
+		StringFormatter fmt = (StringFormatter) cache.get( key );
+		if ( fmt == null )
+		{
+			fmt = new StringFormatter( pattern, locale );
+			cache.put( key, fmt );
+		}
+		return fmt;
+	}
+
+	/**
+	 * @return the count of the formatters cached by the current thread.
+	 */
+	public int size( )
+	{
+		return formatters.get( ).size( );
+	}
+
+	/**
+	 * release the formatters cached by the current thread.
+	 */
+	public void clear( )
+	{
+		formatters.remove( );
+	}
+
+	private static class FormatterKey
+	{
+
+		final int type;
+		final String pattern;
+		final ULocale locale;
+		final TimeZone timeZone;
+		final int hashCode;
+
+		FormatterKey( int type, String pattern, ULocale locale,
+				TimeZone timeZone )
+		{
+			this.type = type;
+			this.pattern = pattern;
+			this.locale = locale;
+			this.timeZone = timeZone;
+			int hash = type;
+			hash = hash * 31 + ( pattern == null ? 0 : pattern.hashCode( ) );
+			hash = hash * 31 + locale.hashCode( );
+			hash = hash * 31
+					+ ( timeZone == null ? 0 : timeZone.getID( ).hashCode( ) );
+			this.hashCode = hash;
+		}
+
+		public int hashCode( )
+		{
+			return hashCode;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( this == obj )
+			{
+				return true;
+			}
+			if ( !( obj instanceof FormatterKey ) )
+			{
+				return false;
+			}
+			FormatterKey key = (FormatterKey) obj;
+			return type == key.type && hashCode == key.hashCode
+					&& equals( pattern, key.pattern )
+					&& locale.equals( key.locale )
+					&& equals( timeZone, key.timeZone );
+		}
+
+		private static boolean equals( Object a, Object b )
+		{
+			return a == null ? b == null : a.equals( b );
+		}
+	}
+}
@@ -95,6 +95,12 @@ public class NumberFormatter implements IFormatter
 
 	private RoundingMode roundingMode = RoundingMode.UNNECESSARY;
 
+	/**
+	 * formats the plain decimal patterns without the decimal format, null if
+	 * the pattern is not supported.
+	 */
+	private FastNumberFormat fastFormat;
+
 	/**
 	 * constructor with no argument
 	 */
@@ -183,6 +189,7 @@ public class NumberFormatter implements IFormatter
 			patternStr = processPatternAttributes( patternStr );
 			this.formatPattern = patternStr;
 			hexFlag = false;
+			fastFormat = null;
 			roundPrecision = -1;
 			realPattern = formatPattern;
 
@@ -335,6 +342,14 @@ public class NumberFormatter implements IFormatter
 			}
 			
 			num = roundValue( num );
+			if ( fastFormat != null )
+			{
+				String result = fastFormat.format( num );
+				if ( result != null )
+				{
+					return result;
+				}
+			}
 			return numberFormat.format( num );
 
 		}
@@ -403,6 +418,12 @@ public class NumberFormatter implements IFormatter
 				return format( (BigDecimal) number );
 			}
 
+			if ( number instanceof Integer || number instanceof Long
+					|| number instanceof Short || number instanceof Byte )
+			{
+				return format( number.longValue( ) );
+			}
+
 			return numberFormat.format( number );
 
 		}
@@ -426,6 +447,14 @@ public class NumberFormatter implements IFormatter
 		{
 			return Long.toHexString( num );
 		}
+		if ( fastFormat != null )
+		{
+			String result = fastFormat.format( num );
+			if ( result != null )
+			{
+				return result;
+			}
+		}
 		return numberFormat.format( num );
 	}
 
@@ -525,6 +554,11 @@ public class NumberFormatter implements IFormatter
 			}
 		}
 
+		fastFormat = null;
+		if ( formatPattern != null && !hexFlag )
+		{
+			fastFormat = FastNumberFormat.create( numberFormat );
+		}
 	}
 
 	private void handleNamedFormats( String patternStr )
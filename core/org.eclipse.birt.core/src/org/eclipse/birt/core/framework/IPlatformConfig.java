@@ -41,4 +41,13 @@ public interface IPlatformConfig
 	 */
 	static final String TEMP_DIR = "tmpDir"; //$NON-NLS-1$
 
+	/**
+	 * defines the file to cache the bundles and extensions loaded from the
+	 * class path when the platform runs without OSGi, the value is the file
+	 * path. The file is created at the first startup and refreshed once any
+	 * bundle is changed, so the following startups needn't parse plugin.xml
+	 * again. It can also be created in the build and deployed read only.
+	 */
+	static final String BUNDLE_INDEX = "BUNDLE_INDEX"; //$NON-NLS-1$
+
 }
\ No newline at end of file
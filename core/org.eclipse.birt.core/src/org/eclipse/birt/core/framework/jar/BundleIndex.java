@@ -0,0 +1,467 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.framework.jar;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.xml.sax.SAXException;
+
+/**
+ * The binary index of the bundles installed by the jar platform.
+ * <p>
+ * The index saves the manifest and the extensions parsed from plugin.xml of
+ * each bundle root, so the following startups decode them from the index
+ * instead of parsing the XML again. The configuration elements of an
+ * extension are decoded only when they are used for the first time.
+ * <p>
+ * Each bundle is saved with the modified time and the size of its jar file,
+ * or of its manifest, plugin.xml and plugin.properties if the bundle is a
+ * folder. The bundle is parsed again once they are changed, and the index
+ * file is rewritten once any bundle is changed, added or removed. The bundles
+ * whose files can't be found, such as the ones loaded by the custom URL
+ * handlers, are always parsed.
+ */
+class BundleIndex
+{
+
+	static Logger logger = Logger.getLogger( BundleIndex.class.getName( ) );
+
+	private static final int MAGIC = 0x42494458;
+	private static final int VERSION = 1;
+
+	private File file;
+
+	/**
+	 * the entries loaded from the index file, keyed by the bundle root.
+	 */
+	private Map<String, Entry> entries = new HashMap<String, Entry>( );
+
+	/**
+	 * the entries of the bundles installed in this startup.
+	 */
+	private Map<String, Entry> installed = new LinkedHashMap<String, Entry>( );
+
+	private boolean modified;
+
+	BundleIndex( File file )
+	{
+		this.file = file;
+		load( );
+	}
+
+	/**
+	 * load the bundle from the index, or parse it if it isn't in the index or
+	 * has been changed.
+	 *
+	 * @param platform
+	 *            the platform installing the bundle.
+	 * @param root
+	 *            the root URL of the bundle.
+	 * @return the bundle, null if the root is not a bundle.
+	 */
+	Bundle loadBundle( ServicePlatform platform, URL root )
+			throws IOException, ParserConfigurationException, SAXException
+	{
+		String key = root.toExternalForm( );
+		String fingerprint = getFingerprint( root );
+		if ( fingerprint != null )
+		{
+			Entry entry = entries.get( key );
+			if ( entry != null && fingerprint.equals( entry.fingerprint ) )
+			{
+				try
+				{
+					Bundle bundle = readBundle( platform, root, entry.data );
+					installed.put( key, entry );
+					return bundle;
+				}
+				catch ( IOException ex )
+				{
+					logger.log( Level.FINE, "Failed to load " + key
+							+ " from the bundle index", ex );
+				}
+			}
+		}
+
+		Bundle bundle = new BundleLoader( platform, root ).load( );
+		if ( fingerprint != null )
+		{
+			try
+			{
+				installed.put( key, new Entry( fingerprint, writeBundle( bundle ) ) );
+			}
+			catch ( IOException ex )
+			{
+				// the bundle can't be indexed, such as the value is too long
+				logger.log( Level.FINE, "Failed to index " + key, ex );
+			}
+			modified = true;
+		}
+		return bundle;
+	}
+
+	/**
+	 * write the index file if any bundle is changed, added or removed since
+	 * the index is loaded.
+	 */
+	void save( )
+	{
+		if ( !modified && installed.size( ) == entries.size( ) )
+		{
+			return;
+		}
+		File folder = file.getAbsoluteFile( ).getParentFile( );
+		File tempFile = null;
+		try
+		{
+			folder.mkdirs( );
+			// other processes may read the index at the same time, so write
+			// a new file and then replace the old one
+			tempFile = File.createTempFile( file.getName( ), ".tmp", folder );
+			CheckedOutputStream checked = new CheckedOutputStream(
+					new FileOutputStream( tempFile ), new CRC32( ) );
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream( checked ) );
+			try
+			{
+				out.writeInt( MAGIC );
+				out.writeInt( VERSION );
+				out.writeInt( installed.size( ) );
+				for ( Map.Entry<String, Entry> item : installed.entrySet( ) )
+				{
+					Entry entry = item.getValue( );
+					out.writeUTF( item.getKey( ) );
+					out.writeUTF( entry.fingerprint );
+					out.writeInt( entry.data.length );
+					out.write( entry.data );
+				}
+				out.flush( );
+				out.writeLong( checked.getChecksum( ).getValue( ) );
+			}
+			finally
+			{
+				out.close( );
+			}
+			if ( !tempFile.renameTo( file ) )
+			{
+				file.delete( );
+				if ( !tempFile.renameTo( file ) )
+				{
+					throw new IOException( "Can't rename " + tempFile
+							+ " to " + file );
+				}
+			}
+			tempFile = null;
+			entries = new HashMap<String, Entry>( installed );
+			modified = false;
+		}
+		catch ( IOException ex )
+		{
+			// the index is read only, such as the one created in the build
+			logger.log( Level.FINE, "Failed to save the bundle index " + file,
+					ex );
+		}
+		finally
+		{
+			if ( tempFile != null )
+			{
+				tempFile.delete( );
+			}
+		}
+	}
+
+	private void load( )
+	{
+		if ( !file.exists( ) )
+		{
+			return;
+		}
+		try
+		{
+			byte[] bytes = readFile( file );
+			if ( bytes.length < 8 )
+			{
+				return;
+			}
+			DataInputStream in = new DataInputStream( new ByteArrayInputStream(
+					bytes ) );
+			CRC32 crc = new CRC32( );
+			crc.update( bytes, 0, bytes.length - 8 );
+			in.skipBytes( bytes.length - 8 );
+			if ( in.readLong( ) != crc.getValue( ) )
+			{
+				logger.log( Level.WARNING, "The bundle index " + file
+						+ " is corrupted" );
+				return;
+			}
+
+			in = new DataInputStream( new ByteArrayInputStream( bytes ) );
+			if ( in.readInt( ) != MAGIC || in.readInt( ) != VERSION )
+			{
+				return;
+			}
+			Map<String, Entry> loaded = new HashMap<String, Entry>( );
+			int count = in.readInt( );
+			for ( int i = 0; i < count; i++ )
+			{
+				String key = in.readUTF( );
+				String fingerprint = in.readUTF( );
+				byte[] data = new byte[in.readInt( )];
+				in.readFully( data );
+				loaded.put( key, new Entry( fingerprint, data ) );
+			}
+			entries = loaded;
+		}
+		catch ( IOException ex )
+		{
+			logger.log( Level.WARNING, "Failed to load the bundle index "
+					+ file, ex );
+		}
+	}
+
+	private static byte[] readFile( File file ) throws IOException
+	{
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+				(int) file.length( ) );
+		InputStream in = new FileInputStream( file );
+		try
+		{
+			byte[] bytes = new byte[8192];
+			int size = in.read( bytes );
+			while ( size != -1 )
+			{
+				buffer.write( bytes, 0, size );
+				size = in.read( bytes );
+			}
+		}
+		finally
+		{
+			in.close( );
+		}
+		return buffer.toByteArray( );
+	}
+
+	/**
+	 * @return the modified time and the size of the files of the bundle, null
+	 *         if the files can't be found.
+	 */
+	static String getFingerprint( URL root )
+	{
+		String protocol = root.getProtocol( );
+		try
+		{
+			if ( "jar".equals( protocol ) || "wsjar".equals( protocol ) )
+			{
+				String path = root.getPath( );
+				int index = path.indexOf( "!/" );
+				if ( index == -1 || !path.startsWith( "file:" ) )
+				{
+					return null;
+				}
+				File jarFile = new File( new URI( path.substring( 0, index ) ) );
+				return getFingerprint( jarFile );
+			}
+			if ( "file".equals( protocol ) )
+			{
+				File folder = new File( root.toURI( ) );
+				return getFingerprint( new File( folder,
+						BundleLoader.MANIFEST_ENTRY ) )
+						+ ";"
+						+ getFingerprint( new File( folder,
+								BundleLoader.PLUGIN_ENTRY ) )
+						+ ";"
+						+ getFingerprint( new File( folder,
+								BundleLoader.PROPERTIES_ENTRY ) );
+			}
+		}
+		catch ( Exception ex )
+		{
+			// the file of the URL is unknown
+		}
+		return null;
+	}
+
+	private static String getFingerprint( File file )
+	{
+		if ( !file.isFile( ) )
+		{
+			return "-";
+		}
+		return file.lastModified( ) + "/" + file.length( );
+	}
+
+	static byte[] writeBundle( Bundle bundle ) throws IOException
+	{
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+		DataOutputStream out = new DataOutputStream( buffer );
+		out.writeBoolean( bundle != null );
+		if ( bundle != null )
+		{
+			writeString( out, bundle.getSymbolicName( ) );
+			writeString( out, bundle.version );
+			ExtensionPoint[] points = bundle.getExtensionPoints( );
+			out.writeInt( points.length );
+			for ( ExtensionPoint point : points )
+			{
+				writeString( out, point.id );
+				writeString( out, point.schema );
+			}
+			Extension[] extensions = bundle.getExtensions( );
+			out.writeInt( extensions.length );
+			for ( Extension extension : extensions )
+			{
+				writeString( out, extension.id );
+				writeString( out, extension.label );
+				writeString( out, extension.extensionPointId );
+				ByteArrayOutputStream configBuffer = new ByteArrayOutputStream( );
+				writeConfigurations( new DataOutputStream( configBuffer ),
+						(ConfigurationElement[]) extension
+								.getConfigurationElements( ) );
+				out.writeInt( configBuffer.size( ) );
+				configBuffer.writeTo( out );
+			}
+		}
+		out.flush( );
+		return buffer.toByteArray( );
+	}
+
+	static Bundle readBundle( ServicePlatform platform, URL root, byte[] data )
+			throws IOException
+	{
+		DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream( data ) );
+		if ( !in.readBoolean( ) )
+		{
+			return null;
+		}
+		Bundle bundle = new Bundle( platform, root, readString( in ) );
+		bundle.version = readString( in );
+		ExtensionPoint[] points = new ExtensionPoint[in.readInt( )];
+		for ( int i = 0; i < points.length; i++ )
+		{
+			points[i] = new ExtensionPoint( bundle, readString( in ) );
+			points[i].schema = readString( in );
+		}
+		Extension[] extensions = new Extension[in.readInt( )];
+		for ( int i = 0; i < extensions.length; i++ )
+		{
+			extensions[i] = new Extension( bundle, readString( in ) );
+			extensions[i].label = readString( in );
+			extensions[i].extensionPointId = readString( in );
+			byte[] configData = new byte[in.readInt( )];
+			in.readFully( configData );
+			extensions[i].configurationData = configData;
+		}
+		bundle.extensionPoints = points;
+		bundle.extensions = extensions;
+		return bundle;
+	}
+
+	private static void writeConfigurations( DataOutputStream out,
+			ConfigurationElement[] configs ) throws IOException
+	{
+		out.writeInt( configs.length );
+		for ( ConfigurationElement config : configs )
+		{
+			writeString( out, config.name );
+			out.writeInt( config.attributes.size( ) );
+			for ( Map.Entry<String, String> attr : config.attributes.entrySet( ) )
+			{
+				writeString( out, attr.getKey( ) );
+				writeString( out, attr.getValue( ) );
+			}
+			writeConfigurations( out, config.children );
+		}
+	}
+
+	/**
+	 * decode the configuration elements of the extension.
+	 */
+	static ConfigurationElement[] readConfigurations( Object parent,
+			byte[] data ) throws IOException
+	{
+		return readConfigurations( parent, new DataInputStream(
+				new ByteArrayInputStream( data ) ) );
+	}
+
+	private static ConfigurationElement[] readConfigurations( Object parent,
+			DataInputStream in ) throws IOException
+	{
+		ArrayList<ConfigurationElement> configs = new ArrayList<ConfigurationElement>( );
+		int count = in.readInt( );
+		for ( int i = 0; i < count; i++ )
+		{
+			ConfigurationElement config = new ConfigurationElement( );
+			config.parent = parent;
+			config.name = readString( in );
+			int attrCount = in.readInt( );
+			config.attributes = new HashMap<String, String>( );
+			for ( int j = 0; j < attrCount; j++ )
+			{
+				String name = readString( in );
+				config.attributes.put( name, readString( in ) );
+			}
+			config.children = readConfigurations( config, in );
+			configs.add( config );
+		}
+		return configs.toArray( new ConfigurationElement[configs.size( )] );
+	}
+
+	private static void writeString( DataOutputStream out, String value )
+			throws IOException
+	{
+		out.writeBoolean( value != null );
+		if ( value != null )
+		{
+			out.writeUTF( value );
+		}
+	}
+
+	private static String readString( DataInputStream in ) throws IOException
+	{
+		return in.readBoolean( ) ? in.readUTF( ) : null;
+	}
+
+	private static class Entry
+	{
+
+		final String fingerprint;
+		final byte[] data;
+
+		Entry( String fingerprint, byte[] data )
+		{
+			this.fingerprint = fingerprint;
+			this.data = data;
+		}
+	}
+}
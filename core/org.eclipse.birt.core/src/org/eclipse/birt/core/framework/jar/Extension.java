@@ -11,6 +11,10 @@
 
 package org.eclipse.birt.core.framework.jar;
 
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IContributor;
 import org.eclipse.core.runtime.IExtension;
@@ -21,7 +25,10 @@ import org.eclipse.core.runtime.InvalidRegistryObjectException;
 public class Extension implements IExtension
 {
 
+	static Logger logger = Logger.getLogger( Extension.class.getName( ) );
+
 	protected Bundle bundle;
+	protected String id;
 	protected String namespace;
 	protected String uniqueId;
 	protected String name;
@@ -30,9 +37,16 @@ public class Extension implements IExtension
 
 	protected ConfigurationElement[] configuration;
 
+	/**
+	 * the configuration elements encoded by the bundle index, which are
+	 * decoded at the first access.
+	 */
+	byte[] configurationData;
+
 	Extension( Bundle bundle, String id )
 	{
 		this.bundle = bundle;
+		this.id = id;
 		int dotAt = id.lastIndexOf( '.' );
 		if ( dotAt == -1 )
 		{
@@ -50,8 +64,23 @@ public class Extension implements IExtension
 		}
 	}
 
-	public IConfigurationElement[] getConfigurationElements( )
+	public synchronized IConfigurationElement[] getConfigurationElements( )
 	{
+		if ( configurationData != null )
+		{
+			try
+			{
+				configuration = BundleIndex.readConfigurations( this,
+						configurationData );
+			}
+			catch ( IOException ex )
+			{
+				logger.log( Level.WARNING, "Failed to load the configurations of "
+						+ this, ex );
+				configuration = new ConfigurationElement[0];
+			}
+			configurationData = null;
+		}
 		return configuration;
 	}
 
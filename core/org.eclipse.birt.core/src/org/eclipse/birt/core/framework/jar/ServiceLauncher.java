@@ -77,6 +77,7 @@ public class ServiceLauncher extends PlatformLauncher
 							+ root, ex );
 				}
 			}
+			platform.saveBundleIndex( );
 			platform.startup( );
 
 			Platform.setPlatform( platform );
@@ -45,16 +45,23 @@ public class ServicePlatform implements IPlatform
 	protected HashMap<String, Bundle> bundles = new HashMap<String, Bundle>( );
 	protected ExtensionRegistry extensionRegistry = new ExtensionRegistry( );
 	protected File workspace;
+	protected BundleIndex bundleIndex;
 
 	ServicePlatform( PlatformConfig config )
 	{
 		this.config = config;
+		Object indexFile = config.getProperty( PlatformConfig.BUNDLE_INDEX );
+		if ( indexFile != null )
+		{
+			bundleIndex = new BundleIndex( new File( indexFile.toString( ) ) );
+		}
 	}
 
 	public void installBundle( URL root ) throws IOException,
 			ParserConfigurationException, SAXException
 	{
-		Bundle bundle = new BundleLoader( this, root ).load( );
+		Bundle bundle = bundleIndex != null ? bundleIndex.loadBundle( this,
+				root ) : new BundleLoader( this, root ).load( );
 		if ( bundle != null )
 		{
 			bundles.put( bundle.getSymbolicName( ), bundle );
@@ -62,6 +69,17 @@ public class ServicePlatform implements IPlatform
 		}
 	}
 
+	/**
+	 * save the bundles installed into the bundle index.
+	 */
+	void saveBundleIndex( )
+	{
+		if ( bundleIndex != null )
+		{
+			bundleIndex.save( );
+		}
+	}
+
 	public IBundle getBundle( String symbolicName )
 	{
 		return bundles.get( symbolicName );
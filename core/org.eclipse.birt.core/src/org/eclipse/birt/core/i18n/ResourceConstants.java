@@ -43,6 +43,7 @@ public class ResourceConstants
 	public final static String READ_ONLY_ARCHIVE = "error.ReadOnlyArchive";
 	public final static String UNSUPPORTED_ARCHIVE_VERSION = "error.UnsupportedArchiveVersion";
 	public final static String UNSUPPORTED_BLOCK_SIZE = "error.UnsupportedBlockSize";
+	public final static String CORRUPTED_BLOCK = "error.CorruptedBlock";
 	public final static String INVALID_INDEX = "error.InvalidIndex";
 	public final static String NOT_COMPOUND_FILE = "error.NotCompoundFile";
 	public final static String UNEXPECTED_NODE_TYPE = "error.UnsupportedNodeType";
@@ -55,6 +56,8 @@ public class ResourceConstants
 	public static final String NULL_SOURCE = "error.NullSource";
 	public static final String OUT_OF_RANGE = "error.OutOfRange";
 	public static final String READ_ONLY_TREE = "error.ReadOnlyTree";
+	public static final String NON_EMPTY_TREE = "error.NonEmptyTree";
+	public static final String UNSORTED_KEYS = "error.UnsortedKeys";
 	public static final String CANNOT_LOAD_NODE = "error.CannotLoadNode";
 	public static final String KEY_SIZE_ERROR = "error.KeySizeError";
 	public static final String MISMATCH_KEY_LENGTH = "error.MismatchKeyLength";
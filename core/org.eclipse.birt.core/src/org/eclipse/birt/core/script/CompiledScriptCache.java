@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.script;
+
+import org.eclipse.birt.core.util.SegmentedLRUCache;
+import org.mozilla.javascript.Script;
+
+/**
+ * LRU cache of the compiled scripts shared by all the threads.
+ * <p>
+ * The script is compiled with the security domain of its source, so it is
+ * identified by the script text and the security domain. The scripts are kept
+ * in a SegmentedLRUCache, so the threads evaluating different scripts seldom
+ * contend with each other.
+ */
+public class CompiledScriptCache
+{
+
+	private final SegmentedLRUCache<ScriptKey, Script> scripts;
+
+	/**
+	 * create the cache with the default concurrency level.
+	 *
+	 * @param maxSize
+	 *            the max count of the cached scripts, 0 disables the cache.
+	 */
+	public CompiledScriptCache( int maxSize )
+	{
+		this( maxSize, SegmentedLRUCache.DEFAULT_CONCURRENCY_LEVEL );
+	}
+
+	/**
+	 * create the cache.
+	 *
+	 * @param maxSize
+	 *            the max count of the cached scripts, 0 disables the cache.
+	 * @param concurrencyLevel
+	 *            the estimated count of threads accessing the cache, it is
+	 *            round to the power of 2.
+	 */
+	public CompiledScriptCache( int maxSize, int concurrencyLevel )
+	{
+		scripts = new SegmentedLRUCache<ScriptKey, Script>( maxSize,
+				concurrencyLevel );
+	}
+
+	/**
+	 * set the max count of the cached scripts.
+	 *
+	 * @param maxSize
+	 *            the max count, 0 disables the cache and releases all the
+	 *            cached scripts.
+	 */
+	public void setMaxSize( int maxSize )
+	{
+		scripts.setMaxSize( maxSize );
+	}
+
+	public int getMaxSize( )
+	{
+		return (int) scripts.getMaxSize( );
+	}
+
+	/**
+	 * get the compiled script.
+	 *
+	 * @param scriptText
+	 *            the script text.
+	 * @param securityDomain
+	 *            the security domain used to compile the script, null if the
+	 *            script is compiled without the security domain.
+	 * @return the compiled script, null if it is not cached.
+	 */
+	public Script get( String scriptText, Object securityDomain )
+	{
+		return scripts.get( new ScriptKey( scriptText, securityDomain ) );
+	}
+
+	/**
+	 * add the compiled script into the cache.
+	 *
+	 * @param scriptText
+	 *            the script text.
+	 * @param securityDomain
+	 *            the security domain used to compile the script.
+	 * @param script
+	 *            the compiled script.
+	 */
+	public void put( String scriptText, Object securityDomain, Script script )
+	{
+		scripts.put( new ScriptKey( scriptText, securityDomain ), script );
+	}
+
+	/**
+	 * remove all the cached scripts.
+	 */
+	public void clear( )
+	{
+		scripts.clear( );
+	}
+
+	/**
+	 * @return the count of the cached scripts.
+	 */
+	public int size( )
+	{
+		return scripts.size( );
+	}
+
+	public long getHitCount( )
+	{
+		return scripts.getHitCount( );
+	}
+
+	public long getMissCount( )
+	{
+		return scripts.getMissCount( );
+	}
+
+	public long getEvictionCount( )
+	{
+		return scripts.getEvictionCount( );
+	}
+
+	public void resetStatistics( )
+	{
+		scripts.resetStatistics( );
+	}
+
+	public String toString( )
+	{
+		return "CompiledScriptCache[size=" + size( ) + ", maxSize="
+				+ getMaxSize( ) + ", hit=" + getHitCount( ) + ", miss="
+				+ getMissCount( ) + ", eviction=" + getEvictionCount( ) + "]";
+	}
+
+	private static class ScriptKey
+	{
+
+		final String scriptText;
+		final Object securityDomain;
+		final int hashCode;
+
+		ScriptKey( String scriptText, Object securityDomain )
+		{
+			this.scriptText = scriptText;
+			this.securityDomain = securityDomain;
+			int hash = scriptText.hashCode( );
+			if ( securityDomain != null )
+			{
+				hash = hash * 31 + securityDomain.hashCode( );
+			}
+			this.hashCode = hash;
+		}
+
+		public int hashCode( )
+		{
+			return hashCode;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( this == obj )
+			{
+				return true;
+			}
+			if ( !( obj instanceof ScriptKey ) )
+			{
+				return false;
+			}
+			ScriptKey key = (ScriptKey) obj;
+			if ( hashCode != key.hashCode
+					|| !scriptText.equals( key.scriptText ) )
+			{
+				return false;
+			}
+			if ( securityDomain == null )
+			{
+				return key.securityDomain == null;
+			}
+			return securityDomain.equals( key.securityDomain );
+		}
+	}
+}
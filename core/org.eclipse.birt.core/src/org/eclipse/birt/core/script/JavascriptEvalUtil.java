@@ -16,11 +16,10 @@ package org.eclipse.birt.core.script;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.AccessController;
 import java.security.CodeSource;
-import java.util.Collections;
+import java.security.PrivilegedAction;
 import java.util.Date;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,26 +45,69 @@ public class JavascriptEvalUtil
 {
 	private static Logger logger = Logger.getLogger( JavascriptEvalUtil.class.getName( ) );
 
+	/**
+	 * the system property to change the size of the compiled script cache.
+	 */
+	public static final String PROPERTY_SCRIPT_CACHE_SIZE = "org.eclipse.birt.core.script.SCRIPT_CACHE_SIZE";
+
 	/*
 	 * LRU cache for compiled scripts. For performance reasons, scripts are compiled and put 
 	 * in a cache. Repeated evaluation of the same script will then used the compiled binary.
 	 * 
 	 */
 	static protected final int SCRIPT_CACHE_SIZE = 200;
-	// access-ordered LRU cache
-	static protected Map compiledScriptCache = Collections.synchronizedMap( 
-		new LinkedHashMap( SCRIPT_CACHE_SIZE, (float)0.75, true)
+	static protected final CompiledScriptCache compiledScriptCache = new CompiledScriptCache(
+			getDefaultCacheSize( ) );
+
+	private static int getDefaultCacheSize( )
+	{
+		String value = AccessController
+				.doPrivileged( new PrivilegedAction<String>( ) {
+
+					public String run( )
+					{
+						return System.getProperty( PROPERTY_SCRIPT_CACHE_SIZE );
+					}
+				} );
+		if ( value != null )
+		{
+			try
+			{
+				return Integer.parseInt( value.trim( ) );
+			}
+			catch ( NumberFormatException ex )
+			{
+				logger.log( Level.WARNING, "invalid script cache size: "
+						+ value, ex );
+			}
+		}
+		return SCRIPT_CACHE_SIZE;
+	}
+
+	/**
+	 * set the max count of the compiled scripts in the cache. The cache is
+	 * shared by all the threads in the JVM.
+	 * 
+	 * @param size
+	 *            the max count of the cached scripts, 0 disables the cache.
+	 */
+	public static void setScriptCacheSize( int size )
+	{
+		compiledScriptCache.setMaxSize( size );
+		if ( size <= 0 )
 		{
-			/** */
-			private static final long serialVersionUID = 5787175209573500620L;
-			
-			/*
-			 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
-			 */
-			protected boolean removeEldestEntry(Map.Entry eldest) {
-	         return size() > SCRIPT_CACHE_SIZE;
-	      }		
-		} );
+			compiledScriptCache.clear( );
+		}
+	}
+
+	/**
+	 * @return the compiled script cache, it can be used to get the hit, miss
+	 *         and eviction statistics.
+	 */
+	public static CompiledScriptCache getScriptCache( )
+	{
+		return compiledScriptCache;
+	}
 	
 	/**
 	 * This method will not convert the data of return value, so it might the
@@ -150,11 +192,14 @@ public class JavascriptEvalUtil
 	{
 		assert scriptText != null;
 		
-		Script compiledScript = (Script) compiledScriptCache.get( scriptText );
+		// the security domain only depends on the source, so the source
+		// identifies the domain if there is a security manager.
+		Object domainKey = System.getSecurityManager( ) == null ? null : source;
+		Script compiledScript = compiledScriptCache.get( scriptText, domainKey );
 		if ( compiledScript == null )
 		{
 			compiledScript = cx.compileString( scriptText, source, lineNo, getSecurityDomain( source ) );
-			compiledScriptCache.put( scriptText, compiledScript );
+			compiledScriptCache.put( scriptText, domainKey, compiledScript );
 		}
 
 		return compiledScript;
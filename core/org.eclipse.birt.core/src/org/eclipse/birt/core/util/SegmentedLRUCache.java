@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache shared by multiple threads.
+ * <p>
+ * The cache is divided into several segments by the hash code of the key,
+ * each segment is guarded by its own lock and evicts the least recently used
+ * entries once it exceeds its part of the max size. So the threads accessing
+ * different keys seldom contend with each other.
+ * <p>
+ * Every entry has the size 1 by default, the subclass weighs the entries by
+ * overriding <code>sizeOf</code>.
+ */
+public class SegmentedLRUCache<K, V>
+{
+
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private final List<Segment> segments;
+	private final int segmentMask;
+	private volatile long maxSize;
+
+	private final AtomicLong hitCount = new AtomicLong( );
+	private final AtomicLong missCount = new AtomicLong( );
+	private final AtomicLong evictionCount = new AtomicLong( );
+
+	/**
+	 * create the cache.
+	 *
+	 * @param maxSize
+	 *            the max total size of the cached entries, 0 disables the
+	 *            cache.
+	 * @param concurrencyLevel
+	 *            the estimated count of threads accessing the cache, it is
+	 *            round to the power of 2.
+	 */
+	public SegmentedLRUCache( long maxSize, int concurrencyLevel )
+	{
+		int segmentCount = 1;
+		while ( segmentCount < concurrencyLevel )
+		{
+			segmentCount <<= 1;
+		}
+		this.segments = new ArrayList<Segment>( segmentCount );
+		this.segmentMask = segmentCount - 1;
+		for ( int i = 0; i < segmentCount; i++ )
+		{
+			segments.add( new Segment( ) );
+		}
+		setMaxSize( maxSize );
+	}
+
+	/**
+	 * set the max total size of the cached entries.
+	 *
+	 * The max size is divided among the segments, the first segments get one
+	 * more for the remainder, so the segments hold at most the max size in
+	 * total.
+	 *
+	 * @param maxSize
+	 *            the max size, 0 disables the cache and releases all the
+	 *            cached entries.
+	 */
+	public void setMaxSize( long maxSize )
+	{
+		this.maxSize = maxSize < 0 ? 0 : maxSize;
+		int segmentCount = segments.size( );
+		long segmentSize = this.maxSize / segmentCount;
+		long remainder = this.maxSize % segmentCount;
+		for ( int i = 0; i < segmentCount; i++ )
+		{
+			segments.get( i ).setMaxSize( i < remainder ? segmentSize + 1
+					: segmentSize );
+		}
+	}
+
+	public long getMaxSize( )
+	{
+		return maxSize;
+	}
+
+	/**
+	 * get the cached value.
+	 *
+	 * @param key
+	 *            the key.
+	 * @return the value, null if it is not cached.
+	 */
+	public V get( K key )
+	{
+		V value = segmentFor( key ).get( key );
+		if ( value == null )
+		{
+			missCount.incrementAndGet( );
+		}
+		else
+		{
+			hitCount.incrementAndGet( );
+		}
+		return value;
+	}
+
+	/**
+	 * add the value into the cache.
+	 *
+	 * @param key
+	 *            the key.
+	 * @param value
+	 *            the value.
+	 */
+	public void put( K key, V value )
+	{
+		if ( maxSize <= 0 )
+		{
+			return;
+		}
+		segmentFor( key ).put( key, value );
+	}
+
+	/**
+	 * remove all the cached entries.
+	 */
+	public void clear( )
+	{
+		for ( Segment segment : segments )
+		{
+			segment.clear( );
+		}
+	}
+
+	/**
+	 * @return the count of the cached entries.
+	 */
+	public int size( )
+	{
+		int size = 0;
+		for ( Segment segment : segments )
+		{
+			size += segment.size( );
+		}
+		return size;
+	}
+
+	/**
+	 * @return the total size of the cached entries.
+	 */
+	public long getUsedSize( )
+	{
+		long size = 0;
+		for ( Segment segment : segments )
+		{
+			size += segment.getUsedSize( );
+		}
+		return size;
+	}
+
+	public long getHitCount( )
+	{
+		return hitCount.get( );
+	}
+
+	public long getMissCount( )
+	{
+		return missCount.get( );
+	}
+
+	public long getEvictionCount( )
+	{
+		return evictionCount.get( );
+	}
+
+	public void resetStatistics( )
+	{
+		hitCount.set( 0 );
+		missCount.set( 0 );
+		evictionCount.set( 0 );
+	}
+
+	/**
+	 * @param value
+	 *            the cached value.
+	 * @return the size the value takes in the max size.
+	 */
+	protected long sizeOf( V value )
+	{
+		return 1;
+	}
+
+	private Segment segmentFor( K key )
+	{
+		int hash = key.hashCode( );
+		// spread the hash as the keys may be continuous
+		hash ^= ( hash >>> 16 );
+		hash ^= ( hash >>> 7 ) ^ ( hash >>> 4 );
+		return segments.get( hash & segmentMask );
+	}
+
+	private class Segment
+	{
+
+		private final LinkedHashMap<K, V> entries = new LinkedHashMap<K, V>(
+				16, 0.75f, true );
+		private long maxSize;
+		private long usedSize;
+
+		synchronized V get( K key )
+		{
+			return entries.get( key );
+		}
+
+		synchronized void put( K key, V value )
+		{
+			V oldValue = entries.put( key, value );
+			if ( oldValue != null )
+			{
+				usedSize -= sizeOf( oldValue );
+			}
+			usedSize += sizeOf( value );
+			evict( );
+		}
+
+		synchronized void setMaxSize( long maxSize )
+		{
+			this.maxSize = maxSize;
+			evict( );
+		}
+
+		synchronized int size( )
+		{
+			return entries.size( );
+		}
+
+		synchronized long getUsedSize( )
+		{
+			return usedSize;
+		}
+
+		synchronized void clear( )
+		{
+			entries.clear( );
+			usedSize = 0;
+		}
+
+		/**
+		 * release the least recently used entries until the used size is in
+		 * the budget.
+		 */
+		private void evict( )
+		{
+			Iterator<Map.Entry<K, V>> iter = entries.entrySet( ).iterator( );
+			while ( usedSize > maxSize && iter.hasNext( ) )
+			{
+				Map.Entry<K, V> entry = iter.next( );
+				usedSize -= sizeOf( entry.getValue( ) );
+				iter.remove( );
+				evictionCount.incrementAndGet( );
+			}
+		}
+	}
+}
@@ -13,10 +13,10 @@ package org.eclipse.birt.core.script.function.bre;
 
 import java.text.MessageFormat;
 import java.util.Date;
-import java.util.HashMap;
 
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.format.DateFormatter;
+import org.eclipse.birt.core.format.FormatterCache;
 import org.eclipse.birt.core.format.NumberFormatter;
 import org.eclipse.birt.core.format.StringFormatter;
 import org.eclipse.birt.core.script.functionservice.IScriptFunctionContext;
@@ -36,37 +36,6 @@ public class Formatter implements IScriptFunctionExecutor
 	private ULocale locale = null;
 	private TimeZone timeZone = null;
 
-	/**
-	 * utilities used in the report execution.
-	 */
-
-	private ThreadLocal<HashMap<String, StringFormatter>> stringFormatters = new ThreadLocal<HashMap<String, StringFormatter>>( ) {
-
-		@Override
-		protected HashMap<String, StringFormatter> initialValue( )
-		{
-			return new HashMap<String, StringFormatter>( );
-		}
-	};
-
-	private ThreadLocal<HashMap<String, NumberFormatter>> numberFormatters = new ThreadLocal<HashMap<String, NumberFormatter>>( ) {
-
-		@Override
-		protected HashMap<String, NumberFormatter> initialValue( )
-		{
-			return new HashMap<String, NumberFormatter>( );
-		}
-	};
-
-	private ThreadLocal<HashMap<String, DateFormatter>> dateFormatters = new ThreadLocal<HashMap<String, DateFormatter>>( ) {
-
-		@Override
-		protected HashMap<String, DateFormatter> initialValue( )
-		{
-			return new HashMap<String, DateFormatter>( );
-		}
-	};
-
 	Formatter( String functionName ) throws BirtException
 	{
 		if ( FORMAT.equals( functionName ) )
@@ -77,14 +46,9 @@ public class Formatter implements IScriptFunctionExecutor
 
 	public DateFormatter getDateFormatter( String pattern )
 	{
-		String key = pattern + ":" + locale.toString( );
-		DateFormatter fmt = dateFormatters.get( ).get( key );
-		if ( fmt == null )
-		{
-			fmt = new DateFormatter( pattern, locale, timeZone );
-			dateFormatters.get( ).put( key, fmt );
-		}
-		return fmt;
+		return FormatterCache.getInstance( ).getDateFormatter( pattern,
+				locale,
+				timeZone );
 	}
 
 	public Object execute( Object[] arguments, IScriptFunctionContext context )
@@ -107,26 +71,14 @@ public class Formatter implements IScriptFunctionExecutor
 
 	public StringFormatter getStringFormatter( String pattern )
 	{
-		String key = pattern + ":" + locale.toString( );
-		StringFormatter fmt = stringFormatters.get( ).get( key );
-		if ( fmt == null )
-		{
-			fmt = new StringFormatter( pattern, locale );
-			stringFormatters.get( ).put( key, fmt );
-		}
-		return fmt;
+		return FormatterCache.getInstance( ).getStringFormatter( pattern,
+				locale );
 	}
 
 	public NumberFormatter getNumberFormatter( String pattern )
 	{
-		String key = pattern + ":" + locale.toString( );
-		NumberFormatter fmt = numberFormatters.get( ).get( key );
-		if ( fmt == null )
-		{
-			fmt = new NumberFormatter( pattern, locale );
-			numberFormatters.get( ).put( key, fmt );
-		}
-		return fmt;
+		return FormatterCache.getInstance( ).getNumberFormatter( pattern,
+				locale );
 	}
 
 	private class Function_Format implements IScriptFunctionExecutor
@@ -26,6 +26,10 @@ import org.eclipse.birt.data.aggregation.impl.rank.TotalPercentSum;
 import org.eclipse.birt.data.aggregation.impl.rank.TotalPercentile;
 import org.eclipse.birt.data.aggregation.impl.rank.TotalQuartile;
 import org.eclipse.birt.data.aggregation.impl.rank.TotalRank;
+import org.eclipse.birt.data.aggregation.impl.sketch.TotalApproxCountDistinct;
+import org.eclipse.birt.data.aggregation.impl.sketch.TotalApproxMedian;
+import org.eclipse.birt.data.aggregation.impl.sketch.TotalApproxPercentile;
+import org.eclipse.birt.data.aggregation.impl.sketch.TotalApproxQuartile;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
 import org.eclipse.birt.data.engine.api.aggregation.IAggregationFactory;
 
@@ -140,6 +144,22 @@ public class BuildInAggregationFactory implements IAggregationFactory
 		final TotalConcatenate totalConcatenate = new TotalConcatenate( );
 		aggrMap.put( IBuildInAggregation.TOTAL_CONCATENATE_FUNC, totalConcatenate );
 		aggregations.add( totalConcatenate );
+		final TotalApproxCountDistinct totalApproxCountDistinct = new TotalApproxCountDistinct( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC,
+				totalApproxCountDistinct );
+		aggregations.add( totalApproxCountDistinct );
+		final TotalApproxMedian totalApproxMedian = new TotalApproxMedian( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC,
+				totalApproxMedian );
+		aggregations.add( totalApproxMedian );
+		final TotalApproxPercentile totalApproxPercentile = new TotalApproxPercentile( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC,
+				totalApproxPercentile );
+		aggregations.add( totalApproxPercentile );
+		final TotalApproxQuartile totalApproxQuartile = new TotalApproxQuartile( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_QUARTILE_FUNC,
+				totalApproxQuartile );
+		aggregations.add( totalApproxQuartile );
 	}
 
 	/**
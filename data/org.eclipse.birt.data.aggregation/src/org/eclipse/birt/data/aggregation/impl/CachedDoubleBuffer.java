@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.eclipse.birt.data.engine.api.DataEngineThreadLocal;
+import org.eclipse.birt.data.engine.cache.BasicCachedList;
+import org.eclipse.birt.data.engine.core.security.FileSecurity;
+
+/**
+ * A buffer of double values, which selects the k-th smallest value in linear
+ * time. The values are kept in a primitive array until their number exceeds
+ * the memory size, after which they are saved to a BasicCachedList, which
+ * keeps them on disk.
+ *
+ * The selection from the saved values narrows the range of the k-th value by
+ * passes over them. Each pass counts the values between the boundaries taken
+ * from a sample of the range, and keeps the part which contains the k-th
+ * value, until the values of the range fit in the memory size and are
+ * selected in memory. NaN values are greater than the others, as in the sort
+ * of the Double objects.
+ */
+public class CachedDoubleBuffer
+{
+
+	/**
+	 * The default number of values which are kept in memory.
+	 */
+	public static final int DEFAULT_MEMORY_SIZE = 1 << 20;
+
+	private static final int INITIAL_SIZE = 16;
+	private static final int SAMPLE_SIZE = 1024;
+
+	private int memorySize;
+	private double[] values;
+	private int size;
+	private int nanCount;
+
+	private String tempDir;
+	private BasicCachedList cachedValues;
+
+	/**
+	 * @param memorySize
+	 *            the number of values which are kept in memory
+	 */
+	public CachedDoubleBuffer( int memorySize )
+	{
+		this.memorySize = Math.max( INITIAL_SIZE, memorySize );
+		this.values = new double[INITIAL_SIZE];
+	}
+
+	/**
+	 * @param value
+	 */
+	public void add( double value )
+	{
+		if ( Double.isNaN( value ) )
+		{
+			nanCount++;
+			return;
+		}
+		if ( cachedValues != null )
+		{
+			cachedValues.add( new Double( value ) );
+			size++;
+			return;
+		}
+		if ( size == values.length )
+		{
+			if ( size >= memorySize )
+			{
+				saveValues( );
+				cachedValues.add( new Double( value ) );
+				size++;
+				return;
+			}
+			values = Arrays.copyOf( values, Math.min( memorySize, size * 2 ) );
+		}
+		values[size++] = value;
+	}
+
+	/**
+	 * @return the number of values, including NaN
+	 */
+	public int size( )
+	{
+		return size + nanCount;
+	}
+
+	/**
+	 * Returns the k-th smallest value. The values in memory are reordered.
+	 *
+	 * @param k
+	 *            the position in the sorted values, from 0
+	 * @return
+	 */
+	public double select( int k )
+	{
+		assert k >= 0 && k < size( );
+		if ( k >= size )
+			return Double.NaN;
+		if ( cachedValues == null )
+			return SelectionUtil.select( values, 0, size, k );
+
+		// the range is ( low, high ], or [ low, high ] for the first pass
+		double low = Double.NEGATIVE_INFINITY;
+		boolean lowInclusive = true;
+		double high = Double.POSITIVE_INFINITY;
+		int count = size;
+		int rank = k;
+		while ( count > memorySize )
+		{
+			double[] bounds = getBounds( low, lowInclusive, high, count );
+			int[] counts = new int[bounds.length];
+			int[] equalCounts = new int[bounds.length];
+			for ( int i = 0; i < size; i++ )
+			{
+				double value = getCachedValue( i );
+				if ( isInRange( value, low, lowInclusive, high ) )
+				{
+					int bucket = Arrays.binarySearch( bounds, value );
+					if ( bucket >= 0 )
+						equalCounts[bucket]++;
+					else
+						bucket = -bucket - 1;
+					counts[bucket]++;
+				}
+			}
+
+			int bucket = 0;
+			while ( rank >= counts[bucket] )
+				rank -= counts[bucket++];
+			if ( rank >= counts[bucket] - equalCounts[bucket] )
+				return bounds[bucket];
+			// the values of the bucket which are less than its bound
+			if ( bucket > 0 )
+			{
+				low = bounds[bucket - 1];
+				lowInclusive = false;
+			}
+			high = Math.nextAfter( bounds[bucket], Double.NEGATIVE_INFINITY );
+			count = counts[bucket] - equalCounts[bucket];
+		}
+
+		double[] rangeValues = new double[count];
+		int index = 0;
+		for ( int i = 0; i < size && index < count; i++ )
+		{
+			double value = getCachedValue( i );
+			if ( isInRange( value, low, lowInclusive, high ) )
+				rangeValues[index++] = value;
+		}
+		return SelectionUtil.select( rangeValues, 0, count, rank );
+	}
+
+	/**
+	 * Takes a sample of the values in the range, and returns its distinct
+	 * values in ascending order, with the high bound as the last one.
+	 */
+	private double[] getBounds( double low, boolean lowInclusive, double high,
+			int count )
+	{
+		int step = Math.max( 1, count / SAMPLE_SIZE );
+		double[] sample = new double[count / step + 2];
+		int sampleSize = 0;
+		int rangeIndex = 0;
+		for ( int i = 0; i < size && sampleSize < sample.length - 1; i++ )
+		{
+			double value = getCachedValue( i );
+			if ( isInRange( value, low, lowInclusive, high )
+					&& rangeIndex++ % step == 0 )
+				sample[sampleSize++] = value;
+		}
+		sample[sampleSize++] = high;
+		Arrays.sort( sample, 0, sampleSize );
+		int distinct = 1;
+		for ( int i = 1; i < sampleSize; i++ )
+		{
+			if ( sample[i] != sample[distinct - 1] )
+				sample[distinct++] = sample[i];
+		}
+		return Arrays.copyOf( sample, distinct );
+	}
+
+	private static boolean isInRange( double value, double low,
+			boolean lowInclusive, double high )
+	{
+		return ( value > low || ( lowInclusive && value == low ) )
+				&& value <= high;
+	}
+
+	private double getCachedValue( int index )
+	{
+		return ( (Double) cachedValues.get( index ) ).doubleValue( );
+	}
+
+	/**
+	 * Moves the values in memory to the cached list.
+	 */
+	private void saveValues( )
+	{
+		if ( DataEngineThreadLocal.getInstance( ).getPathManager( ) != null )
+		{
+			tempDir = DataEngineThreadLocal.getInstance( )
+					.getPathManager( )
+					.getTempFileName( "AggregationPlugin_temp", //$NON-NLS-1$
+							this.hashCode( ),
+							null ) + File.separator;
+		}
+		else
+		{
+			tempDir = System.getProperty( "java.io.tmpdir" ) //$NON-NLS-1$
+					+ "AggregationPlugin_temp" + this.hashCode( ) //$NON-NLS-1$
+					+ File.separator;
+		}
+		cachedValues = new BasicCachedList( tempDir, null );
+		for ( int i = 0; i < size; i++ )
+			cachedValues.add( new Double( values[i] ) );
+		values = null;
+	}
+
+	/**
+	 * Deletes the values saved to disk.
+	 */
+	public void close( )
+	{
+		if ( cachedValues != null )
+		{
+			cachedValues.close( );
+			cachedValues = null;
+			File dir = new File( tempDir );
+			if ( FileSecurity.fileExist( dir ) )
+				FileSecurity.fileDelete( dir );
+		}
+	}
+}
@@ -28,5 +28,8 @@ public class Constants
 	public static final String MAXLENGTH__DISPLAY_NAME=Messages.getString( "TotalConcatenate.param.maxLength" );
 	public static final String SHOWALLVALUES_NAME="Showallvalues";
 	public static final String SHOWALLVALUES_DISPLAY_NAME=Messages.getString( "TotalConcatenate.param.showAllValues" );
+	public static final String ERROR_NAME = "Error";//$NON-NLS-1$
+	public static final String ERROR_DISPLAY_NAME = Messages.getString( "Sketch.param.error" ); //$NON-NLS-1$
+	public static final double DEFAULT_ERROR = 0.01;
 	
 }
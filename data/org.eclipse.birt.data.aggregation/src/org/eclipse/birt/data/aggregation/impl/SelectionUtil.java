@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Finds the k-th smallest value of an array without sorting the whole array.
+ * The selection partitions the array around a median of three pivot into the
+ * values less than, equal to and greater than the pivot, and continues in the
+ * part which contains the k-th position, so the runs of equal values do not
+ * slow it down. The partitioning falls back to a sort of the remaining part
+ * when it does not converge, which bounds the worst case time to the one of
+ * the sort.
+ */
+public final class SelectionUtil
+{
+
+	/**
+	 * The size under which the remaining part is sorted.
+	 */
+	private static final int SORT_THRESHOLD = 16;
+
+	private SelectionUtil( )
+	{
+	}
+
+	/**
+	 * Reorders the values between from and to, so that the value at the
+	 * position k is the one of the sorted values, and returns it. NaN is not
+	 * supported.
+	 *
+	 * @param values
+	 * @param from
+	 *            the first index, inclusive
+	 * @param to
+	 *            the last index, exclusive
+	 * @param k
+	 *            the position, between from and to
+	 * @return the k-th smallest value
+	 */
+	public static double select( double[] values, int from, int to, int k )
+	{
+		assert k >= from && k < to;
+		int depth = getDepthLimit( to - from );
+		while ( to - from > SORT_THRESHOLD )
+		{
+			if ( depth-- == 0 )
+				break;
+			double pivot = median( values[from],
+					values[( from + to ) >>> 1],
+					values[to - 1] );
+			// [from, less) < pivot, [less, greater) == pivot, [greater, to) >
+			// pivot
+			int less = from, i = from, greater = to;
+			while ( i < greater )
+			{
+				double value = values[i];
+				if ( value < pivot )
+				{
+					values[i++] = values[less];
+					values[less++] = value;
+				}
+				else if ( value > pivot )
+				{
+					values[i] = values[--greater];
+					values[greater] = value;
+				}
+				else
+				{
+					i++;
+				}
+			}
+			if ( k < less )
+				to = less;
+			else if ( k >= greater )
+				from = greater;
+			else
+				return pivot;
+		}
+		Arrays.sort( values, from, to );
+		return values[k];
+	}
+
+	/**
+	 * Reorders the values, so that the value at the position k is the one of
+	 * the values sorted by the comparator, and returns it.
+	 *
+	 * @param values
+	 * @param k
+	 *            the position
+	 * @param comparator
+	 * @return the k-th smallest value
+	 */
+	public static Object select( Object[] values, int k, Comparator comparator )
+	{
+		assert k >= 0 && k < values.length;
+		int from = 0, to = values.length;
+		int depth = getDepthLimit( to - from );
+		while ( to - from > SORT_THRESHOLD )
+		{
+			if ( depth-- == 0 )
+				break;
+			Object pivot = median( values[from],
+					values[( from + to ) >>> 1],
+					values[to - 1],
+					comparator );
+			int less = from, i = from, greater = to;
+			while ( i < greater )
+			{
+				Object value = values[i];
+				int result = comparator.compare( value, pivot );
+				if ( result < 0 )
+				{
+					values[i++] = values[less];
+					values[less++] = value;
+				}
+				else if ( result > 0 )
+				{
+					values[i] = values[--greater];
+					values[greater] = value;
+				}
+				else
+				{
+					i++;
+				}
+			}
+			if ( k < less )
+				to = less;
+			else if ( k >= greater )
+				from = greater;
+			else
+				return values[k];
+		}
+		Arrays.sort( values, from, to, comparator );
+		return values[k];
+	}
+
+	/**
+	 * Reorders the values, so that the value at the position k is the one of
+	 * the values in their natural order, and returns it.
+	 *
+	 * @param values
+	 *            the comparable values
+	 * @param k
+	 *            the position
+	 * @return the k-th smallest value
+	 */
+	public static Object select( Object[] values, int k )
+	{
+		return select( values, k, new Comparator( ) {
+
+			public int compare( Object o1, Object o2 )
+			{
+				return ( (Comparable) o1 ).compareTo( o2 );
+			}
+		} );
+	}
+
+	/**
+	 * Returns the number of partitions after which the rest is sorted, which
+	 * is twice the number of halvings of the size.
+	 */
+	private static int getDepthLimit( int size )
+	{
+		return 2 * ( 32 - Integer.numberOfLeadingZeros( size ) );
+	}
+
+	private static double median( double a, double b, double c )
+	{
+		if ( a < b )
+			return b < c ? b : ( a < c ? c : a );
+		return a < c ? a : ( b < c ? c : b );
+	}
+
+	private static Object median( Object a, Object b, Object c,
+			Comparator comparator )
+	{
+		if ( comparator.compare( a, b ) < 0 )
+			return comparator.compare( b, c ) < 0 ? b
+					: ( comparator.compare( a, c ) < 0 ? c : a );
+		return comparator.compare( a, c ) < 0 ? a
+				: ( comparator.compare( b, c ) < 0 ? c : b );
+	}
+}
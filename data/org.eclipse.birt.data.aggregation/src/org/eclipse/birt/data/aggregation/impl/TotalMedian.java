@@ -14,7 +14,6 @@
 package org.eclipse.birt.data.aggregation.impl;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.birt.core.data.DataType;
@@ -92,12 +91,16 @@ public class TotalMedian extends AggrFunction
     {
         private List list;
 
+        private CachedDoubleBuffer doubleValues;
+
         private Object ret = null;
 
         public void start()
         {
             super.start();
             list = new ArrayList();
+            closeDoubleValues( );
+            doubleValues = new CachedDoubleBuffer( CachedDoubleBuffer.DEFAULT_MEMORY_SIZE );
             ret = null;
         }
 
@@ -115,33 +118,56 @@ public class TotalMedian extends AggrFunction
 				{
 					calculator = CalculatorFactory.getCalculator( args[0].getClass( ) );
 				}
-				list.add( calculator.getTypedObject( args[0] ) );
+				Object value = calculator.getTypedObject( args[0] );
+				// the doubles are selected from a primitive buffer
+				if ( value instanceof Double )
+					doubleValues.add( ( (Double) value ).doubleValue( ) );
+				else
+					list.add( value );
 			}
 		}
 
         public void finish( ) throws DataException
 		{
-			int size = list.size( );
+			int size = doubleValues.size( ) + list.size( );
 			if ( size > 0 )
 			{
-				Object[] values = list.toArray( );
-				Arrays.sort( values );
+				Object d1 = null;
+				Object d2;
+				if ( doubleValues.size( ) > 0 )
+				{
+					if ( size % 2 == 0 )
+						d1 = new Double( doubleValues.select( size / 2 - 1 ) );
+					d2 = new Double( doubleValues.select( size / 2 ) );
+					closeDoubleValues( );
+				}
+				else
+				{
+					Object[] values = list.toArray( );
+					if ( size % 2 == 0 )
+						d1 = SelectionUtil.select( values, size / 2 - 1 );
+					d2 = SelectionUtil.select( values, size / 2 );
+				}
 
 				if ( size % 2 == 0 )
 				{
-					Object d1 = values[size / 2 - 1];
-					Object d2 = values[size / 2];
 					ret = calculator.divide( calculator.add( d1, d2 ), 2.0D );
 				}
 				else
 				{
-					ret = values[size / 2];
+					ret = d2;
 				}
 				ret = calculator.getTypedObject( ret );
 			}
 			super.finish( );
 		}
 
+        private void closeDoubleValues( )
+		{
+			if ( doubleValues != null )
+				doubleValues.close( );
+		}
+
         /*
 		 * (non-Javadoc)
 		 * 
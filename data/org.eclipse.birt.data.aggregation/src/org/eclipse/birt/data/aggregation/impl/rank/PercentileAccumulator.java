@@ -17,11 +17,15 @@ import java.util.List;
 import org.eclipse.birt.data.aggregation.calculator.CalculatorFactory;
 import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
 import org.eclipse.birt.data.aggregation.impl.AggrException;
+import org.eclipse.birt.data.aggregation.impl.CachedDoubleBuffer;
 import org.eclipse.birt.data.aggregation.impl.SummaryAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 
 /**
  * Accumulator that is used by Percentile and Quartile.
+ * The values are not sorted, the two values around the percentile are
+ * selected instead. The numbers of the double type are kept in a primitive
+ * buffer, which is saved to disk when it exceeds its memory size.
  * The formula to calculate the Percentile is not of standard one. It follows
  * Microsoft excel convention.
  * 
@@ -40,6 +44,7 @@ abstract class PercentileAccumulator extends SummaryAccumulator
 	//
 	private double pct;
 	private List cachedValues;
+	private CachedDoubleBuffer doubleValues;
 
 	/*
 	 * (non-Javadoc)
@@ -51,6 +56,8 @@ abstract class PercentileAccumulator extends SummaryAccumulator
 
 		pct = -1;
 		cachedValues = new ArrayList( );
+		closeDoubleValues( );
+		doubleValues = new CachedDoubleBuffer( CachedDoubleBuffer.DEFAULT_MEMORY_SIZE );
 	}
 
 	/*
@@ -69,7 +76,13 @@ abstract class PercentileAccumulator extends SummaryAccumulator
 			}
 			Number d = calculator.add( 0, args[0] );
 			if ( d != null )
-				cachedValues.add( d );
+			{
+				// the doubles are selected from a primitive buffer
+				if ( d instanceof Double )
+					doubleValues.add( d.doubleValue( ) );
+				else
+					cachedValues.add( d );
+			}
 		}
 		if ( pct == -1 )
 		{
@@ -87,24 +100,46 @@ abstract class PercentileAccumulator extends SummaryAccumulator
 	 */
 	public Object getSummaryValue( ) throws DataException
 	{
-		Object[] sortedObjs = this.cachedValues.toArray( );
-		if ( sortedObjs.length == 0 )
+		int size = doubleValues.size( ) + cachedValues.size( );
+		if ( size == 0 )
 		{
 			return null;
 		}
-		RankAggregationUtil.sortArray( sortedObjs );
-		double n = pct * ( sortedObjs.length - 1 ) + 1;
+		double n = pct * ( size - 1 ) + 1;
 		int k = (int) Math.floor( n );
 		double fraction = n - k;
 
+		Object lower;
+		Object upper = null;
+		if ( doubleValues.size( ) > 0 )
+		{
+			lower = new Double( doubleValues.select( k - 1 ) );
+			if ( fraction != 0 )
+				upper = new Double( doubleValues.select( k ) );
+			closeDoubleValues( );
+		}
+		else
+		{
+			Object[] objs = this.cachedValues.toArray( );
+			lower = RankAggregationUtil.selectArray( objs, k - 1 );
+			if ( fraction != 0 )
+				upper = RankAggregationUtil.selectArray( objs, k );
+		}
+
 		Number adjustment = 0;
 		if ( fraction != 0 )
 		{
 			adjustment = calculator.multiply( fraction,
-					calculator.subtract( sortedObjs[k], sortedObjs[k - 1] ) );
+					calculator.subtract( upper, lower ) );
 		}
 
-		return calculator.add( sortedObjs[k - 1], adjustment );
+		return calculator.add( lower, adjustment );
+	}
+
+	private void closeDoubleValues( )
+	{
+		if ( doubleValues != null )
+			doubleValues.close( );
 	}
 
 }
@@ -18,6 +18,7 @@ import java.util.List;
 
 import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
 import org.eclipse.birt.data.aggregation.impl.AggrException;
+import org.eclipse.birt.data.aggregation.impl.SelectionUtil;
 import org.eclipse.birt.data.engine.api.IConditionalExpression;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
@@ -183,6 +184,27 @@ final class RankAggregationUtil
 			throw e.getWrappedException( );
 		}
 	}
+
+	/**
+	 * Reorders the objects so that the k-th one is the one of the sorted
+	 * objects, without sorting all of them.
+	 * 
+	 * @param objs
+	 * @param k
+	 * @return the k-th smallest object
+	 * @throws DataException
+	 */
+	static Object selectArray( Object[] objs, int k ) throws DataException
+	{
+		try
+		{
+			return SelectionUtil.select( objs, k, new ValueComparator( ) );
+		}
+		catch ( DataComparisonException e )
+		{
+			throw e.getWrappedException( );
+		}
+	}
 }
 
 /**
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl.sketch;
+
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
+import org.eclipse.birt.data.aggregation.impl.AggrException;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Accumulator that is used by the approximate median, percentile and
+ * quartile. The values are summarized by a t-digest, and the percentile is
+ * interpolated in the same way as the exact Percentile, which it equals as
+ * long as the group is small enough to be kept in the buffer of the digest.
+ */
+abstract class ApproxPercentileAccumulator extends SketchAccumulator
+{
+
+	private int errorIndex;
+	private double pct;
+	private TDigest digest;
+
+	/**
+	 * @param functionName
+	 *            the name of the aggregation
+	 * @param errorIndex
+	 *            the index of the error argument
+	 */
+	ApproxPercentileAccumulator( String functionName, int errorIndex )
+	{
+		super( functionName );
+		this.errorIndex = errorIndex;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.aggregation.SummaryAccumulator#start()
+	 */
+	public void start( )
+	{
+		super.start( );
+		pct = -1;
+		digest = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.aggregation.Accumulator#onRow(java.lang.Object[])
+	 */
+	public void onRow( Object[] args ) throws DataException
+	{
+		assert ( args.length >= errorIndex );
+		if ( digest == null )
+		{
+			digest = new TDigest( getError( args, errorIndex ) );
+			pct = getPctValue( args );
+		}
+		if ( args[0] != null )
+		{
+			double value = ( (Double) toDouble( args[0] ) ).doubleValue( );
+			if ( !Double.isNaN( value ) )
+				digest.add( value );
+		}
+	}
+
+	/**
+	 * @param args
+	 *            the arguments of the first row
+	 * @return the percentile, between 0 and 1
+	 * @throws DataException
+	 */
+	protected abstract double getPctValue( Object[] args ) throws DataException;
+
+	/**
+	 * @param value
+	 *            the argument of the percentile
+	 * @return the numeric value of the argument, or null if it is null
+	 * @throws DataException
+	 */
+	protected static Double getNumericValue( Object value )
+			throws DataException
+	{
+		try
+		{
+			return DataTypeUtil.toDouble( value );
+		}
+		catch ( BirtException e )
+		{
+			throw DataException.wrap( new AggrException( ResourceConstants.DATATYPEUTIL_ERROR,
+					e ) );
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.aggregation.SummaryAccumulator#getSummaryValue()
+	 */
+	public Object getSummaryValue( )
+	{
+		if ( digest == null || digest.size( ) == 0 )
+			return null;
+		return new Double( digest.quantile( pct ) );
+	}
+}
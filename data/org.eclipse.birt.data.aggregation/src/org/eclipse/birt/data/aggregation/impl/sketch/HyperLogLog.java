@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl.sketch;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * HyperLogLog sketch which estimates the number of distinct values in a fixed
+ * amount of memory. Each value is hashed to 64 bits, the first bits of which
+ * select a register, and the register keeps the longest run of leading zeros
+ * seen in the remaining bits. The relative standard error of the estimate is
+ * about 1.04 / sqrt( m ), where m is the number of registers.
+ * The small cardinalities are estimated by linear counting over the empty
+ * registers, which is close to, but not always equal to, the exact count.
+ *
+ * Two sketches of the same precision are merged by keeping the maximum of
+ * each register, which gives the sketch of the union of their values.
+ */
+public final class HyperLogLog
+{
+
+	private static final int MIN_PRECISION = 4;
+	private static final int MAX_PRECISION = 18;
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final int precision;
+	private final byte[] registers;
+
+	/**
+	 * @param error
+	 *            the relative standard error of the estimate, between 0 and 1
+	 */
+	public HyperLogLog( double error )
+	{
+		this.precision = getPrecision( error );
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Returns the number of bits which select a register, so that the
+	 * standard error of the estimate does not exceed the given error, within
+	 * the bounds of 16 and 2^18 registers.
+	 *
+	 * @param error
+	 * @return
+	 */
+	static int getPrecision( double error )
+	{
+		double registerCount = Math.ceil( ( 1.04 / error ) * ( 1.04 / error ) );
+		int precision = MIN_PRECISION;
+		while ( precision < MAX_PRECISION && ( 1 << precision ) < registerCount )
+			precision++;
+		return precision;
+	}
+
+	/**
+	 * @param value
+	 *            the value, which is not null
+	 */
+	public void add( Object value )
+	{
+		long hash = hash( value );
+		int index = (int) ( hash >>> ( 64 - precision ) );
+		// the sentinel bit bounds the run of zeros of the remaining bits
+		long bits = ( hash << precision ) | ( 1L << ( precision - 1 ) );
+		byte rank = (byte) ( Long.numberOfLeadingZeros( bits ) + 1 );
+		if ( rank > registers[index] )
+			registers[index] = rank;
+	}
+
+	/**
+	 * Adds the values of another sketch to this one.
+	 *
+	 * @param other
+	 *            the sketch of the same precision
+	 */
+	public void merge( HyperLogLog other )
+	{
+		if ( other.precision != precision )
+			throw new IllegalArgumentException( "Cannot merge the sketches of different precisions: " //$NON-NLS-1$
+					+ precision + ", " + other.precision ); //$NON-NLS-1$
+		for ( int i = 0; i < registers.length; i++ )
+		{
+			if ( other.registers[i] > registers[i] )
+				registers[i] = other.registers[i];
+		}
+	}
+
+	/**
+	 * @return the estimated number of distinct values
+	 */
+	public long estimate( )
+	{
+		int registerCount = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for ( int i = 0; i < registerCount; i++ )
+		{
+			sum += 1.0 / ( 1L << registers[i] );
+			if ( registers[i] == 0 )
+				zeros++;
+		}
+		double estimate = getAlpha( registerCount )
+				* registerCount * registerCount / sum;
+		// the linear counting is more accurate for the small cardinalities
+		if ( estimate <= 2.5 * registerCount && zeros > 0 )
+			estimate = registerCount
+					* Math.log( (double) registerCount / zeros );
+		return Math.round( estimate );
+	}
+
+	private static double getAlpha( int registerCount )
+	{
+		switch ( registerCount )
+		{
+			case 16 :
+				return 0.673;
+			case 32 :
+				return 0.697;
+			case 64 :
+				return 0.709;
+			default :
+				return 0.7213 / ( 1 + 1.079 / registerCount );
+		}
+	}
+
+	/**
+	 * Hashes the value to 64 bits. The equal integral numbers of the
+	 * different types have the same hash, whether they are integers, doubles
+	 * or decimals. The other decimals are hashed by their digits and scale,
+	 * so the decimals beyond the double precision are still distinct.
+	 *
+	 * @param value
+	 * @return
+	 */
+	static long hash( Object value )
+	{
+		long bits;
+		if ( value instanceof Integer
+				|| value instanceof Long || value instanceof Short
+				|| value instanceof Byte )
+		{
+			bits = ( (Number) value ).longValue( );
+		}
+		else if ( value instanceof BigInteger )
+		{
+			BigInteger integer = (BigInteger) value;
+			bits = integer.bitLength( ) < 64 ? integer.longValue( )
+					: hashBytes( integer.toByteArray( ), 0 );
+		}
+		else if ( value instanceof BigDecimal )
+		{
+			bits = hashDecimal( (BigDecimal) value );
+		}
+		else if ( value instanceof Number )
+		{
+			double number = ( (Number) value ).doubleValue( );
+			// the integral doubles in the long range hash as the integers
+			if ( number == Math.rint( number )
+					&& Math.abs( number ) < 0x1p63 )
+				bits = (long) number;
+			else
+				bits = Double.doubleToLongBits( number );
+		}
+		else if ( value instanceof Date )
+		{
+			bits = ( (Date) value ).getTime( );
+		}
+		else
+		{
+			// FNV-1a over the characters of the string
+			String text = value.toString( );
+			bits = FNV_OFFSET_BASIS;
+			for ( int i = 0; i < text.length( ); i++ )
+			{
+				bits ^= text.charAt( i );
+				bits *= FNV_PRIME;
+			}
+		}
+		return mix( bits );
+	}
+
+	private static long hashDecimal( BigDecimal decimal )
+	{
+		if ( decimal.signum( ) == 0 )
+			return 0;
+		try
+		{
+			return decimal.longValueExact( );
+		}
+		catch ( ArithmeticException e )
+		{
+			// a fraction, or out of the long range
+		}
+		decimal = decimal.stripTrailingZeros( );
+		return hashBytes( decimal.unscaledValue( ).toByteArray( ),
+				decimal.scale( ) );
+	}
+
+	/**
+	 * FNV-1a over the bytes of a big number and its scale.
+	 */
+	private static long hashBytes( byte[] bytes, int scale )
+	{
+		long bits = FNV_OFFSET_BASIS;
+		for ( int i = 0; i < bytes.length; i++ )
+		{
+			bits ^= bytes[i] & 0xFF;
+			bits *= FNV_PRIME;
+		}
+		bits ^= scale;
+		bits *= FNV_PRIME;
+		return bits;
+	}
+
+	/**
+	 * The finalizer of MurmurHash3, which spreads every input bit over all the
+	 * output bits.
+	 */
+	private static long mix( long bits )
+	{
+		bits ^= bits >>> 33;
+		bits *= 0xff51afd7ed558ccdL;
+		bits ^= bits >>> 33;
+		bits *= 0xc4ceb9fe1a85ec53L;
+		bits ^= bits >>> 33;
+		return bits;
+	}
+}
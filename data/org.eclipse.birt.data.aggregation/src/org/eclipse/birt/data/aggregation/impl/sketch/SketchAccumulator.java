@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl.sketch;
+
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
+import org.eclipse.birt.data.aggregation.impl.AggrException;
+import org.eclipse.birt.data.aggregation.impl.Constants;
+import org.eclipse.birt.data.aggregation.impl.SummaryAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Accumulator of the aggregations which are calculated from a sketch. The
+ * last argument of these aggregations is the optional relative error of the
+ * approximate value.
+ */
+abstract class SketchAccumulator extends SummaryAccumulator
+{
+
+	private String functionName;
+
+	/**
+	 * @param functionName
+	 *            the name of the aggregation
+	 */
+	SketchAccumulator( String functionName )
+	{
+		this.functionName = functionName;
+	}
+
+	/**
+	 * Returns the relative error of the given argument, or the default error
+	 * if it is not specified.
+	 *
+	 * @param args
+	 * @param index
+	 *            the index of the error argument
+	 * @return
+	 * @throws DataException
+	 */
+	protected double getError( Object[] args, int index ) throws DataException
+	{
+		if ( args.length <= index
+				|| args[index] == null
+				|| args[index].toString( ).trim( ).length( ) == 0 )
+			return Constants.DEFAULT_ERROR;
+		double error;
+		try
+		{
+			error = DataTypeUtil.toDouble( args[index] ).doubleValue( );
+		}
+		catch ( BirtException e )
+		{
+			throw DataException.wrap( new AggrException( ResourceConstants.INVALID_SKETCH_ERROR,
+					functionName,
+					e ) );
+		}
+		if ( !( error > 0 && error < 1 ) )
+			throw DataException.wrap( new AggrException( ResourceConstants.INVALID_SKETCH_ERROR,
+					functionName ) );
+		return error;
+	}
+}
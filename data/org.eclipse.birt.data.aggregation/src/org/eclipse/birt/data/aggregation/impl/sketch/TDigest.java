@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest, which estimates the quantiles of the values in a bounded
+ * amount of memory. The values are summarized by centroids, which are kept
+ * sorted by their means. The scale function limits the weight of a centroid
+ * by its quantile, so the centroids near the tails stay small and the
+ * quantiles there are accurate. The number of centroids is in the order of
+ * the compression.
+ *
+ * The values are first collected in a buffer, which is sorted and merged into
+ * the centroids once it is full. Until then the quantiles are calculated from
+ * the values themselves, with the same interpolation as the exact
+ * percentile, so the small groups have exact results. Two digests are merged
+ * by merging their centroids.
+ */
+public final class TDigest
+{
+
+	private static final int MIN_COMPRESSION = 20;
+	private static final int MAX_COMPRESSION = 10000;
+
+	private final double compression;
+
+	private double[] means;
+	private double[] weights;
+	private int centroidCount;
+
+	private double[] buffer;
+	private int bufferSize;
+
+	private long count;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+
+	/**
+	 * @param error
+	 *            the relative error of the rank of the quantiles, between 0
+	 *            and 1
+	 */
+	public TDigest( double error )
+	{
+		this.compression = Math.min( MAX_COMPRESSION,
+				Math.max( MIN_COMPRESSION, Math.ceil( 1 / error ) ) );
+		int capacity = (int) ( 2 * compression ) + 1;
+		this.means = new double[capacity];
+		this.weights = new double[capacity];
+		this.buffer = new double[(int) ( 5 * compression )];
+	}
+
+	/**
+	 * @param value
+	 *            the value, which is not NaN
+	 */
+	public void add( double value )
+	{
+		if ( bufferSize == buffer.length )
+			flush( );
+		buffer[bufferSize++] = value;
+		if ( count == 0 || value < min )
+			min = value;
+		if ( count == 0 || value > max )
+			max = value;
+		count++;
+	}
+
+	/**
+	 * Adds the values of another digest to this one.
+	 *
+	 * @param other
+	 */
+	public void merge( TDigest other )
+	{
+		if ( other.count == 0 )
+			return;
+		other.flush( );
+		flush( );
+		double[] mergedMeans = new double[centroidCount + other.centroidCount];
+		double[] mergedWeights = new double[mergedMeans.length];
+		int i = 0, j = 0, k = 0;
+		while ( i < centroidCount || j < other.centroidCount )
+		{
+			if ( j == other.centroidCount
+					|| ( i < centroidCount && means[i] <= other.means[j] ) )
+			{
+				mergedMeans[k] = means[i];
+				mergedWeights[k++] = weights[i++];
+			}
+			else
+			{
+				mergedMeans[k] = other.means[j];
+				mergedWeights[k++] = other.weights[j++];
+			}
+		}
+		if ( count == 0 || other.min < min )
+			min = other.min;
+		if ( count == 0 || other.max > max )
+			max = other.max;
+		count += other.count;
+		compress( mergedMeans, mergedWeights, k );
+	}
+
+	/**
+	 * @return the number of values
+	 */
+	public long size( )
+	{
+		return count;
+	}
+
+	/**
+	 * Returns the estimated quantile. The position of the quantile q is q * (
+	 * n - 1 ) in the sorted values, and it is interpolated between the
+	 * centers of the centroids around it.
+	 *
+	 * @param q
+	 *            the quantile, between 0 and 1
+	 * @return the estimated value, or NaN if there are no values
+	 */
+	public double quantile( double q )
+	{
+		if ( count == 0 )
+			return Double.NaN;
+		double[] centroidMeans;
+		double[] centroidWeights;
+		int size;
+		if ( centroidCount == 0 )
+		{
+			// every value is still a centroid of its own
+			Arrays.sort( buffer, 0, bufferSize );
+			centroidMeans = buffer;
+			centroidWeights = null;
+			size = bufferSize;
+		}
+		else
+		{
+			flush( );
+			centroidMeans = means;
+			centroidWeights = weights;
+			size = centroidCount;
+		}
+
+		double position = q * ( count - 1 );
+		double previousCenter = 0;
+		double previousMean = min;
+		double weightSoFar = 0;
+		for ( int i = 0; i < size; i++ )
+		{
+			double weight = centroidWeights == null ? 1 : centroidWeights[i];
+			double center = weightSoFar + ( weight - 1 ) / 2;
+			if ( position <= center )
+				return interpolate( position,
+						previousCenter,
+						previousMean,
+						center,
+						centroidMeans[i] );
+			previousCenter = center;
+			previousMean = centroidMeans[i];
+			weightSoFar += weight;
+		}
+		return interpolate( position, previousCenter, previousMean, count - 1, max );
+	}
+
+	private static double interpolate( double position, double x0, double y0,
+			double x1, double y1 )
+	{
+		if ( x1 <= x0 )
+			return y1;
+		return y0 + ( position - x0 ) / ( x1 - x0 ) * ( y1 - y0 );
+	}
+
+	/**
+	 * Merges the buffered values into the centroids.
+	 */
+	private void flush( )
+	{
+		if ( bufferSize == 0 )
+			return;
+		Arrays.sort( buffer, 0, bufferSize );
+		double[] mergedMeans = new double[centroidCount + bufferSize];
+		double[] mergedWeights = new double[mergedMeans.length];
+		int i = 0, j = 0, k = 0;
+		while ( i < centroidCount || j < bufferSize )
+		{
+			if ( j == bufferSize
+					|| ( i < centroidCount && means[i] <= buffer[j] ) )
+			{
+				mergedMeans[k] = means[i];
+				mergedWeights[k++] = weights[i++];
+			}
+			else
+			{
+				mergedMeans[k] = buffer[j++];
+				mergedWeights[k++] = 1;
+			}
+		}
+		bufferSize = 0;
+		compress( mergedMeans, mergedWeights, k );
+	}
+
+	/**
+	 * Merges the neighbour centroids while the merged centroid spans at most
+	 * one unit of the scale function.
+	 *
+	 * @param sortedMeans
+	 *            the means sorted in the ascending order
+	 * @param sortedWeights
+	 * @param size
+	 */
+	private void compress( double[] sortedMeans, double[] sortedWeights,
+			int size )
+	{
+		double total = count;
+		centroidCount = 0;
+		double weightSoFar = 0;
+		double weightLimit = total * getQuantile( getScale( 0 ) + 1 );
+		double mean = sortedMeans[0];
+		double weight = sortedWeights[0];
+		for ( int i = 1; i < size; i++ )
+		{
+			double proposedWeight = weight + sortedWeights[i];
+			if ( weightSoFar + proposedWeight <= weightLimit )
+			{
+				mean += ( sortedMeans[i] - mean )
+						* sortedWeights[i] / proposedWeight;
+				weight = proposedWeight;
+			}
+			else
+			{
+				addCentroid( mean, weight );
+				weightSoFar += weight;
+				weightLimit = total
+						* getQuantile( getScale( weightSoFar / total ) + 1 );
+				mean = sortedMeans[i];
+				weight = sortedWeights[i];
+			}
+		}
+		addCentroid( mean, weight );
+	}
+
+	private void addCentroid( double mean, double weight )
+	{
+		if ( centroidCount == means.length )
+		{
+			means = Arrays.copyOf( means, centroidCount * 2 );
+			weights = Arrays.copyOf( weights, centroidCount * 2 );
+		}
+		means[centroidCount] = mean;
+		weights[centroidCount++] = weight;
+	}
+
+	/**
+	 * The scale function k( q ) = compression / ( 2 * pi ) * asin( 2 * q - 1 ).
+	 */
+	private double getScale( double q )
+	{
+		return compression / ( 2 * Math.PI ) * Math.asin( 2 * q - 1 );
+	}
+
+	/**
+	 * The inverse of the scale function.
+	 */
+	private double getQuantile( double k )
+	{
+		double angle = k * 2 * Math.PI / compression;
+		if ( angle >= Math.PI / 2 )
+			return 1;
+		return ( Math.sin( angle ) + 1 ) / 2;
+	}
+}
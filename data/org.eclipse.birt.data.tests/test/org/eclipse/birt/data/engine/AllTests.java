@@ -30,6 +30,7 @@ public class AllTests
 		/* in package: org.eclipse.birt.data.engine.aggregation */
 		suite.addTestSuite( org.eclipse.birt.data.engine.aggregation.FinanceTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.aggregation.TotalTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.aggregation.SelectionTest.class );
 		
 		/* in package org.eclipse.birt.data.engine.reg */
 		suite.addTestSuite( org.eclipse.birt.data.engine.regre.DataSourceTest.class);
@@ -48,6 +49,9 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.data.engine.api.UsesDetailFalseTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.api.ProgressiveViewingTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.api.NoUpdateAggrFilterTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.api.SqlPushDownTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.api.ParallelAggregationTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.api.StreamingQueryTest.class );
 		
 		/* in package org.eclipse.birt.data.engine.binding */
 		suite.addTestSuite( org.eclipse.birt.data.engine.binding.ColumnBindingTest.class );
@@ -70,6 +74,10 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.data.engine.binding.newbinding.MultiplePassTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.binding.newbinding.ColumnBindingTest.class );
 		
+		/* in package org.eclipse.birt.data.engine.executor */
+		suite.addTestSuite( org.eclipse.birt.data.engine.executor.DataSetCacheMapTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.executor.InFlightDataSetCacheTest.class );
+		
 		/* in package org.eclipse.birt.data.engine.executor.cache */
 		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CacheClobAndBlobTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CacheComputedColumnTest.class );
@@ -77,7 +85,11 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CacheFeaturesTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CacheNestedQueryTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CacheSortTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CacheCompressedSortTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CacheSubqueryTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.ColumnarMemoryCacheTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.CompactRowFormatTest.class );
+		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.HashGroupSorterTest.class );
 		suite.addTestSuite( org.eclipse.birt.data.engine.executor.cache.MemoryCacheTest.class );
 		
 		/* in package org.eclipse.birt.data.engine.executor.transform */
@@ -91,6 +103,7 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.data.engine.expression.ComplexExpressionCompilerTest.class);
 		suite.addTestSuite( org.eclipse.birt.data.engine.expression.ExpressionCompilerTest.class);
 		suite.addTestSuite( org.eclipse.birt.data.engine.expression.ExpressionCompilerUtilTest.class);
+		suite.addTestSuite( org.eclipse.birt.data.engine.expression.JavaExpressionTest.class);
 		
 		/* in package org.eclipse.birt.data.engine.impl.rd */
 		suite.addTestSuite( org.eclipse.birt.data.engine.impl.rd.ViewingTest2.class);
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.aggregation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.data.aggregation.impl.CachedDoubleBuffer;
+import org.eclipse.birt.data.aggregation.impl.SelectionUtil;
+
+/**
+ * Test the selection of the k-th value gives the value of the sorted values,
+ * in memory and from the values saved to disk.
+ */
+public class SelectionTest extends TestCase
+{
+
+	public void testSelect( ) throws Exception
+	{
+		Random random = new Random( 0 );
+		for ( int round = 0; round < 20; round++ )
+		{
+			int size = 1 + random.nextInt( 2000 );
+			double[] values = new double[size];
+			for ( int i = 0; i < size; i++ )
+				// many equal values in the odd rounds
+				values[i] = round % 2 == 0 ? random.nextGaussian( )
+						: random.nextInt( 5 );
+			double[] sorted = values.clone( );
+			Arrays.sort( sorted );
+			for ( int k = 0; k < size; k += 1 + size / 50 )
+			{
+				assertEquals( sorted[k],
+						SelectionUtil.select( values, 0, size, k ),
+						0 );
+				Object[] objs = new Object[size];
+				for ( int i = 0; i < size; i++ )
+					objs[i] = new Double( values[i] );
+				assertEquals( new Double( sorted[k] ),
+						SelectionUtil.select( objs, k ) );
+			}
+		}
+	}
+
+	public void testCachedDoubleBuffer( ) throws Exception
+	{
+		Random random = new Random( 1 );
+		int size = 20000;
+		CachedDoubleBuffer buffer = new CachedDoubleBuffer( 500 );
+		double[] sorted = new double[size + 2];
+		for ( int i = 0; i < size; i++ )
+		{
+			sorted[i] = i % 3 == 0 ? 7 : random.nextInt( 100000 ) / 10.0;
+			buffer.add( sorted[i] );
+		}
+		sorted[size] = Double.NaN;
+		sorted[size + 1] = Double.NEGATIVE_INFINITY;
+		buffer.add( Double.NaN );
+		buffer.add( Double.NEGATIVE_INFINITY );
+		Arrays.sort( sorted );
+		assertEquals( sorted.length, buffer.size( ) );
+		try
+		{
+			for ( int k = 0; k < sorted.length; k += 997 )
+				assertEquals( sorted[k], buffer.select( k ), 0 );
+			assertEquals( sorted[sorted.length / 2],
+					buffer.select( sorted.length / 2 ),
+					0 );
+			assertEquals( Double.NEGATIVE_INFINITY, buffer.select( 0 ), 0 );
+			assertTrue( Double.isNaN( buffer.select( sorted.length - 1 ) ) );
+		}
+		finally
+		{
+			buffer.close( );
+		}
+	}
+}
@@ -11,6 +11,8 @@ import junit.framework.TestCase;
 
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
 import org.eclipse.birt.data.aggregation.impl.BuildInAggregationFactory;
+import org.eclipse.birt.data.aggregation.impl.sketch.HyperLogLog;
+import org.eclipse.birt.data.aggregation.impl.sketch.TDigest;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
 import org.eclipse.birt.data.engine.core.DataException;
@@ -2097,5 +2099,269 @@ public class TotalTest extends TestCase
 		ac.finish( );
 		assertEquals( new Integer( 8 ), ac.getValue( ) );
 	}
+
+	public void testTotalApproxCountDistinct( ) throws Exception
+	{
+		IAggrFunction ag = buildInAggrFactory.getAggregation( "approxCountDistinct" );
+		Accumulator ac = ag.newAccumulator( );
+		assertEquals( IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC,
+				ag.getName( ) );
+		assertEquals( IAggrFunction.SUMMARY_AGGR, ag.getType( ) );
+		assertEquals( 2, ag.getParameterDefn( ).length );
+		assertFalse( ag.getParameterDefn( )[0].isOptional( ) );
+		assertTrue( ag.getParameterDefn( )[1].isOptional( ) );
+
+		// the linear counting estimates the small counts closely
+		ac.start( );
+		for ( int i = 0; i < str4.length; i++ )
+			ac.onRow( new Object[]{
+				str4[i]
+			} );
+		ac.onRow( new Object[]{
+			null
+		} );
+		ac.finish( );
+		assertEquals( new Integer( 6 ), ac.getValue( ) );
+
+		// the equal numbers of the different types are one value
+		ac.start( );
+		ac.onRow( new Object[]{
+			new Integer( 1 )
+		} );
+		ac.onRow( new Object[]{
+			new Double( 1.0 )
+		} );
+		ac.onRow( new Object[]{
+			new BigDecimal( "1.00" )
+		} );
+		ac.onRow( new Object[]{
+			new BigDecimal( "0.10000000000000000001" )
+		} );
+		ac.onRow( new Object[]{
+			new BigDecimal( "0.10000000000000000002" )
+		} );
+		ac.finish( );
+		assertEquals( new Integer( 3 ), ac.getValue( ) );
+
+		ac.start( );
+		for ( int i = 0; i < 200000; i++ )
+			ac.onRow( new Object[]{
+					new Integer( i % 100000 ), new Double( 0.01 )
+			} );
+		ac.finish( );
+		int count = ( (Integer) ac.getValue( ) ).intValue( );
+		assertTrue( String.valueOf( count ), Math.abs( count - 100000 ) < 3000 );
+
+		ac.start( );
+		ac.finish( );
+		assertEquals( new Integer( 0 ), ac.getValue( ) );
+
+		try
+		{
+			ac.start( );
+			ac.onRow( new Object[]{
+					"a", new Double( 1.5 )
+			} );
+			fail( "should not arrive here" );
+		}
+		catch ( DataException e )
+		{
+		}
+	}
+
+	public void testTotalApproxMedian( ) throws Exception
+	{
+		IAggrFunction ag = buildInAggrFactory.getAggregation( "approxMedian" );
+		Accumulator ac = ag.newAccumulator( );
+		assertEquals( IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC, ag.getName( ) );
+		assertEquals( 2, ag.getParameterDefn( ).length );
+
+		Accumulator exact = buildInAggrFactory.getAggregation( "median" )
+				.newAccumulator( );
+		ac.start( );
+		exact.start( );
+		for ( int i = 0; i < doubleArray4.length; i++ )
+		{
+			ac.onRow( new Object[]{
+				new Double( doubleArray4[i] )
+			} );
+			exact.onRow( new Object[]{
+				new Double( doubleArray4[i] )
+			} );
+		}
+		ac.finish( );
+		exact.finish( );
+		assertEquals( exact.getValue( ), ac.getValue( ) );
+		assertEquals( new Double( 5.5 ), ac.getValue( ) );
+
+		ac.start( );
+		for ( int i = 100000; i > 0; i-- )
+			ac.onRow( new Object[]{
+				new Integer( i )
+			} );
+		ac.finish( );
+		double median = ( (Double) ac.getValue( ) ).doubleValue( );
+		assertTrue( String.valueOf( median ), Math.abs( median - 50000.5 ) < 1000 );
+
+		ac.start( );
+		ac.onRow( new Object[]{
+			null
+		} );
+		ac.finish( );
+		assertNull( ac.getValue( ) );
+	}
+
+	public void testTotalApproxPercentile( ) throws Exception
+	{
+		IAggrFunction ag = buildInAggrFactory.getAggregation( "approxPercentile" );
+		Accumulator ac = ag.newAccumulator( );
+		assertEquals( IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC,
+				ag.getName( ) );
+		assertEquals( 3, ag.getParameterDefn( ).length );
+		assertFalse( ag.getParameterDefn( )[1].isOptional( ) );
+		assertTrue( ag.getParameterDefn( )[2].isOptional( ) );
+
+		double[] pcts = new double[]{
+				0, 0.1, 0.35, 0.7, 1
+		};
+		double[] expected = new double[]{
+				10, 10, 17.5, 70, 300
+		};
+		for ( int i = 0; i < pcts.length; i++ )
+		{
+			ac.start( );
+			for ( int j = 0; j < doubleArray3.length; j++ )
+				ac.onRow( new Object[]{
+						doubleArray3[j], new Double( pcts[i] )
+				} );
+			ac.finish( );
+			assertEquals( new Double( expected[i] ), ac.getValue( ) );
+		}
+
+		ac.start( );
+		for ( int i = 0; i < 100000; i++ )
+			ac.onRow( new Object[]{
+					new Integer( ( i * 7919 ) % 100000 ),
+					new Double( 0.9 ),
+					new Double( 0.001 )
+			} );
+		ac.finish( );
+		double value = ( (Double) ac.getValue( ) ).doubleValue( );
+		assertTrue( String.valueOf( value ), Math.abs( value - 89999.1 ) < 100 );
+
+		try
+		{
+			ac.start( );
+			ac.onRow( new Object[]{
+					new Double( 1 ), new Double( 1.1 )
+			} );
+			fail( "should not arrive here" );
+		}
+		catch ( DataException e )
+		{
+		}
+		try
+		{
+			ac.start( );
+			ac.onRow( new Object[]{
+					new Double( 1 ), new Double( 0.5 ), new Double( 0 )
+			} );
+			fail( "should not arrive here" );
+		}
+		catch ( DataException e )
+		{
+		}
+	}
+
+	public void testTotalApproxQuartile( ) throws Exception
+	{
+		IAggrFunction ag = buildInAggrFactory.getAggregation( "approxQuartile" );
+		Accumulator ac = ag.newAccumulator( );
+		assertEquals( IBuildInAggregation.TOTAL_APPROX_QUARTILE_FUNC,
+				ag.getName( ) );
+		assertEquals( 3, ag.getParameterDefn( ).length );
+
+		Accumulator exact = buildInAggrFactory.getAggregation( "quartile" )
+				.newAccumulator( );
+		for ( int quart = 0; quart <= 4; quart++ )
+		{
+			ac.start( );
+			exact.start( );
+			for ( int i = 0; i < doubleArray1.length; i++ )
+			{
+				ac.onRow( new Object[]{
+						new Double( doubleArray1[i] ), new Integer( quart )
+				} );
+				exact.onRow( new Object[]{
+						new Double( doubleArray1[i] ), new Integer( quart )
+				} );
+			}
+			ac.finish( );
+			exact.finish( );
+			assertEquals( exact.getValue( ), ac.getValue( ) );
+		}
+
+		try
+		{
+			ac.start( );
+			ac.onRow( new Object[]{
+					new Double( 1 ), new Integer( 5 )
+			} );
+			fail( "should not arrive here" );
+		}
+		catch ( DataException e )
+		{
+		}
+	}
+
+	public void testSketchMerge( ) throws Exception
+	{
+		HyperLogLog all = new HyperLogLog( 0.01 );
+		HyperLogLog first = new HyperLogLog( 0.01 );
+		HyperLogLog second = new HyperLogLog( 0.01 );
+		TDigest allDigest = new TDigest( 0.01 );
+		TDigest firstDigest = new TDigest( 0.01 );
+		TDigest secondDigest = new TDigest( 0.01 );
+		for ( int i = 0; i < 50000; i++ )
+		{
+			String value = "value" + i;
+			all.add( value );
+			allDigest.add( i );
+			if ( i % 3 == 0 )
+			{
+				first.add( value );
+				firstDigest.add( i );
+			}
+			else
+			{
+				second.add( value );
+				secondDigest.add( i );
+			}
+		}
+		first.merge( second );
+		assertEquals( all.estimate( ), first.estimate( ) );
+
+		firstDigest.merge( secondDigest );
+		assertEquals( 50000, firstDigest.size( ) );
+		assertEquals( 0, firstDigest.quantile( 0 ), 0 );
+		assertEquals( 49999, firstDigest.quantile( 1 ), 0 );
+		for ( double q = 0.05; q < 1; q += 0.05 )
+		{
+			double expected = q * 49999;
+			assertEquals( expected, firstDigest.quantile( q ), 500 );
+			assertEquals( allDigest.quantile( q ),
+					firstDigest.quantile( q ),
+					500 );
+		}
+
+		try
+		{
+			first.merge( new HyperLogLog( 0.1 ) );
+			fail( "should not arrive here" );
+		}
+		catch ( IllegalArgumentException e )
+		{
+		}
+	}
     
 }
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.api;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -33,6 +34,7 @@ import org.eclipse.birt.data.engine.api.querydefn.ScriptDataSetDesign;
 import org.eclipse.birt.data.engine.api.querydefn.ScriptDataSourceDesign;
 import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
 import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.CacheMapManager;
 import org.eclipse.birt.data.engine.executor.DataSetCacheManager;
 import org.eclipse.birt.data.engine.impl.DataEngineImpl;
 
@@ -821,6 +823,148 @@ public class DataSetCacheTest extends APITestCase
 		return qr.getResultIterator( );
 	}
 	
+	/**
+	 * Test the cache saved in the persistent directory is reused after the
+	 * cache in JVM is cleared, as if the engine is restarted
+	 * 
+	 * @throws BirtException
+	 */
+	public void testPersistentCache( ) throws BirtException
+	{
+		File persistentDir = new File( this.getTempDir( ), "persistentCache" );
+		deleteDir( persistentDir );
+		this.dataSet.setCacheRowCount( 4 );
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		appContextMap.put( DataEngine.DATA_SET_CACHE_PERSISTENT_DIR,
+				persistentDir.getPath( ) );
+
+		genCache( );
+		File[] cacheDirs = getPersistentCacheDirs( persistentDir );
+		assertEquals( 1, cacheDirs.length );
+		assertTrue( new File( cacheDirs[0], "data.data" ).exists( ) );
+
+		// the files are kept after the cache in JVM is cleared
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		assertEquals( 1, getPersistentCacheDirs( persistentDir ).length );
+
+		long hitCount = CacheMapManager.getJVMLevelCacheStatistics( )
+				.getHitCount( );
+		useCache( );
+		assertTrue( CacheMapManager.getJVMLevelCacheStatistics( )
+				.getHitCount( ) > hitCount );
+		assertEquals( 1, getPersistentCacheDirs( persistentDir ).length );
+
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		deleteDir( persistentDir );
+	}
+
+	/**
+	 * Test the values of the app context keys make different caches, and the
+	 * expired cache is not reused
+	 * 
+	 * @throws Exception
+	 */
+	public void testPersistentCacheKeysAndTimeToLive( ) throws Exception
+	{
+		File persistentDir = new File( this.getTempDir( ), "persistentCache" );
+		deleteDir( persistentDir );
+		this.dataSet.setCacheRowCount( 4 );
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		appContextMap.put( DataEngine.DATA_SET_CACHE_PERSISTENT_DIR,
+				persistentDir.getPath( ) );
+		appContextMap.put( DataEngine.DATA_SET_CACHE_PERSISTENT_KEYS,
+				"test.user" );
+
+		appContextMap.put( "test.user", "user1" );
+		genCache( );
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		expectedValue.clear( );
+		appContextMap.put( "test.user", "user2" );
+		genCache( );
+		assertEquals( 2, getPersistentCacheDirs( persistentDir ).length );
+
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		DataEngineImpl myDataEngine = newDataEngine( );
+		assertTrue( getDataSetCacheManager( myDataEngine ).doesLoadFromCache( this.dataSource,
+				this.dataSet,
+				null,
+				appContextMap ) );
+		getDataSetCacheManager( myDataEngine ).loadFinished( );
+
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		appContextMap.put( DataEngine.DATA_SET_CACHE_PERSISTENT_TIME_TO_LIVE,
+				"1" );
+		Thread.sleep( 50 );
+		assertFalse( getDataSetCacheManager( myDataEngine ).doesLoadFromCache( this.dataSource,
+				this.dataSet,
+				null,
+				appContextMap ) );
+		myDataEngine.shutdown( );
+
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		deleteDir( persistentDir );
+	}
+
+	/**
+	 * Test the least recently saved caches are deleted beyond the max entries
+	 * 
+	 * @throws BirtException
+	 */
+	public void testPersistentCacheMaxEntries( ) throws BirtException
+	{
+		File persistentDir = new File( this.getTempDir( ), "persistentCache" );
+		deleteDir( persistentDir );
+		this.dataSet.setCacheRowCount( 4 );
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		appContextMap.put( DataEngine.DATA_SET_CACHE_PERSISTENT_DIR,
+				persistentDir.getPath( ) );
+		appContextMap.put( DataEngine.DATA_SET_CACHE_PERSISTENT_KEYS,
+				"test.user" );
+		appContextMap.put( DataEngine.DATA_SET_CACHE_PERSISTENT_MAX_ENTRIES,
+				"1" );
+
+		appContextMap.put( "test.user", "user1" );
+		genCache( );
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		expectedValue.clear( );
+		appContextMap.put( "test.user", "user2" );
+		genCache( );
+		assertEquals( 1, getPersistentCacheDirs( persistentDir ).length );
+
+		dataEngine.clearCache( this.dataSource, this.dataSet );
+		deleteDir( persistentDir );
+	}
+
+	/**
+	 * @param persistentDir
+	 * @return the directories of the published caches
+	 */
+	private File[] getPersistentCacheDirs( File persistentDir )
+	{
+		List cacheDirs = new ArrayList( );
+		File[] files = persistentDir.listFiles( );
+		for ( int i = 0; files != null && i < files.length; i++ )
+		{
+			if ( files[i].isDirectory( )
+					&& !files[i].getName( ).endsWith( ".tmp" ) )
+				cacheDirs.add( files[i] );
+		}
+		return (File[]) cacheDirs.toArray( new File[0] );
+	}
+
+	/**
+	 * @param dir
+	 */
+	private void deleteDir( File dir )
+	{
+		File[] files = dir.listFiles( );
+		for ( int i = 0; files != null && i < files.length; i++ )
+		{
+			deleteDir( files[i] );
+		}
+		dir.delete( );
+	}
+
 	/**
 	 * @return
 	 * @throws BirtException
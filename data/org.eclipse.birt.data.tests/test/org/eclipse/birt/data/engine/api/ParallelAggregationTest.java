@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.data.engine.api.querydefn.Binding;
+import org.eclipse.birt.data.engine.api.querydefn.ConditionalExpression;
+import org.eclipse.birt.data.engine.api.querydefn.GroupDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.QueryDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.eclipse.birt.data.engine.api.querydefn.SortDefinition;
+
+import testutil.ConfigText;
+
+/**
+ * Test the aggregations calculated in parallel have the same values as the
+ * ones calculated by the query thread.
+ */
+public class ParallelAggregationTest extends APITestCase
+{
+	/*
+	 * @see org.eclipse.birt.data.engine.api.APITestCase#getDataSourceInfo()
+	 */
+	protected DataSourceInfo getDataSourceInfo( )
+	{
+		return new DataSourceInfo( ConfigText.getString( "Api.TestData.TableName" ),
+				ConfigText.getString( "Api.TestData.TableSQL" ),
+				ConfigText.getString( "Api.TestData.TestDataFileName" ) );
+	}
+
+	/**
+	 * Test the summary, running and multiple pass aggregations, mixed with
+	 * the ones which are calculated by the query thread.
+	 */
+	public void testAggregations( ) throws Exception
+	{
+		QueryDefinition query = newReportQuery( );
+		String[] columns = new String[]{
+				"COUNTRY", "CITY", "SALE_DATE", "AMOUNT"
+		};
+		for ( int i = 0; i < columns.length; i++ )
+			query.addBinding( new Binding( columns[i],
+					new ScriptExpression( "dataSetRow[\"" + columns[i] + "\"]" ) ) );
+		GroupDefinition group = new GroupDefinition( "country" );
+		group.setKeyExpression( "row[\"COUNTRY\"]" );
+		query.addGroup( group );
+		SortDefinition sort = new SortDefinition( );
+		sort.setExpression( "row[\"SALE_DATE\"]" );
+		query.addSort( sort );
+
+		List<String> names = new ArrayList<String>( );
+		String[] functions = new String[]{
+				"SUM",
+				"COUNT",
+				"AVE",
+				"MAX",
+				"MIN",
+				"VARIANCE",
+				"FIRST",
+				"LAST",
+				"COUNTDISTINCT",
+				"RUNNINGSUM",
+				"RANK",
+				"PERCENTSUM"
+		};
+		for ( int i = 0; i < functions.length; i++ )
+		{
+			names.add( addAggregation( query, functions[i], "AMOUNT", null ) );
+			names.add( addAggregation( query, functions[i], "AMOUNT", "country" ) );
+		}
+		names.add( addAggregation( query, "CONCATENATE", "CITY", "country" ) );
+
+		// the aggregations evaluated by the script context
+		Binding expression = new Binding( "SUM_EXPRESSION" );
+		expression.setAggrFunction( "SUM" );
+		expression.addArgument( new ScriptExpression( "dataSetRow[\"AMOUNT\"] * 2" ) );
+		query.addBinding( expression );
+		names.add( expression.getBindingName( ) );
+		Binding filtered = new Binding( "COUNT_FILTERED" );
+		filtered.setAggrFunction( "COUNT" );
+		filtered.setFilter( new ConditionalExpression( "dataSetRow[\"AMOUNT\"]",
+				IConditionalExpression.OP_GT,
+				"100" ) );
+		filtered.addAggregateOn( "country" );
+		query.addBinding( filtered );
+		names.add( filtered.getBindingName( ) );
+
+		List<String> expected = getRows( query, names, false );
+		assertEquals( 8, expected.size( ) );
+		assertEquals( expected, getRows( query, names, true ) );
+		if ( Runtime.getRuntime( ).availableProcessors( ) > 1 )
+			assertTrue( hasAggregationWorker( ) );
+	}
+
+	private boolean hasAggregationWorker( )
+	{
+		Iterator<Thread> threads = Thread.getAllStackTraces( )
+				.keySet( )
+				.iterator( );
+		while ( threads.hasNext( ) )
+		{
+			if ( "BIRT Aggregation Worker".equals( threads.next( ).getName( ) ) )
+				return true;
+		}
+		return false;
+	}
+
+	private String addAggregation( QueryDefinition query, String function,
+			String column, String groupName ) throws Exception
+	{
+		String name = function
+				+ "_" + column + ( groupName == null ? "" : "_" + groupName );
+		Binding binding = new Binding( name );
+		binding.setAggrFunction( function );
+		binding.addArgument( new ScriptExpression( "dataSetRow[\"" + column + "\"]" ) );
+		if ( groupName != null )
+			binding.addAggregateOn( groupName );
+		query.addBinding( binding );
+		return name;
+	}
+
+	private List<String> getRows( IQueryDefinition query, List<String> names,
+			boolean parallel ) throws Exception
+	{
+		Map appContext = new HashMap( );
+		appContext.put( DataEngine.PARALLEL_AGGREGATION,
+				String.valueOf( parallel ) );
+		IPreparedQuery preparedQuery = dataEngine.prepare( query, appContext );
+		IResultIterator it = preparedQuery.execute( null ).getResultIterator( );
+		List<String> rows = new ArrayList<String>( );
+		while ( it.next( ) )
+		{
+			StringBuffer row = new StringBuffer( );
+			for ( int i = 0; i < names.size( ); i++ )
+				row.append( names.get( i ) )
+						.append( "=" )
+						.append( it.getValue( names.get( i ) ) )
+						.append( " " );
+			rows.add( row.toString( ) );
+		}
+		it.close( );
+		return rows;
+	}
+}
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.engine.api.querydefn.Binding;
+import org.eclipse.birt.data.engine.api.querydefn.ColumnDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ComputedColumn;
+import org.eclipse.birt.data.engine.api.querydefn.ConditionalExpression;
+import org.eclipse.birt.data.engine.api.querydefn.FilterDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.GroupDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.OdaDataSetDesign;
+import org.eclipse.birt.data.engine.api.querydefn.QueryDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.eclipse.birt.data.engine.api.querydefn.SortDefinition;
+
+import testutil.ConfigText;
+import testutil.JDBCOdaDataSource;
+
+/**
+ * Test the filters, sorts and grouping pushed down into the SQL of the JDBC
+ * data sets give the same results as the ones evaluated by the data engine.
+ */
+public class SqlPushDownTest extends APITestCase
+{
+	private Logger statementLogger;
+	private Level statementLevel;
+	private List<String> pushedQueries = new ArrayList<String>( );
+	private Handler handler = new Handler( ) {
+
+		public void publish( LogRecord record )
+		{
+			if ( record.getMessage( ) != null
+					&& record.getMessage( ).startsWith( "Push down into the query: " ) )
+				pushedQueries.add( record.getMessage( ) );
+		}
+
+		public void flush( )
+		{
+		}
+
+		public void close( )
+		{
+		}
+	};
+
+	/*
+	 * @see org.eclipse.birt.data.engine.api.APITestCase#getDataSourceInfo()
+	 */
+	protected DataSourceInfo getDataSourceInfo( )
+	{
+		return new DataSourceInfo( ConfigText.getString( "Api.TestData.TableName" ),
+				ConfigText.getString( "Api.TestData.TableSQL" ),
+				ConfigText.getString( "Api.TestData.TestDataFileName" ) );
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.api.APITestCase#setUp()
+	 */
+	protected void setUp( ) throws Exception
+	{
+		super.setUp( );
+		statementLogger = Logger.getLogger( "org.eclipse.birt.report.data.oda.jdbc.Statement" );
+		statementLevel = statementLogger.getLevel( );
+		statementLogger.setLevel( Level.FINE );
+		statementLogger.addHandler( handler );
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.api.APITestCase#tearDown()
+	 */
+	protected void tearDown( ) throws Exception
+	{
+		statementLogger.removeHandler( handler );
+		statementLogger.setLevel( statementLevel );
+		super.tearDown( );
+	}
+
+	/**
+	 * Test the filters of the data set and the query, including the null
+	 * values which are less than the others
+	 */
+	public void testFilters( ) throws Exception
+	{
+		OdaDataSetDesign dataSet = newHintedDataSet( "filters" );
+		dataSet.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"COUNTRY\"]",
+				IConditionalExpression.OP_EQ,
+				"\"CHINA\"" ) ) );
+		dataSet.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"NULL_COLUMN\"]",
+				IConditionalExpression.OP_LT,
+				"'abc'" ) ) );
+		dataEngine.defineDataSet( dataSet );
+
+		QueryDefinition query = newReportQuery( dataSet );
+		addColumnBindings( query );
+		query.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"AMOUNT\"]",
+				IConditionalExpression.OP_BETWEEN,
+				"100",
+				"400" ) ) );
+		query.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"CITY\"]",
+				IConditionalExpression.OP_NE,
+				"\"Beijing\"" ) ) );
+		SortDefinition sort = new SortDefinition( );
+		sort.setColumn( "SALE_DATE" );
+		query.addSort( sort );
+
+		List<String> expected = getRows( query, false );
+		assertEquals( 2, expected.size( ) );
+		assertEquals( expected, getRows( query, true ) );
+		assertEquals( 1, pushedQueries.size( ) );
+		String pushedQuery = pushedQueries.get( 0 );
+		assertTrue( pushedQuery.indexOf( "= 'CHINA'" ) > 0 );
+		assertTrue( pushedQuery.indexOf( "BETWEEN 100 AND 400" ) > 0 );
+		assertTrue( pushedQuery.indexOf( "IS NULL" ) > 0 );
+		assertTrue( pushedQuery.indexOf( "ORDER BY" ) > 0 );
+	}
+
+	/**
+	 * Test the filters on the computed columns are evaluated by the data
+	 * engine only
+	 */
+	public void testComputedColumnFilter( ) throws Exception
+	{
+		OdaDataSetDesign dataSet = newHintedDataSet( "computedColumn" );
+		dataSet.addComputedColumn( new ComputedColumn( "DOUBLE_AMOUNT",
+				"row[\"AMOUNT\"] * 2",
+				DataType.INTEGER_TYPE ) );
+		dataSet.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"DOUBLE_AMOUNT\"]",
+				IConditionalExpression.OP_GT,
+				"500" ) ) );
+		dataSet.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"COUNTRY\"]",
+				IConditionalExpression.OP_IN,
+				toList( "\"US\"" ) ) ) );
+		dataEngine.defineDataSet( dataSet );
+
+		QueryDefinition query = newReportQuery( dataSet );
+		addColumnBindings( query );
+
+		List<String> expected = getRows( query, false );
+		assertEquals( 2, expected.size( ) );
+		assertEquals( expected, getRows( query, true ) );
+		assertEquals( 1, pushedQueries.size( ) );
+		assertTrue( pushedQueries.get( 0 ).indexOf( "IN ( 'US' )" ) > 0 );
+		assertTrue( pushedQueries.get( 0 ).indexOf( "DOUBLE_AMOUNT" ) < 0 );
+	}
+
+	/**
+	 * Test the top N filter is pushed with the max rows
+	 */
+	public void testTopN( ) throws Exception
+	{
+		OdaDataSetDesign dataSet = newHintedDataSet( "topN" );
+		dataEngine.defineDataSet( dataSet );
+
+		QueryDefinition query = newReportQuery( dataSet );
+		addColumnBindings( query );
+		query.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"AMOUNT\"]",
+				IConditionalExpression.OP_TOP_N,
+				"2" ) ) );
+
+		List<String> expected = getRows( query, false );
+		assertEquals( 2, expected.size( ) );
+		assertEquals( expected, getRows( query, true ) );
+		assertEquals( 1, pushedQueries.size( ) );
+		assertTrue( pushedQueries.get( 0 ).indexOf( "DESC" ) > 0 );
+	}
+
+	/**
+	 * Test the grouping and the aggregations are evaluated by the database
+	 */
+	public void testGroupBy( ) throws Exception
+	{
+		OdaDataSetDesign dataSet = newHintedDataSet( "groupBy" );
+		dataSet.addFilter( new FilterDefinition( new ConditionalExpression( "row[\"AMOUNT\"]",
+				IConditionalExpression.OP_GE,
+				"100" ) ) );
+		dataEngine.defineDataSet( dataSet );
+
+		QueryDefinition query = newReportQuery( dataSet );
+		query.setUsesDetails( false );
+		query.addBinding( new Binding( "COUNTRY",
+				new ScriptExpression( "dataSetRow[\"COUNTRY\"]" ) ) );
+		query.addBinding( new Binding( "CITY",
+				new ScriptExpression( "dataSetRow[\"CITY\"]" ) ) );
+		query.addBinding( newAggregation( "CITY_SUM", "SUM", "AMOUNT", "city" ) );
+		query.addBinding( newAggregation( "CITY_AVE", "AVE", "AMOUNT", "city" ) );
+		query.addBinding( newAggregation( "CITY_COUNT", "COUNT", null, "city" ) );
+		query.addBinding( newAggregation( "COUNTRY_SUM", "SUM", "AMOUNT", "country" ) );
+		query.addBinding( newAggregation( "COUNTRY_COUNT", "COUNT", "AMOUNT", "country" ) );
+		query.addBinding( newAggregation( "MAX", "MAX", "AMOUNT", null ) );
+		query.addBinding( newAggregation( "MIN", "MIN", "CITY", null ) );
+		GroupDefinition countryGroup = new GroupDefinition( "country" );
+		countryGroup.setKeyExpression( "row[\"COUNTRY\"]" );
+		query.addGroup( countryGroup );
+		GroupDefinition cityGroup = new GroupDefinition( "city" );
+		cityGroup.setKeyExpression( "row[\"CITY\"]" );
+		query.addGroup( cityGroup );
+
+		String[] names = new String[]{
+				"COUNTRY",
+				"CITY",
+				"CITY_SUM",
+				"CITY_AVE",
+				"CITY_COUNT",
+				"COUNTRY_SUM",
+				"COUNTRY_COUNT",
+				"MAX",
+				"MIN"
+		};
+		List<String> expected = getGroups( query, names, false );
+		assertEquals( 4, expected.size( ) );
+		assertEquals( expected, getGroups( query, names, true ) );
+		assertEquals( 1, pushedQueries.size( ) );
+		assertTrue( pushedQueries.get( 0 ).indexOf( "GROUP BY" ) > 0 );
+	}
+
+	/**
+	 * Test the grouping is not pushed when the bindings need the detail rows
+	 */
+	public void testGroupByNotPushed( ) throws Exception
+	{
+		OdaDataSetDesign dataSet = newHintedDataSet( "notGrouped" );
+		dataEngine.defineDataSet( dataSet );
+
+		QueryDefinition query = newReportQuery( dataSet );
+		query.setUsesDetails( false );
+		query.addBinding( new Binding( "COUNTRY",
+				new ScriptExpression( "dataSetRow[\"COUNTRY\"]" ) ) );
+		query.addBinding( new Binding( "AMOUNT",
+				new ScriptExpression( "dataSetRow[\"AMOUNT\"]" ) ) );
+		query.addBinding( newAggregation( "TOTAL", "SUM", "AMOUNT", "country" ) );
+		GroupDefinition countryGroup = new GroupDefinition( "country" );
+		countryGroup.setKeyExpression( "row[\"COUNTRY\"]" );
+		query.addGroup( countryGroup );
+
+		String[] names = new String[]{
+				"COUNTRY", "TOTAL"
+		};
+		List<String> expected = getGroups( query, names, false );
+		assertEquals( expected, getGroups( query, names, true ) );
+		assertEquals( 1, pushedQueries.size( ) );
+		assertTrue( pushedQueries.get( 0 ).indexOf( "GROUP BY" ) < 0 );
+		assertTrue( pushedQueries.get( 0 ).indexOf( "ORDER BY" ) > 0 );
+	}
+
+	private OdaDataSetDesign newHintedDataSet( String name )
+	{
+		OdaDataSetDesign dataSet = new OdaDataSetDesign( name );
+		dataSet.setDataSource( this.dataSource.getName( ) );
+		dataSet.setExtensionID( JDBCOdaDataSource.DATA_SET_TYPE );
+		dataSet.setQueryText( "select * from " + getTestTableName( ) );
+		dataSet.addResultSetHint( newColumn( "COUNTRY", DataType.STRING_TYPE ) );
+		dataSet.addResultSetHint( newColumn( "CITY", DataType.STRING_TYPE ) );
+		dataSet.addResultSetHint( newColumn( "SALE_DATE", DataType.DATE_TYPE ) );
+		dataSet.addResultSetHint( newColumn( "AMOUNT", DataType.INTEGER_TYPE ) );
+		dataSet.addResultSetHint( newColumn( "ORDERED", DataType.INTEGER_TYPE ) );
+		dataSet.addResultSetHint( newColumn( "NULL_COLUMN", DataType.STRING_TYPE ) );
+		return dataSet;
+	}
+
+	private ColumnDefinition newColumn( String name, int dataType )
+	{
+		ColumnDefinition column = new ColumnDefinition( name );
+		column.setDataType( dataType );
+		return column;
+	}
+
+	private void addColumnBindings( QueryDefinition query ) throws Exception
+	{
+		String[] names = new String[]{
+				"COUNTRY", "CITY", "SALE_DATE", "AMOUNT"
+		};
+		for ( int i = 0; i < names.length; i++ )
+		{
+			query.addBinding( new Binding( names[i],
+					new ScriptExpression( "dataSetRow[\"" + names[i] + "\"]" ) ) );
+		}
+	}
+
+	private Binding newAggregation( String name, String function,
+			String column, String groupName ) throws Exception
+	{
+		Binding binding = new Binding( name );
+		binding.setAggrFunction( function );
+		if ( column != null )
+			binding.addArgument( new ScriptExpression( "dataSetRow[\"" + column + "\"]" ) );
+		if ( groupName != null )
+			binding.addAggregateOn( groupName );
+		return binding;
+	}
+
+	private List toList( String value )
+	{
+		List list = new ArrayList( );
+		list.add( value );
+		return list;
+	}
+
+	private Map newAppContext( boolean pushDown )
+	{
+		Map appContext = new HashMap( );
+		appContext.put( DataEngine.SQL_PUSH_DOWN, String.valueOf( pushDown ) );
+		return appContext;
+	}
+
+	private List<String> getRows( IQueryDefinition query, boolean pushDown )
+			throws Exception
+	{
+		IPreparedQuery preparedQuery = dataEngine.prepare( query,
+				newAppContext( pushDown ) );
+		IResultIterator it = preparedQuery.execute( null ).getResultIterator( );
+		List<String> rows = new ArrayList<String>( );
+		while ( it.next( ) )
+		{
+			rows.add( it.getValue( "COUNTRY" ) + ","
+					+ it.getValue( "CITY" ) + ","
+					+ it.getValue( "SALE_DATE" ) + ","
+					+ it.getValue( "AMOUNT" ) );
+		}
+		it.close( );
+		return rows;
+	}
+
+	private List<String> getGroups( IQueryDefinition query, String[] names,
+			boolean pushDown ) throws Exception
+	{
+		IPreparedQuery preparedQuery = dataEngine.prepare( query,
+				newAppContext( pushDown ) );
+		IResultIterator it = preparedQuery.execute( null ).getResultIterator( );
+		List<String> groups = new ArrayList<String>( );
+		while ( it.next( ) )
+		{
+			StringBuffer group = new StringBuffer( );
+			for ( int i = 0; i < names.length; i++ )
+			{
+				Object value = it.getValue( names[i] );
+				// the numbers of the different types are compared by values
+				if ( value instanceof Number )
+					value = Double.valueOf( ( (Number) value ).doubleValue( ) );
+				group.append( value ).append( "," );
+			}
+			groups.add( group.toString( ) );
+			it.skipToEnd( query.getGroups( ).size( ) );
+		}
+		it.close( );
+		return groups;
+	}
+}
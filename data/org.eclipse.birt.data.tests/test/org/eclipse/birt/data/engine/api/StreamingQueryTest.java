@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.data.engine.api.querydefn.Binding;
+import org.eclipse.birt.data.engine.api.querydefn.FilterDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.QueryDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.eclipse.birt.data.engine.executor.transform.SimpleResultSet;
+import org.eclipse.birt.data.engine.impl.ResultIterator;
+
+import testutil.ConfigText;
+
+/**
+ * Test the queries with the filters which do not update the aggregations are
+ * streamed from the data set, with the same rows as the cached ones.
+ */
+public class StreamingQueryTest extends APITestCase
+{
+	private static final String[] COLUMNS = new String[]{
+			"COUNTRY", "CITY", "SALE_DATE", "AMOUNT"
+	};
+
+	/*
+	 * @see org.eclipse.birt.data.engine.api.APITestCase#getDataSourceInfo()
+	 */
+	protected DataSourceInfo getDataSourceInfo( )
+	{
+		return new DataSourceInfo( ConfigText.getString( "Api.TestData.TableName" ),
+				ConfigText.getString( "Api.TestData.TableSQL" ),
+				ConfigText.getString( "Api.TestData.TestDataFileName" ) );
+	}
+
+	/**
+	 * Test a query with a filter which does not update the aggregations.
+	 */
+	public void testNoUpdateFilter( ) throws Exception
+	{
+		QueryDefinition query = newQuery( );
+		query.addFilter( new FilterDefinition( new ScriptExpression( "row[\"AMOUNT\"] > 100" ),
+				false ) );
+
+		List<String> expected = getRows( query, false, false );
+		assertTrue( expected.size( ) > 0 );
+		assertEquals( expected, getRows( query, true, true ) );
+	}
+
+	/**
+	 * Test a query with aggregations is still cached.
+	 */
+	public void testAggregation( ) throws Exception
+	{
+		QueryDefinition query = newQuery( );
+		query.addFilter( new FilterDefinition( new ScriptExpression( "row[\"AMOUNT\"] > 100" ),
+				false ) );
+		Binding total = new Binding( "TOTAL" );
+		total.setAggrFunction( "SUM" );
+		total.addArgument( new ScriptExpression( "dataSetRow[\"AMOUNT\"]" ) );
+		query.addBinding( total );
+
+		List<String> expected = getRows( query, false, false );
+		assertEquals( expected, getRows( query, true, false ) );
+	}
+
+	private QueryDefinition newQuery( ) throws Exception
+	{
+		QueryDefinition query = newReportQuery( );
+		for ( int i = 0; i < COLUMNS.length; i++ )
+			query.addBinding( new Binding( COLUMNS[i],
+					new ScriptExpression( "dataSetRow[\"" + COLUMNS[i] + "\"]" ) ) );
+		return query;
+	}
+
+	private List<String> getRows( IQueryDefinition query, boolean streaming,
+			boolean streamed ) throws Exception
+	{
+		Map appContext = new HashMap( );
+		appContext.put( DataEngine.STREAMING_QUERY, String.valueOf( streaming ) );
+		IPreparedQuery preparedQuery = dataEngine.prepare( query, appContext );
+		IResultIterator it = preparedQuery.execute( null ).getResultIterator( );
+		assertEquals( streamed,
+				( (ResultIterator) it ).getOdiResult( ) instanceof SimpleResultSet );
+		List<String> rows = new ArrayList<String>( );
+		while ( it.next( ) )
+		{
+			StringBuffer row = new StringBuffer( );
+			for ( int i = 0; i < COLUMNS.length; i++ )
+				row.append( it.getValue( COLUMNS[i] ) ).append( " " );
+			rows.add( row.toString( ) );
+		}
+		it.close( );
+		return rows;
+	}
+}
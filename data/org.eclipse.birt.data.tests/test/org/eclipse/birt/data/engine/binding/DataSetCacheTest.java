@@ -396,6 +396,49 @@ public class DataSetCacheTest extends APITestCase
 		this.testUseCache1();
 	}
 	
+	/**
+	 * Test the identical execution of another data engine does not wait for
+	 * the one in flight which fails before the data set is saved into cache
+	 * 
+	 * @throws BirtException
+	 */
+	public void testFailedExecutionInFlight( ) throws BirtException
+	{
+		this.dataSet.setBeforeOpenScript( "throw new Error( \"fail to open\" );" );
+		this.appContextMap.put( DataEngine.DATA_SET_CACHE_ROW_LIMIT, new Integer( -1 ) );
+		this.appContextMap.put( DataEngine.DATA_SET_CACHE_IN_FLIGHT_WAIT, "20000" );
+		myDataEngine = newDataEngine( );
+		DataEngineImpl anotherDataEngine = newDataEngine( );
+		try
+		{
+			assertExecutionFails( myDataEngine );
+			long start = System.currentTimeMillis( );
+			assertExecutionFails( anotherDataEngine );
+			assertTrue( System.currentTimeMillis( ) - start < 10000 );
+		}
+		finally
+		{
+			anotherDataEngine.shutdown( );
+		}
+	}
+	
+	/**
+	 * @param dataEngine
+	 */
+	private void assertExecutionFails( DataEngineImpl dataEngine )
+	{
+		try
+		{
+			IQueryResults qr = dataEngine.prepare( this.newReportQuery( ),
+					appContextMap ).execute( null );
+			qr.getResultIterator( ).next( );
+			fail( "the execution should fail" );
+		}
+		catch ( BirtException e )
+		{
+		}
+	}
+	
 	/**
 	 * Test acquire saved cache result meta 
 	 *
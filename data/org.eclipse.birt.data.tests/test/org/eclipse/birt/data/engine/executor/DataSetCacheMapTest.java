@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.data.engine.api.querydefn.OdaDataSetDesign;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the bounds and the statistics of DataSetCacheMap
+ */
+public class DataSetCacheMapTest extends TestCase
+{
+	private IResultClass resultClass;
+	private Map<DataSourceAndDataSet, Integer> lockedCacheMap;
+	private DataSetCacheMap cacheMap;
+
+	/*
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	public void setUp( ) throws Exception
+	{
+		List columnsList = new ArrayList( );
+		columnsList.add( new ResultFieldMetadata( 1,
+				"id",
+				"id",
+				Integer.class,
+				null,
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 2,
+				"name",
+				"name",
+				String.class,
+				null,
+				false ) );
+		resultClass = new ResultClass( columnsList );
+		lockedCacheMap = Collections.synchronizedMap( new HashMap<DataSourceAndDataSet, Integer>( ) );
+		cacheMap = new DataSetCacheMap( lockedCacheMap );
+	}
+
+	/**
+	 * Test the cache least recently loaded is evicted
+	 */
+	public void testMaxEntriesLRU( ) throws Exception
+	{
+		cacheMap.setPolicy( new DataSetCachePolicy( 0,
+				2,
+				0,
+				DataSetCachePolicy.EvictionType.LRU ) );
+		DataSourceAndDataSet key1 = newKey( 1 );
+		DataSourceAndDataSet key2 = newKey( 2 );
+		DataSourceAndDataSet key3 = newKey( 3 );
+		TestCacheObject cache1 = newCacheObject( 10 );
+		TestCacheObject cache2 = newCacheObject( 10 );
+		TestCacheObject cache3 = newCacheObject( 10 );
+		cacheMap.put( key1, cache1 );
+		cacheMap.put( key2, cache2 );
+		cacheMap.recordHit( key1 );
+		cacheMap.put( key3, cache3 );
+
+		assertSame( cache1, cacheMap.get( key1 ) );
+		assertNull( cacheMap.get( key2 ) );
+		assertSame( cache3, cacheMap.get( key3 ) );
+		assertTrue( cache2.released );
+		assertFalse( cache1.released );
+		assertEquals( 1, cacheMap.getStatistics( ).getEvictionCount( ) );
+		assertEquals( 2, cacheMap.getStatistics( ).getEntryCount( ) );
+	}
+
+	/**
+	 * Test the cache least frequently loaded is evicted, but not the one just
+	 * put
+	 */
+	public void testMaxEntriesLFU( ) throws Exception
+	{
+		cacheMap.setPolicy( new DataSetCachePolicy( 0,
+				2,
+				0,
+				DataSetCachePolicy.EvictionType.LFU ) );
+		DataSourceAndDataSet key1 = newKey( 1 );
+		DataSourceAndDataSet key2 = newKey( 2 );
+		DataSourceAndDataSet key3 = newKey( 3 );
+		TestCacheObject cache1 = newCacheObject( 10 );
+		TestCacheObject cache2 = newCacheObject( 10 );
+		cacheMap.put( key1, cache1 );
+		cacheMap.put( key2, cache2 );
+		cacheMap.recordHit( key1 );
+		cacheMap.recordHit( key1 );
+		cacheMap.recordHit( key2 );
+		cacheMap.recordHit( key1 );
+		cacheMap.put( key3, newCacheObject( 10 ) );
+
+		assertNotNull( cacheMap.get( key1 ) );
+		assertNull( cacheMap.get( key2 ) );
+		assertNotNull( cacheMap.get( key3 ) );
+		assertTrue( cache2.released );
+	}
+
+	/**
+	 * Test the caches are evicted when their rows exceed the max memory size
+	 */
+	public void testMaxMemorySize( ) throws Exception
+	{
+		DataSourceAndDataSet key1 = newKey( 1 );
+		DataSourceAndDataSet key2 = newKey( 2 );
+		cacheMap.put( key1, newCacheObject( 100 ) );
+		long size = cacheMap.getStatistics( ).getMemorySize( );
+		assertTrue( size > 0 );
+
+		cacheMap.setPolicy( new DataSetCachePolicy( size * 3 / 2,
+				0,
+				0,
+				DataSetCachePolicy.EvictionType.LRU ) );
+		assertNotNull( cacheMap.get( key1 ) );
+		cacheMap.put( key2, newCacheObject( 100 ) );
+		assertNull( cacheMap.get( key1 ) );
+		assertNotNull( cacheMap.get( key2 ) );
+		assertEquals( size, cacheMap.getStatistics( ).getMemorySize( ) );
+
+		// the cache larger than the max memory size is not kept either
+		cacheMap.put( key1, newCacheObject( 200 ) );
+		assertEquals( 0, cacheMap.getStatistics( ).getEntryCount( ) );
+		assertEquals( 0, cacheMap.getStatistics( ).getMemorySize( ) );
+	}
+
+	/**
+	 * Test the expired cache is not returned and is released
+	 */
+	public void testTimeToLive( ) throws Exception
+	{
+		cacheMap.setPolicy( new DataSetCachePolicy( 0,
+				0,
+				50,
+				DataSetCachePolicy.EvictionType.LRU ) );
+		DataSourceAndDataSet key1 = newKey( 1 );
+		TestCacheObject cache1 = newCacheObject( 10 );
+		cacheMap.put( key1, cache1 );
+		assertSame( cache1, cacheMap.get( key1 ) );
+		Thread.sleep( 100 );
+		assertNull( cacheMap.get( key1 ) );
+		assertTrue( cache1.released );
+		assertEquals( 0, cacheMap.getStatistics( ).getEntryCount( ) );
+		assertEquals( 1, cacheMap.getStatistics( ).getEvictionCount( ) );
+	}
+
+	/**
+	 * Test the cache being loaded is not evicted
+	 */
+	public void testLockedCache( ) throws Exception
+	{
+		DataSourceAndDataSet key1 = newKey( 1 );
+		DataSourceAndDataSet key2 = newKey( 2 );
+		TestCacheObject cache1 = newCacheObject( 10 );
+		cacheMap.put( key1, cache1 );
+		lockedCacheMap.put( key1, Integer.valueOf( 0 ) );
+		cacheMap.setPolicy( new DataSetCachePolicy( 0,
+				1,
+				0,
+				DataSetCachePolicy.EvictionType.LRU ) );
+		cacheMap.put( key2, newCacheObject( 10 ) );
+		assertSame( cache1, cacheMap.get( key1 ) );
+		assertNull( cacheMap.get( key2 ) );
+		assertFalse( cache1.released );
+
+		lockedCacheMap.remove( key1 );
+		cacheMap.put( key2, newCacheObject( 10 ) );
+		assertNull( cacheMap.get( key1 ) );
+		assertTrue( cache1.released );
+	}
+
+	/**
+	 * Test the cache replaced while it is being loaded is released once it is
+	 * unlocked
+	 */
+	public void testReplaceLockedCache( ) throws Exception
+	{
+		DataSourceAndDataSet key1 = newKey( 1 );
+		TestCacheObject cache1 = newCacheObject( 10 );
+		TestCacheObject cache2 = newCacheObject( 10 );
+		cacheMap.put( key1, cache1 );
+		lockedCacheMap.put( key1, Integer.valueOf( 1 ) );
+		cacheMap.put( key1, cache2 );
+		assertSame( cache2, cacheMap.get( key1 ) );
+		assertFalse( cache1.released );
+
+		cacheMap.releaseReplaced( key1 );
+		assertFalse( cache1.released );
+
+		lockedCacheMap.remove( key1 );
+		cacheMap.releaseReplaced( key1 );
+		assertTrue( cache1.released );
+		assertFalse( cache2.released );
+	}
+
+	/**
+	 * Test the hits and the misses are counted
+	 */
+	public void testStatistics( ) throws Exception
+	{
+		DataSourceAndDataSet key1 = newKey( 1 );
+		cacheMap.put( key1, newCacheObject( 10 ) );
+		cacheMap.recordHit( key1 );
+		cacheMap.recordHit( key1 );
+		cacheMap.recordMiss( );
+		DataSetCacheStatistics statistics = cacheMap.getStatistics( );
+		assertEquals( 2, statistics.getHitCount( ) );
+		assertEquals( 1, statistics.getMissCount( ) );
+		assertEquals( 1, statistics.getEntryCount( ) );
+		assertEquals( 0, statistics.getDiskSize( ) );
+
+		assertNotNull( cacheMap.remove( key1 ) );
+		assertEquals( 0, cacheMap.getStatistics( ).getMemorySize( ) );
+	}
+
+	private DataSourceAndDataSet newKey( int id )
+	{
+		OdaDataSetDesign dataSetDesign = new OdaDataSetDesign( "dataSet" + id );
+		dataSetDesign.setQueryText( "select * from table" + id );
+		return DataSourceAndDataSet.newInstance( null,
+				dataSetDesign,
+				null,
+				null,
+				false );
+	}
+
+	private TestCacheObject newCacheObject( int rowCount )
+	{
+		TestCacheObject cacheObject = new TestCacheObject( );
+		cacheObject.setResultClass( resultClass );
+		for ( int i = 0; i < rowCount; i++ )
+		{
+			cacheObject.populateResult( new ResultObject( resultClass,
+					new Object[]{
+							Integer.valueOf( i ), "name" + i
+					} ) );
+		}
+		return cacheObject;
+	}
+
+	private static class TestCacheObject extends MemoryDataSetCacheObject
+	{
+		private boolean released;
+
+		TestCacheObject( )
+		{
+			super( Integer.MAX_VALUE );
+		}
+
+		public void release( )
+		{
+			released = true;
+		}
+	}
+}
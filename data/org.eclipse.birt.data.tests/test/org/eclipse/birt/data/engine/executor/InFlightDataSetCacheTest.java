@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.querydefn.OdaDataSetDesign;
+import org.eclipse.birt.data.engine.executor.DataSetCacheConfig.DataSetCacheMode;
+import org.eclipse.birt.data.engine.impl.DataSetCacheUtil;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the identical executions of a data set cached in JVM wait for the one
+ * in flight and load its result from the cache.
+ */
+public class InFlightDataSetCacheTest extends TestCase
+{
+	private IResultClass resultClass;
+	private DataSetCacheConfig cacheConfig;
+	private DataSourceAndDataSet key;
+	private TestCacheMapManager manager1;
+	private TestCacheMapManager manager2;
+	private volatile boolean finished;
+
+	/*
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	public void setUp( ) throws Exception
+	{
+		List columnsList = new ArrayList( );
+		columnsList.add( new ResultFieldMetadata( 1,
+				"id",
+				"id",
+				Integer.class,
+				null,
+				false ) );
+		resultClass = new ResultClass( columnsList );
+		cacheConfig = DataSetCacheConfig.getInstacne( DataSetCacheMode.IN_MEMORY,
+				-1,
+				null );
+		OdaDataSetDesign dataSetDesign = new OdaDataSetDesign( "dataSet" );
+		dataSetDesign.setQueryText( "select * from table" );
+		key = DataSourceAndDataSet.newInstance( null,
+				dataSetDesign,
+				null,
+				null,
+				false );
+		manager1 = new TestCacheMapManager( );
+		manager2 = new TestCacheMapManager( );
+		finished = false;
+	}
+
+	/*
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	public void tearDown( ) throws Exception
+	{
+		manager1.resetForTest( );
+		manager2.resetForTest( );
+	}
+
+	/**
+	 * Test the identical execution waits until the one in flight saves the
+	 * cache, and loads from the cache
+	 */
+	public void testWaitForSavedCache( ) throws Exception
+	{
+		assertFalse( manager1.doesLoadFromCache( key, cacheConfig, 10000 ) );
+		LoadThread thread = new LoadThread( manager2, 10000 );
+		thread.start( );
+		manager2.waiting.await( );
+
+		assertTrue( manager1.doesSaveToCache( key, cacheConfig ) );
+		IDataSetCacheObject cacheObject = manager1.getSavedCacheObject( key );
+		( (MemoryDataSetCacheObject) cacheObject ).setResultClass( resultClass );
+		( (MemoryDataSetCacheObject) cacheObject ).populateResult( new ResultObject( resultClass,
+				new Object[]{
+					Integer.valueOf( 1 )
+				} ) );
+		finished = true;
+		manager1.saveFinishOnCache( key, cacheObject );
+		thread.join( 10000 );
+		assertFalse( thread.isAlive( ) );
+		assertTrue( thread.finishedFirst );
+		assertTrue( thread.loaded );
+		manager2.loadFinishOnCache( key );
+	}
+
+	/**
+	 * Test the identical execution executes the data set itself when the one
+	 * in flight fails
+	 */
+	public void testFailedExecution( ) throws Exception
+	{
+		assertFalse( manager1.doesLoadFromCache( key, cacheConfig, 10000 ) );
+		LoadThread thread = new LoadThread( manager2, 10000 );
+		thread.start( );
+		manager2.waiting.await( );
+
+		finished = true;
+		manager1.clearCache( key );
+		thread.join( 10000 );
+		assertFalse( thread.isAlive( ) );
+		assertTrue( thread.finishedFirst );
+		assertFalse( thread.loaded );
+	}
+
+	/**
+	 * Test the execution in flight longer than the wait time is not waited for
+	 */
+	public void testStaleExecution( ) throws Exception
+	{
+		manager1.time = 1000;
+		assertFalse( manager1.doesLoadFromCache( key, cacheConfig, 100 ) );
+		manager2.time = 1100;
+		assertFalse( manager2.doesLoadFromCache( key, cacheConfig, 100 ) );
+		assertEquals( 1, manager2.waiting.getCount( ) );
+
+		// the stale execution is taken over, so the one which took it over is
+		// waited for
+		manager1.time = 1150;
+		LoadThread thread = new LoadThread( manager1, 100 );
+		thread.start( );
+		manager1.waiting.await( );
+		finished = true;
+		manager2.clearCache( key );
+		thread.join( 10000 );
+		assertFalse( thread.isAlive( ) );
+		assertTrue( thread.finishedFirst );
+		assertFalse( thread.loaded );
+	}
+
+	/**
+	 * Test the execution does not wait without the wait time
+	 */
+	public void testNoInFlightWait( ) throws Exception
+	{
+		assertFalse( manager1.doesLoadFromCache( key, cacheConfig, 10000 ) );
+		assertFalse( manager2.doesLoadFromCache( key, cacheConfig, 0 ) );
+		assertEquals( 1, manager2.waiting.getCount( ) );
+	}
+
+	/**
+	 * Test the wait time in the app context
+	 */
+	public void testInFlightWaitOption( )
+	{
+		Map appContext = new HashMap( );
+		assertEquals( 0, DataSetCacheUtil.getInFlightWait( appContext ) );
+		appContext.put( DataEngine.DATA_SET_CACHE_IN_FLIGHT_WAIT, " 500 " );
+		assertEquals( 500, DataSetCacheUtil.getInFlightWait( appContext ) );
+		appContext.put( DataEngine.DATA_SET_CACHE_IN_FLIGHT_WAIT,
+				Integer.valueOf( -1 ) );
+		assertEquals( 0, DataSetCacheUtil.getInFlightWait( appContext ) );
+		appContext.put( DataEngine.DATA_SET_CACHE_IN_FLIGHT_WAIT, "5s" );
+		assertEquals( 0, DataSetCacheUtil.getInFlightWait( appContext ) );
+	}
+
+	private class LoadThread extends Thread
+	{
+		private CacheMapManager manager;
+		private long inFlightWait;
+		private volatile boolean loaded;
+		private volatile boolean finishedFirst;
+
+		LoadThread( CacheMapManager manager, long inFlightWait )
+		{
+			this.manager = manager;
+			this.inFlightWait = inFlightWait;
+		}
+
+		public void run( )
+		{
+			try
+			{
+				loaded = manager.doesLoadFromCache( key,
+						cacheConfig,
+						inFlightWait );
+			}
+			catch ( Exception e )
+			{
+				loaded = false;
+			}
+			finishedFirst = finished;
+		}
+	}
+
+	/**
+	 * The cache map manager whose clock is set by the test, and which counts
+	 * down a latch when it waits for the execution in flight.
+	 */
+	private static class TestCacheMapManager extends CacheMapManager
+	{
+		private final CountDownLatch waiting = new CountDownLatch( 1 );
+		private volatile long time = -1;
+
+		TestCacheMapManager( )
+		{
+			super( true );
+		}
+
+		long currentTimeMillis( )
+		{
+			return time < 0 ? super.currentTimeMillis( ) : time;
+		}
+
+		void beforeInFlightWait( DataSourceAndDataSet dsAndDs )
+		{
+			waiting.countDown( );
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the generations and the cleanup of PersistentDataSetCacheObject
+ */
+public class PersistentDataSetCacheObjectTest extends TestCase
+{
+	private File persistentDir;
+
+	/*
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	public void setUp( ) throws Exception
+	{
+		persistentDir = new File( System.getProperty( "java.io.tmpdir" ),
+				"PersistentDataSetCacheObjectTest" );
+		deleteDir( persistentDir );
+	}
+
+	/*
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	public void tearDown( ) throws Exception
+	{
+		deleteDir( persistentDir );
+	}
+
+	/**
+	 * Test the loaded generation is kept when a new one is published, and is
+	 * deleted after it is released
+	 */
+	public void testLoadedGenerationKept( ) throws Exception
+	{
+		PersistentDataSetCacheObject cache1 = save( "d1", 0, 0 );
+		File dir1 = new File( cache1.getCacheDir( ) );
+		assertEquals( persistentDir, dir1.getParentFile( ) );
+
+		PersistentDataSetCacheObject found = PersistentDataSetCacheObject.find( persistentDir,
+				"d1",
+				10,
+				0,
+				0 );
+		assertEquals( dir1.getPath( ), found.getCacheDir( ) );
+		found.release( );
+
+		// expire the generation loaded by cache1
+		assertTrue( cache1.getMetaFile( ).setLastModified( System.currentTimeMillis( ) - 100000 ) );
+		assertNull( PersistentDataSetCacheObject.find( persistentDir,
+				"d1",
+				10,
+				10000,
+				0 ) );
+		PersistentDataSetCacheObject cache2 = save( "d1", 10000, 0 );
+		File dir2 = new File( cache2.getCacheDir( ) );
+		assertFalse( dir1.equals( dir2 ) );
+		assertTrue( cache1.getDataFile( ).exists( ) );
+		assertTrue( cache1.getMetaFile( ).exists( ) );
+
+		// the released generation is deleted by the next publishing
+		cache1.release( );
+		cache1.release( );
+		PersistentDataSetCacheObject cache3 = save( "d2", 10000, 0 );
+		assertFalse( dir1.exists( ) );
+		assertTrue( cache2.getDataFile( ).exists( ) );
+		found = PersistentDataSetCacheObject.find( persistentDir,
+				"d1",
+				10,
+				10000,
+				0 );
+		assertEquals( dir2.getPath( ), found.getCacheDir( ) );
+		found.release( );
+		cache2.release( );
+		cache3.release( );
+	}
+
+	/**
+	 * Test the least recently published caches are deleted beyond the max
+	 * entries
+	 */
+	public void testMaxEntries( ) throws Exception
+	{
+		long now = System.currentTimeMillis( );
+		PersistentDataSetCacheObject cache1 = save( "d1", 0, 2 );
+		cache1.release( );
+		assertTrue( new File( persistentDir, "d1.current" ).setLastModified( now - 20000 ) );
+		PersistentDataSetCacheObject cache2 = save( "d2", 0, 2 );
+		cache2.release( );
+		assertTrue( new File( persistentDir, "d2.current" ).setLastModified( now - 10000 ) );
+		assertNotNull( find( "d1" ) );
+
+		PersistentDataSetCacheObject cache3 = save( "d3", 0, 2 );
+		cache3.release( );
+		assertNull( find( "d1" ) );
+		assertFalse( new File( cache1.getCacheDir( ) ).exists( ) );
+		assertNotNull( find( "d2" ) );
+		assertNotNull( find( "d3" ) );
+	}
+
+	/**
+	 * Save and publish a cache
+	 */
+	private PersistentDataSetCacheObject save( String digest, long timeToLive,
+			int maxEntries ) throws Exception
+	{
+		PersistentDataSetCacheObject cache = new PersistentDataSetCacheObject( persistentDir,
+				digest,
+				10,
+				timeToLive,
+				maxEntries );
+		createFile( cache.getDataFile( ) );
+		createFile( cache.getMetaFile( ) );
+		cache.publish( );
+		return cache;
+	}
+
+	/**
+	 * @return the directory of the published cache, which is released
+	 */
+	private String find( String digest ) throws Exception
+	{
+		PersistentDataSetCacheObject cache = PersistentDataSetCacheObject.find( persistentDir,
+				digest,
+				10,
+				0,
+				0 );
+		if ( cache == null )
+			return null;
+		cache.release( );
+		return cache.getCacheDir( );
+	}
+
+	private void createFile( File file ) throws IOException
+	{
+		assertTrue( file.createNewFile( ) );
+	}
+
+	private void deleteDir( File dir )
+	{
+		File[] files = dir.listFiles( );
+		for ( int i = 0; files != null && i < files.length; i++ )
+		{
+			deleteDir( files[i] );
+		}
+		dir.delete( );
+	}
+}
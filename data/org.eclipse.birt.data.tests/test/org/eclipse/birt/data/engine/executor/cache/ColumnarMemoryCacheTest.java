@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the values, sorting and custom fields of ColumnarMemoryCache
+ */
+public class ColumnarMemoryCacheTest extends TestCase
+{
+	private IResultClass resultClass;
+	private IResultObject[] resultObjects;
+
+	/*
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	public void setUp( ) throws DataException
+	{
+		List columnsList = new ArrayList( );
+		columnsList.add( new ResultFieldMetadata( 1,
+				"intCol",
+				"intCol",
+				DataType.getClass( DataType.INTEGER_TYPE ),
+				"Integer",
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 2,
+				"stringCol",
+				"stringCol",
+				DataType.getClass( DataType.STRING_TYPE ),
+				"String",
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 3,
+				"dateCol",
+				"dateCol",
+				DataType.getClass( DataType.DATE_TYPE ),
+				"Date",
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 4,
+				"anyCol",
+				"anyCol",
+				DataType.getClass( DataType.ANY_TYPE ),
+				"Any",
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 5,
+				"customCol",
+				"customCol",
+				DataType.getClass( DataType.DOUBLE_TYPE ),
+				"Double",
+				true ) );
+		resultClass = new ResultClass( columnsList );
+
+		resultObjects = new IResultObject[200];
+		for ( int i = 0; i < resultObjects.length; i++ )
+		{
+			Object anyValue;
+			if ( i % 3 == 0 )
+				anyValue = Integer.valueOf( i );
+			else if ( i % 3 == 1 )
+				anyValue = new BigDecimal( i + ".5" );
+			else
+				anyValue = null;
+			resultObjects[i] = new ResultObject( resultClass, new Object[]{
+					i % 7 == 0 ? null : Integer.valueOf( ( i * 37 ) % 101 ),
+					"str" + ( i % 5 ),
+					i % 4 == 0 ? (Date) new Timestamp( i * 1000L )
+							: new Date( i * 1000L ),
+					anyValue,
+					null
+			} );
+		}
+	}
+
+	/**
+	 * Test the values are the same as the rows
+	 */
+	public void testValues( ) throws DataException
+	{
+		ColumnarMemoryCache cache = createCache( );
+		assertEquals( resultObjects.length, cache.getCount( ) );
+		assertEquals( -1, cache.getCurrentIndex( ) );
+		int i = 0;
+		while ( cache.next( ) )
+		{
+			assertEquals( i, cache.getCurrentIndex( ) );
+			assertRow( resultObjects[i], cache.getCurrentResult( ) );
+			i++;
+		}
+		assertEquals( resultObjects.length, i );
+		assertFalse( cache.next( ) );
+		assertNull( cache.getCurrentResult( ) );
+
+		cache.moveTo( 10 );
+		assertRow( resultObjects[10], cache.getCurrentResult( ) );
+		assertEquals( resultObjects[10], cache.getCurrentResult( ) );
+		assertEquals( "str0",
+				cache.getCurrentResult( ).getFieldValue( "stringCol" ) );
+		cache.reset( );
+		assertRow( resultObjects[0], cache.fetch( ) );
+		try
+		{
+			cache.moveTo( resultObjects.length + 1 );
+			fail( "Should throw exception" );
+		}
+		catch ( DataException e )
+		{
+		}
+		cache.close( );
+		assertEquals( 0, cache.getCount( ) );
+	}
+
+	/**
+	 * Test the rows are sorted in the same order as MemoryCache
+	 */
+	public void testSort( ) throws DataException
+	{
+		Comparator comparator = new Comparator( ) {
+
+			public int compare( Object o1, Object o2 )
+			{
+				try
+				{
+					Integer value1 = (Integer) ( (IResultObject) o1 ).getFieldValue( 1 );
+					Integer value2 = (Integer) ( (IResultObject) o2 ).getFieldValue( 1 );
+					if ( value1 == null )
+						return value2 == null ? 0 : -1;
+					return value2 == null ? 1 : value1.compareTo( value2 );
+				}
+				catch ( DataException e )
+				{
+					return 0;
+				}
+			}
+		};
+		ColumnarMemoryCache cache = createCache( );
+		cache.sort( comparator );
+		MemoryCache memoryCache = new MemoryCache( (IResultObject[]) resultObjects.clone( ),
+				resultClass,
+				comparator );
+		while ( memoryCache.next( ) )
+		{
+			assertTrue( cache.next( ) );
+			assertRow( memoryCache.getCurrentResult( ), cache.getCurrentResult( ) );
+		}
+		assertFalse( cache.next( ) );
+	}
+
+	/**
+	 * Test the custom field values are written back to the cache
+	 */
+	public void testCustomField( ) throws DataException
+	{
+		ColumnarMemoryCache cache = createCache( );
+		cache.moveTo( 5 );
+		cache.getCurrentResult( ).setCustomFieldValue( 5, new Double( 1.5 ) );
+		cache.moveTo( 6 );
+		cache.getCurrentResult( ).setCustomFieldValue( "customCol", "text" );
+		try
+		{
+			cache.getCurrentResult( ).setCustomFieldValue( 1, Integer.valueOf( 1 ) );
+			fail( "Should throw exception" );
+		}
+		catch ( DataException e )
+		{
+		}
+		cache.moveTo( 5 );
+		assertEquals( new Double( 1.5 ), cache.getCurrentResult( ).getFieldValue( 5 ) );
+		cache.moveTo( 6 );
+		assertEquals( "text", cache.getCurrentResult( ).getFieldValue( 5 ) );
+		cache.moveTo( 7 );
+		assertNull( cache.getCurrentResult( ).getFieldValue( 5 ) );
+	}
+
+	/**
+	 * Test the memory size of the columns is less than the rows
+	 */
+	public void testMemorySize( ) throws DataException
+	{
+		ColumnarMemoryCache cache = createCache( );
+		SizeOfUtil sizeOfUtil = new SizeOfUtil( resultClass );
+		long rowSize = 0;
+		for ( int i = 0; i < resultObjects.length; i++ )
+		{
+			rowSize += sizeOfUtil.sizeOf( resultObjects[i] );
+		}
+		assertTrue( cache.getMemorySize( ) > 0 );
+		assertTrue( cache.getMemorySize( ) < rowSize );
+	}
+
+	private ColumnarMemoryCache createCache( ) throws DataException
+	{
+		ColumnarMemoryCache cache = new ColumnarMemoryCache( resultClass );
+		for ( int i = 0; i < resultObjects.length; i++ )
+		{
+			cache.add( resultObjects[i] );
+		}
+		return cache;
+	}
+
+	private void assertRow( IResultObject expected, IResultObject actual )
+			throws DataException
+	{
+		for ( int i = 1; i <= resultClass.getFieldCount( ); i++ )
+		{
+			Object value = expected.getFieldValue( i );
+			assertEquals( value, actual.getFieldValue( i ) );
+			if ( value != null )
+			{
+				assertEquals( value.getClass( ), actual.getFieldValue( i )
+						.getClass( ) );
+			}
+		}
+	}
+}
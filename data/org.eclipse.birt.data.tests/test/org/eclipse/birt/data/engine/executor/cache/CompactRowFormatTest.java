@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.impl.DataEngineImpl;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the rows written by CompactRowWriter are read back by CompactRowReader
+ */
+public class CompactRowFormatTest extends TestCase
+{
+	private DataEngineImpl engine;
+	private IResultClass resultClass;
+	private ResultObjectUtil roUtil;
+	private IResultObject[] resultObjects;
+
+	/*
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	public void setUp( ) throws Exception
+	{
+		DataEngineContext context = DataEngineContext.newInstance( DataEngineContext.DIRECT_PRESENTATION,
+				null,
+				null,
+				null );
+		context.setTmpdir( System.getProperty( "java.io.tmpdir" ) );
+		engine = (DataEngineImpl) DataEngine.newDataEngine( context );
+
+		String[] names = new String[]{
+				"intCol",
+				"doubleCol",
+				"decimalCol",
+				"stringCol",
+				"dateCol",
+				"timestampCol",
+				"booleanCol",
+				"blobCol",
+				"anyCol"
+		};
+		Class[] types = new Class[]{
+				DataType.getClass( DataType.INTEGER_TYPE ),
+				DataType.getClass( DataType.DOUBLE_TYPE ),
+				DataType.getClass( DataType.DECIMAL_TYPE ),
+				DataType.getClass( DataType.STRING_TYPE ),
+				DataType.getClass( DataType.DATE_TYPE ),
+				Timestamp.class,
+				DataType.getClass( DataType.BOOLEAN_TYPE ),
+				DataType.getClass( DataType.BLOB_TYPE ),
+				DataType.getClass( DataType.ANY_TYPE )
+		};
+		List columnsList = new ArrayList( );
+		for ( int i = 0; i < names.length; i++ )
+		{
+			columnsList.add( new ResultFieldMetadata( i + 1,
+					names[i],
+					names[i],
+					types[i],
+					null,
+					false ) );
+		}
+		resultClass = new ResultClass( columnsList );
+		roUtil = ResultObjectUtil.newInstance( resultClass, engine.getSession( ) );
+
+		resultObjects = new IResultObject[5000];
+		for ( int i = 0; i < resultObjects.length; i++ )
+		{
+			resultObjects[i] = new ResultObject( resultClass, new Object[]{
+					i % 11 == 0 ? null : Integer.valueOf( i % 2 == 0 ? i : -i ),
+					new Double( i / 3.0 ),
+					i % 5 == 0 ? new BigDecimal( "123456789012345678901234567890."
+							+ i ) : new BigDecimal( i + ".25" ),
+					i % 7 == 0 ? "unique value " + i : "category" + ( i % 4 ),
+					new Date( 1200000000000L + i * 86400000L ),
+					new Timestamp( -1000L * i ),
+					Boolean.valueOf( i % 3 == 0 ),
+					i % 2 == 0 ? null : new byte[]{
+							(byte) i, 0, (byte) -i
+					},
+					i % 3 == 0 ? (Object) Integer.valueOf( i ) : "any" + i
+			} );
+		}
+	}
+
+	/*
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	public void tearDown( ) throws Exception
+	{
+		engine.shutdown( );
+	}
+
+	/**
+	 * Test the rows are read back from the blocks with and without the
+	 * compression
+	 */
+	public void testReadWrite( ) throws Exception
+	{
+		assertRows( write( false ), resultObjects.length );
+		assertRows( write( true ), resultObjects.length );
+	}
+
+	/**
+	 * Test the rows are smaller than those written by
+	 * ResultObjectUtil.writeData
+	 */
+	public void testSize( ) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		roUtil.writeData( out, resultObjects, resultObjects.length );
+		int legacySize = out.size( );
+		int compactSize = write( false ).length;
+		assertTrue( compactSize < legacySize );
+		assertTrue( write( true ).length < compactSize );
+	}
+
+	/**
+	 * Test the rows appended to the stream are read after the rows written
+	 * before
+	 */
+	public void testAppend( ) throws Exception
+	{
+		byte[] bytes = write( true );
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		out.write( bytes );
+		CompactRowWriter writer = roUtil.newCompactRowWriter( out, true, true );
+		roUtil.writeData( writer, resultObjects, resultObjects.length );
+		writer.finish( );
+
+		IResultObject[] rows = read( out.toByteArray( ),
+				resultObjects.length * 2 );
+		for ( int i = 0; i < rows.length; i++ )
+		{
+			assertRow( resultObjects[i % resultObjects.length], rows[i] );
+		}
+	}
+
+	/**
+	 * Test the stream written by ResultObjectUtil.writeData is not taken as
+	 * the compact row format
+	 */
+	public void testReadHeader( ) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		roUtil.writeData( out, resultObjects, 1 );
+		BufferedInputStream in = new BufferedInputStream( new ByteArrayInputStream( out.toByteArray( ) ) );
+		assertFalse( CompactRowReader.readHeader( in ) );
+		assertRow( resultObjects[0], roUtil.readData( in, null, 1 )[0] );
+
+		assertFalse( CompactRowReader.readHeader( new BufferedInputStream( new ByteArrayInputStream( new byte[0] ) ) ) );
+	}
+
+	private byte[] write( boolean compressed ) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		CompactRowWriter writer = roUtil.newCompactRowWriter( out,
+				compressed,
+				false );
+		roUtil.writeData( writer, resultObjects, resultObjects.length );
+		writer.finish( );
+		return out.toByteArray( );
+	}
+
+	private IResultObject[] read( byte[] bytes, int length ) throws Exception
+	{
+		BufferedInputStream in = new BufferedInputStream( new ByteArrayInputStream( bytes ) );
+		assertTrue( CompactRowReader.readHeader( in ) );
+		CompactRowReader reader = roUtil.newCompactRowReader( in, null );
+		IResultObject[] rows = roUtil.readData( reader, length );
+		assertNull( reader.read( ) );
+		reader.close( );
+		return rows;
+	}
+
+	private void assertRows( byte[] bytes, int length ) throws Exception
+	{
+		IResultObject[] rows = read( bytes, length );
+		for ( int i = 0; i < length; i++ )
+		{
+			assertRow( resultObjects[i], rows[i] );
+		}
+	}
+
+	private void assertRow( IResultObject expected, IResultObject actual )
+			throws Exception
+	{
+		for ( int i = 1; i <= resultClass.getFieldCount( ); i++ )
+		{
+			Object value = expected.getFieldValue( i );
+			if ( value instanceof byte[] )
+			{
+				assertTrue( Arrays.equals( (byte[]) value,
+						(byte[]) actual.getFieldValue( i ) ) );
+				continue;
+			}
+			assertEquals( value, actual.getFieldValue( i ) );
+			if ( value != null )
+			{
+				assertEquals( value.getClass( ), actual.getFieldValue( i )
+						.getClass( ) );
+			}
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.expression.CompareHints;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the rows sorted by hashing their group keys are in the same order as
+ * the ones sorted by the comparator.
+ */
+public class HashGroupSorterTest extends TestCase
+{
+	private IResultClass resultClass;
+	private IResultObject[] resultObjects;
+
+	/*
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	public void setUp( ) throws DataException
+	{
+		List columnsList = new ArrayList( );
+		columnsList.add( new ResultFieldMetadata( 1,
+				"intCol",
+				"intCol",
+				DataType.getClass( DataType.INTEGER_TYPE ),
+				"Integer",
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 2,
+				"stringCol",
+				"stringCol",
+				DataType.getClass( DataType.STRING_TYPE ),
+				"String",
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 3,
+				"anyCol",
+				"anyCol",
+				DataType.getClass( DataType.ANY_TYPE ),
+				"Any",
+				false ) );
+		columnsList.add( new ResultFieldMetadata( 4,
+				"idCol",
+				"idCol",
+				DataType.getClass( DataType.INTEGER_TYPE ),
+				"Integer",
+				false ) );
+		resultClass = new ResultClass( columnsList );
+
+		Random random = new Random( 0 );
+		resultObjects = new IResultObject[1000];
+		for ( int i = 0; i < resultObjects.length; i++ )
+		{
+			int anyValue = random.nextInt( 4 );
+			resultObjects[i] = new ResultObject( resultClass, new Object[]{
+					i % 11 == 0 ? null : Integer.valueOf( random.nextInt( 20 ) ),
+					"str" + random.nextInt( 3 ),
+					// the equal values of the different classes are one group
+					i % 2 == 0 ? (Object) Integer.valueOf( anyValue )
+							: new Double( anyValue ),
+					Integer.valueOf( random.nextInt( 100 ) )
+			} );
+		}
+	}
+
+	/**
+	 * Test the sort on the group keys
+	 */
+	public void testSortGroupKeys( ) throws DataException
+	{
+		assertSorted( new SortSpec( new int[]{
+				1, 2
+		}, new String[]{
+				"intCol", "stringCol"
+		}, new int[]{
+				SortSpec.SORT_ASC, SortSpec.SORT_DESC
+		}, new CompareHints[2], 2 ) );
+		assertSorted( new SortSpec( new int[]{
+				3
+		}, new String[]{
+				"anyCol"
+		}, new int[]{
+				SortSpec.SORT_DESC
+		}, new CompareHints[1], 1 ) );
+	}
+
+	/**
+	 * Test the sort on the group keys and the other sort keys
+	 */
+	public void testSortGroupAndSortKeys( ) throws DataException
+	{
+		assertSorted( new SortSpec( new int[]{
+				2, 4, 1
+		}, new String[]{
+				"stringCol", "idCol", "intCol"
+		}, new int[]{
+				SortSpec.SORT_ASC, SortSpec.SORT_DESC, SortSpec.SORT_ASC
+		}, new CompareHints[3], 1 ) );
+	}
+
+	/**
+	 * Test the rows are not sorted by hashing when it does not apply
+	 */
+	public void testNotApplied( ) throws DataException
+	{
+		// no group keys
+		assertFalse( HashGroupSorter.sort( resultObjects.clone( ),
+				new SortSpec( new int[]{
+					1
+				}, new String[]{
+					"intCol"
+				}, new int[]{
+					SortSpec.SORT_ASC
+				}, new CompareHints[1] ),
+				null ) );
+		// group keys without sorting
+		assertFalse( HashGroupSorter.sort( resultObjects.clone( ),
+				new SortSpec( new int[]{
+					1
+				}, new String[]{
+					"intCol"
+				}, new int[]{
+					SortSpec.SORT_DISABLE
+				}, new CompareHints[1], 1 ),
+				null ) );
+		// too many groups
+		assertFalse( HashGroupSorter.sort( resultObjects.clone( ),
+				new SortSpec( new int[]{
+						4, 1
+				}, new String[]{
+						"idCol", "intCol"
+				}, new int[]{
+						SortSpec.SORT_ASC, SortSpec.SORT_ASC
+				}, new CompareHints[2], 2 ),
+				null ) );
+	}
+
+	private void assertSorted( SortSpec sortSpec ) throws DataException
+	{
+		IResultObject[] expected = resultObjects.clone( );
+		Arrays.sort( expected, SmartCacheHelper.getComparator( sortSpec, null ) );
+		IResultObject[] rows = resultObjects.clone( );
+		assertTrue( HashGroupSorter.sort( rows, sortSpec, null ) );
+		for ( int i = 0; i < rows.length; i++ )
+		{
+			assertSame( expected[i], rows[i] );
+		}
+	}
+}
@@ -122,6 +122,68 @@ public class SizeOfUtilTest extends TestCase
 		} ) ), 288 );
 	}
 
+	/**
+	 * Test the sizes are measured from the values
+	 */
+	public void testMeasuredSize( ) throws DataException
+	{
+		// two more bytes for each character
+		int size = sizeOfUtil.sizeOf( getResultObject( 100, 1 ) );
+		assertEquals( size + 200, sizeOfUtil.sizeOf( getResultObject( 200, 1 ) ) );
+		assertEquals( size + 96, sizeOfUtil.sizeOf( getResultObject( 100, 97 ) ) );
+
+		// the small decimals are kept in a long
+		int smallSize = org.eclipse.birt.data.engine.executor.cache.SizeOfUtil.sizeOf( BigDecimal.class,
+				new BigDecimal( "12345.67" ) );
+		int largeSize = org.eclipse.birt.data.engine.executor.cache.SizeOfUtil.sizeOf( BigDecimal.class,
+				new BigDecimal( "123456789012345678901234567890123456789" ) );
+		assertTrue( smallSize > 0 );
+		assertTrue( largeSize > smallSize );
+		assertEquals( largeSize,
+				org.eclipse.birt.data.engine.executor.cache.SizeOfUtil.sizeOf( BigDecimal.class,
+						new BigDecimal( "-1.23456789012345678901234567890123456789" ) ) );
+	}
+
+	/**
+	 * Test the sizes of the objects of the unknown classes are sampled
+	 */
+	public void testSampledSize( ) throws DataException
+	{
+		int small = org.eclipse.birt.data.engine.executor.cache.SizeOfUtil.sizeOf( SampledValue.class,
+				new SampledValue( 10 ) );
+		assertTrue( small > 10 * 8 );
+		int sampled = 0;
+		for ( int i = 0; i < 100; i++ )
+		{
+			sampled = org.eclipse.birt.data.engine.executor.cache.SizeOfUtil.sizeOf( SampledValue.class,
+					new SampledValue( 10 ) );
+			assertEquals( small, sampled );
+		}
+
+		// the deep size counts the shared objects once
+		SampledValue value = new SampledValue( 1000 );
+		long deepSize = SampledSizeOf.deepSizeOf( value );
+		assertTrue( deepSize > 1000 * 8 );
+		value.next = value;
+		assertEquals( deepSize, SampledSizeOf.deepSizeOf( value ) );
+		value.next = new SampledValue( 1000 );
+		assertTrue( SampledSizeOf.deepSizeOf( value ) > deepSize * 3 / 2 );
+	}
+
+	/**
+	 * the value of a class unknown to SizeOfUtil.
+	 */
+	private static class SampledValue
+	{
+		private long[] values;
+		private SampledValue next;
+
+		SampledValue( int length )
+		{
+			this.values = new long[length];
+		}
+	}
+
 	/**
 	 * @return
 	 * @throws DataException 
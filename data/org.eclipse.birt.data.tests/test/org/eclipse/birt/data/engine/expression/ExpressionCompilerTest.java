@@ -253,4 +253,47 @@ public class ExpressionCompilerTest extends TestCase
 		CompiledExpression expr = compiler.compile( "", null, cx );
 		assertTrue( expr instanceof InvalidExpression );
 	}
+
+	/*
+	 * The expressions without aggregation are compiled once, and the ones with
+	 * aggregation are registered with the registry of each compilation.
+	 */
+	public void testExpressionCache( ) throws Exception
+	{
+		CompiledExpressionCache cache = ExpressionCompiler.getExpressionCache( );
+		String text = "row.x * 2 + row[\"y\"] + 12.5";
+		CompiledExpression expr = compiler.compile( text, null, cx );
+		assertTrue( expr instanceof ComplexExpression );
+		assertSame( expr, new ExpressionCompiler( ).compile( text, null, cx ) );
+
+		// the row indicator is a part of the key
+		ExpressionCompiler dataSetCompiler = new ExpressionCompiler( );
+		dataSetCompiler.setDataSetMode( false );
+		CompiledExpression dataSetExpr = dataSetCompiler.compile( "dataSetRow.x",
+				null,
+				cx );
+		assertEquals( CompiledExpression.TYPE_DIRECT_COL_REF,
+				dataSetExpr.getType( ) );
+		assertEquals( CompiledExpression.TYPE_COMPLEX_EXPR,
+				compiler.compile( "dataSetRow.x", null, cx ).getType( ) );
+
+		aggrExprs.clear( );
+		String aggrText = "Total.Sum( row.x ) + 1";
+		CompiledExpression aggrExpr = compiler.compile( aggrText, aggrReg, cx );
+		assertNotSame( aggrExpr, compiler.compile( aggrText, aggrReg, cx ) );
+		assertEquals( 2, aggrExprs.size( ) );
+
+		int maxSize = cache.getMaxSize( );
+		try
+		{
+			cache.setMaxSize( 0 );
+			assertEquals( 0, cache.size( ) );
+			assertNotSame( compiler.compile( text, null, cx ),
+					compiler.compile( text, null, cx ) );
+		}
+		finally
+		{
+			cache.setMaxSize( maxSize );
+		}
+	}
 }
\ No newline at end of file
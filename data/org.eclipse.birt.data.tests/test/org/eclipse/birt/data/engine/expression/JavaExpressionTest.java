@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.expression;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.script.JavascriptEvalUtil;
+import org.eclipse.birt.core.script.ScriptContext;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+public class JavaExpressionTest extends TestCase
+{
+
+	private static final String[] NAMES = new String[]{
+			"INT", "DOUBLE", "DECIMAL", "STRING", "NULL", "BOOL", "ZERO", "DATE"
+	};
+	private static final Object[] VALUES = new Object[]{
+			Integer.valueOf( 3 ),
+			new Double( 2.5 ),
+			new BigDecimal( "1.50" ),
+			"abc",
+			null,
+			Boolean.TRUE,
+			Integer.valueOf( 0 ),
+			new Date( 0 )
+	};
+
+	private ScriptContext context;
+	private ScriptableObject scope;
+	private IResultObject row;
+	private ExpressionCompiler compiler;
+
+	protected void setUp( ) throws Exception
+	{
+		context = new ScriptContext( );
+		context.compile( "javascript", null, 0, "1==1" );
+		scope = Context.getCurrentContext( ).initStandardObjects( );
+		Scriptable jsRow = Context.getCurrentContext( ).newObject( scope );
+		List fields = new ArrayList( );
+		for ( int i = 0; i < NAMES.length; i++ )
+		{
+			fields.add( new ResultFieldMetadata( i + 1,
+					NAMES[i],
+					NAMES[i],
+					Object.class,
+					null,
+					false ) );
+			jsRow.put( NAMES[i],
+					jsRow,
+					JavascriptEvalUtil.convertToJavascriptValue( VALUES[i],
+							scope ) );
+		}
+		scope.put( "row", scope, jsRow );
+		row = new ResultObject( new ResultClass( fields ), VALUES );
+		compiler = new ExpressionCompiler( );
+	}
+
+	protected void tearDown( ) throws Exception
+	{
+		context.close( );
+	}
+
+	public void testArithmetic( ) throws Exception
+	{
+		assertEquals( new Double( 7.5 ),
+				checkExpression( "row.INT * row[\"DOUBLE\"]" ) );
+		assertEquals( new Double( 4.5 ), checkExpression( "row.INT + row.DECIMAL" ) );
+		assertEquals( new Double( 1 ), checkExpression( "row.INT % 2" ) );
+		assertEquals( new Double( -1.5 ), checkExpression( "-row.DECIMAL" ) );
+		assertEquals( new Double( Double.POSITIVE_INFINITY ),
+				checkExpression( "row.INT / row.ZERO" ) );
+		assertEquals( new Double( 1 ), checkExpression( "row.NULL + 1" ) );
+		assertEquals( new Double( 2 ), checkExpression( "row.INT - row.BOOL" ) );
+	}
+
+	public void testStringConcatenation( ) throws Exception
+	{
+		assertEquals( "abc3", checkExpression( "row.STRING + row.INT" ) );
+		assertEquals( "1.5x", checkExpression( "row.DECIMAL + 'x'" ) );
+		assertEquals( "nullx", checkExpression( "row.NULL + 'x'" ) );
+		assertEquals( "4x11", checkExpression( "row.INT + 1 + 'x' + 1 + 1" ) );
+	}
+
+	public void testComparison( ) throws Exception
+	{
+		assertEquals( Boolean.TRUE, checkExpression( "row.NULL == null" ) );
+		assertEquals( Boolean.FALSE, checkExpression( "row.NULL == 0" ) );
+		assertEquals( Boolean.TRUE, checkExpression( "row.INT == '3'" ) );
+		assertEquals( Boolean.FALSE, checkExpression( "row.INT === '3'" ) );
+		assertEquals( Boolean.TRUE, checkExpression( "row.INT >= row.DECIMAL" ) );
+		assertEquals( Boolean.TRUE, checkExpression( "row.STRING > 'abb'" ) );
+		assertEquals( Boolean.TRUE,
+				checkExpression( "row.INT > 2 && row.STRING != null" ) );
+	}
+
+	public void testLogical( ) throws Exception
+	{
+		assertEquals( Integer.valueOf( 0 ), checkExpression( "row.ZERO && row.STRING" ) );
+		assertEquals( "abc", checkExpression( "row.ZERO || row.STRING" ) );
+		assertEquals( Boolean.TRUE, checkExpression( "!row.ZERO" ) );
+		assertEquals( "abc", checkExpression( "row.INT > 2 ? row.STRING : row.NULL" ) );
+	}
+
+	public void testFallback( ) throws Exception
+	{
+		// the date column and the unknown functions are evaluated by script
+		checkExpression( "row.DATE < row.DATE" );
+		checkExpression( "row.DATE + row.INT" );
+		checkExpression( "Math.max( row.INT, row.DOUBLE )" );
+		checkExpression( "row.INT + row.STRING.length" );
+	}
+
+	public void testFallbackOfRow( ) throws Exception
+	{
+		ComplexExpression expr = (ComplexExpression) compiler.compile( "row.INT + 1",
+				null,
+				context );
+		// the column of any type has a date in another row
+		Object[] values = VALUES.clone( );
+		values[0] = new Date( 0 );
+		IResultObject dateRow = new ResultObject( row.getResultClass( ), values );
+		assertEquals( expr.evaluate( context, scope ),
+				expr.evaluate( dateRow, context, scope ) );
+		// the other rows are still evaluated in Java
+		assertTrue( expr.isJavaEvaluated( row.getResultClass( ) ) );
+		assertEquals( new Double( 4 ), expr.evaluate( row, context, scope ) );
+	}
+
+	public void testSharedExpression( ) throws Exception
+	{
+		String text = "row.INT * 2";
+		ComplexExpression expr = (ComplexExpression) compiler.compile( text,
+				null,
+				context );
+		// the expression is shared by the compiler of another engine
+		assertSame( expr, new ExpressionCompiler( ).compile( text,
+				null,
+				context ) );
+		Object[] values = VALUES.clone( );
+		values[0] = new Date( 0 );
+		expr.evaluate( new ResultObject( row.getResultClass( ), values ),
+				context,
+				scope );
+		List fields = new ArrayList( );
+		fields.add( new ResultFieldMetadata( 1,
+				"INT",
+				"INT",
+				Date.class,
+				null,
+				false ) );
+		ResultClass dateClass = new ResultClass( fields );
+		assertFalse( expr.isJavaEvaluated( dateClass ) );
+		// the fallback of the other queries does not change the expression
+		assertTrue( expr.isJavaEvaluated( row.getResultClass( ) ) );
+		assertEquals( new Double( 6 ), expr.evaluate( row, context, scope ) );
+	}
+
+	public void testColumnTypes( ) throws Exception
+	{
+		List fields = new ArrayList( );
+		for ( int i = 0; i < NAMES.length; i++ )
+		{
+			fields.add( new ResultFieldMetadata( i + 1,
+					NAMES[i],
+					NAMES[i],
+					VALUES[i] == null ? Object.class : VALUES[i].getClass( ),
+					null,
+					false ) );
+		}
+		ResultClass resultClass = new ResultClass( fields );
+		ComplexExpression expr = (ComplexExpression) compiler.compile( "row.DATE < row.INT",
+				null,
+				context );
+		assertFalse( expr.isJavaEvaluated( resultClass ) );
+		// the column types of the other result class are checked again
+		assertTrue( expr.isJavaEvaluated( row.getResultClass( ) ) );
+		expr = (ComplexExpression) compiler.compile( "row.INT + row.DECIMAL > row.NULL",
+				null,
+				context );
+		assertTrue( expr.isJavaEvaluated( resultClass ) );
+	}
+
+	/**
+	 * evaluate the expression in both Java and Rhino and compare the results.
+	 */
+	private Object checkExpression( String text ) throws Exception
+	{
+		CompiledExpression expr = compiler.compile( text, null, context );
+		assertTrue( expr instanceof ComplexExpression );
+		Object expected = expr.evaluate( context, scope );
+		Object value = ( (ComplexExpression) expr ).evaluate( row,
+				context,
+				scope );
+		if ( expected instanceof CharSequence )
+		{
+			expected = expected.toString( );
+		}
+		assertEquals( text, expected, value );
+		return value;
+	}
+}
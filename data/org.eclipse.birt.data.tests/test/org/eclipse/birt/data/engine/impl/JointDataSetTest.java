@@ -11,11 +11,15 @@
 package org.eclipse.birt.data.engine.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.script.ScriptContext;
 import org.eclipse.birt.data.engine.api.APITestCase;
+import org.eclipse.birt.data.engine.api.DataEngine;
 import org.eclipse.birt.data.engine.api.IGroupDefinition;
 import org.eclipse.birt.data.engine.api.IJoinCondition;
 import org.eclipse.birt.data.engine.api.IJointDataSetDesign;
@@ -51,7 +55,10 @@ public class JointDataSetTest extends APITestCase
 	//
 	private static int CARTESIAN_POPULATOR = 0;
 	private static int BINARY_TREE_POPULATOR = 1;
+	private static int HASH_POPULATOR = 2;
 	private static boolean ADD_FETCH_LIMIT = false;
+	private static boolean STRING_RIGHT_KEY = false;
+	private long hashMemoryBufferSize = 0;
 	private ScriptContext cx;
 	/*
 	 * @see org.eclipse.birt.data.engine.api.APITestCase#getDataSourceInfo()
@@ -292,6 +299,174 @@ public class JointDataSetTest extends APITestCase
 		return s;
 	}
 
+	/**
+	 * Test the hash join returns the same rows as the sort merge join.
+	 * 
+	 * @throws Exception
+	 */
+	public void testHashJoin( ) throws Exception
+	{
+		int[] joinTypes = new int[]{
+				IJointDataSetDesign.INNER_JOIN,
+				IJointDataSetDesign.LEFT_OUTER_JOIN,
+				IJointDataSetDesign.RIGHT_OUTER_JOIN,
+				IJointDataSetDesign.FULL_OUTER_JOIN
+		};
+		for ( int i = 0; i < joinTypes.length; i++ )
+		{
+			assertSameRows( basicJoinTest( joinTypes[i], BINARY_TREE_POPULATOR ),
+					basicJoinTest( joinTypes[i], HASH_POPULATOR ) );
+		}
+	}
+	
+	/**
+	 * Test the hash join returns the same rows as the sort merge join when
+	 * the rows of the hash table are spilled to disk.
+	 * 
+	 * @throws Exception
+	 */
+	public void testHashJoinSpilled( ) throws Exception
+	{
+		int[] joinTypes = new int[]{
+				IJointDataSetDesign.INNER_JOIN,
+				IJointDataSetDesign.LEFT_OUTER_JOIN,
+				IJointDataSetDesign.RIGHT_OUTER_JOIN,
+				IJointDataSetDesign.FULL_OUTER_JOIN
+		};
+		hashMemoryBufferSize = 300;
+		try
+		{
+			for ( int i = 0; i < joinTypes.length; i++ )
+			{
+				assertSameRows( basicJoinTest( joinTypes[i],
+						BINARY_TREE_POPULATOR ),
+						basicJoinTest( joinTypes[i], HASH_POPULATOR ) );
+			}
+		}
+		finally
+		{
+			hashMemoryBufferSize = 0;
+		}
+	}
+	
+	/**
+	 * Test the hash join returns the same rows as the sort merge join when
+	 * the partitions of the spilled rows still exceed the memory buffer and
+	 * are split again.
+	 * 
+	 * @throws Exception
+	 */
+	public void testHashJoinPartitionSplit( ) throws Exception
+	{
+		int[] joinTypes = new int[]{
+				IJointDataSetDesign.INNER_JOIN,
+				IJointDataSetDesign.LEFT_OUTER_JOIN,
+				IJointDataSetDesign.RIGHT_OUTER_JOIN,
+				IJointDataSetDesign.FULL_OUTER_JOIN
+		};
+		// every partition of a row or more exceeds the buffer
+		hashMemoryBufferSize = 1;
+		try
+		{
+			for ( int i = 0; i < joinTypes.length; i++ )
+			{
+				assertSameRows( basicJoinTest( joinTypes[i],
+						BINARY_TREE_POPULATOR ),
+						basicJoinTest( joinTypes[i], HASH_POPULATOR ) );
+			}
+		}
+		finally
+		{
+			hashMemoryBufferSize = 0;
+		}
+	}
+	
+	/**
+	 * Test the row fetch limit of the hash join.
+	 * 
+	 * @throws Exception
+	 */
+	public void testHashJoinRowFetchLimit( ) throws Exception
+	{
+		ADD_FETCH_LIMIT = true;
+		try
+		{
+			String s = basicJoinTest( IJointDataSetDesign.INNER_JOIN,
+					HASH_POPULATOR );
+			assertEquals( 5, s.split( "\n" ).length );
+		}
+		finally
+		{
+			ADD_FETCH_LIMIT = false;
+		}
+	}
+	
+	/**
+	 * Test the hash join matches the string keys to the number keys as the
+	 * sort merge join does.
+	 * 
+	 * @throws Exception
+	 */
+	public void testHashJoinMixedKeyTypes( ) throws Exception
+	{
+		int[] joinTypes = new int[]{
+				IJointDataSetDesign.INNER_JOIN,
+				IJointDataSetDesign.LEFT_OUTER_JOIN,
+				IJointDataSetDesign.RIGHT_OUTER_JOIN,
+				IJointDataSetDesign.FULL_OUTER_JOIN
+		};
+		long[] bufferSizes = new long[]{
+				0, 300
+		};
+		for ( int i = 0; i < joinTypes.length; i++ )
+		{
+			String expected = basicJoinTest( joinTypes[i],
+					BINARY_TREE_POPULATOR );
+			for ( int j = 0; j < bufferSizes.length; j++ )
+			{
+				STRING_RIGHT_KEY = true;
+				hashMemoryBufferSize = bufferSizes[j];
+				try
+				{
+					assertSameRows( expected, basicJoinTest( joinTypes[i],
+							HASH_POPULATOR ) );
+				}
+				finally
+				{
+					STRING_RIGHT_KEY = false;
+					hashMemoryBufferSize = 0;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Test the joint data set is joined with the hash join if it is enabled
+	 * in the app context.
+	 * 
+	 * @throws Exception
+	 */
+	public void testSelfFullOuterJoin_HASH( ) throws Exception
+	{
+		String expected = selfJoinTest( IJointDataSetDesign.FULL_OUTER_JOIN,
+				null );
+		Map appContext = new HashMap( );
+		appContext.put( DataEngine.JOINT_DATA_SET_HASH_JOIN, "true" );
+		appContext.put( "birt.data.engine.test.memcachesize", "300" );
+		assertSameRows( expected,
+				selfJoinTest( IJointDataSetDesign.FULL_OUTER_JOIN, appContext ) );
+	}
+	
+	private void assertSameRows( String expected, String actual )
+	{
+		String[] expectedRows = expected.split( "\n" );
+		String[] actualRows = actual.split( "\n" );
+		Arrays.sort( expectedRows );
+		Arrays.sort( actualRows );
+		assertEquals( Arrays.asList( expectedRows ),
+				Arrays.asList( actualRows ) );
+	}
+
 	public void testSelfInnerJoin( ) throws Exception
 	{
 		String s = selfJoinTest( IJointDataSetDesign.INNER_JOIN );
@@ -315,6 +490,11 @@ public class JointDataSetTest extends APITestCase
 
 	
 	private String selfJoinTest(  int joinType ) throws Exception
+	{
+		return selfJoinTest( joinType, null );
+	}
+	
+	private String selfJoinTest(  int joinType, Map appContext ) throws Exception
 	{
 		OdaDataSetDesign dset = newDataSet( "dset", "Select ID, CITY, STORE FROM "
 				+ this.getTestTableName( ) +" order by ID asc");
@@ -329,7 +509,7 @@ public class JointDataSetTest extends APITestCase
 		
 		QueryDefinition query = this.newReportQuery( dset2 );
 		
-		IPreparedQuery preparedQuery = this.dataEngine.prepare( query ); 
+		IPreparedQuery preparedQuery = this.dataEngine.prepare( query, appContext ); 
 		IQueryResults qr = preparedQuery.execute( null );
 		IResultIterator ri = ((ResultIterator)qr.getResultIterator( )).getOdiResult( );
 				
@@ -371,7 +551,10 @@ public class JointDataSetTest extends APITestCase
 
 		if( ADD_FETCH_LIMIT )
 			dset1.setRowFetchLimit( 6 );
-		OdaDataSetDesign dset2 = newDataSet( "dset2", "Select ID, SKU, CATEGORY, PRICE FROM "
+		// the string keys of the same values as the number keys
+		String rightKey = STRING_RIGHT_KEY ? "TRIM(CAST(ID AS CHAR(10))) AS ID"
+				: "ID";
+		OdaDataSetDesign dset2 = newDataSet( "dset2", "Select " + rightKey + ", SKU, CATEGORY, PRICE FROM "
 				+ this.getTestTableName( ) + " where ID < 20 and ID <> 10 and ID <> 13 order by ID asc");
 		if( ADD_FETCH_LIMIT )
 			dset2.setRowFetchLimit( 6 );
@@ -414,6 +597,8 @@ public class JointDataSetTest extends APITestCase
 		
 		if( populateType == BINARY_TREE_POPULATOR) 
 			populator = JointDataSetPopulatorFactory.getBinaryTreeDataSetPopulator(it1, it2, meta, matcher, joinType, ((DataEngineImpl)this.dataEngine).getSession( ), fetchRowLimit);
+		else if( populateType == HASH_POPULATOR )
+			populator = JointDataSetPopulatorFactory.getHashJointDataSetPopulator(it1, it2, meta, matcher, joinType, ((DataEngineImpl)this.dataEngine).getSession( ), fetchRowLimit, hashMemoryBufferSize);
 		else 
 			populator = JointDataSetPopulatorFactory.getCartesianJointDataSetPopulator(it1, it2, meta, matcher, joinType,  ((DataEngineImpl)this.dataEngine).getSession( ), fetchRowLimit);
 		
@@ -66,6 +66,47 @@ abstract public class DataEngine
 	 */
 	public static String DATA_SET_CACHE_ROW_LIMIT = "org.eclipse.birt.data.cache.RowLimit";
 
+	/**
+	 * The directory where the disk data set caches are saved and shared by the
+	 * engines of all the processes on the host, and kept after they are
+	 * restarted. The caches are named by the digest of the data source, the
+	 * data set and the parameters. The data sets whose data sources have
+	 * scripts, and the joint data sets, are not saved in it.
+	 */
+	public static String DATA_SET_CACHE_PERSISTENT_DIR = "org.eclipse.birt.data.cache.PersistentDir";
+
+	/**
+	 * The milliseconds the data set caches in the persistent directory are
+	 * reusable after they are saved. The expired caches are replaced when they
+	 * are saved again. The default value is 0, and the caches never expire.
+	 */
+	public static String DATA_SET_CACHE_PERSISTENT_TIME_TO_LIVE = "org.eclipse.birt.data.cache.PersistentTimeToLive";
+
+	/**
+	 * The max count of the data set caches kept in the persistent directory.
+	 * The least recently saved caches are deleted when a cache is saved beyond
+	 * it. The default value is 0, and the count is not limited.
+	 */
+	public static String DATA_SET_CACHE_PERSISTENT_MAX_ENTRIES = "org.eclipse.birt.data.cache.PersistentMaxEntries";
+
+	/**
+	 * The comma separated keys of the app context whose values the data set
+	 * caches in the persistent directory depend on, such as the user name or
+	 * the locale used by the data sets.
+	 */
+	public static String DATA_SET_CACHE_PERSISTENT_KEYS = "org.eclipse.birt.data.cache.PersistentKeys";
+
+	/**
+	 * The milliseconds an execution of a data set cached in JVM waits for an
+	 * identical execution in another engine, which executes the same data set
+	 * with the same parameters and cache scope, to save its result into the
+	 * cache, so that the result is loaded from the cache instead of executing
+	 * the data set again. An execution in flight longer than it is considered
+	 * stale and is not waited for. The default value is 0, and the executions
+	 * do not wait.
+	 */
+	public static String DATA_SET_CACHE_IN_FLIGHT_WAIT = "org.eclipse.birt.data.cache.InFlightWait";
+
 	/**
 	 * Indicate the size of data cached for each result set.We only accept non-negative integer as input, 
 	 * the unit of which would be MB. 
@@ -78,6 +119,68 @@ abstract public class DataEngine
 	 * a data object is allowed to access. Queries should be aborted with error if it exceeds this limit.
 	 */
 	public static String MAX_DATA_OBJECT_ROWS = "org.eclipse.birt.data.query.MaxDataObjectRows";
+
+	/**
+	 * Indicates whether the rows of a result set cached in memory are stored
+	 * by columns, which keeps the values of the common types in the primitive
+	 * arrays and takes much less memory than the row objects. The value should
+	 * be "true" or "false", and the default value is false.
+	 */
+	public static String COLUMNAR_RESULT_BUFFER = "org.eclipse.birt.data.query.ColumnarResultBuffer";
+
+	/**
+	 * An instance of IResultSetMemoryListener which receives the measured
+	 * memory of the result sets cached by the queries. The memory is measured
+	 * for the listener even if the memory buffer size is not set.
+	 */
+	public static String RESULT_SET_MEMORY_LISTENER = "org.eclipse.birt.data.query.ResultSetMemoryListener";
+
+	/**
+	 * Indicates whether the sorted runs written to the temporary files when a
+	 * result set is sorted in disk are compressed, which takes less disk I/O
+	 * and more CPU. The value should be "true" or "false", and the default
+	 * value is false.
+	 */
+	public static String SORT_RUN_COMPRESSION = "org.eclipse.birt.data.query.SortRunCompression";
+
+	/**
+	 * Indicates whether the joint data sets are joined with a hash table on the
+	 * join keys instead of merging the data sets sorted by the join keys. The
+	 * rows of the joint data sets are then not in the order of the join keys.
+	 * The value should be "true" or "false", and the default value is false.
+	 */
+	public static String JOINT_DATA_SET_HASH_JOIN = "org.eclipse.birt.data.query.JointDataSetHashJoin";
+
+	/**
+	 * Indicates whether the simple filters, the sorts, the top/bottom N
+	 * filters, and the grouping with the built-in aggregations of the queries
+	 * on the plain JDBC select data sets are rewritten into the SQL, so that
+	 * they are evaluated by the database. The results may differ when the
+	 * string comparison of the database differs from the one of the data
+	 * engine. The value should be "true" or "false", and the default value is
+	 * false.
+	 */
+	public static String SQL_PUSH_DOWN = "org.eclipse.birt.data.query.SqlPushDown";
+
+	/**
+	 * Indicates whether the aggregations of a query whose arguments are plain
+	 * column references are calculated by several threads. Each aggregation
+	 * is still calculated by one thread at a time over the rows in order, so
+	 * that the running and the order dependent aggregations give the same
+	 * values. The value should be "true" or "false", and the default value is
+	 * false.
+	 */
+	public static String PARALLEL_AGGREGATION = "org.eclipse.birt.data.query.ParallelAggregation";
+
+	/**
+	 * Indicates whether the queries without aggregations are read forward
+	 * only, row by row from the data set, even if they have filters which do
+	 * not update the aggregations. Such filters are then applied as the other
+	 * filters, instead of in another pass over the cached rows. The simple
+	 * queries are always read row by row. The value should be "true" or
+	 * "false", and the default value is false.
+	 */
+	public static String STREAMING_QUERY = "org.eclipse.birt.data.query.StreamingQuery";
 	
 	
 	public static String DATA_SET_CACHE_DELTA_FILE = "org.eclipse.birt.data.cache.DeltaFile";
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.api;
+
+/**
+ * Receives the measured memory of the result sets cached by the queries. The
+ * listener is put into the application context with the key
+ * DataEngine.RESULT_SET_MEMORY_LISTENER, and is called in the thread executing
+ * the query.
+ */
+
+public interface IResultSetMemoryListener
+{
+	/**
+	 * callback when the rows of a result set have been cached
+	 * 
+	 * @param rowCount
+	 *            the count of the rows cached in memory
+	 * @param memorySize
+	 *            the measured size in bytes of the rows cached in memory
+	 * @param spilled
+	 *            whether the other rows are cached in disk because the memory
+	 *            buffer size is reached
+	 */
+	public void resultSetCached( int rowCount, long memorySize, boolean spilled );
+}
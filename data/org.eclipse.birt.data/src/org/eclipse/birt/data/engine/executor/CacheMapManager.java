@@ -30,10 +30,17 @@ public class CacheMapManager
 	 * Please notice that we must use static variable here for the sharing of
 	 * cached data set would be cross data set session.
 	 */
-	private static Map JVMLevelCacheMap = Collections.synchronizedMap( new HashMap( ) );
 	private static Map<DataSourceAndDataSet, Integer> lockedDataSetCacheMap = Collections.synchronizedMap( new HashMap( ) );	
+	private static DataSetCacheMap JVMLevelCacheMap = new DataSetCacheMap( lockedDataSetCacheMap );
 	
-	private Map<DataSourceAndDataSet, IDataSetCacheObject> cacheMap;
+	/**
+	 * The executions of the data sets which are being saved into the JVM level
+	 * cache. The identical executions of the other sessions wait for them to
+	 * finish, and load the saved data sets from the cache.
+	 */
+	private static Map<DataSourceAndDataSet, InFlightExecution> inFlightExecutionMap = new HashMap<DataSourceAndDataSet, InFlightExecution>( );
+	
+	private DataSetCacheMap cacheMap;
 	// use this field temporarily keep the data set object need to be saved in
 	// cache. After the data set result has been cached, saved data set object
 	// into cachedMap
@@ -59,7 +66,7 @@ public class CacheMapManager
 		}
 		else
 		{
-			cacheMap = new HashMap( );
+			cacheMap = new DataSetCacheMap( null );
 		}
 		tempDataSetCacheMap = new HashMap<DataSourceAndDataSet, IDataSetCacheObject>( );
 	}
@@ -75,75 +82,141 @@ public class CacheMapManager
 	boolean doesSaveToCache( DataSourceAndDataSet dsAndDs,
 			DataSetCacheConfig dscc) throws DataException
 	{		
-		synchronized ( cacheMap )
+		IDataSetCacheObject cacheObject = cacheMap.get( dsAndDs );
+		if (cacheObject != null)
 		{
-			IDataSetCacheObject cacheObject = (IDataSetCacheObject)cacheMap.get( dsAndDs );
-			if (cacheObject != null)
-			{
-				return cacheObject.needUpdateCache( dscc.getCacheCapability( ) );
-			}
-			else
+			return cacheObject.needUpdateCache( dscc.getCacheCapability( ) );
+		}
+		else
+		{
+			synchronized ( tempDataSetCacheMap )
 			{
 				if( !tempDataSetCacheMap.containsKey( dsAndDs ) )
 				{
-					IDataSetCacheObject dsco = dscc.createDataSetCacheObject( );
+					IDataSetCacheObject dsco = dscc.createDataSetCacheObject( dsAndDs );
 					tempDataSetCacheMap.put( dsAndDs, dsco );					
 				}
-				return true;
 			}
+			return true;
 		}
 	}
 	
 	/**
 	 * @param dsAndDs
+	 * @param dscc
 	 * @return
+	 * @throws DataException
+	 */
+	boolean doesLoadFromCache( DataSourceAndDataSet dsAndDs,
+			DataSetCacheConfig dscc ) throws DataException
+	{
+		return doesLoadFromCache( dsAndDs, dscc, 0 );
+	}
+	
+	/**
+	 * @param dsAndDs
+	 * @param dscc
+	 * @param inFlightWait
+	 *            the milliseconds to wait for an identical execution in
+	 *            flight, 0 if it is not waited for
+	 * @return
+	 * @throws DataException
 	 */
-	boolean doesLoadFromCache( DataSourceAndDataSet dsAndDs, int requiredCapability )
+	boolean doesLoadFromCache( DataSourceAndDataSet dsAndDs,
+			DataSetCacheConfig dscc, long inFlightWait ) throws DataException
 	{
-		synchronized ( cacheMap )
+		if ( this.useJVMLevelCache && inFlightWait > 0 )
 		{
-			IDataSetCacheObject cacheObject = (IDataSetCacheObject)cacheMap.get( dsAndDs );
-			if (cacheObject != null)
+			awaitInFlightExecution( dsAndDs, inFlightWait );
+		}
+		int requiredCapability = dscc.getCacheCapability( );
+		IDataSetCacheObject cacheObject = cacheMap.get( dsAndDs );
+		if (cacheObject != null)
+		{
+			boolean reusable = cacheObject.isCachedDataReusable( requiredCapability );
+			if ( !reusable )
 			{
-				boolean reusable = cacheObject.isCachedDataReusable( requiredCapability );
-				if ( !reusable )
+				if ( useJVMLevelCache )
 				{
-					if ( useJVMLevelCache )
+					synchronized ( lockedDataSetCacheMap )
 					{
-						synchronized ( lockedDataSetCacheMap )
+						if ( lockedDataSetCacheMap.containsKey( dsAndDs ) )
 						{
-							if ( lockedDataSetCacheMap.containsKey( dsAndDs ) )
+							try
+							{
+								// waiting for 60s
+								lockedDataSetCacheMap.wait( 60000 );
+							}
+							catch ( InterruptedException e )
 							{
-								try
-								{
-									// waiting for 60s
-									lockedDataSetCacheMap.wait( 60000 );
-								}
-								catch ( InterruptedException e )
-								{
-								}
-								lockedDataSetCacheMap.remove( dsAndDs );
 							}
+							lockedDataSetCacheMap.remove( dsAndDs );
 						}
 					}
+				}
+				if ( cacheMap.remove( dsAndDs, cacheObject ) )
 					cacheObject.release( );
+				synchronized ( tempDataSetCacheMap )
+				{
 					tempDataSetCacheMap.remove( dsAndDs );
-					cacheMap.remove( dsAndDs );
 				}
-				else
-				if ( this.useJVMLevelCache )
+			}
+			else
+			if ( this.useJVMLevelCache )
+			{
+				// lock the cache in the same lock as the eviction, so that it
+				// is not released after it is found reusable
+				synchronized ( lockedDataSetCacheMap )
 				{
-					if ( !lockedDataSetCacheMap.containsKey( dsAndDs ) )
+					if ( cacheMap.peek( dsAndDs ) != cacheObject )
+					{
+						reusable = false;
+					}
+					else if ( !lockedDataSetCacheMap.containsKey( dsAndDs ) )
 					{
 						lockedDataSetCacheMap.put( dsAndDs, 0 );
 					}
 				}
-				return reusable;
+			}
+			if ( reusable )
+			{
+				cacheMap.recordHit( dsAndDs );
+				finishInFlightExecution( dsAndDs );
 			}
 			else
+				cacheMap.recordMiss( );
+			return reusable;
+		}
+		else if ( this.useJVMLevelCache
+				&& ( cacheObject = dscc.findPersistentCacheObject( dsAndDs ) ) != null )
+		{
+			// the cache saved by another process, or before the restart
+			boolean reusable = false;
+			synchronized ( lockedDataSetCacheMap )
 			{
-				return false;
+				cacheMap.put( dsAndDs, cacheObject );
+				if ( cacheMap.peek( dsAndDs ) == cacheObject )
+				{
+					reusable = true;
+					if ( !lockedDataSetCacheMap.containsKey( dsAndDs ) )
+					{
+						lockedDataSetCacheMap.put( dsAndDs, 0 );
+					}
+				}
 			}
+			if ( reusable )
+			{
+				cacheMap.recordHit( dsAndDs );
+				finishInFlightExecution( dsAndDs );
+			}
+			else
+				cacheMap.recordMiss( );
+			return reusable;
+		}
+		else
+		{
+			cacheMap.recordMiss( );
+			return false;
 		}
 	}
 	
@@ -152,18 +225,162 @@ public class CacheMapManager
 	 */
 	IDataSetCacheObject getSavedCacheObject( DataSourceAndDataSet dsAndDs )
 	{	
-		synchronized ( cacheMap )
+		synchronized ( tempDataSetCacheMap )
 		{
 			return tempDataSetCacheMap.get( dsAndDs );
 		}
 	}
 	
 	void saveFinishOnCache( DataSourceAndDataSet dsAndDs,
-			IDataSetCacheObject dsco )
+			IDataSetCacheObject dsco ) throws DataException
+	{
+		if ( dsco instanceof PersistentDataSetCacheObject )
+		{
+			( (PersistentDataSetCacheObject) dsco ).publish( );
+		}
+		cacheMap.put( dsAndDs, dsco );
+		finishInFlightExecution( dsAndDs );
+	}
+	
+	/**
+	 * Wait for the identical execution of another session which is saving the
+	 * data set into the cache, until it finishes or is in flight longer than
+	 * the wait time. If no execution is in flight and the data set is not
+	 * cached, this execution is marked in flight for the others to wait for.
+	 * 
+	 * @param dsAndDs
+	 * @param inFlightWait
+	 */
+	private void awaitInFlightExecution( DataSourceAndDataSet dsAndDs,
+			long inFlightWait )
+	{
+		long deadline = currentTimeMillis( ) + inFlightWait;
+		synchronized ( inFlightExecutionMap )
+		{
+			while ( true )
+			{
+				InFlightExecution execution = inFlightExecutionMap.get( dsAndDs );
+				if ( execution != null && execution.owner == this )
+				{
+					return;
+				}
+				long now = currentTimeMillis( );
+				if ( execution == null
+						|| now - execution.startTime >= inFlightWait )
+				{
+					// no execution, or a stale one, to wait for
+					if ( cacheMap.peek( dsAndDs ) == null )
+					{
+						inFlightExecutionMap.put( dsAndDs,
+								new InFlightExecution( this, now ) );
+					}
+					else if ( execution != null )
+					{
+						inFlightExecutionMap.remove( dsAndDs );
+					}
+					return;
+				}
+				long timeout = Math.min( deadline, execution.startTime
+						+ inFlightWait )
+						- now;
+				if ( timeout <= 0 )
+				{
+					return;
+				}
+				try
+				{
+					beforeInFlightWait( dsAndDs );
+					inFlightExecutionMap.wait( timeout );
+				}
+				catch ( InterruptedException e )
+				{
+					Thread.currentThread( ).interrupt( );
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the time which the executions in flight are timed by.
+	 * 
+	 * @return
+	 */
+	long currentTimeMillis( )
+	{
+		return System.currentTimeMillis( );
+	}
+	
+	/**
+	 * Called with the lock of the executions in flight held, just before this
+	 * execution waits for the identical one in flight. The waiting execution
+	 * releases the lock only once it waits, so the tests use it to finish
+	 * the execution in flight after the wait has begun.
+	 * 
+	 * @param dsAndDs
+	 */
+	void beforeInFlightWait( DataSourceAndDataSet dsAndDs )
+	{
+	}
+	
+	/**
+	 * Remove the mark of the execution of this session in flight, and wake up
+	 * the executions waiting for it. Nothing is done if the mark has been
+	 * removed, such as when the data set has been saved into the cache.
+	 * 
+	 * @param dsAndDs
+	 */
+	void finishInFlightExecution( DataSourceAndDataSet dsAndDs )
 	{
-		synchronized ( cacheMap )
+		if ( !this.useJVMLevelCache )
+		{
+			return;
+		}
+		synchronized ( inFlightExecutionMap )
 		{
-			cacheMap.put( dsAndDs, dsco );
+			InFlightExecution execution = inFlightExecutionMap.get( dsAndDs );
+			if ( execution != null && execution.owner == this )
+			{
+				inFlightExecutionMap.remove( dsAndDs );
+				inFlightExecutionMap.notifyAll( );
+			}
+		}
+	}
+	
+	/**
+	 * Remove the marks of the executions of this session in flight of the data
+	 * set, whatever their parameters are, such as when the data set fails to
+	 * be saved.
+	 * 
+	 * @param dsAndDs
+	 *            the data source and data set, or null for all the executions
+	 *            of this session
+	 */
+	void finishInFlightExecutions( DataSourceAndDataSet dsAndDs )
+	{
+		if ( !this.useJVMLevelCache )
+		{
+			return;
+		}
+		synchronized ( inFlightExecutionMap )
+		{
+			boolean removed = false;
+			for ( Iterator<Map.Entry<DataSourceAndDataSet, InFlightExecution>> it = inFlightExecutionMap.entrySet( )
+					.iterator( ); it.hasNext( ); )
+			{
+				Map.Entry<DataSourceAndDataSet, InFlightExecution> entry = it.next( );
+				if ( entry.getValue( ).owner == this
+						&& ( dsAndDs == null || entry.getKey( )
+								.isDataSourceDataSetEqual( dsAndDs, false ) ) )
+				{
+					it.remove( );
+					removed = true;
+				}
+			}
+			if ( removed )
+			{
+				inFlightExecutionMap.notifyAll( );
+			}
 		}
 	}
 	
@@ -206,6 +423,7 @@ public class CacheMapManager
 					}
 				}
 			}
+			cacheMap.releaseReplaced( dsAndDs );
 		}
 	}
 	
@@ -215,7 +433,7 @@ public class CacheMapManager
 	 */
 	IDataSetCacheObject getloadedCacheObject( DataSourceAndDataSet dsAndDs )
 	{	
-		return (IDataSetCacheObject) cacheMap.get( dsAndDs );
+		return cacheMap.peek( dsAndDs );
 	}
 	
 	/**
@@ -225,22 +443,24 @@ public class CacheMapManager
 	void clearCache( DataSourceAndDataSet dsAndDs )
 	{
 		List cacheObjects = new ArrayList( );
-		synchronized ( cacheMap )
+		DataSourceAndDataSet key = getKey(dsAndDs);
+		while ( key != null )
 		{
-			Object key = getKey(dsAndDs);
-			while ( key != null )
+			IDataSetCacheObject cacheObject = cacheMap.remove( key );
+			if ( cacheObject != null )
+				cacheObjects.add( cacheObject );
+			synchronized ( tempDataSetCacheMap )
 			{
-				cacheObjects.add( cacheMap.remove( key ) );
 				tempDataSetCacheMap.remove( key );
-				key = getKey(dsAndDs);
 			}
+			key = getKey(dsAndDs);
 		}
 		for ( int i = 0; i < cacheObjects.size( ); i++ )
 		{
 			IDataSetCacheObject cacheObject = (IDataSetCacheObject)cacheObjects.get( i );
 			cacheObject.release( );
 		}
-
+		finishInFlightExecutions( dsAndDs );
 	}
 	
 	/**
@@ -248,11 +468,12 @@ public class CacheMapManager
 	 */
 	void resetForTest( )
 	{
-		synchronized ( this )
+		cacheMap.clear( );
+		synchronized ( tempDataSetCacheMap )
 		{
-			cacheMap.clear( );
 			tempDataSetCacheMap.clear( );
 		}
+		finishInFlightExecutions( null );
 	}
 	
 	/**
@@ -268,10 +489,10 @@ public class CacheMapManager
 			throws DataException
 	{
 		IDataSetCacheObject cacheObject = null;
-		Object key = getKey( dsAndDs );
+		DataSourceAndDataSet key = getKey( dsAndDs );
 		if ( key != null )
 		{
-			cacheObject = (IDataSetCacheObject)cacheMap.get( key );
+			cacheObject = cacheMap.peek( key );
 		}
 		if (cacheObject != null)
 		{
@@ -288,19 +509,62 @@ public class CacheMapManager
 	 * @param dsAndDs
 	 * @return
 	 */
-	private Object getKey ( DataSourceAndDataSet dsAndDs )
+	private DataSourceAndDataSet getKey ( DataSourceAndDataSet dsAndDs )
 	{
-		synchronized ( cacheMap )
+		for ( Iterator<DataSourceAndDataSet> it = cacheMap.keySet( ).iterator( ); it.hasNext( ); )
 		{
-			for ( Iterator it = cacheMap.keySet( ).iterator( ); it.hasNext( ); )
+			DataSourceAndDataSet temp = it.next( );
+			if ( temp.isDataSourceDataSetEqual( dsAndDs, false ) )
 			{
-				DataSourceAndDataSet temp = (DataSourceAndDataSet) it.next( );
-				if ( temp.isDataSourceDataSetEqual( dsAndDs, false ) )
-				{
-					return temp;
-				}
+				return temp;
 			}
-			return null;
+		}
+		return null;
+	}
+	
+	/**
+	 * Set the bounds of the data set caches shared in JVM. The caches
+	 * exceeding the bounds are evicted at once.
+	 * 
+	 * @param policy
+	 *            the policy, or null if the caches are not bounded
+	 */
+	public static void setJVMLevelCachePolicy( DataSetCachePolicy policy )
+	{
+		JVMLevelCacheMap.setPolicy( policy );
+	}
+	
+	/**
+	 * 
+	 * @return the bounds of the data set caches shared in JVM
+	 */
+	public static DataSetCachePolicy getJVMLevelCachePolicy( )
+	{
+		return JVMLevelCacheMap.getPolicy( );
+	}
+	
+	/**
+	 * 
+	 * @return the statistics of the data set caches shared in JVM
+	 */
+	public static DataSetCacheStatistics getJVMLevelCacheStatistics( )
+	{
+		return JVMLevelCacheMap.getStatistics( );
+	}
+	
+	/**
+	 * The execution of a data set in flight, by the cache map manager of its
+	 * session.
+	 */
+	private static class InFlightExecution
+	{
+		private Object owner;
+		private long startTime;
+		
+		InFlightExecution( Object owner, long startTime )
+		{
+			this.owner = owner;
+			this.startTime = startTime;
 		}
 	}
 	
@@ -330,7 +594,7 @@ public class CacheMapManager
 		             lockedDataSetCacheMap.remove( dsAndDs );
 			      }
 				}
-				IDataSetCacheObject cacheObj = (IDataSetCacheObject) JVMLevelCacheMap.remove( dsAndDs );
+				IDataSetCacheObject cacheObj = JVMLevelCacheMap.remove( (DataSourceAndDataSet) dsAndDs );
 				if( cacheObj != null )
 					removed.add( cacheObj );
 				
@@ -346,13 +610,15 @@ public class CacheMapManager
 	void clearCache( )
 	{
 		List cacheObjects = new ArrayList( );
-		synchronized ( cacheMap )
+		for ( DataSourceAndDataSet dataSetAndSource : cacheMap.keySet( ).toArray( new DataSourceAndDataSet[0] ) )
 		{
-			for ( DataSourceAndDataSet dataSetAndSource : cacheMap.keySet( ).toArray( new DataSourceAndDataSet[0] ) )
- 			{
-				cacheObjects.add( cacheMap.remove( dataSetAndSource ) );
+			IDataSetCacheObject cacheObject = cacheMap.remove( dataSetAndSource );
+			if ( cacheObject != null )
+				cacheObjects.add( cacheObject );
+			synchronized ( tempDataSetCacheMap )
+			{
 				tempDataSetCacheMap.remove( dataSetAndSource );
- 			}
+			}
 		}
 		for ( int i = 0; i < cacheObjects.size( ); i++ )
 		{
@@ -368,10 +634,9 @@ public class CacheMapManager
  */
 class ShutdownHook implements Runnable
 {
-	private Map<DataSourceAndDataSet, IDataSetCacheObject> cacheMap;
+	private DataSetCacheMap cacheMap;
 
-	ShutdownHook(
-			Map<DataSourceAndDataSet, IDataSetCacheObject> jvmLevelCacheMap )
+	ShutdownHook( DataSetCacheMap jvmLevelCacheMap )
 	{
 		cacheMap = jvmLevelCacheMap;
 		Runtime.getRuntime( ).addShutdownHook( new Thread( this ) );
@@ -383,7 +648,9 @@ class ShutdownHook implements Runnable
 		for ( DataSourceAndDataSet dataSetAndSource : cacheMap.keySet( )
 				.toArray( new DataSourceAndDataSet[0] ) )
 		{
-			cacheObjects.add( cacheMap.remove( dataSetAndSource ) );
+			IDataSetCacheObject cacheObject = cacheMap.remove( dataSetAndSource );
+			if ( cacheObject != null )
+				cacheObjects.add( cacheObject );
 		}
 		for ( int i = 0; i < cacheObjects.size( ); i++ )
 		{
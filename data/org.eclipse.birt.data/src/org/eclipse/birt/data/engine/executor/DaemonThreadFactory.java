@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the named daemon threads of the thread pools shared by the data
+ * engine, so that the pools do not keep the JVM from exiting.
+ */
+public class DaemonThreadFactory implements ThreadFactory
+{
+	private String name;
+
+	/**
+	 * @param name
+	 *            the name of the threads
+	 */
+	public DaemonThreadFactory( String name )
+	{
+		this.name = name;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+	 */
+	public Thread newThread( Runnable r )
+	{
+		Thread thread = new Thread( r, name );
+		thread.setDaemon( true );
+		return thread;
+	}
+}
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.executor;
 
+import java.io.File;
+
+import org.eclipse.birt.data.engine.core.DataException;
+
 public class DataSetCacheConfig
 {
 	private DataSetCacheMode cacheMode;
@@ -24,6 +28,13 @@ public class DataSetCacheConfig
 	private boolean isIncremental;
 	private String cacheDir;
 	
+	// the directory of the caches shared by the processes, or null
+	private String persistentDir;
+	private long persistentTimeToLive;
+	private int persistentMaxEntries;
+	// the other values the persistent caches depend on
+	private String persistentKey;
+	
 	private DataSetCacheConfig( DataSetCacheMode cacheMode, int countConfig, boolean isIncremental, String cacheDir)
 	{
 		assert cacheMode != null && countConfig != 0; 
@@ -56,6 +67,43 @@ public class DataSetCacheConfig
 		return new DataSetCacheConfig(cacheMode, countConfig, isIncremental, cacheDir);
 	}
 
+	/**
+	 * Return the config of the disk caches which are saved in the persistent
+	 * directory and shared by the processes.
+	 * 
+	 * @param countConfig
+	 *            see <code>getInstance( )</code>
+	 * @param cacheDir
+	 * @param persistentDir
+	 * @param timeToLive
+	 *            the milliseconds the persistent caches are reusable after
+	 *            they are saved, or 0 if they never expire
+	 * @param maxEntries
+	 *            the max count of the caches kept in the persistent
+	 *            directory, or 0 if it is not limited
+	 * @param persistentKey
+	 *            the other values the caches depend on, such as the values of
+	 *            the app context
+	 * @return
+	 */
+	public static DataSetCacheConfig getPersistentInstance( int countConfig,
+			String cacheDir, String persistentDir, long timeToLive,
+			int maxEntries, String persistentKey )
+	{
+		DataSetCacheConfig config = getInstance( DataSetCacheMode.IN_DISK,
+				countConfig,
+				false,
+				cacheDir );
+		if ( config != null )
+		{
+			config.persistentDir = persistentDir;
+			config.persistentTimeToLive = timeToLive;
+			config.persistentMaxEntries = maxEntries;
+			config.persistentKey = persistentKey;
+		}
+		return config;
+	}
+
 	/**
 	 * @return 
 	 */
@@ -74,6 +122,58 @@ public class DataSetCacheConfig
 		return cacheDir;
 	}
 	
+	/**
+	 * Create the cache object of the data set. The cache is saved in the
+	 * persistent directory if it is set and the data set can be shared.
+	 * 
+	 * @param dsAndDs
+	 * @return
+	 * @throws DataException
+	 */
+	IDataSetCacheObject createDataSetCacheObject( DataSourceAndDataSet dsAndDs )
+			throws DataException
+	{
+		String digest = getPersistentDigest( dsAndDs );
+		if ( digest != null )
+		{
+			return new PersistentDataSetCacheObject( new File( persistentDir ),
+					digest,
+					getCacheCapability( ),
+					persistentTimeToLive,
+					persistentMaxEntries );
+		}
+		return createDataSetCacheObject( );
+	}
+	
+	/**
+	 * Return the cache of the data set saved in the persistent directory by
+	 * any process.
+	 * 
+	 * @param dsAndDs
+	 * @return null if there is no such cache
+	 * @throws DataException
+	 */
+	IDataSetCacheObject findPersistentCacheObject( DataSourceAndDataSet dsAndDs )
+			throws DataException
+	{
+		String digest = getPersistentDigest( dsAndDs );
+		if ( digest == null )
+			return null;
+		return PersistentDataSetCacheObject.find( new File( persistentDir ),
+				digest,
+				getCacheCapability( ),
+				persistentTimeToLive,
+				persistentMaxEntries );
+	}
+	
+	private String getPersistentDigest( DataSourceAndDataSet dsAndDs )
+	{
+		if ( persistentDir == null )
+			return null;
+		return dsAndDs.getDigest( getCacheCapability( )
+				+ ( persistentKey == null ? "" : "," + persistentKey ) );
+	}
+	
 	IDataSetCacheObject createDataSetCacheObject()
 	{
 		if (cacheMode == DataSetCacheMode.IN_MEMORY)
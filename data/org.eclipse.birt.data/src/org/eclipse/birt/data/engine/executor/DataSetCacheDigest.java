@@ -0,0 +1,362 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
+import org.eclipse.birt.data.engine.api.IBaseDataSourceDesign;
+import org.eclipse.birt.data.engine.api.IBaseExpression;
+import org.eclipse.birt.data.engine.api.IColumnDefinition;
+import org.eclipse.birt.data.engine.api.IComputedColumn;
+import org.eclipse.birt.data.engine.api.IConditionalExpression;
+import org.eclipse.birt.data.engine.api.IExpressionCollection;
+import org.eclipse.birt.data.engine.api.IFilterDefinition;
+import org.eclipse.birt.data.engine.api.IInputParameterBinding;
+import org.eclipse.birt.data.engine.api.IOdaDataSetDesign;
+import org.eclipse.birt.data.engine.api.IOdaDataSourceDesign;
+import org.eclipse.birt.data.engine.api.IParameterDefinition;
+import org.eclipse.birt.data.engine.api.IScriptDataSetDesign;
+import org.eclipse.birt.data.engine.api.IScriptDataSourceDesign;
+import org.eclipse.birt.data.engine.api.IScriptExpression;
+import org.eclipse.birt.data.engine.impl.DataSetAdapter;
+import org.eclipse.birt.data.engine.odaconsumer.ParameterHint;
+
+/**
+ * Computes a digest of a data source and data set, which is the same in all
+ * the processes if and only if the designs are equal as DataSourceAndDataSet
+ * compares them. It covers the same properties as the comparators, so that
+ * the data set caches can be shared by the processes through the files named
+ * by the digest.
+ */
+class DataSetCacheDigest
+{
+	private StringBuffer buffer = new StringBuffer( );
+
+	// whether the designs can be compared by their properties
+	private boolean comparable = true;
+
+	private DataSetCacheDigest( )
+	{
+	}
+
+	/**
+	 * Return the digest of the designs, the parameters, the cache scope and
+	 * the other values the cached data depends on.
+	 *
+	 * @param dataSourceDesign
+	 * @param dataSetDesign
+	 * @param parameterHints
+	 * @param cacheScopeID
+	 * @param other
+	 *            the other values, such as the cache capability
+	 * @return the hex string of the digest, or null if the designs can not be
+	 *         compared by their properties, such as the data sources with
+	 *         scripts and the joint data sets
+	 */
+	static String getDigest( IBaseDataSourceDesign dataSourceDesign,
+			IBaseDataSetDesign dataSetDesign, Collection parameterHints,
+			String cacheScopeID, String other )
+	{
+		if ( dataSetDesign == null )
+			return null;
+		DataSetCacheDigest digest = new DataSetCacheDigest( );
+		digest.appendDataSource( dataSourceDesign );
+		digest.appendDataSet( dataSetDesign );
+		digest.appendParameterHints( parameterHints );
+		digest.append( cacheScopeID );
+		digest.append( other );
+		if ( !digest.comparable )
+			return null;
+		return digest.toHexString( );
+	}
+
+	private void appendDataSource( IBaseDataSourceDesign dataSource )
+	{
+		if ( dataSource == null )
+		{
+			append( "no data source" );
+			return;
+		}
+		// the data sources with scripts are never taken as equal
+		if ( dataSource.getBeforeOpenScript( ) != null
+				|| dataSource.getAfterOpenScript( ) != null
+				|| dataSource.getBeforeCloseScript( ) != null
+				|| dataSource.getAfterCloseScript( ) != null )
+		{
+			comparable = false;
+			return;
+		}
+		append( dataSource.getName( ) );
+		if ( dataSource instanceof IOdaDataSourceDesign )
+		{
+			IOdaDataSourceDesign odaDataSource = (IOdaDataSourceDesign) dataSource;
+			append( "oda" );
+			append( odaDataSource.getExtensionID( ) );
+			appendProps( odaDataSource.getPublicProperties( ) );
+			appendProps( odaDataSource.getPrivateProperties( ) );
+		}
+		else if ( dataSource instanceof IScriptDataSourceDesign )
+		{
+			IScriptDataSourceDesign scriptDataSource = (IScriptDataSourceDesign) dataSource;
+			append( "script" );
+			append( scriptDataSource.getOpenScript( ) );
+			append( scriptDataSource.getCloseScript( ) );
+		}
+		else
+		{
+			comparable = false;
+		}
+	}
+
+	private void appendDataSet( IBaseDataSetDesign dataSet )
+	{
+		append( dataSet.getName( ) );
+		append( dataSet.getRowFetchLimit( ) );
+		append( dataSet.getCacheRowCount( ) );
+		append( dataSet.getBeforeOpenScript( ) );
+		append( dataSet.getAfterOpenScript( ) );
+		append( dataSet.getBeforeCloseScript( ) );
+		append( dataSet.getAfterCloseScript( ) );
+		append( dataSet.getOnFetchScript( ) );
+
+		List computedColumns = ComparatorUtil.getRealComputedColumn( dataSet.getComputedColumns( ) );
+		append( computedColumns == null ? 0 : computedColumns.size( ) );
+		for ( int i = 0; computedColumns != null
+				&& i < computedColumns.size( ); i++ )
+		{
+			IComputedColumn computedColumn = (IComputedColumn) computedColumns.get( i );
+			append( computedColumn.getName( ) );
+			append( computedColumn.getDataType( ) );
+			appendExpression( computedColumn.getExpression( ) );
+		}
+
+		List parameters = dataSet.getParameters( );
+		append( parameters == null ? 0 : parameters.size( ) );
+		for ( int i = 0; parameters != null && i < parameters.size( ); i++ )
+		{
+			IParameterDefinition parameter = (IParameterDefinition) parameters.get( i );
+			append( parameter.getPosition( ) );
+			append( parameter.getType( ) );
+			append( parameter.getNativeType( ) );
+			append( String.valueOf( parameter.isInputMode( ) ) );
+			append( String.valueOf( parameter.isInputOptional( ) ) );
+			append( String.valueOf( parameter.isNullable( ) ) );
+			append( String.valueOf( parameter.isOutputMode( ) ) );
+			append( parameter.getDefaultInputValue( ) );
+		}
+
+		List resultHints = dataSet.getResultSetHints( );
+		append( resultHints == null ? 0 : resultHints.size( ) );
+		for ( int i = 0; resultHints != null && i < resultHints.size( ); i++ )
+		{
+			IColumnDefinition column = (IColumnDefinition) resultHints.get( i );
+			append( column.getColumnPosition( ) );
+			append( column.getDataType( ) );
+			append( column.getNativeDataType( ) );
+			append( column.getExportHint( ) );
+			append( column.getSearchHint( ) );
+			append( column.getAlias( ) );
+			append( column.getColumnName( ) );
+			append( column.getDisplayName( ) );
+		}
+
+		List filters = dataSet instanceof DataSetAdapter
+				? ( (DataSetAdapter) dataSet ).getSource( ).getFilters( )
+				: dataSet.getFilters( );
+		append( filters == null ? 0 : filters.size( ) );
+		for ( int i = 0; filters != null && i < filters.size( ); i++ )
+		{
+			appendExpression( ( (IFilterDefinition) filters.get( i ) ).getExpression( ) );
+		}
+
+		if ( dataSet instanceof IOdaDataSetDesign )
+		{
+			IOdaDataSetDesign odaDataSet = (IOdaDataSetDesign) dataSet;
+			append( "oda" );
+			append( odaDataSet.getQueryText( ) );
+			append( odaDataSet.getExtensionID( ) );
+			append( odaDataSet.getPrimaryResultSetName( ) );
+			appendProps( odaDataSet.getPublicProperties( ) );
+			appendProps( odaDataSet.getPrivateProperties( ) );
+		}
+		else if ( dataSet instanceof IScriptDataSetDesign )
+		{
+			IScriptDataSetDesign scriptDataSet = (IScriptDataSetDesign) dataSet;
+			append( "script" );
+			append( scriptDataSet.getOpenScript( ) );
+			append( scriptDataSet.getFetchScript( ) );
+			append( scriptDataSet.getCloseScript( ) );
+			append( scriptDataSet.getDescribeScript( ) );
+		}
+		else
+		{
+			// the joint data sets are compared by the names of their data
+			// sets, which may be different data sets in other reports
+			comparable = false;
+		}
+	}
+
+	private void appendParameterHints( Collection parameterHints )
+	{
+		append( parameterHints == null ? 0 : parameterHints.size( ) );
+		if ( parameterHints == null )
+			return;
+		for ( Iterator it = parameterHints.iterator( ); it.hasNext( ); )
+		{
+			Object parameter = it.next( );
+			if ( parameter instanceof ParameterHint )
+			{
+				ParameterHint hint = (ParameterHint) parameter;
+				append( "hint" );
+				append( hint.getPosition( ) );
+				append( hint.getName( ) );
+				appendObject( hint.getDefaultInputValue( ) );
+				append( DataTypeUtil.toApiDataType( hint.getDataType( ) ) );
+				append( hint.getNativeDataType( ) );
+			}
+			else if ( parameter instanceof IInputParameterBinding )
+			{
+				IInputParameterBinding binding = (IInputParameterBinding) parameter;
+				append( "binding" );
+				append( binding.getName( ) );
+				append( binding.getPosition( ) );
+				appendExpression( binding.getExpr( ) );
+			}
+			else
+			{
+				comparable = false;
+			}
+		}
+	}
+
+	private void appendExpression( IBaseExpression expression )
+	{
+		if ( expression == null )
+		{
+			append( "null" );
+		}
+		else if ( expression instanceof IScriptExpression )
+		{
+			append( "script" );
+			append( expression.getDataType( ) );
+			append( ( (IScriptExpression) expression ).getText( ) );
+		}
+		else if ( expression instanceof IConditionalExpression )
+		{
+			IConditionalExpression condition = (IConditionalExpression) expression;
+			append( "condition" );
+			append( condition.getDataType( ) );
+			append( condition.getOperator( ) );
+			appendExpression( condition.getExpression( ) );
+			appendExpression( condition.getOperand1( ) );
+			appendExpression( condition.getOperand2( ) );
+		}
+		else if ( expression instanceof IExpressionCollection )
+		{
+			Collection expressions = ( (IExpressionCollection) expression ).getExpressions( );
+			append( "collection" );
+			append( expression.getDataType( ) );
+			append( expressions.size( ) );
+			for ( Iterator it = expressions.iterator( ); it.hasNext( ); )
+			{
+				appendExpression( (IBaseExpression) it.next( ) );
+			}
+		}
+		else
+		{
+			comparable = false;
+		}
+	}
+
+	private void appendProps( Map props )
+	{
+		if ( props == null )
+		{
+			append( 0 );
+			return;
+		}
+		List<String> entries = new ArrayList<String>( );
+		for ( Iterator it = props.entrySet( ).iterator( ); it.hasNext( ); )
+		{
+			Map.Entry entry = (Map.Entry) it.next( );
+			entries.add( String.valueOf( entry.getKey( ) )
+					+ "=" + String.valueOf( entry.getValue( ) ) );
+		}
+		Collections.sort( entries );
+		append( entries.size( ) );
+		for ( int i = 0; i < entries.size( ); i++ )
+		{
+			append( entries.get( i ) );
+		}
+	}
+
+	private void appendObject( Object value )
+	{
+		append( value == null ? null : value.getClass( ).getName( ) );
+		append( value == null ? null : value.toString( ) );
+	}
+
+	private void append( int value )
+	{
+		buffer.append( value ).append( ';' );
+	}
+
+	/**
+	 * Append a string with its length, so that the concatenation of the
+	 * values is not ambiguous.
+	 *
+	 * @param value
+	 */
+	private void append( String value )
+	{
+		if ( value == null )
+		{
+			buffer.append( "-;" );
+			return;
+		}
+		buffer.append( value.length( ) ).append( ':' ).append( value );
+	}
+
+	private String toHexString( )
+	{
+		try
+		{
+			byte[] bytes = MessageDigest.getInstance( "SHA-1" )
+					.digest( buffer.toString( ).getBytes( "UTF-8" ) );
+			StringBuffer hex = new StringBuffer( );
+			for ( int i = 0; i < bytes.length; i++ )
+			{
+				hex.append( Character.forDigit( ( bytes[i] >> 4 ) & 0xF, 16 ) );
+				hex.append( Character.forDigit( bytes[i] & 0xF, 16 ) );
+			}
+			return hex.toString( );
+		}
+		catch ( NoSuchAlgorithmException e )
+		{
+			return null;
+		}
+		catch ( UnsupportedEncodingException e )
+		{
+			return null;
+		}
+	}
+}
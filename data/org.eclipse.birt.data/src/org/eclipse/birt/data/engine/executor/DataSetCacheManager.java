@@ -90,6 +90,9 @@ public class DataSetCacheManager
 				try
 				{
 					dteLevelCacheMapManager.clearCache( );
+					// release the identical executions waiting for the ones
+					// of this engine
+					jvmLevelCacheMapManager.finishInFlightExecutions( null );
 				}
 				catch ( Exception e )
 				{
@@ -210,7 +213,29 @@ public class DataSetCacheManager
 		return cacheMapManager.doesLoadFromCache( DataSourceAndDataSet.newInstance( this.dataSourceDesign,
 				dataSetDesign,
 				parameterHints, this.cacheID, this.enableSamplePreview ),
-				dscc.getCacheCapability( ));
+				dscc,
+				DataSetCacheUtil.getInFlightWait( appContext ) );
+	}
+
+	/**
+	 * Release the identical executions waiting for the execution of the data
+	 * set in flight, when the execution fails or finishes without saving the
+	 * data set into the cache.
+	 * 
+	 * @param dataSourceDesign
+	 * @param dataSetDesign
+	 * @param parameterHints
+	 * @param appContext
+	 */
+	public void finishInFlightExecution( IBaseDataSourceDesign dataSourceDesign,
+			IBaseDataSetDesign dataSetDesign, Collection parameterHints,
+			Map appContext )
+	{
+		jvmLevelCacheMapManager.finishInFlightExecution( DataSourceAndDataSet.newInstance( dataSourceDesign,
+				dataSetDesign,
+				parameterHints,
+				CacheIDFetcher.getInstance( ).getCacheID( appContext ),
+				CacheIDFetcher.getInstance( ).enableSampleDataPreivew( appContext ) ) );
 	}
 
 	/**
@@ -394,7 +419,8 @@ public class DataSetCacheManager
 		return cacheMapManager.doesLoadFromCache( DataSourceAndDataSet.newInstance( this.dataSourceDesign,
 				this.dataSetDesign,
 				this.parameterHints, this.cacheID, this.enableSamplePreview ),
-				dscc.getCacheCapability( ));
+				dscc,
+				DataSetCacheUtil.getInFlightWait( appContext ) );
 	}
 
 	/**
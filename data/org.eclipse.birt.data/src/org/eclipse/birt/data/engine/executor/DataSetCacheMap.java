@@ -0,0 +1,466 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.core.security.FileSecurity;
+import org.eclipse.birt.data.engine.executor.cache.SizeOfUtil;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+
+/**
+ * The map of the data set cache objects, which can be accessed concurrently.
+ * The caches are evicted and released when they exceed the bounds of the
+ * DataSetCachePolicy or they are expired, unless they are being loaded.
+ */
+class DataSetCacheMap
+{
+	private ConcurrentHashMap<DataSourceAndDataSet, Entry> map;
+
+	// the caches being loaded, which is also the lock of eviction
+	private Map<DataSourceAndDataSet, Integer> lockedCacheMap;
+
+	// the replaced caches which were being loaded, released when they are
+	// unlocked
+	private Map<DataSourceAndDataSet, List<IDataSetCacheObject>> replacedCacheMap = new HashMap<DataSourceAndDataSet, List<IDataSetCacheObject>>( );
+
+	private volatile DataSetCachePolicy policy;
+
+	private AtomicLong memorySize = new AtomicLong( );
+	private AtomicLong diskSize = new AtomicLong( );
+	private AtomicLong hitCount = new AtomicLong( );
+	private AtomicLong missCount = new AtomicLong( );
+	private AtomicLong evictionCount = new AtomicLong( );
+
+	// the logical clock of the access to the caches
+	private AtomicLong accessClock = new AtomicLong( );
+
+	/**
+	 * @param lockedCacheMap
+	 *            the caches being loaded, which are not evicted
+	 */
+	DataSetCacheMap( Map<DataSourceAndDataSet, Integer> lockedCacheMap )
+	{
+		this.map = new ConcurrentHashMap<DataSourceAndDataSet, Entry>( );
+		this.lockedCacheMap = lockedCacheMap;
+		this.policy = DataSetCachePolicy.UNLIMITED;
+	}
+
+	/**
+	 * Set the policy and evict the caches exceeding its bounds.
+	 *
+	 * @param policy
+	 */
+	void setPolicy( DataSetCachePolicy policy )
+	{
+		this.policy = policy == null ? DataSetCachePolicy.UNLIMITED : policy;
+		evict( null );
+	}
+
+	DataSetCachePolicy getPolicy( )
+	{
+		return policy;
+	}
+
+	/**
+	 * Return the cache object, or null if there is not or it is expired.
+	 *
+	 * @param key
+	 * @return
+	 */
+	IDataSetCacheObject get( DataSourceAndDataSet key )
+	{
+		Entry entry = map.get( key );
+		if ( entry == null )
+			return null;
+		if ( isExpired( entry, System.currentTimeMillis( ) ) )
+		{
+			evict( null );
+			return null;
+		}
+		return entry.cacheObject;
+	}
+
+	/**
+	 * Return the cache object even if it is expired.
+	 *
+	 * @param key
+	 * @return
+	 */
+	IDataSetCacheObject peek( DataSourceAndDataSet key )
+	{
+		Entry entry = map.get( key );
+		return entry == null ? null : entry.cacheObject;
+	}
+
+	/**
+	 * Put a cache object whose data has been saved, and evict the caches
+	 * exceeding the bounds.
+	 *
+	 * @param key
+	 * @param cacheObject
+	 * @throws DataException
+	 */
+	void put( DataSourceAndDataSet key, IDataSetCacheObject cacheObject )
+			throws DataException
+	{
+		Entry entry = new Entry( cacheObject,
+				getMemorySize( cacheObject ),
+				getDiskSize( cacheObject ),
+				accessClock.incrementAndGet( ) );
+		Entry old = map.put( key, entry );
+		memorySize.addAndGet( entry.memorySize );
+		diskSize.addAndGet( entry.diskSize );
+		if ( old != null )
+		{
+			memorySize.addAndGet( -old.memorySize );
+			diskSize.addAndGet( -old.diskSize );
+			if ( old.cacheObject == cacheObject )
+			{
+				entry.accessCount = old.accessCount;
+			}
+			else if ( !queueReplaced( key, old.cacheObject ) )
+			{
+				// the expired cache which is replaced
+				old.cacheObject.release( );
+			}
+		}
+		evict( key );
+	}
+
+	/**
+	 * Queue the replaced cache object if it is being loaded, to be released
+	 * when it is unlocked.
+	 * 
+	 * @param key
+	 * @param cacheObject
+	 * @return whether it is queued
+	 */
+	private boolean queueReplaced( DataSourceAndDataSet key,
+			IDataSetCacheObject cacheObject )
+	{
+		synchronized ( getLock( ) )
+		{
+			if ( !isLocked( key ) )
+				return false;
+			List<IDataSetCacheObject> replaced = replacedCacheMap.get( key );
+			if ( replaced == null )
+			{
+				replaced = new ArrayList<IDataSetCacheObject>( );
+				replacedCacheMap.put( key, replaced );
+			}
+			replaced.add( cacheObject );
+			return true;
+		}
+	}
+
+	/**
+	 * Release the cache objects which were replaced while they were being
+	 * loaded, after the key is unlocked.
+	 * 
+	 * @param key
+	 */
+	void releaseReplaced( DataSourceAndDataSet key )
+	{
+		List<IDataSetCacheObject> replaced;
+		synchronized ( getLock( ) )
+		{
+			if ( isLocked( key ) )
+				return;
+			replaced = replacedCacheMap.remove( key );
+		}
+		if ( replaced == null )
+			return;
+		for ( int i = 0; i < replaced.size( ); i++ )
+		{
+			replaced.get( i ).release( );
+		}
+	}
+
+	/**
+	 * Record the cache object is loaded.
+	 *
+	 * @param key
+	 */
+	void recordHit( DataSourceAndDataSet key )
+	{
+		hitCount.incrementAndGet( );
+		Entry entry = map.get( key );
+		if ( entry != null )
+		{
+			entry.lastAccess = accessClock.incrementAndGet( );
+			entry.accessCount++;
+		}
+	}
+
+	/**
+	 * Record the data set can not be loaded from cache.
+	 */
+	void recordMiss( )
+	{
+		missCount.incrementAndGet( );
+	}
+
+	/**
+	 * Remove the cache object without releasing it.
+	 *
+	 * @param key
+	 * @return the removed cache object
+	 */
+	IDataSetCacheObject remove( DataSourceAndDataSet key )
+	{
+		Entry entry = map.get( key );
+		if ( entry != null && removeEntry( key, entry ) )
+			return entry.cacheObject;
+		return null;
+	}
+
+	/**
+	 * Remove the cache object if it is still mapped to the key, without
+	 * releasing it.
+	 *
+	 * @param key
+	 * @param cacheObject
+	 * @return whether it is removed
+	 */
+	boolean remove( DataSourceAndDataSet key, IDataSetCacheObject cacheObject )
+	{
+		Entry entry = map.get( key );
+		return entry != null
+				&& entry.cacheObject == cacheObject
+				&& removeEntry( key, entry );
+	}
+
+	/**
+	 * @return the keys, whose iterator does not fail when the map is modified
+	 */
+	Set<DataSourceAndDataSet> keySet( )
+	{
+		return map.keySet( );
+	}
+
+	/**
+	 * Remove all the cache objects without releasing them.
+	 */
+	void clear( )
+	{
+		for ( Iterator<DataSourceAndDataSet> it = map.keySet( ).iterator( ); it.hasNext( ); )
+		{
+			remove( it.next( ) );
+		}
+	}
+
+	/**
+	 * @return
+	 */
+	DataSetCacheStatistics getStatistics( )
+	{
+		return new DataSetCacheStatistics( hitCount.get( ),
+				missCount.get( ),
+				evictionCount.get( ),
+				map.size( ),
+				memorySize.get( ),
+				diskSize.get( ) );
+	}
+
+	private boolean removeEntry( DataSourceAndDataSet key, Entry entry )
+	{
+		if ( !map.remove( key, entry ) )
+			return false;
+		memorySize.addAndGet( -entry.memorySize );
+		diskSize.addAndGet( -entry.diskSize );
+		return true;
+	}
+
+	private boolean isExpired( Entry entry, long now )
+	{
+		long timeToLive = policy.getTimeToLive( );
+		return timeToLive > 0 && now - entry.createTime >= timeToLive;
+	}
+
+	private boolean isOverBounds( )
+	{
+		DataSetCachePolicy current = policy;
+		return ( current.getMaxEntries( ) > 0 && map.size( ) > current.getMaxEntries( ) )
+				|| ( current.getMaxMemorySize( ) > 0 && memorySize.get( ) > current.getMaxMemorySize( ) );
+	}
+
+	/**
+	 * Evict the expired caches, and then the caches exceeding the bounds in
+	 * the order of the eviction type. The caches being loaded are skipped.
+	 * 
+	 * @param newKey
+	 *            the key of the cache just put, which is evicted only if the
+	 *            bounds are still exceeded without the other caches
+	 */
+	private void evict( DataSourceAndDataSet newKey )
+	{
+		List<IDataSetCacheObject> evicted = new ArrayList<IDataSetCacheObject>( );
+		synchronized ( getLock( ) )
+		{
+			long now = System.currentTimeMillis( );
+			for ( Iterator<Map.Entry<DataSourceAndDataSet, Entry>> it = map.entrySet( )
+					.iterator( ); it.hasNext( ); )
+			{
+				Map.Entry<DataSourceAndDataSet, Entry> e = it.next( );
+				if ( isExpired( e.getValue( ), now )
+						&& !isLocked( e.getKey( ) )
+						&& removeEntry( e.getKey( ), e.getValue( ) ) )
+				{
+					evicted.add( e.getValue( ).cacheObject );
+				}
+			}
+
+			while ( isOverBounds( ) )
+			{
+				Map.Entry<DataSourceAndDataSet, Entry> victim = null;
+				Map.Entry<DataSourceAndDataSet, Entry> newEntry = null;
+				for ( Iterator<Map.Entry<DataSourceAndDataSet, Entry>> it = map.entrySet( )
+						.iterator( ); it.hasNext( ); )
+				{
+					Map.Entry<DataSourceAndDataSet, Entry> e = it.next( );
+					if ( isLocked( e.getKey( ) ) )
+						continue;
+					if ( e.getKey( ).equals( newKey ) )
+						newEntry = e;
+					else if ( victim == null
+							|| isEvictedBefore( e.getValue( ), victim.getValue( ) ) )
+						victim = e;
+				}
+				if ( victim == null )
+					victim = newEntry;
+				if ( victim == null )
+					break;
+				if ( removeEntry( victim.getKey( ), victim.getValue( ) ) )
+					evicted.add( victim.getValue( ).cacheObject );
+			}
+		}
+		evictionCount.addAndGet( evicted.size( ) );
+		for ( int i = 0; i < evicted.size( ); i++ )
+		{
+			evicted.get( i ).release( );
+		}
+	}
+
+	private Object getLock( )
+	{
+		return lockedCacheMap == null ? this : lockedCacheMap;
+	}
+
+	private boolean isLocked( DataSourceAndDataSet key )
+	{
+		return lockedCacheMap != null && lockedCacheMap.containsKey( key );
+	}
+
+	private boolean isEvictedBefore( Entry entry, Entry other )
+	{
+		if ( policy.getEvictionType( ) == DataSetCachePolicy.EvictionType.LFU
+				&& entry.accessCount != other.accessCount )
+			return entry.accessCount < other.accessCount;
+		return entry.lastAccess < other.lastAccess;
+	}
+
+	/**
+	 * Return the bytes of the rows of a memory cache.
+	 *
+	 * @param cacheObject
+	 * @return
+	 * @throws DataException
+	 */
+	private static long getMemorySize( IDataSetCacheObject cacheObject )
+			throws DataException
+	{
+		if ( cacheObject instanceof DataSetCacheObjectWithDummyData )
+			return getMemorySize( ( (DataSetCacheObjectWithDummyData) cacheObject ).getSourceDataSetCacheObject( ) );
+		if ( !( cacheObject instanceof MemoryDataSetCacheObject ) )
+			return 0;
+		MemoryDataSetCacheObject memoryCacheObject = (MemoryDataSetCacheObject) cacheObject;
+		IResultClass resultClass = memoryCacheObject.getResultClass( );
+		if ( resultClass == null )
+			return 0;
+		SizeOfUtil sizeOfUtil = new SizeOfUtil( resultClass );
+		long size = 0;
+		int rowCount = memoryCacheObject.getSize( );
+		for ( int i = 0; i < rowCount; i++ )
+		{
+			size += sizeOfUtil.sizeOf( memoryCacheObject.getResultObject( i ) );
+		}
+		return size;
+	}
+
+	/**
+	 * Return the bytes of the files of a disk cache.
+	 *
+	 * @param cacheObject
+	 * @return
+	 */
+	private static long getDiskSize( IDataSetCacheObject cacheObject )
+	{
+		if ( cacheObject instanceof DataSetCacheObjectWithDummyData )
+			return getDiskSize( ( (DataSetCacheObjectWithDummyData) cacheObject ).getSourceDataSetCacheObject( ) );
+		if ( cacheObject instanceof DiskDataSetCacheObject )
+			return getFileSize( new File( ( (DiskDataSetCacheObject) cacheObject ).getCacheDir( ) ) );
+		if ( cacheObject instanceof IncreDataSetCacheObject )
+			return getFileSize( new File( ( (IncreDataSetCacheObject) cacheObject ).getCacheDir( ) ) );
+		return 0;
+	}
+
+	private static long getFileSize( File file )
+	{
+		if ( !FileSecurity.fileExist( file ) )
+			return 0;
+		if ( FileSecurity.fileIsFile( file ) )
+			return file.length( );
+		long size = 0;
+		File[] children = FileSecurity.fileListFiles( file );
+		if ( children != null )
+		{
+			for ( int i = 0; i < children.length; i++ )
+			{
+				size += getFileSize( children[i] );
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * A cache object and its statistics.
+	 */
+	private static class Entry
+	{
+		private IDataSetCacheObject cacheObject;
+		private long memorySize;
+		private long diskSize;
+		private long createTime;
+		private volatile long lastAccess;
+		private volatile int accessCount;
+
+		Entry( IDataSetCacheObject cacheObject, long memorySize,
+				long diskSize, long lastAccess )
+		{
+			this.cacheObject = cacheObject;
+			this.memorySize = memorySize;
+			this.diskSize = diskSize;
+			this.createTime = System.currentTimeMillis( );
+			this.lastAccess = lastAccess;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+/**
+ * The bounds of the data set caches shared in JVM, and which cache is evicted
+ * first when they are exceeded. The caches being loaded are never evicted.
+ */
+public class DataSetCachePolicy
+{
+	/**
+	 * The policy without any bound, which is used by default.
+	 */
+	public static final DataSetCachePolicy UNLIMITED = new DataSetCachePolicy( 0,
+			0,
+			0,
+			EvictionType.LRU );
+
+	private long maxMemorySize;
+	private int maxEntries;
+	private long timeToLive;
+	private EvictionType evictionType;
+
+	/**
+	 * @param maxMemorySize
+	 *            the max bytes of the rows of the memory caches, or 0 if it is
+	 *            not limited. The disk caches do not count.
+	 * @param maxEntries
+	 *            the max count of the caches, or 0 if it is not limited
+	 * @param timeToLive
+	 *            the milliseconds a cache is reusable after it is saved, or 0
+	 *            if it never expires
+	 * @param evictionType
+	 *            which cache is evicted first when the bounds are exceeded
+	 */
+	public DataSetCachePolicy( long maxMemorySize, int maxEntries,
+			long timeToLive, EvictionType evictionType )
+	{
+		assert evictionType != null;
+		this.maxMemorySize = maxMemorySize;
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+		this.evictionType = evictionType;
+	}
+
+	/**
+	 * @return the max bytes of the rows of the memory caches, or 0 if it is
+	 *         not limited
+	 */
+	public long getMaxMemorySize( )
+	{
+		return maxMemorySize;
+	}
+
+	/**
+	 * @return the max count of the caches, or 0 if it is not limited
+	 */
+	public int getMaxEntries( )
+	{
+		return maxEntries;
+	}
+
+	/**
+	 * @return the milliseconds a cache is reusable after it is saved, or 0 if
+	 *         it never expires
+	 */
+	public long getTimeToLive( )
+	{
+		return timeToLive;
+	}
+
+	/**
+	 * @return
+	 */
+	public EvictionType getEvictionType( )
+	{
+		return evictionType;
+	}
+
+	public static enum EvictionType
+	{
+		/**
+		 * The cache least recently loaded is evicted first.
+		 */
+		LRU,
+		/**
+		 * The cache least frequently loaded is evicted first.
+		 */
+		LFU
+	}
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+/**
+ * A snapshot of the statistics of the data set caches.
+ */
+public class DataSetCacheStatistics
+{
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private int entryCount;
+	private long memorySize;
+	private long diskSize;
+
+	DataSetCacheStatistics( long hitCount, long missCount,
+			long evictionCount, int entryCount, long memorySize, long diskSize )
+	{
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.entryCount = entryCount;
+		this.memorySize = memorySize;
+		this.diskSize = diskSize;
+	}
+
+	/**
+	 * @return how many times the data set is loaded from cache
+	 */
+	public long getHitCount( )
+	{
+		return hitCount;
+	}
+
+	/**
+	 * @return how many times the data set can not be loaded from cache
+	 */
+	public long getMissCount( )
+	{
+		return missCount;
+	}
+
+	/**
+	 * @return how many caches are evicted because the bounds are exceeded or
+	 *         they are expired
+	 */
+	public long getEvictionCount( )
+	{
+		return evictionCount;
+	}
+
+	/**
+	 * @return the count of the caches
+	 */
+	public int getEntryCount( )
+	{
+		return entryCount;
+	}
+
+	/**
+	 * @return the bytes of the rows of the memory caches
+	 */
+	public long getMemorySize( )
+	{
+		return memorySize;
+	}
+
+	/**
+	 * @return the bytes of the files of the disk caches
+	 */
+	public long getDiskSize( )
+	{
+		return diskSize;
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString( )
+	{
+		return "hits=" + hitCount + ", misses=" + missCount + ", evictions="
+				+ evictionCount + ", entries=" + entryCount + ", memorySize="
+				+ memorySize + ", diskSize=" + diskSize;
+	}
+}
@@ -199,5 +199,26 @@ public class DataSourceAndDataSet
 	{
 		return this.cacheScopeID;
 	}
+	
+	/**
+	 * Return the digest which is the same in all the processes for the equal
+	 * data sources and data sets.
+	 * 
+	 * @param other
+	 *            the other values the digest depends on
+	 * @return null if the digest can not be computed, such as the data
+	 *         sources with scripts, which are never equal
+	 */
+	String getDigest( String other )
+	{
+		// the caches managed by the cache scope id only are not shared
+		if ( this.cacheScopeID != null && this.enableSamplePreview )
+			return null;
+		return DataSetCacheDigest.getDigest( dataSourceDesign,
+				dataSetDesign,
+				paramterHints,
+				cacheScopeID,
+				other );
+	}
 
 }
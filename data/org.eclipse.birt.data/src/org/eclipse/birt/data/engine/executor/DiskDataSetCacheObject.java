@@ -61,6 +61,32 @@ public class DiskDataSetCacheObject implements IDataSetCacheObject
 		this.cacheCapability = cacheCapability;
 	}
 	
+	/**
+	 * Create the cache object saved in the given directory rather than a new
+	 * sub directory of it.
+	 * 
+	 * @param cacheDir
+	 * @param cacheCapability
+	 */
+	DiskDataSetCacheObject( File cacheDir, int cacheCapability )
+	{
+		assert cacheCapability > 0;
+		this.cacheDir = cacheDir.getPath( );
+		FileSecurity.fileMakeDirs( cacheDir );
+		this.cacheCapability = cacheCapability;
+	}
+	
+	/**
+	 * Change the directory the cache is saved in, after the files are moved to
+	 * it.
+	 * 
+	 * @param cacheDir
+	 */
+	void setCacheDir( String cacheDir )
+	{
+		this.cacheDir = cacheDir;
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -0,0 +1,594 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.core.security.FileSecurity;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.DataSetCacheUtil;
+
+/**
+ * The disk data set cache saved in a persistent directory, which is shared by
+ * the engines of all the processes on the host and survives their restarts.
+ * <p>
+ * The cache is first saved in a temporary directory, and then published by
+ * renaming it to a generation directory named after the digest of its data
+ * source and data set. The file "digest.current" names the current
+ * generation. The generation directories are never changed once they are
+ * published, and the file is only read and written under the file lock of
+ * the digest, so that the other processes never see the partial files.
+ * <p>
+ * A loaded cache holds a shared lock of its generation for its life. The
+ * generations which are not current, expired, or beyond the max entries are
+ * deleted when a cache is published, unless they are still locked by a
+ * loaded cache of any process.
+ */
+class PersistentDataSetCacheObject extends DiskDataSetCacheObject
+{
+	// the lock of the threads of this JVM, since the file locks are held by
+	// the whole JVM
+	private static final Object jvmLock = new Object( );
+
+	private static final String LOCK_SUFFIX = ".lock";
+	private static final String CURRENT_SUFFIX = ".current";
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final String READER_LOCK_FILE = "reader.lock";
+
+	// the shared locks of the generations loaded in this JVM, by their paths.
+	// A JVM can hold only one lock of a file, so the loaded caches of the
+	// same generation share it.
+	private static final Map<String, ReaderLock> readerLocks = new HashMap<String, ReaderLock>( );
+
+	private File persistentDir;
+	private String digest;
+	private long timeToLive;
+	private int maxEntries;
+	private boolean published;
+	private boolean released;
+
+	/**
+	 * Create the cache to be saved in a temporary directory.
+	 *
+	 * @param persistentDir
+	 * @param digest
+	 * @param cacheCapability
+	 * @param timeToLive
+	 * @param maxEntries
+	 *            the max count of the caches kept in the persistent
+	 *            directory, or 0 if it is not limited
+	 * @throws DataException
+	 */
+	PersistentDataSetCacheObject( File persistentDir, String digest,
+			int cacheCapability, long timeToLive, int maxEntries )
+			throws DataException
+	{
+		super( createTempDir( persistentDir, digest ), cacheCapability );
+		this.persistentDir = persistentDir;
+		this.digest = digest;
+		this.timeToLive = timeToLive;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Create the cache already published.
+	 */
+	private PersistentDataSetCacheObject( File persistentDir, String digest,
+			int cacheCapability, long timeToLive, int maxEntries,
+			File publishedDir )
+	{
+		super( publishedDir, cacheCapability );
+		this.persistentDir = persistentDir;
+		this.digest = digest;
+		this.timeToLive = timeToLive;
+		this.maxEntries = maxEntries;
+		this.published = true;
+	}
+
+	/**
+	 * Return the cache published by any process, if it is not expired. The
+	 * returned cache holds the lock of its generation until it is released.
+	 *
+	 * @param persistentDir
+	 * @param digest
+	 * @param cacheCapability
+	 * @param timeToLive
+	 * @param maxEntries
+	 * @return null if there is no such cache
+	 * @throws DataException
+	 */
+	static PersistentDataSetCacheObject find( File persistentDir,
+			String digest, int cacheCapability, long timeToLive,
+			int maxEntries ) throws DataException
+	{
+		if ( !FileSecurity.fileExist( new File( persistentDir, digest
+				+ CURRENT_SUFFIX ) ) )
+			return null;
+		synchronized ( jvmLock )
+		{
+			RandomAccessFile lock = lock( persistentDir, digest, true );
+			try
+			{
+				File publishedDir = getCurrentDir( persistentDir, digest );
+				if ( publishedDir == null
+						|| !isValid( publishedDir, timeToLive ) )
+					return null;
+				acquireReaderLock( publishedDir );
+				return new PersistentDataSetCacheObject( persistentDir,
+						digest,
+						cacheCapability,
+						timeToLive,
+						maxEntries,
+						publishedDir );
+			}
+			finally
+			{
+				unlock( lock );
+			}
+		}
+	}
+
+	/**
+	 * Publish the saved cache to the other processes. If a valid cache has
+	 * been published by another process meanwhile, it is used instead and the
+	 * saved one is dropped. The stale caches in the persistent directory are
+	 * deleted then.
+	 *
+	 * @throws DataException
+	 */
+	void publish( ) throws DataException
+	{
+		if ( published )
+			return;
+		File savedDir = new File( getCacheDir( ) );
+		synchronized ( jvmLock )
+		{
+			RandomAccessFile lock = lock( persistentDir, digest, true );
+			try
+			{
+				File publishedDir = getCurrentDir( persistentDir, digest );
+				if ( publishedDir != null
+						&& isValid( publishedDir, timeToLive ) )
+				{
+					DataSetCacheUtil.deleteFile( savedDir );
+				}
+				else
+				{
+					// the new generation is named after the unique name of
+					// the temporary directory
+					String name = savedDir.getName( );
+					publishedDir = new File( persistentDir, name.substring( 0,
+							name.length( ) - TEMP_SUFFIX.length( ) ) );
+					if ( !savedDir.renameTo( publishedDir ) )
+						throw new DataException( ResourceConstants.DATASETCACHE_SAVE_ERROR );
+					setCurrentDir( persistentDir, digest, publishedDir );
+				}
+				acquireReaderLock( publishedDir );
+				setCacheDir( publishedDir.getPath( ) );
+				published = true;
+				deleteStaleDirs( persistentDir, digest, publishedDir );
+			}
+			finally
+			{
+				unlock( lock );
+			}
+			evict( persistentDir, digest, timeToLive, maxEntries );
+		}
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.DiskDataSetCacheObject#isCachedDataReusable(int)
+	 */
+	public boolean isCachedDataReusable( int requiredCapability )
+	{
+		return super.isCachedDataReusable( requiredCapability )
+				&& !isExpired( getMetaFile( ), timeToLive );
+	}
+
+	/**
+	 * The published cache is kept for the other processes and the later
+	 * ones, only its lock is released, so that it can be deleted once it is
+	 * stale.
+	 *
+	 * @see org.eclipse.birt.data.engine.executor.DiskDataSetCacheObject#release()
+	 */
+	public void release( )
+	{
+		if ( !published )
+		{
+			super.release( );
+			return;
+		}
+		synchronized ( jvmLock )
+		{
+			if ( !released )
+			{
+				released = true;
+				releaseReaderLock( new File( getCacheDir( ) ) );
+			}
+		}
+	}
+
+	/**
+	 * @param dir
+	 * @param timeToLive
+	 * @return whether the cache in the directory is complete and not expired
+	 */
+	private static boolean isValid( File dir, long timeToLive )
+	{
+		File dataFile = new File( dir, "data.data" );
+		File metaFile = new File( dir, "meta.data" );
+		return FileSecurity.fileExist( dataFile )
+				&& FileSecurity.fileExist( metaFile )
+				&& !isExpired( metaFile, timeToLive );
+	}
+
+	private static boolean isExpired( File metaFile, long timeToLive )
+	{
+		return timeToLive > 0
+				&& System.currentTimeMillis( ) - metaFile.lastModified( ) > timeToLive;
+	}
+
+	/**
+	 * Return the current generation of the digest, which is read under the
+	 * lock of the digest.
+	 *
+	 * @return null if there is none
+	 */
+	private static File getCurrentDir( File persistentDir, String digest )
+	{
+		File currentFile = new File( persistentDir, digest + CURRENT_SUFFIX );
+		if ( !FileSecurity.fileExist( currentFile ) )
+			return null;
+		try
+		{
+			FileInputStream in = FileSecurity.createFileInputStream( currentFile );
+			try
+			{
+				byte[] bytes = new byte[(int) currentFile.length( )];
+				int size = 0;
+				while ( size < bytes.length )
+				{
+					int read = in.read( bytes, size, bytes.length - size );
+					if ( read < 0 )
+						return null;
+					size += read;
+				}
+				String name = new String( bytes, "UTF-8" );
+				// the generation of the digest only
+				if ( !name.startsWith( digest + "." )
+						|| name.indexOf( File.separatorChar ) >= 0 )
+					return null;
+				return new File( persistentDir, name );
+			}
+			finally
+			{
+				in.close( );
+			}
+		}
+		catch ( IOException e )
+		{
+			return null;
+		}
+		catch ( DataException e )
+		{
+			return null;
+		}
+	}
+
+	private static void setCurrentDir( File persistentDir, String digest,
+			File dir ) throws DataException
+	{
+		try
+		{
+			FileOutputStream out = FileSecurity.createFileOutputStream( new File( persistentDir,
+					digest + CURRENT_SUFFIX ) );
+			try
+			{
+				out.write( dir.getName( ).getBytes( "UTF-8" ) );
+			}
+			finally
+			{
+				out.close( );
+			}
+		}
+		catch ( IOException e )
+		{
+			throw new DataException( ResourceConstants.DATASETCACHE_SAVE_ERROR,
+					e );
+		}
+	}
+
+	/**
+	 * Delete the generations of the digest other than the current one, which
+	 * are not locked by a loaded cache. It is called under the lock of the
+	 * digest, so no cache can load them meanwhile.
+	 *
+	 * @param currentDir
+	 *            the current generation, or null if there is none
+	 */
+	private static void deleteStaleDirs( File persistentDir, String digest,
+			File currentDir )
+	{
+		File[] files = FileSecurity.fileListFiles( persistentDir );
+		for ( int i = 0; files != null && i < files.length; i++ )
+		{
+			String name = files[i].getName( );
+			if ( !name.startsWith( digest + "." )
+					|| name.endsWith( TEMP_SUFFIX )
+					|| !FileSecurity.fileIsDirectory( files[i] )
+					|| files[i].equals( currentDir ) )
+				continue;
+			if ( !isReaderLocked( files[i] ) )
+				DataSetCacheUtil.deleteFile( files[i] );
+		}
+	}
+
+	/**
+	 * Delete the caches which are expired, or beyond the max entries from the
+	 * least recently published one, and the stale generations of the other
+	 * digests. The digests locked by other processes are skipped, and handled
+	 * by the later publishing.
+	 */
+	private static void evict( File persistentDir, String digest,
+			long timeToLive, int maxEntries )
+	{
+		Set<String> digests = new HashSet<String>( );
+		File[] files = FileSecurity.fileListFiles( persistentDir );
+		for ( int i = 0; files != null && i < files.length; i++ )
+		{
+			String name = files[i].getName( );
+			if ( name.endsWith( TEMP_SUFFIX ) || name.endsWith( LOCK_SUFFIX ) )
+				continue;
+			int index = name.indexOf( '.' );
+			if ( index > 0 )
+				digests.add( name.substring( 0, index ) );
+		}
+		digests.remove( digest );
+
+		final Map<String, Long> publishTimes = new HashMap<String, Long>( );
+		for ( String other : digests )
+		{
+			RandomAccessFile lock = tryLock( persistentDir, other );
+			if ( lock == null )
+				continue;
+			try
+			{
+				File currentDir = getCurrentDir( persistentDir, other );
+				if ( currentDir != null && !isValid( currentDir, timeToLive ) )
+				{
+					FileSecurity.fileDelete( new File( persistentDir, other
+							+ CURRENT_SUFFIX ) );
+					currentDir = null;
+				}
+				deleteStaleDirs( persistentDir, other, currentDir );
+				if ( currentDir != null )
+					publishTimes.put( other,
+							Long.valueOf( new File( persistentDir, other
+									+ CURRENT_SUFFIX ).lastModified( ) ) );
+			}
+			finally
+			{
+				unlock( lock );
+			}
+		}
+
+		// the cache just published is kept
+		int count = publishTimes.size( ) - ( maxEntries - 1 );
+		if ( maxEntries <= 0 || count <= 0 )
+			return;
+		List<String> oldest = new ArrayList<String>( publishTimes.keySet( ) );
+		Collections.sort( oldest, new Comparator<String>( ) {
+
+			public int compare( String o1, String o2 )
+			{
+				return publishTimes.get( o1 ).compareTo( publishTimes.get( o2 ) );
+			}
+		} );
+		for ( int i = 0; i < count; i++ )
+		{
+			RandomAccessFile lock = tryLock( persistentDir, oldest.get( i ) );
+			if ( lock == null )
+				continue;
+			try
+			{
+				FileSecurity.fileDelete( new File( persistentDir, oldest.get( i )
+						+ CURRENT_SUFFIX ) );
+				deleteStaleDirs( persistentDir, oldest.get( i ), null );
+			}
+			finally
+			{
+				unlock( lock );
+			}
+		}
+	}
+
+	/**
+	 * Create a temporary directory in the persistent directory, whose name is
+	 * unique in all the processes.
+	 */
+	private static File createTempDir( File persistentDir, String digest )
+			throws DataException
+	{
+		try
+		{
+			FileSecurity.fileMakeDirs( persistentDir );
+			File tempDir = File.createTempFile( digest + ".", TEMP_SUFFIX, persistentDir );
+			FileSecurity.fileDelete( tempDir );
+			FileSecurity.fileMakeDirs( tempDir );
+			return tempDir;
+		}
+		catch ( IOException e )
+		{
+			throw new DataException( ResourceConstants.DATASETCACHE_SAVE_ERROR,
+					e );
+		}
+	}
+
+	/**
+	 * Lock the digest exclusively, waiting for the other processes.
+	 */
+	private static RandomAccessFile lock( File persistentDir, String digest,
+			boolean wait ) throws DataException
+	{
+		RandomAccessFile lockFile = null;
+		try
+		{
+			FileSecurity.fileMakeDirs( persistentDir );
+			lockFile = FileSecurity.createRandomAccessFile( new File( persistentDir,
+					digest + LOCK_SUFFIX ),
+					"rw" );
+			if ( wait )
+			{
+				lockFile.getChannel( ).lock( );
+			}
+			else if ( lockFile.getChannel( ).tryLock( ) == null )
+			{
+				unlock( lockFile );
+				return null;
+			}
+			return lockFile;
+		}
+		catch ( IOException e )
+		{
+			unlock( lockFile );
+			throw new DataException( ResourceConstants.DATASETCACHE_SAVE_ERROR,
+					e );
+		}
+	}
+
+	/**
+	 * Lock the digest exclusively if no other process holds the lock.
+	 *
+	 * @return null if the lock is held by another process, or fails
+	 */
+	private static RandomAccessFile tryLock( File persistentDir, String digest )
+	{
+		try
+		{
+			return lock( persistentDir, digest, false );
+		}
+		catch ( DataException e )
+		{
+			return null;
+		}
+	}
+
+	private static void unlock( RandomAccessFile lockFile )
+	{
+		if ( lockFile == null )
+			return;
+		try
+		{
+			// closing the file releases the lock
+			lockFile.close( );
+		}
+		catch ( IOException e )
+		{
+		}
+	}
+
+	/**
+	 * Take the shared lock of the generation for a loaded cache.
+	 */
+	private static void acquireReaderLock( File dir ) throws DataException
+	{
+		ReaderLock readerLock = readerLocks.get( dir.getPath( ) );
+		if ( readerLock == null )
+		{
+			RandomAccessFile lockFile = null;
+			try
+			{
+				lockFile = FileSecurity.createRandomAccessFile( new File( dir,
+						READER_LOCK_FILE ),
+						"rw" );
+				lockFile.getChannel( ).lock( 0, Long.MAX_VALUE, true );
+			}
+			catch ( IOException e )
+			{
+				unlock( lockFile );
+				throw new DataException( ResourceConstants.DATASETCACHE_LOAD_ERROR,
+						e );
+			}
+			readerLock = new ReaderLock( lockFile );
+			readerLocks.put( dir.getPath( ), readerLock );
+		}
+		readerLock.count++;
+	}
+
+	private static void releaseReaderLock( File dir )
+	{
+		ReaderLock readerLock = readerLocks.get( dir.getPath( ) );
+		if ( readerLock != null && --readerLock.count == 0 )
+		{
+			readerLocks.remove( dir.getPath( ) );
+			unlock( readerLock.lockFile );
+		}
+	}
+
+	/**
+	 * @return whether the generation is locked by a loaded cache of any
+	 *         process
+	 */
+	private static boolean isReaderLocked( File dir )
+	{
+		if ( readerLocks.containsKey( dir.getPath( ) ) )
+			return true;
+		File file = new File( dir, READER_LOCK_FILE );
+		if ( !FileSecurity.fileExist( file ) )
+			return false;
+		RandomAccessFile lockFile = null;
+		try
+		{
+			lockFile = FileSecurity.createRandomAccessFile( file, "rw" );
+			FileLock lock = lockFile.getChannel( ).tryLock( );
+			return lock == null;
+		}
+		catch ( IOException e )
+		{
+			return true;
+		}
+		finally
+		{
+			unlock( lockFile );
+		}
+	}
+
+	/**
+	 * The shared lock of a generation and the count of the loaded caches of
+	 * this JVM holding it.
+	 */
+	private static class ReaderLock
+	{
+		private RandomAccessFile lockFile;
+		private int count;
+
+		ReaderLock( RandomAccessFile lockFile )
+		{
+			this.lockFile = lockFile;
+		}
+	}
+}
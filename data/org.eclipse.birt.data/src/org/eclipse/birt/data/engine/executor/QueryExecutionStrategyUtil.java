@@ -24,6 +24,7 @@ import java.util.Set;
 import org.eclipse.birt.core.data.ExpressionUtil;
 import org.eclipse.birt.core.data.IColumnBinding;
 import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
 import org.eclipse.birt.data.engine.api.DataEngineContext;
 import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
 import org.eclipse.birt.data.engine.api.IBaseExpression;
@@ -69,6 +70,24 @@ public final class QueryExecutionStrategyUtil
 	public static Strategy getQueryExecutionStrategy( DataEngineSession session, IQueryDefinition query,
 			IBaseDataSetDesign dataSet ) throws DataException
 	{
+		return getQueryExecutionStrategy( session, query, dataSet, null );
+	}
+
+	/**
+	 * 
+	 * @param session
+	 * @param query
+	 * @param dataSet
+	 * @param appContext
+	 *            the application context, which may turn on the streaming of
+	 *            the query
+	 * @return
+	 * @throws DataException
+	 */
+	public static Strategy getQueryExecutionStrategy( DataEngineSession session, IQueryDefinition query,
+			IBaseDataSetDesign dataSet, Map appContext ) throws DataException
+	{
+		boolean streaming = isStreaming( query, appContext );
 		/*if ( session.getEngineContext( ).getDataEngineOption( ) > 4 )
 			return Strategy.Complex;*/
 		
@@ -109,7 +128,7 @@ public final class QueryExecutionStrategyUtil
 				bindings.addAll(ExpressionCompilerUtil.extractColumnExpression( baseExpr, ExpressionUtil.ROW_INDICATOR ));
 				
 				//TODO: support progressive viewing on viewing time filter
-				if( ((IFilterDefinition)filter).updateAggregation() == false )
+				if( ((IFilterDefinition)filter).updateAggregation() == false && !streaming )
 					return Strategy.Complex;
 			}
 			
@@ -217,7 +236,7 @@ public final class QueryExecutionStrategyUtil
 					if( ExpressionCompilerUtil.hasAggregationInExpr( baseExpr ))
 						return Strategy.Complex;
 					
-					if( ((IFilterDefinition)filter).updateAggregation() == false )
+					if( ((IFilterDefinition)filter).updateAggregation() == false && !streaming )
 						return Strategy.Complex;
 				}
 			}
@@ -247,6 +266,52 @@ public final class QueryExecutionStrategyUtil
 		return hasAggregation?Strategy.SimpleLookingFoward:Strategy.SimpleNoLookingFoward;
 	}
 	
+	/**
+	 * Returns whether the filters of the query, which do not update the
+	 * aggregations, are applied as the other filters while the rows are read
+	 * from the data set. It is only the case if the streaming is turned on by
+	 * the application context and the query has neither aggregations nor
+	 * sub queries, so that no value depends on the filtered out rows.
+	 * 
+	 * @param query
+	 * @param appContext
+	 * @return
+	 * @throws DataException
+	 */
+	public static boolean isStreaming( IQueryDefinition query, Map appContext )
+			throws DataException
+	{
+		Object value = appContext == null ? null
+				: appContext.get( DataEngine.STREAMING_QUERY );
+		if ( value == null
+				|| !Boolean.valueOf( value.toString( ) ).booleanValue( ) )
+			return false;
+		if ( query.getSubqueries( ) != null
+				&& query.getSubqueries( ).size( ) > 0 )
+			return false;
+		if ( query.getGroups( ) != null )
+		{
+			for ( IGroupDefinition group : (List<IGroupDefinition>) query.getGroups( ) )
+			{
+				if ( group.getSubqueries( ) != null
+						&& group.getSubqueries( ).size( ) > 0 )
+					return false;
+			}
+		}
+		if ( query.getBindings( ) != null )
+		{
+			Iterator bindingIt = query.getBindings( ).values( ).iterator( );
+			while ( bindingIt.hasNext( ) )
+			{
+				IBinding binding = (IBinding) bindingIt.next( );
+				if ( binding.getAggrFunction( ) != null
+						|| ExpressionCompilerUtil.hasAggregationInExpr( binding.getExpression( ) ) )
+					return false;
+			}
+		}
+		return true;
+	}
+
 	private static boolean isDirectColumnRefGroupKey(IGroupDefinition group,IQueryDefinition query )
 	{
 		String expr = getGroupKeyExpression(group);
@@ -17,9 +17,16 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.eclipse.birt.core.data.DataType;
 import org.eclipse.birt.core.data.DataTypeUtil;
 import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
 import org.eclipse.birt.data.engine.api.IBaseExpression;
 import org.eclipse.birt.data.engine.api.IScriptExpression;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
@@ -27,7 +34,9 @@ import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
 import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
 import org.eclipse.birt.data.engine.cache.BasicCachedList;
 import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.DaemonThreadFactory;
 import org.eclipse.birt.data.engine.executor.transform.ResultSetPopulator;
+import org.eclipse.birt.data.engine.expression.ColumnReferenceExpression;
 import org.eclipse.birt.data.engine.expression.ExprEvaluateUtil;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.impl.DataEngineSession;
@@ -43,6 +52,20 @@ import org.eclipse.birt.data.engine.odi.IResultObject;
 
 public class AggregationHelper implements IAggrValueHolder
 {
+	private static final int PROCESSORS = Runtime.getRuntime( )
+			.availableProcessors( );
+
+	// the threads calculating the aggregations in parallel, shared by all the
+	// queries. They are used only if there is more than one processor.
+	private static ExecutorService aggregationWorkers = PROCESSORS > 1
+			? Executors.newFixedThreadPool( PROCESSORS,
+					new DaemonThreadFactory( "BIRT Aggregation Worker" ) )
+			: null;
+
+	// the count of rows read ahead before the aggregations are calculated on
+	// them in parallel
+	private static final int ROW_BLOCK_SIZE = 4096;
+
 	private IAggrDefnManager manager;
 	
 	private ResultSetPopulator populator;
@@ -152,7 +175,10 @@ public class AggregationHelper implements IAggrValueHolder
 				return;
 			}
 
-			pass( populateAggrValue, validAggregationArray );
+			if ( isParallel( ) )
+				parallelPass( populateAggrValue, validAggregationArray );
+			else
+				pass( populateAggrValue, validAggregationArray );
 
 			// Rewind to first row
 			this.first( 0 );
@@ -174,34 +200,322 @@ public class AggregationHelper implements IAggrValueHolder
 	private void pass( boolean[] populateAggrValue,
 			int[] validAggregationArray ) throws DataException
 	{
+		boolean[] invalidAggrs = getInvalidAggregations( );
 		do
 		{
-			int startingGroupLevel = this.getStartingGroupLevel( );
-			int endingGroupLevel = this.getEndingGroupLevel( );
+			onRow( validAggregationArray,
+					this.getStartingGroupLevel( ),
+					this.getEndingGroupLevel( ),
+					this.populator.getCache( ).getCurrentIndex( ),
+					this.populator.getCache( ).getCurrentResult( ),
+					populateAggrValue,
+					invalidAggrs );
+		} while ( this.populator.getResultIterator( ).next( ) );
+		setInvalidAggregations( invalidAggrs );
+	}
 
-			for ( int i = 0; i < validAggregationArray.length; i++ )
-			{
-				int index = validAggregationArray[i];
-				if ( invalidAggrSet != null
-						&& invalidAggrSet.contains( Integer.valueOf( index ) ) )
-				{
-					addInvalidAggrMsg( index, endingGroupLevel );
-					continue;
-				}
+	/**
+	 * Make a pass to all aggregations, where the aggregations whose arguments
+	 * are evaluated without the script context are calculated by the
+	 * aggregation workers. The rows are read in blocks, and each aggregation
+	 * is calculated over the rows of a block by one worker, so that the rows
+	 * are still accumulated in order. The workers calculate a block while the
+	 * next one is read, and the other aggregations are calculated by this
+	 * thread as the rows are read.
+	 * 
+	 * @param populateAggrValue
+	 * @param validAggregationArray
+	 * @throws DataException
+	 */
+	private void parallelPass( boolean[] populateAggrValue,
+			int[] validAggregationArray ) throws DataException
+	{
+		List serialAggrs = new ArrayList( );
+		List parallelAggrs = new ArrayList( );
+		for ( int i = 0; i < validAggregationArray.length; i++ )
+		{
+			Integer index = Integer.valueOf( validAggregationArray[i] );
+			if ( isThreadSafe( getAggrInfo( index.intValue( ) ) ) )
+				parallelAggrs.add( index );
+			else
+				serialAggrs.add( index );
+		}
+		if ( parallelAggrs.size( ) < 2 )
+		{
+			pass( populateAggrValue, validAggregationArray );
+			return;
+		}
+
+		int[] serialAggrArray = toArray( serialAggrs );
+		int[][] tasks = new int[Math.min( PROCESSORS, parallelAggrs.size( ) )][];
+		for ( int i = 0; i < tasks.length; i++ )
+		{
+			List task = new ArrayList( );
+			for ( int j = i; j < parallelAggrs.size( ); j += tasks.length )
+				task.add( parallelAggrs.get( j ) );
+			tasks[i] = toArray( task );
+		}
 
-				if ( onRow( index,
+		boolean[] invalidAggrs = getInvalidAggregations( );
+		RowBlock block = new RowBlock( );
+		RowBlock pendingBlock = new RowBlock( );
+		Future[] pendingTasks = null;
+		try
+		{
+			do
+			{
+				int startingGroupLevel = this.getStartingGroupLevel( );
+				int endingGroupLevel = this.getEndingGroupLevel( );
+				int rowIndex = this.populator.getCache( ).getCurrentIndex( );
+				IResultObject row = this.populator.getCache( )
+						.getCurrentResult( );
+				onRow( serialAggrArray,
 						startingGroupLevel,
 						endingGroupLevel,
-						populateAggrValue[index] ) == false )
+						rowIndex,
+						row,
+						populateAggrValue,
+						invalidAggrs );
+				block.add( startingGroupLevel, endingGroupLevel, rowIndex, row );
+				if ( block.count == ROW_BLOCK_SIZE )
+				{
+					waitFor( pendingTasks );
+					pendingTasks = submit( tasks,
+							block,
+							populateAggrValue,
+							invalidAggrs );
+					RowBlock temp = pendingBlock;
+					pendingBlock = block;
+					block = temp;
+					block.count = 0;
+				}
+			} while ( this.populator.getResultIterator( ).next( ) );
+			waitFor( pendingTasks );
+			pendingTasks = null;
+			if ( block.count > 0 )
+				waitFor( submit( tasks, block, populateAggrValue, invalidAggrs ) );
+		}
+		finally
+		{
+			// the workers may not be left calculating when this pass fails
+			if ( pendingTasks != null )
+			{
+				try
+				{
+					waitFor( pendingTasks );
+				}
+				catch ( DataException e )
 				{
-					addInvalidAggrMsg( index, endingGroupLevel );
+				}
+			}
+		}
+		setInvalidAggregations( invalidAggrs );
+	}
 
-					if ( invalidAggrSet == null )
-						invalidAggrSet = new HashSet( );
-					invalidAggrSet.add( Integer.valueOf( index ) );
+	/**
+	 * Submit the calculation of the aggregations over the rows of the block,
+	 * each task of the aggregations to a worker.
+	 * 
+	 * @param tasks
+	 * @param block
+	 * @param populateAggrValue
+	 * @param invalidAggrs
+	 * @return the futures of the tasks
+	 */
+	private Future[] submit( int[][] tasks, final RowBlock block,
+			final boolean[] populateAggrValue, final boolean[] invalidAggrs )
+	{
+		Future[] futures = new Future[tasks.length];
+		for ( int i = 0; i < tasks.length; i++ )
+		{
+			final int[] aggrIndexes = tasks[i];
+			futures[i] = aggregationWorkers.submit( new Callable( ) {
+
+				public Object call( ) throws Exception
+				{
+					for ( int j = 0; j < aggrIndexes.length; j++ )
+					{
+						int[] aggrIndex = new int[]{
+							aggrIndexes[j]
+						};
+						for ( int k = 0; k < block.count; k++ )
+						{
+							onRow( aggrIndex,
+									block.startingGroupLevels[k],
+									block.endingGroupLevels[k],
+									block.rowIndexes[k],
+									block.rows[k],
+									populateAggrValue,
+									invalidAggrs );
+						}
+					}
+					return null;
 				}
+			} );
+		}
+		return futures;
+	}
+
+	/**
+	 * Wait for the tasks of a block. All the tasks are waited for even if one
+	 * fails, since they share the block.
+	 * 
+	 * @param futures
+	 * @throws DataException
+	 */
+	private static void waitFor( Future[] futures ) throws DataException
+	{
+		if ( futures == null )
+			return;
+		Throwable error = null;
+		for ( int i = 0; i < futures.length; i++ )
+		{
+			try
+			{
+				futures[i].get( );
 			}
-		} while ( this.populator.getResultIterator( ).next( ) );
+			catch ( InterruptedException e )
+			{
+				Thread.currentThread( ).interrupt( );
+				if ( error == null )
+					error = e;
+			}
+			catch ( ExecutionException e )
+			{
+				if ( error == null )
+					error = e.getCause( );
+			}
+		}
+		if ( error instanceof DataException )
+			throw (DataException) error;
+		if ( error != null )
+			throw new DataException( ResourceConstants.PARALLEL_AGGREGATION_ERROR,
+					error );
+	}
+
+	/**
+	 * Calculate the aggregations on a row.
+	 * 
+	 * @param aggrIndexes
+	 * @param startingGroupLevel
+	 * @param endingGroupLevel
+	 * @param rowIndex
+	 * @param row
+	 * @param populateAggrValue
+	 * @param invalidAggrs
+	 * @throws DataException
+	 */
+	private void onRow( int[] aggrIndexes, int startingGroupLevel,
+			int endingGroupLevel, int rowIndex, IResultObject row,
+			boolean[] populateAggrValue, boolean[] invalidAggrs )
+			throws DataException
+	{
+		for ( int i = 0; i < aggrIndexes.length; i++ )
+		{
+			int index = aggrIndexes[i];
+			if ( invalidAggrs[index] )
+			{
+				addInvalidAggrMsg( index, endingGroupLevel );
+				continue;
+			}
+
+			if ( onRow( index,
+					startingGroupLevel,
+					endingGroupLevel,
+					rowIndex,
+					row,
+					populateAggrValue[index] ) == false )
+			{
+				addInvalidAggrMsg( index, endingGroupLevel );
+				invalidAggrs[index] = true;
+			}
+		}
+	}
+
+	/**
+	 * @return whether the aggregations are calculated in parallel.
+	 */
+	private boolean isParallel( )
+	{
+		if ( aggregationWorkers == null
+				|| this.populator.getEventHandler( ) == null
+				|| this.populator.getEventHandler( ).getAppContext( ) == null )
+			return false;
+		Object value = this.populator.getEventHandler( )
+				.getAppContext( )
+				.get( DataEngine.PARALLEL_AGGREGATION );
+		return value != null && Boolean.valueOf( value.toString( ) ).booleanValue( );
+	}
+
+	/**
+	 * An aggregation can be calculated by another thread if it is a built-in
+	 * one without a filter, and its arguments are column references which are
+	 * read from the rows without the script context or any conversion.
+	 * 
+	 * @param aggrInfo
+	 * @return
+	 */
+	private static boolean isThreadSafe( IAggrInfo aggrInfo )
+	{
+		if ( aggrInfo.getFilter( ) != null
+				|| !aggrInfo.getAggregation( )
+						.getClass( )
+						.getName( )
+						.startsWith( "org.eclipse.birt.data.aggregation." ) )
+			return false;
+		IBaseExpression[] arguments = aggrInfo.getArgument( );
+		if ( arguments == null )
+			return true;
+		for ( int i = 0; i < arguments.length; i++ )
+		{
+			if ( arguments[i] == null || isEmptyScriptExpression( arguments[i] ) )
+				continue;
+			Object handle = arguments[i].getHandle( );
+			if ( !( handle instanceof ColumnReferenceExpression )
+					|| !isUnconverted( ( (ColumnReferenceExpression) handle ).getDataType( ) )
+					|| !isUnconverted( arguments[i].getDataType( ) ) )
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean isUnconverted( int dataType )
+	{
+		return dataType == DataType.ANY_TYPE
+				|| dataType == DataType.UNKNOWN_TYPE;
+	}
+
+	private static int[] toArray( List indexes )
+	{
+		int[] array = new int[indexes.size( )];
+		for ( int i = 0; i < array.length; i++ )
+			array[i] = ( (Integer) indexes.get( i ) ).intValue( );
+		return array;
+	}
+
+	/**
+	 * @return the flags of the aggregations which are found invalid
+	 */
+	private boolean[] getInvalidAggregations( )
+	{
+		boolean[] invalidAggrs = new boolean[this.currentAggrCount];
+		for ( int i = 0; i < invalidAggrs.length; i++ )
+			invalidAggrs[i] = invalidAggrSet != null
+					&& invalidAggrSet.contains( Integer.valueOf( i ) );
+		return invalidAggrs;
+	}
+
+	private void setInvalidAggregations( boolean[] invalidAggrs )
+	{
+		for ( int i = 0; i < invalidAggrs.length; i++ )
+		{
+			if ( invalidAggrs[i] )
+			{
+				if ( invalidAggrSet == null )
+					invalidAggrSet = new HashSet( );
+				invalidAggrSet.add( Integer.valueOf( i ) );
+			}
+		}
 	}
 
 	/**
@@ -212,12 +526,10 @@ public class AggregationHelper implements IAggrValueHolder
 	 */
 	private void addInvalidAggrMsg( int index, int endingGroupLevel ) throws DataException
 	{
-		assert invalidAggrMsg != null;
-
 		if ( getAggrInfo( index ).getAggregation( ).getType( ) == IAggrFunction.RUNNING_AGGR
 				|| endingGroupLevel <= getAggrInfo( index ).getGroupLevel( )
 				|| getAggrInfo( index ).getGroupLevel( ) == 0 )
-			currentRoundAggrValue[index].add( invalidAggrMsg.get( Integer.valueOf( index ) ) );
+			currentRoundAggrValue[index].add( getInvalidAggrMsg( index ) );
 	}
 	
 	/**
@@ -226,13 +538,14 @@ public class AggregationHelper implements IAggrValueHolder
 	 * @param aggrIndex
 	 * @param startingGroupLevel
 	 * @param endingGroupLevel
-	 * @param context
-	 * @param scope
+	 * @param rowIndex
+	 * @param row
+	 * @param populateValue
 	 * @throws DataException
 	 */
 	private boolean onRow( int aggrIndex, int startingGroupLevel,
-			int endingGroupLevel, boolean populateValue )
-			throws DataException
+			int endingGroupLevel, int rowIndex, IResultObject row,
+			boolean populateValue ) throws DataException
 	{
 		IAggrInfo aggrInfo = getAggrInfo( aggrIndex );
 		Accumulator acc = null;
@@ -285,8 +598,8 @@ public class AggregationHelper implements IAggrValueHolder
 			try
 			{
 				Object filterResult = ExprEvaluateUtil.evaluateValue( aggrInfo.getFilter( ),
-						this.populator.getCache( ).getCurrentIndex( ),
-						this.populator.getCache( ).getCurrentResult( ),
+						rowIndex,
+						row,
 						this.populator.getQuery( ).getExprProcessor( ).getScope( ),
 						this.populator.getSession( ).getEngineContext( ).getScriptContext( ));
 				if ( filterResult == null )
@@ -298,10 +611,7 @@ public class AggregationHelper implements IAggrValueHolder
 			}
 			catch ( BirtException e )
 			{
-				if ( invalidAggrMsg == null )
-					invalidAggrMsg = new HashMap( );
-				invalidAggrMsg.put( Integer.valueOf( aggrIndex ), e );
-
+				wrapException( aggrIndex, e );
 				return false;
 			}
 		}
@@ -350,7 +660,12 @@ public class AggregationHelper implements IAggrValueHolder
 					}
 					else
 					{
-						evaluateArgsValue( aggrIndex, aggrInfo, i, argDefs[i] );
+						evaluateArgsValue( aggrIndex,
+								aggrInfo,
+								i,
+								argDefs[i],
+								rowIndex,
+								row );
 					}
 				}
 
@@ -459,7 +774,8 @@ public class AggregationHelper implements IAggrValueHolder
 	 * @param i
 	 * @throws DataException
 	 */
-	private void evaluateArgsValue( int aggrIndex, IAggrInfo aggrInfo, int i, IParameterDefn paramDefn )
+	private void evaluateArgsValue( int aggrIndex, IAggrInfo aggrInfo, int i,
+			IParameterDefn paramDefn, int rowIndex, IResultObject row )
 			throws DataException
 	{
 		if( i >= aggrInfo.getArgument( ).length )
@@ -488,8 +804,8 @@ public class AggregationHelper implements IAggrValueHolder
 		try
 		{
 			aggrArgs[aggrIndex][i] = ExprEvaluateUtil.evaluateValue( argExpr,
-					this.populator.getCache( ).getCurrentIndex( ),
-					this.populator.getCache( ).getCurrentResult( ),
+					rowIndex,
+					row,
 					this.populator.getQuery( ).getExprProcessor( ).getScope( ),
 					this.populator.getSession( ).getEngineContext( ).getScriptContext( ));
 		}
@@ -503,20 +819,26 @@ public class AggregationHelper implements IAggrValueHolder
 	 * @param aggrIndex
 	 * @param e
 	 */
-	private void wrapException( int aggrIndex, DataException e )
+	private synchronized void wrapException( int aggrIndex, BirtException e )
 	{
 		if ( invalidAggrMsg == null )
 			invalidAggrMsg = new HashMap( );
 		invalidAggrMsg.put( Integer.valueOf( aggrIndex ), e );
 	}
 
+	private synchronized Object getInvalidAggrMsg( int aggrIndex )
+	{
+		assert invalidAggrMsg != null;
+		return invalidAggrMsg.get( Integer.valueOf( aggrIndex ) );
+	}
+
 	/**
 	 * Checks whether the ScriptExpression has empty expression text
 	 * 
 	 * @param argExpr
 	 * @return
 	 */
-	private boolean isEmptyScriptExpression( IBaseExpression argExpr )
+	private static boolean isEmptyScriptExpression( IBaseExpression argExpr )
 	{
 		IScriptExpression expr = (IScriptExpression) argExpr;
 		return expr == null
@@ -737,6 +1059,29 @@ public class AggregationHelper implements IAggrValueHolder
 		}
 	}
 
+	/**
+	 * The rows read ahead for the aggregation workers.
+	 */
+	private static class RowBlock
+	{
+
+		private int[] startingGroupLevels = new int[ROW_BLOCK_SIZE];
+		private int[] endingGroupLevels = new int[ROW_BLOCK_SIZE];
+		private int[] rowIndexes = new int[ROW_BLOCK_SIZE];
+		private IResultObject[] rows = new IResultObject[ROW_BLOCK_SIZE];
+		private int count;
+
+		void add( int startingGroupLevel, int endingGroupLevel, int rowIndex,
+				IResultObject row )
+		{
+			startingGroupLevels[count] = startingGroupLevel;
+			endingGroupLevels[count] = endingGroupLevel;
+			rowIndexes[count] = rowIndex;
+			rows[count] = row;
+			count++;
+		}
+	}
+
 	public Set<String> getAggrNames( ) throws DataException
 	{
 		return this.aggrNames;
@@ -22,6 +22,7 @@ import java.util.Calendar;
 import java.util.Map;
 
 import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.IResultSetMemoryListener;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.core.security.FileSecurity;
 import org.eclipse.birt.data.engine.core.security.ObjectSecurity;
@@ -114,6 +115,48 @@ public class CacheUtil
 		}
 	}
 
+	/**
+	 * @param appContext
+	 * @return whether the rows cached in memory are stored by columns.
+	 */
+	public static boolean isColumnarResultBuffer( Map appContext )
+	{
+		if ( appContext == null )
+			return false;
+		Object value = appContext.get( DataEngine.COLUMNAR_RESULT_BUFFER );
+		return value != null && Boolean.valueOf( value.toString( ) ).booleanValue( );
+	}
+
+	/**
+	 * 
+	 * @param appContext
+	 * @return whether the sorted runs of the result sets spilled to disk are
+	 *         compressed.
+	 */
+	public static boolean isSortRunCompressed( Map appContext )
+	{
+		if ( appContext == null )
+			return false;
+		Object value = appContext.get( DataEngine.SORT_RUN_COMPRESSION );
+		return value != null && Boolean.valueOf( value.toString( ) ).booleanValue( );
+	}
+
+	/**
+	 * 
+	 * @param appContext
+	 * @return the listener of the memory of the cached result sets, null if it
+	 *         is not set.
+	 */
+	public static IResultSetMemoryListener getResultSetMemoryListener(
+			Map appContext )
+	{
+		if ( appContext == null )
+			return null;
+		Object listener = appContext.get( DataEngine.RESULT_SET_MEMORY_LISTENER );
+		return listener instanceof IResultSetMemoryListener
+				? (IResultSetMemoryListener) listener : null;
+	}
+
 	/**
 	 * 
 	 * @param propValue
@@ -0,0 +1,838 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.birt.core.archive.RAOutputStream;
+import org.eclipse.birt.core.data.DataType.AnyType;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.api.IBinding;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.StringTable;
+import org.eclipse.birt.data.engine.impl.document.viewing.ExprMetaUtil;
+import org.eclipse.birt.data.engine.impl.index.IAuxiliaryIndexCreator;
+import org.eclipse.birt.data.engine.impl.index.IIndexSerializer;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.eclipse.birt.data.engine.olap.data.util.CompareUtil;
+
+/**
+ * Memory implementation of ResultSetCache which stores the rows by columns.
+ * <p>
+ * The Integer, Long, Double, Boolean and java.util.Date values are kept in
+ * the primitive arrays with a null bitmap, and the String values are encoded
+ * with a dictionary of the column. A column falls back to an object array when
+ * its values are of the other classes, of the mixed classes, or the strings
+ * are mostly distinct. The result objects are created lazily from the columns,
+ * and the custom field values set on them are written back to the columns.
+ */
+public class ColumnarMemoryCache implements ResultSetCache
+{
+	private int countOfResult;
+	private int currResultIndex = -1;
+
+	private IResultClass rsMeta;
+	private IResultObject currResultObject;
+	private Column[] columns;
+
+	/**
+	 * @param rsMeta
+	 */
+	public ColumnarMemoryCache( IResultClass rsMeta )
+	{
+		this.rsMeta = rsMeta;
+		this.columns = new Column[rsMeta.getFieldCount( )];
+		for ( int i = 0; i < columns.length; i++ )
+		{
+			columns[i] = new Column( );
+		}
+	}
+
+	/**
+	 * Append a row to the cache, the fields missing in the row are null.
+	 *
+	 * @param resultObject
+	 * @throws DataException
+	 */
+	public void add( IResultObject resultObject ) throws DataException
+	{
+		int fieldCount = Math.min( columns.length,
+				resultObject.getResultClass( ).getFieldCount( ) );
+		for ( int i = 0; i < columns.length; i++ )
+		{
+			columns[i].add( countOfResult, i < fieldCount
+					? resultObject.getFieldValue( i + 1 ) : null );
+		}
+		countOfResult++;
+	}
+
+	/**
+	 * Sort the rows, the columns are rearranged in the sorted order.
+	 *
+	 * @param comparator
+	 *            the comparator of the result objects, null for no sorting.
+	 */
+	public void sort( Comparator comparator )
+	{
+		if ( comparator == null || countOfResult < 2 )
+			return;
+
+		IResultObject[] resultObjects = getResultObjects( );
+		Arrays.sort( resultObjects, comparator );
+		sort( resultObjects );
+	}
+
+	/**
+	 * Rearrange the columns in the order of the result objects.
+	 *
+	 * @param resultObjects
+	 *            the result objects of all the rows, returned by
+	 *            getResultObjects and put in the sorted order.
+	 */
+	public void sort( IResultObject[] resultObjects )
+	{
+		int[] order = new int[countOfResult];
+		for ( int i = 0; i < countOfResult; i++ )
+		{
+			order[i] = ( (ColumnarResultObject) resultObjects[i] ).rowIndex;
+		}
+		for ( int i = 0; i < columns.length; i++ )
+		{
+			columns[i].reorder( order, countOfResult );
+		}
+		reset( );
+	}
+
+	/**
+	 * @return the result objects of all the rows, which read the values from
+	 *         this cache.
+	 */
+	public IResultObject[] getResultObjects( )
+	{
+		IResultObject[] resultObjects = new IResultObject[countOfResult];
+		for ( int i = 0; i < countOfResult; i++ )
+		{
+			resultObjects[i] = new ColumnarResultObject( i );
+		}
+		return resultObjects;
+	}
+
+	/**
+	 * @return the estimated size of memory occupied by the cached rows.
+	 */
+	public long getMemorySize( )
+	{
+		long size = 0;
+		for ( int i = 0; i < columns.length; i++ )
+		{
+			size += columns[i].getMemorySize( );
+		}
+		return size;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#getCurrentIndex()
+	 */
+	public int getCurrentIndex( ) throws DataException
+	{
+		return currResultIndex;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#getCurrentResult()
+	 */
+	public IResultObject getCurrentResult( ) throws DataException
+	{
+		return currResultObject;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#next()
+	 */
+	public boolean next( ) throws DataException
+	{
+		if ( countOfResult == 0 )
+			return false;
+
+		if ( currResultIndex > countOfResult - 1 )
+		{
+			currResultObject = null;
+		}
+		else
+		{
+			currResultIndex++;
+			if ( currResultIndex == countOfResult )
+				currResultObject = null;
+			else
+				currResultObject = new ColumnarResultObject( currResultIndex );
+		}
+
+		return currResultObject != null;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#fetch()
+	 */
+	public IResultObject fetch( ) throws DataException
+	{
+		next( );
+		return getCurrentResult( );
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#moveTo(int)
+	 */
+	public void moveTo( int destIndex ) throws DataException
+	{
+		if ( destIndex < -1 || destIndex > countOfResult )
+			throw new DataException( ResourceConstants.DESTINDEX_OUTOF_RANGE,
+					new Object[]{
+							Integer.valueOf( -1 ),
+							Integer.valueOf( countOfResult )
+					} );
+
+		currResultIndex = destIndex;
+
+		// currResultObject needs to be updated
+		if ( currResultIndex == -1 || currResultIndex == countOfResult )
+			currResultObject = null;
+		else
+			currResultObject = new ColumnarResultObject( currResultIndex );
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#getCount()
+	 */
+	public int getCount( )
+	{
+		return countOfResult;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#reset()
+	 */
+	public void reset( )
+	{
+		currResultIndex = -1;
+		currResultObject = null;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#close()
+	 */
+	public void close( )
+	{
+		reset( );
+		columns = new Column[0];
+		countOfResult = 0;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#doSave(java.io.DataOutputStream, java.io.DataOutputStream, java.util.Map, java.util.Map, java.util.List, int, java.util.List, boolean)
+	 */
+	public void doSave( DataOutputStream outputStream,
+			DataOutputStream rowLensStream,
+			Map<String, StringTable> stringTable,
+			Map<String, IIndexSerializer> index,
+			List<IBinding> cacheRequestMap, int version,
+			List<IAuxiliaryIndexCreator> auxiliaryIndexCreators,
+			boolean saveInnerId )
+			throws DataException
+	{
+		DataOutputStream dos = new DataOutputStream( outputStream );
+		Set resultSetNameSet = ResultSetUtil.getRsColumnRequestMap( cacheRequestMap );
+		try
+		{
+			// save data
+			int colCount = getColumnCount( this.rsMeta );
+
+			IOUtil.writeInt( dos, countOfResult );
+			long offset = 4;
+			for ( int i = 0; i < countOfResult; i++ )
+			{
+				IResultObject resultObject = new ColumnarResultObject( i );
+				IOUtil.writeLong( rowLensStream, offset );
+				offset += ResultSetUtil.writeResultObject( dos,
+						resultObject,
+						colCount,
+						resultSetNameSet, stringTable, index, i, version, saveInnerId );
+				if ( auxiliaryIndexCreators != null )
+				{
+					for ( IAuxiliaryIndexCreator creator : auxiliaryIndexCreators )
+					{
+						creator.save( resultObject, i );
+					}
+				}
+			}
+		}
+		catch ( IOException e )
+		{
+			throw new DataException( ResourceConstants.RD_SAVE_ERROR, e );
+		}
+	}
+
+	private int getColumnCount( IResultClass meta ) throws DataException
+	{
+		int count = meta.getFieldCount( );
+		for ( int i = 1; i <= meta.getFieldCount( ); i++ )
+		{
+			if ( meta.getFieldName( i ).equals( ExprMetaUtil.POS_NAME ) )
+			{
+				count--;
+			}
+		}
+		return count;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#incrementalUpdate(java.io.OutputStream, java.io.OutputStream, int, java.util.Map, java.util.Map, java.util.List, int, java.util.List)
+	 */
+	public void incrementalUpdate( OutputStream outputStream,
+			OutputStream rowLensStream, int originalRowCount,
+			Map<String, StringTable> stringTable,
+			Map<String, IIndexSerializer> map, List<IBinding> cacheRequestMap,
+			int version, List<IAuxiliaryIndexCreator> auxiliaryIndexCreators )
+			throws DataException
+	{
+		Set resultSetNameSet = ResultSetUtil.getRsColumnRequestMap( cacheRequestMap );
+		try
+		{
+			// save data
+			int rowCount = originalRowCount + countOfResult;
+			int colCount = this.rsMeta.getFieldCount( );
+
+			IOUtil.writeInt( outputStream, rowCount );
+			if( outputStream instanceof RAOutputStream )
+				( ( RAOutputStream )outputStream ).seek( ( ( RAOutputStream )outputStream ).length( ) );
+			if( rowLensStream instanceof RAOutputStream )
+				( ( RAOutputStream )rowLensStream ).seek( ( ( RAOutputStream )rowLensStream ).length( ) );
+			DataOutputStream dos = new DataOutputStream( outputStream );
+			DataOutputStream rlos = new DataOutputStream( rowLensStream );
+
+			long offset = 4;
+			if( outputStream instanceof RAOutputStream )
+				offset = ( ( RAOutputStream )outputStream ).length( );
+			for ( int i = 0; i < countOfResult; i++ )
+			{
+				IResultObject resultObject = new ColumnarResultObject( i );
+				IOUtil.writeLong( rlos, offset );
+				offset += ResultSetUtil.writeResultObject( dos,
+						resultObject,
+						colCount,
+						resultSetNameSet, stringTable, map, originalRowCount + i, version );
+				if ( auxiliaryIndexCreators != null )
+				{
+					for ( IAuxiliaryIndexCreator creator : auxiliaryIndexCreators )
+					{
+						creator.save( resultObject, originalRowCount + i );
+					}
+				}
+			}
+		}
+		catch ( IOException e )
+		{
+			throw new DataException( ResourceConstants.RD_SAVE_ERROR, e );
+		}
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.executor.cache.ResultSetCache#setResultClass(org.eclipse.birt.data.engine.odi.IResultClass)
+	 */
+	public void setResultClass( IResultClass rsMeta ) throws DataException
+	{
+		this.rsMeta = rsMeta;
+	}
+
+	/**
+	 * The result object of a row, the values are read from the columns.
+	 */
+	private class ColumnarResultObject implements IResultObject
+	{
+		private int rowIndex;
+
+		ColumnarResultObject( int rowIndex )
+		{
+			this.rowIndex = rowIndex;
+		}
+
+		/*
+		 * @see org.eclipse.birt.data.engine.odi.IResultObject#getResultClass()
+		 */
+		public IResultClass getResultClass( )
+		{
+			return rsMeta;
+		}
+
+		/*
+		 * @see org.eclipse.birt.data.engine.odi.IResultObject#getFieldValue(java.lang.String)
+		 */
+		public Object getFieldValue( String fieldName ) throws DataException
+		{
+			int fieldIndex = rsMeta.getFieldIndex( fieldName );
+
+			if ( fieldIndex < 1 )
+				throw new DataException( ResourceConstants.INVALID_FIELD_NAME,
+						fieldName );
+
+			return getFieldValue( fieldIndex );
+		}
+
+		/*
+		 * @see org.eclipse.birt.data.engine.odi.IResultObject#getFieldValue(int)
+		 */
+		public Object getFieldValue( int fieldIndex ) throws DataException
+		{
+			return columns[fieldIndex - 1].get( rowIndex );
+		}
+
+		/*
+		 * @see org.eclipse.birt.data.engine.odi.IResultObject#setCustomFieldValue(java.lang.String, java.lang.Object)
+		 */
+		public void setCustomFieldValue( String fieldName, Object value )
+				throws DataException
+		{
+			setCustomFieldValue( rsMeta.getFieldIndex( fieldName ), value );
+		}
+
+		/*
+		 * @see org.eclipse.birt.data.engine.odi.IResultObject#setCustomFieldValue(int, java.lang.Object)
+		 */
+		public void setCustomFieldValue( int fieldIndex, Object value )
+				throws DataException
+		{
+			if ( rsMeta.isCustomField( fieldIndex ) )
+				columns[fieldIndex - 1].set( rowIndex, value );
+			else
+				throw new DataException( ResourceConstants.INVALID_CUSTOM_FIELD_INDEX,
+						Integer.valueOf( fieldIndex ) );
+
+			if ( value != null
+					&& rsMeta.getFieldValueClass( fieldIndex )
+							.getName( )
+							.equals( AnyType.class.getName( ) ) )
+			{
+				( (ResultClass) rsMeta ).getFieldMetaData( fieldIndex )
+						.setDataType( value.getClass( ) );
+			}
+		}
+
+		/*
+		 * @see java.lang.Object#toString()
+		 */
+		public String toString( )
+		{
+			StringBuffer buf = new StringBuffer( columns.length * 10 );
+			for ( int i = 0; i < columns.length; i++ )
+			{
+				if ( i > 0 )
+					buf.append( ',' );
+				buf.append( String.valueOf( columns[i].get( rowIndex ) ) );
+			}
+			return buf.toString( );
+		}
+
+		/*
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		public boolean equals( Object ob )
+		{
+			if ( ob instanceof IResultObject == false )
+				return false;
+
+			IResultObject ob2 = (IResultObject) ob;
+
+			int fieldCount = rsMeta.getFieldCount( );
+			if ( fieldCount != ob2.getResultClass( ).getFieldCount( ) )
+				return false;
+
+			for ( int i = 0; i < fieldCount; i++ )
+			{
+				try
+				{
+					if ( CompareUtil.compare( getFieldValue( i + 1 ),
+							ob2.getFieldValue( i + 1 ) ) != 0 )
+						return false;
+				}
+				catch ( DataException e )
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		/*
+		 * @see java.lang.Object#hashCode()
+		 */
+		public int hashCode( )
+		{
+			int result = 17;
+			for ( int i = 0; i < columns.length; i++ )
+			{
+				Object value = columns[i].get( rowIndex );
+				result = 37 * result + ( value == null ? 0 : value.hashCode( ) );
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * The values of a column.
+	 */
+	private static class Column
+	{
+		private static final int NONE = 0;
+		private static final int INTEGER = 1;
+		private static final int LONG = 2;
+		private static final int DOUBLE = 3;
+		private static final int BOOLEAN = 4;
+		private static final int DATE = 5;
+		private static final int STRING = 6;
+		private static final int OBJECT = 7;
+
+		private static final int INITIAL_CAPACITY = 64;
+
+		/**
+		 * the string column is stored as objects when the count of the distinct
+		 * strings exceeds this count and the half of the rows.
+		 */
+		private static final int MAX_DICTIONARY_SIZE = 1024;
+
+		/**
+		 * the estimated size of a entry in the dictionary, besides the string.
+		 */
+		private static final int DICTIONARY_ENTRY_SIZE = 48;
+
+		private int type = NONE;
+		private int capacity = INITIAL_CAPACITY;
+		// the count of the rows
+		private int size;
+
+		// INTEGER values and the codes of STRING values
+		private int[] ints;
+		// LONG values and the time of DATE values
+		private long[] longs;
+		private double[] doubles;
+		// BOOLEAN values
+		private BitSet bits;
+		private Object[] objects;
+
+		// the null flags of the columns except OBJECT
+		private BitSet nulls = new BitSet( );
+
+		private List<String> dictionary;
+		private Map<String, Integer> codes;
+
+		// the estimated size of the strings in the dictionary or the objects
+		private long valueSize;
+
+		void add( int rowIndex, Object value )
+		{
+			if ( rowIndex >= capacity )
+			{
+				ensureCapacity( Math.max( capacity * 2, rowIndex + 1 ) );
+			}
+			size = Math.max( size, rowIndex + 1 );
+			set( rowIndex, value );
+		}
+
+		Object get( int rowIndex )
+		{
+			if ( type == OBJECT )
+				return objects[rowIndex];
+			if ( type == NONE || nulls.get( rowIndex ) )
+				return null;
+			switch ( type )
+			{
+				case INTEGER :
+					return Integer.valueOf( ints[rowIndex] );
+				case LONG :
+					return Long.valueOf( longs[rowIndex] );
+				case DOUBLE :
+					return Double.valueOf( doubles[rowIndex] );
+				case BOOLEAN :
+					return Boolean.valueOf( bits.get( rowIndex ) );
+				case DATE :
+					return new Date( longs[rowIndex] );
+				default :
+					return dictionary.get( ints[rowIndex] );
+			}
+		}
+
+		void set( int rowIndex, Object value )
+		{
+			if ( value == null )
+			{
+				if ( type == OBJECT )
+					setObject( rowIndex, null );
+				else
+					nulls.set( rowIndex );
+				return;
+			}
+			int valueType = getType( value );
+			if ( type == NONE )
+			{
+				allocate( valueType );
+			}
+			else if ( type != valueType && type != OBJECT )
+			{
+				toObjects( );
+			}
+			switch ( type )
+			{
+				case INTEGER :
+					ints[rowIndex] = ( (Integer) value ).intValue( );
+					break;
+				case LONG :
+					longs[rowIndex] = ( (Long) value ).longValue( );
+					break;
+				case DOUBLE :
+					doubles[rowIndex] = ( (Double) value ).doubleValue( );
+					break;
+				case BOOLEAN :
+					bits.set( rowIndex, ( (Boolean) value ).booleanValue( ) );
+					break;
+				case DATE :
+					longs[rowIndex] = ( (Date) value ).getTime( );
+					break;
+				case STRING :
+					if ( !setString( rowIndex, (String) value ) )
+					{
+						toObjects( );
+						setObject( rowIndex, value );
+					}
+					break;
+				default :
+					setObject( rowIndex, value );
+					return;
+			}
+			nulls.clear( rowIndex );
+		}
+
+		/**
+		 * @return false if the string is not added because the dictionary is
+		 *         too large.
+		 */
+		private boolean setString( int rowIndex, String value )
+		{
+			Integer code = codes.get( value );
+			if ( code == null )
+			{
+				int size = dictionary.size( );
+				if ( size >= MAX_DICTIONARY_SIZE && size >= rowIndex / 2 )
+				{
+					return false;
+				}
+				code = Integer.valueOf( size );
+				dictionary.add( value );
+				codes.put( value, code );
+				valueSize += SizeOfUtil.sizeOf( String.class, value )
+						+ DICTIONARY_ENTRY_SIZE;
+			}
+			ints[rowIndex] = code.intValue( );
+			return true;
+		}
+
+		private void setObject( int rowIndex, Object value )
+		{
+			Object oldValue = objects[rowIndex];
+			if ( oldValue != null )
+			{
+				valueSize -= SizeOfUtil.sizeOf( oldValue.getClass( ), oldValue );
+			}
+			if ( value != null )
+			{
+				valueSize += SizeOfUtil.sizeOf( value.getClass( ), value );
+			}
+			objects[rowIndex] = value;
+		}
+
+		private static int getType( Object value )
+		{
+			Class valueClass = value.getClass( );
+			if ( valueClass == Integer.class )
+				return INTEGER;
+			if ( valueClass == Long.class )
+				return LONG;
+			if ( valueClass == Double.class )
+				return DOUBLE;
+			if ( valueClass == Boolean.class )
+				return BOOLEAN;
+			// the subclasses such as java.sql.Timestamp are kept as objects
+			if ( valueClass == Date.class )
+				return DATE;
+			if ( valueClass == String.class )
+				return STRING;
+			return OBJECT;
+		}
+
+		private void allocate( int newType )
+		{
+			type = newType;
+			switch ( type )
+			{
+				case INTEGER :
+					ints = new int[capacity];
+					break;
+				case LONG :
+				case DATE :
+					longs = new long[capacity];
+					break;
+				case DOUBLE :
+					doubles = new double[capacity];
+					break;
+				case BOOLEAN :
+					bits = new BitSet( );
+					break;
+				case STRING :
+					ints = new int[capacity];
+					dictionary = new ArrayList<String>( );
+					codes = new HashMap<String, Integer>( );
+					break;
+				default :
+					objects = new Object[capacity];
+					break;
+			}
+		}
+
+		/**
+		 * convert the column to an object column.
+		 */
+		private void toObjects( )
+		{
+			Object[] values = new Object[size];
+			for ( int i = 0; i < size; i++ )
+			{
+				values[i] = get( i );
+			}
+			ints = null;
+			longs = null;
+			doubles = null;
+			bits = null;
+			dictionary = null;
+			codes = null;
+			nulls = new BitSet( );
+			valueSize = 0;
+			type = OBJECT;
+			objects = new Object[capacity];
+			for ( int i = 0; i < size; i++ )
+			{
+				setObject( i, values[i] );
+			}
+		}
+
+		private void ensureCapacity( int newCapacity )
+		{
+			if ( ints != null )
+				ints = Arrays.copyOf( ints, newCapacity );
+			if ( longs != null )
+				longs = Arrays.copyOf( longs, newCapacity );
+			if ( doubles != null )
+				doubles = Arrays.copyOf( doubles, newCapacity );
+			if ( objects != null )
+				objects = Arrays.copyOf( objects, newCapacity );
+			capacity = newCapacity;
+		}
+
+		/**
+		 * rearrange the first rows, the row i is moved from the row order[i].
+		 */
+		void reorder( int[] order, int count )
+		{
+			BitSet newNulls = new BitSet( );
+			for ( int i = 0; i < count; i++ )
+			{
+				if ( nulls.get( order[i] ) )
+					newNulls.set( i );
+			}
+			nulls = newNulls;
+			if ( ints != null )
+			{
+				int[] values = new int[capacity];
+				for ( int i = 0; i < count; i++ )
+					values[i] = ints[order[i]];
+				ints = values;
+			}
+			if ( longs != null )
+			{
+				long[] values = new long[capacity];
+				for ( int i = 0; i < count; i++ )
+					values[i] = longs[order[i]];
+				longs = values;
+			}
+			if ( doubles != null )
+			{
+				double[] values = new double[capacity];
+				for ( int i = 0; i < count; i++ )
+					values[i] = doubles[order[i]];
+				doubles = values;
+			}
+			if ( bits != null )
+			{
+				BitSet values = new BitSet( );
+				for ( int i = 0; i < count; i++ )
+				{
+					if ( bits.get( order[i] ) )
+						values.set( i );
+				}
+				bits = values;
+			}
+			if ( objects != null )
+			{
+				Object[] values = new Object[capacity];
+				for ( int i = 0; i < count; i++ )
+					values[i] = objects[order[i]];
+				objects = values;
+			}
+		}
+
+		long getMemorySize( )
+		{
+			long size = SizeOfUtil.OBJECT_OVERHEAD + ( nulls.size( ) >> 3 );
+			switch ( type )
+			{
+				case INTEGER :
+				case STRING :
+					size += SizeOfUtil.PRIMITIVE_ARRAY_OVERHEAD + capacity * 4L;
+					break;
+				case LONG :
+				case DATE :
+				case DOUBLE :
+					size += SizeOfUtil.PRIMITIVE_ARRAY_OVERHEAD + capacity * 8L;
+					break;
+				case BOOLEAN :
+					size += bits.size( ) >> 3;
+					break;
+				case OBJECT :
+					size += SizeOfUtil.OBJECT_ARRAY_OVERHEAD
+							+ capacity * (long) SizeOfUtil.POINTER_SIZE;
+					break;
+			}
+			return size + valueSize;
+		}
+	}
+}
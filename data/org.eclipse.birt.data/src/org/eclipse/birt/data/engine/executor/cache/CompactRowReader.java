@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.impl.document.stream.VersionManager;
+import org.eclipse.datatools.connectivity.oda.IBlob;
+import org.eclipse.datatools.connectivity.oda.IClob;
+
+/**
+ * Reads the rows written by CompactRowWriter. The values of a row are decoded
+ * from the block in memory, which is read from the input stream at one time.
+ */
+public class CompactRowReader
+{
+	private InputStream in;
+	private Class[] typeArray;
+	private ClassLoader classLoader;
+	private Inflater inflater;
+
+	private BlockInput block;
+	private DataInputStream blockDis;
+	private int blockRowCount;
+	private byte[] stored;
+
+	private List<String> dictionary;
+
+	/**
+	 * @param in
+	 *            the input stream whose header is read, which is not closed
+	 *            by this reader
+	 * @param typeArray
+	 *            the value classes of the columns
+	 * @param classLoader
+	 */
+	CompactRowReader( InputStream in, Class[] typeArray,
+			ClassLoader classLoader )
+	{
+		this.in = in;
+		this.typeArray = typeArray;
+		this.classLoader = classLoader;
+		this.block = new BlockInput( );
+		this.blockDis = new DataInputStream( block );
+		this.dictionary = new ArrayList<String>( );
+	}
+
+	/**
+	 * Read the header of the compact row format. If the stream is not written
+	 * by CompactRowWriter, it is reset to the position before this method is
+	 * called.
+	 *
+	 * @param in
+	 *            the input stream which supports mark
+	 * @return whether the stream is written by CompactRowWriter
+	 * @throws IOException
+	 */
+	public static boolean readHeader( InputStream in ) throws IOException
+	{
+		assert in.markSupported( );
+		in.mark( IOUtil.INT_LENGTH + 1 );
+		int magic;
+		try
+		{
+			magic = IOUtil.readInt( in );
+		}
+		catch ( EOFException e )
+		{
+			in.reset( );
+			return false;
+		}
+		if ( magic != CompactRowWriter.MAGIC )
+		{
+			in.reset( );
+			return false;
+		}
+		int version = in.read( );
+		if ( version != CompactRowWriter.VERSION )
+			throw new IOException( "Unsupported row format version: " + version );
+		return true;
+	}
+
+	/**
+	 * Read the values of the next row.
+	 *
+	 * @return the values of the row, or null if there is no more row
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public Object[] read( ) throws IOException, DataException
+	{
+		if ( blockRowCount == 0 && !readBlock( ) )
+			return null;
+		blockRowCount--;
+
+		int bitmapStart = block.pos;
+		block.pos += ( typeArray.length + 7 ) / 8;
+		Object[] values = new Object[typeArray.length];
+		for ( int i = 0; i < typeArray.length; i++ )
+		{
+			if ( ( block.buf[bitmapStart + i / 8] & ( 1 << ( i % 8 ) ) ) == 0 )
+				values[i] = readValue( typeArray[i] );
+		}
+		return values;
+	}
+
+	/**
+	 * Release the resources of this reader. The input stream is not closed.
+	 */
+	public void close( )
+	{
+		if ( inflater != null )
+		{
+			inflater.end( );
+			inflater = null;
+		}
+	}
+
+	private Object readValue( Class fieldType ) throws IOException,
+			DataException
+	{
+		if ( fieldType.equals( Integer.class ) )
+			return Integer.valueOf( (int) unzigzag( block.readVarLong( ) ) );
+		if ( fieldType.equals( Double.class ) )
+			return new Double( Double.longBitsToDouble( block.readLong( ) ) );
+		if ( fieldType.equals( BigDecimal.class ) )
+		{
+			int kind = block.buf[block.pos++];
+			int scale = (int) unzigzag( block.readVarLong( ) );
+			if ( kind == CompactRowWriter.LONG_DECIMAL )
+				return BigDecimal.valueOf( unzigzag( block.readVarLong( ) ),
+						scale );
+			byte[] bytes = block.readBytes( (int) block.readVarLong( ) );
+			return new BigDecimal( new BigInteger( bytes ), scale );
+		}
+		if ( fieldType.equals( Time.class ) )
+			return new Time( unzigzag( block.readVarLong( ) ) );
+		if ( fieldType.equals( Timestamp.class ) )
+			return new Timestamp( unzigzag( block.readVarLong( ) ) );
+		if ( fieldType.equals( java.sql.Date.class ) )
+		{
+			try
+			{
+				return DataTypeUtil.toSqlDate( new java.sql.Date( unzigzag( block.readVarLong( ) ) ) );
+			}
+			catch ( BirtException e )
+			{
+				throw DataException.wrap( e );
+			}
+		}
+		if ( Date.class.isAssignableFrom( fieldType ) )
+			return new Date( unzigzag( block.readVarLong( ) ) );
+		if ( fieldType.equals( Boolean.class ) )
+			return Boolean.valueOf( block.buf[block.pos++] != 0 );
+		if ( fieldType.equals( String.class )
+				|| fieldType.equals( IClob.class )
+				|| fieldType.equals( Clob.class ) )
+			return readString( );
+		if ( fieldType.equals( IBlob.class ) || fieldType.equals( Blob.class ) )
+			return block.readBytes( (int) block.readVarLong( ) );
+		if ( fieldType.equals( int[].class ) )
+		{
+			int[] array = new int[(int) block.readVarLong( )];
+			for ( int i = 0; i < array.length; i++ )
+			{
+				array[i] = (int) unzigzag( block.readVarLong( ) );
+			}
+			return array;
+		}
+		return ResultObjectUtil.readObject( blockDis,
+				fieldType,
+				classLoader,
+				VersionManager.getLatestVersion( ) );
+	}
+
+	private String readString( )
+	{
+		int index = (int) block.readVarLong( );
+		if ( index > 0 )
+			return dictionary.get( index - 1 );
+		char[] chars = new char[(int) block.readVarLong( )];
+		for ( int i = 0; i < chars.length; i++ )
+		{
+			chars[i] = (char) block.readVarLong( );
+		}
+		String value = new String( chars );
+		// the same rule as the writer
+		if ( chars.length <= CompactRowWriter.MAX_DICTIONARY_STRING_LENGTH
+				&& dictionary.size( ) < CompactRowWriter.MAX_DICTIONARY_SIZE )
+		{
+			dictionary.add( value );
+		}
+		return value;
+	}
+
+	/**
+	 * Read the next block into memory.
+	 *
+	 * @return false if the end of the stream is reached
+	 * @throws IOException
+	 */
+	private boolean readBlock( ) throws IOException
+	{
+		int flag = in.read( );
+		if ( flag == -1 )
+			return false;
+		blockRowCount = (int) readVarLong( in );
+		int rawLength = (int) readVarLong( in );
+		if ( block.buf.length < rawLength )
+			block.buf = new byte[rawLength];
+		block.pos = 0;
+		block.limit = rawLength;
+		dictionary.clear( );
+
+		if ( flag == CompactRowWriter.STORED_BLOCK )
+		{
+			readFully( block.buf, rawLength );
+			return true;
+		}
+
+		int storedLength = (int) readVarLong( in );
+		if ( stored == null || stored.length < storedLength )
+			stored = new byte[storedLength];
+		readFully( stored, storedLength );
+		if ( inflater == null )
+			inflater = new Inflater( );
+		inflater.reset( );
+		inflater.setInput( stored, 0, storedLength );
+		try
+		{
+			int length = 0;
+			while ( length < rawLength && !inflater.finished( ) )
+			{
+				int count = inflater.inflate( block.buf, length, rawLength
+						- length );
+				if ( count == 0 && inflater.needsInput( ) )
+					break;
+				length += count;
+			}
+			if ( length != rawLength )
+				throw new IOException( "Corrupted row block" );
+		}
+		catch ( DataFormatException e )
+		{
+			IOException ioe = new IOException( e.getMessage( ) );
+			ioe.initCause( e );
+			throw ioe;
+		}
+		return true;
+	}
+
+	private void readFully( byte[] bytes, int length ) throws IOException
+	{
+		int total = 0;
+		while ( total < length )
+		{
+			int count = in.read( bytes, total, length - total );
+			if ( count < 0 )
+				throw new EOFException( );
+			total += count;
+		}
+	}
+
+	private static long readVarLong( InputStream in ) throws IOException
+	{
+		long value = 0;
+		for ( int shift = 0;; shift += 7 )
+		{
+			int b = in.read( );
+			if ( b == -1 )
+				throw new EOFException( );
+			value |= (long) ( b & 0x7F ) << shift;
+			if ( ( b & 0x80 ) == 0 )
+				return value;
+		}
+	}
+
+	private static long unzigzag( long value )
+	{
+		return ( value >>> 1 ) ^ -( value & 1 );
+	}
+
+	/**
+	 * The rows of a block in memory.
+	 */
+	private static class BlockInput extends InputStream
+	{
+		private byte[] buf = new byte[0];
+		private int pos;
+		private int limit;
+
+		public int read( )
+		{
+			return pos < limit ? buf[pos++] & 0xFF : -1;
+		}
+
+		public int read( byte[] b, int off, int len )
+		{
+			if ( pos >= limit )
+				return -1;
+			int count = Math.min( len, limit - pos );
+			System.arraycopy( buf, pos, b, off, count );
+			pos += count;
+			return count;
+		}
+
+		long readVarLong( )
+		{
+			long value = 0;
+			for ( int shift = 0;; shift += 7 )
+			{
+				int b = buf[pos++];
+				value |= (long) ( b & 0x7F ) << shift;
+				if ( ( b & 0x80 ) == 0 )
+					return value;
+			}
+		}
+
+		long readLong( )
+		{
+			long value = 0;
+			for ( int i = 0; i < 8; i++ )
+			{
+				value = ( value << 8 ) | ( buf[pos++] & 0xFF );
+			}
+			return value;
+		}
+
+		byte[] readBytes( int length )
+		{
+			byte[] bytes = new byte[length];
+			System.arraycopy( buf, pos, bytes, 0, length );
+			pos += length;
+			return bytes;
+		}
+	}
+}
@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.impl.document.stream.VersionManager;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.eclipse.datatools.connectivity.oda.IBlob;
+import org.eclipse.datatools.connectivity.oda.IClob;
+
+/**
+ * Writes result objects in the compact row format. The stream starts with
+ * MAGIC and VERSION, and the rows are written in blocks:
+ *
+ * <pre>
+ * block: flag(1 byte) rowCount(varint) rawLength(varint) [storedLength(varint)] bytes
+ * row:   null bitmap, and then the values of the columns which are not null
+ * </pre>
+ *
+ * The integers, dates and the decimals whose unscaled value fits in a long are
+ * written as zigzag varints, and the strings repeated in a block are written
+ * as the references to their first occurrence. The block is deflated if the
+ * compression is enabled and it does shrink. The values of the other types
+ * are written as ResultObjectUtil.writeObject does.
+ */
+public class CompactRowWriter
+{
+	/**
+	 * The leading int of the stream. It is negative, so it can not be the
+	 * length of the first row of the stream written by
+	 * ResultObjectUtil.writeData.
+	 */
+	public static final int MAGIC = 0xB1D7C0DE;
+	public static final int VERSION = 1;
+
+	static final int BLOCK_SIZE = 64 * 1024;
+	static final int MAX_DICTIONARY_SIZE = 4096;
+	static final int MAX_DICTIONARY_STRING_LENGTH = 256;
+
+	static final int STORED_BLOCK = 0;
+	static final int DEFLATED_BLOCK = 1;
+
+	static final int LONG_DECIMAL = 0;
+	static final int BIG_DECIMAL = 1;
+
+	private OutputStream out;
+	private Class[] typeArray;
+	private Deflater deflater;
+
+	private BlockBuffer block;
+	private DataOutputStream blockDos;
+	private int blockRowCount;
+	private byte[] deflated;
+
+	private Map<String, Integer> dictionary;
+	private Object[] values;
+
+	/**
+	 * @param out
+	 *            the output stream, which is not closed by this writer
+	 * @param typeArray
+	 *            the value classes of the columns
+	 * @param compressed
+	 *            whether the blocks are deflated
+	 * @param append
+	 *            whether the rows are appended to a stream which already has
+	 *            the header
+	 * @throws IOException
+	 */
+	CompactRowWriter( OutputStream out, Class[] typeArray, boolean compressed,
+			boolean append ) throws IOException
+	{
+		this.out = out;
+		this.typeArray = typeArray;
+		this.block = new BlockBuffer( );
+		this.blockDos = new DataOutputStream( block );
+		this.dictionary = new HashMap<String, Integer>( );
+		this.values = new Object[typeArray.length];
+		if ( compressed )
+			this.deflater = new Deflater( Deflater.BEST_SPEED );
+		if ( !append )
+		{
+			IOUtil.writeInt( out, MAGIC );
+			out.write( VERSION );
+		}
+	}
+
+	/**
+	 * Write a row.
+	 *
+	 * @param resultObject
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public void write( IResultObject resultObject ) throws IOException,
+			DataException
+	{
+		int bitmapStart = block.size;
+		int bitmapLength = ( typeArray.length + 7 ) / 8;
+		block.ensureCapacity( bitmapLength );
+		for ( int i = 0; i < bitmapLength; i++ )
+		{
+			block.buf[block.size++] = 0;
+		}
+		for ( int i = 0; i < typeArray.length; i++ )
+		{
+			Object value = null;
+			try
+			{
+				value = resultObject.getFieldValue( i + 1 );
+			}
+			catch ( DataException e )
+			{
+				// never get here since the index value is always valid
+			}
+			values[i] = ResultObjectUtil.convertValue( value, typeArray[i] );
+			if ( values[i] == null )
+				block.buf[bitmapStart + i / 8] |= 1 << ( i % 8 );
+		}
+		for ( int i = 0; i < typeArray.length; i++ )
+		{
+			if ( values[i] != null )
+				writeValue( values[i], typeArray[i] );
+			values[i] = null;
+		}
+		blockRowCount++;
+		if ( block.size >= BLOCK_SIZE )
+			flushBlock( );
+	}
+
+	/**
+	 * Write the rows which are not written yet to the output stream. The
+	 * output stream is not closed.
+	 *
+	 * @throws IOException
+	 */
+	public void finish( ) throws IOException
+	{
+		flushBlock( );
+		if ( deflater != null )
+		{
+			deflater.end( );
+			deflater = null;
+		}
+	}
+
+	private void writeValue( Object value, Class fieldType )
+			throws IOException, DataException
+	{
+		if ( fieldType.equals( Integer.class ) )
+		{
+			block.writeVarLong( zigzag( ( (Integer) value ).intValue( ) ) );
+		}
+		else if ( fieldType.equals( Double.class ) )
+		{
+			block.writeLong( Double.doubleToLongBits( ( (Double) value ).doubleValue( ) ) );
+		}
+		else if ( fieldType.equals( BigDecimal.class ) )
+		{
+			BigDecimal decimal = (BigDecimal) value;
+			if ( decimal.unscaledValue( ).bitLength( ) < 64 )
+			{
+				block.write( LONG_DECIMAL );
+				block.writeVarLong( zigzag( decimal.scale( ) ) );
+				block.writeVarLong( zigzag( decimal.unscaledValue( )
+						.longValue( ) ) );
+			}
+			else
+			{
+				byte[] bytes = decimal.unscaledValue( ).toByteArray( );
+				block.write( BIG_DECIMAL );
+				block.writeVarLong( zigzag( decimal.scale( ) ) );
+				block.writeVarLong( bytes.length );
+				block.write( bytes, 0, bytes.length );
+			}
+		}
+		else if ( Date.class.isAssignableFrom( fieldType ) )
+		{
+			block.writeVarLong( zigzag( ( (Date) value ).getTime( ) ) );
+		}
+		else if ( fieldType.equals( Boolean.class ) )
+		{
+			block.write( ( (Boolean) value ).booleanValue( ) ? 1 : 0 );
+		}
+		else if ( fieldType.equals( String.class )
+				|| fieldType.equals( IClob.class )
+				|| fieldType.equals( Clob.class ) )
+		{
+			writeString( value.toString( ) );
+		}
+		else if ( fieldType.equals( IBlob.class )
+				|| fieldType.equals( Blob.class ) )
+		{
+			byte[] bytes = (byte[]) value;
+			block.writeVarLong( bytes.length );
+			block.write( bytes, 0, bytes.length );
+		}
+		else if ( fieldType.equals( int[].class ) )
+		{
+			int[] array = (int[]) value;
+			block.writeVarLong( array.length );
+			for ( int i = 0; i < array.length; i++ )
+			{
+				block.writeVarLong( zigzag( array[i] ) );
+			}
+		}
+		else
+		{
+			ResultObjectUtil.writeObject( blockDos,
+					value,
+					fieldType,
+					VersionManager.getLatestVersion( ) );
+		}
+	}
+
+	/**
+	 * Write the reference to the string if it is written in the block before,
+	 * otherwise write 0 and the chars of the string.
+	 *
+	 * @param value
+	 */
+	private void writeString( String value )
+	{
+		Integer index = dictionary.get( value );
+		if ( index != null )
+		{
+			block.writeVarLong( index.intValue( ) + 1 );
+			return;
+		}
+		block.writeVarLong( 0 );
+		int length = value.length( );
+		block.writeVarLong( length );
+		for ( int i = 0; i < length; i++ )
+		{
+			block.writeVarLong( value.charAt( i ) );
+		}
+		if ( length <= MAX_DICTIONARY_STRING_LENGTH
+				&& dictionary.size( ) < MAX_DICTIONARY_SIZE )
+		{
+			dictionary.put( value, Integer.valueOf( dictionary.size( ) ) );
+		}
+	}
+
+	private void flushBlock( ) throws IOException
+	{
+		if ( blockRowCount == 0 )
+			return;
+		int storedLength = block.size;
+		if ( deflater != null )
+		{
+			deflater.reset( );
+			deflater.setInput( block.buf, 0, block.size );
+			deflater.finish( );
+			if ( deflated == null || deflated.length < block.size )
+				deflated = new byte[block.size];
+			storedLength = 0;
+			while ( !deflater.finished( ) && storedLength < block.size )
+			{
+				storedLength += deflater.deflate( deflated,
+						storedLength,
+						block.size - storedLength );
+			}
+			if ( !deflater.finished( ) )
+				storedLength = block.size;
+		}
+
+		BlockBuffer header = new BlockBuffer( );
+		if ( storedLength < block.size )
+		{
+			header.write( DEFLATED_BLOCK );
+			header.writeVarLong( blockRowCount );
+			header.writeVarLong( block.size );
+			header.writeVarLong( storedLength );
+			out.write( header.buf, 0, header.size );
+			out.write( deflated, 0, storedLength );
+		}
+		else
+		{
+			header.write( STORED_BLOCK );
+			header.writeVarLong( blockRowCount );
+			header.writeVarLong( block.size );
+			out.write( header.buf, 0, header.size );
+			out.write( block.buf, 0, block.size );
+		}
+
+		block.size = 0;
+		blockRowCount = 0;
+		dictionary.clear( );
+	}
+
+	private static long zigzag( long value )
+	{
+		return ( value << 1 ) ^ ( value >> 63 );
+	}
+
+	/**
+	 * The growing buffer of the rows of a block.
+	 */
+	private static class BlockBuffer extends OutputStream
+	{
+		private byte[] buf = new byte[1024];
+		private int size;
+
+		void ensureCapacity( int length )
+		{
+			if ( size + length > buf.length )
+			{
+				byte[] newBuf = new byte[Math.max( buf.length * 2, size
+						+ length )];
+				System.arraycopy( buf, 0, newBuf, 0, size );
+				buf = newBuf;
+			}
+		}
+
+		public void write( int b )
+		{
+			ensureCapacity( 1 );
+			buf[size++] = (byte) b;
+		}
+
+		public void write( byte[] b, int off, int len )
+		{
+			ensureCapacity( len );
+			System.arraycopy( b, off, buf, size, len );
+			size += len;
+		}
+
+		void writeVarLong( long value )
+		{
+			ensureCapacity( 10 );
+			while ( ( value & ~0x7FL ) != 0 )
+			{
+				buf[size++] = (byte) ( ( value & 0x7F ) | 0x80 );
+				value >>>= 7;
+			}
+			buf[size++] = (byte) value;
+		}
+
+		void writeLong( long value )
+		{
+			ensureCapacity( 8 );
+			for ( int shift = 56; shift >= 0; shift -= 8 )
+			{
+				buf[size++] = (byte) ( value >>> shift );
+			}
+		}
+	}
+}
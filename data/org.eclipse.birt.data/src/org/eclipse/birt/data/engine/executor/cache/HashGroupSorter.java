@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.expression.CompareHints;
+import org.eclipse.birt.data.engine.odi.IEventHandler;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+/**
+ * Sorts the rows in memory on the group keys by hashing instead of comparing
+ * the rows. A single pass assigns every row to the group of its key values in
+ * a hash table, then only the distinct keys are sorted, and the rows are
+ * distributed to their groups in the sorted order of the groups. The order of
+ * the rows in a group is kept, and the rest of the sort keys is sorted in
+ * each group, so that the rows are in the same order as the ones of the
+ * stable sort on the whole sort specification.
+ * <p>
+ * Hashing is used when the group keys are the first keys of the sort
+ * specification, are sorted with the default comparison, and have much fewer
+ * distinct values than the rows.
+ */
+final class HashGroupSorter
+{
+
+	/**
+	 * The number of rows under which the rows are sorted directly.
+	 */
+	private static final int MIN_ROW_COUNT = 64;
+
+	/**
+	 * The minimal average number of rows in a group, under which the rows are
+	 * sorted directly.
+	 */
+	private static final int MIN_ROWS_PER_GROUP = 2;
+
+	private HashGroupSorter( )
+	{
+	}
+
+	/**
+	 * Sorts the rows on the sort specification.
+	 *
+	 * @param rows
+	 * @param sortSpec
+	 * @param eventHandler
+	 * @return true if the rows are sorted, false if they are not because the
+	 *         hashing does not apply to them.
+	 * @throws DataException
+	 */
+	static boolean sort( IResultObject[] rows, SortSpec sortSpec,
+			IEventHandler eventHandler ) throws DataException
+	{
+		if ( !accept( sortSpec ) || rows.length < MIN_ROW_COUNT )
+			return false;
+
+		int keyCount = sortSpec.getGroupKeyCount( );
+		int[] keyIndexes = sortSpec.getSortKeyIndexes( );
+		String[] keyColumns = sortSpec.getSortKeyColumns( );
+		int maxGroupCount = rows.length / MIN_ROWS_PER_GROUP;
+
+		// assign the rows to the groups of their key values
+		Map<List<Object>, Integer> groupIds = new HashMap<List<Object>, Integer>( );
+		List<IResultObject> firstRows = new ArrayList<IResultObject>( );
+		int[] rowGroups = new int[rows.length];
+		for ( int i = 0; i < rows.length; i++ )
+		{
+			Object[] key = new Object[keyCount];
+			for ( int j = 0; j < keyCount; j++ )
+			{
+				key[j] = eventHandler != null ? eventHandler.getValue( rows[i],
+						keyIndexes[j],
+						keyColumns[j] ) : rows[i].getFieldValue( keyIndexes[j] );
+			}
+			List<Object> keyList = Arrays.asList( key );
+			Integer groupId = groupIds.get( keyList );
+			if ( groupId == null )
+			{
+				if ( firstRows.size( ) >= maxGroupCount )
+					return false;
+				groupId = Integer.valueOf( firstRows.size( ) );
+				groupIds.put( keyList, groupId );
+				firstRows.add( rows[i] );
+			}
+			rowGroups[i] = groupId.intValue( );
+		}
+		groupIds = null;
+
+		// sort the groups on their first rows, the groups whose keys are
+		// equal in the comparison get the same rank
+		final Comparator keyComparator = SmartCacheHelper.getComparator( getGroupKeySortSpec( sortSpec ),
+				eventHandler );
+		final IResultObject[] groupRows = firstRows.toArray( new IResultObject[firstRows.size( )] );
+		Integer[] order = new Integer[groupRows.length];
+		for ( int i = 0; i < order.length; i++ )
+		{
+			order[i] = Integer.valueOf( i );
+		}
+		Arrays.sort( order, new Comparator<Integer>( ) {
+
+			public int compare( Integer o1, Integer o2 )
+			{
+				return keyComparator.compare( groupRows[o1.intValue( )],
+						groupRows[o2.intValue( )] );
+			}
+		} );
+		int[] ranks = new int[groupRows.length];
+		int rankCount = 0;
+		for ( int i = 0; i < order.length; i++ )
+		{
+			if ( i > 0
+					&& keyComparator.compare( groupRows[order[i - 1].intValue( )],
+							groupRows[order[i].intValue( )] ) != 0 )
+				rankCount++;
+			ranks[order[i].intValue( )] = rankCount;
+		}
+		rankCount++;
+
+		// distribute the rows to the ranks of their groups
+		int[] starts = new int[rankCount + 1];
+		for ( int i = 0; i < rows.length; i++ )
+		{
+			starts[ranks[rowGroups[i]] + 1]++;
+		}
+		for ( int i = 0; i < rankCount; i++ )
+		{
+			starts[i + 1] += starts[i];
+		}
+		IResultObject[] sortedRows = new IResultObject[rows.length];
+		int[] positions = Arrays.copyOf( starts, rankCount );
+		for ( int i = 0; i < rows.length; i++ )
+		{
+			sortedRows[positions[ranks[rowGroups[i]]]++] = rows[i];
+		}
+		System.arraycopy( sortedRows, 0, rows, 0, rows.length );
+
+		// sort the rest of the keys in each group
+		if ( sortSpec.length( ) > keyCount )
+		{
+			Comparator comparator = SmartCacheHelper.getComparator( sortSpec,
+					eventHandler );
+			for ( int i = 0; i < rankCount; i++ )
+			{
+				if ( starts[i + 1] - starts[i] > 1 )
+					Arrays.sort( rows, starts[i], starts[i + 1], comparator );
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param sortSpec
+	 * @return true if the first keys of the sort specification are group keys
+	 *         which are sorted in ascending or descending order with the
+	 *         default comparison.
+	 */
+	static boolean accept( SortSpec sortSpec )
+	{
+		if ( sortSpec == null || sortSpec.getGroupKeyCount( ) == 0 )
+			return false;
+		int[] sortAscending = sortSpec.getSortAscending( );
+		CompareHints[] comparators = sortSpec.getComparator( );
+		for ( int i = 0; i < sortSpec.getGroupKeyCount( ); i++ )
+		{
+			if ( sortAscending[i] != SortSpec.SORT_ASC
+					&& sortAscending[i] != SortSpec.SORT_DESC )
+				return false;
+			if ( comparators != null && comparators[i] != null )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param sortSpec
+	 * @return the sort specification of the group keys only
+	 */
+	private static SortSpec getGroupKeySortSpec( SortSpec sortSpec )
+	{
+		int keyCount = sortSpec.getGroupKeyCount( );
+		return new SortSpec( Arrays.copyOf( sortSpec.getSortKeyIndexes( ),
+				keyCount ),
+				Arrays.copyOf( sortSpec.getSortKeyColumns( ), keyCount ),
+				Arrays.copyOf( sortSpec.getSortAscending( ), keyCount ),
+				new CompareHints[keyCount] );
+	}
+}
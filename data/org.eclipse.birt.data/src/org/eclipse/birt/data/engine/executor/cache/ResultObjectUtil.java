@@ -15,6 +15,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -329,41 +330,94 @@ public class ResultObjectUtil
 		baos = null;
 	}
 
+	/**
+	 * Create a writer of the rows in the compact row format, which is read by
+	 * the reader created by newCompactRowReader.
+	 * 
+	 * @param out
+	 * @param compressed
+	 *            whether the blocks of rows are deflated
+	 * @param append
+	 *            whether the rows are appended to the rows in the compact
+	 *            row format, and then the header is not written
+	 * @return
+	 * @throws IOException
+	 */
+	public CompactRowWriter newCompactRowWriter( OutputStream out,
+			boolean compressed, boolean append ) throws IOException
+	{
+		return new CompactRowWriter( out, typeArray, compressed, append );
+	}
+
+	/**
+	 * Create a reader of the rows in the compact row format. The header of the
+	 * input stream must be read by CompactRowReader.readHeader at first.
+	 * 
+	 * @param in
+	 * @param classLoader
+	 * @return
+	 */
+	public CompactRowReader newCompactRowReader( InputStream in,
+			ClassLoader classLoader )
+	{
+		return new CompactRowReader( in, typeArray, classLoader );
+	}
+
+	/**
+	 * Read the result objects from the compact row format.
+	 * 
+	 * @param reader
+	 * @param length
+	 *            how many objects needs to be read
+	 * @return result object array
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public IResultObject[] readData( CompactRowReader reader, int length )
+			throws IOException, DataException
+	{
+		IResultObject[] rowDatas = new IResultObject[length];
+		for ( int i = 0; i < length; i++ )
+		{
+			if ( session.getStopSign( ).isStopped( ) )
+				break;
+			Object[] obs = reader.read( );
+			if ( obs == null )
+				throw new EOFException( );
+			rowDatas[i] = newResultObject( obs );
+		}
+		return rowDatas;
+	}
+
+	/**
+	 * Write the result objects in the compact row format.
+	 * 
+	 * @param writer
+	 * @param resultObjects
+	 * @param length
+	 *            how many objects to be written
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public void writeData( CompactRowWriter writer,
+			IResultObject[] resultObjects, int length ) throws IOException,
+			DataException
+	{
+		for ( int i = 0; i < length; i++ )
+		{
+			writer.write( resultObjects[i] );
+			if ( session.getStopSign( ).isStopped( ) )
+				return;
+		}
+	}
+
 	public static void writeObject( DataOutputStream dos, Object fieldValue,
 			Class fieldType, int version ) throws IOException, DataException
 	{
         // No Version control needed. Previous we write byte 1 & 0, which is
         // perfectly convert to char 1 & 0.
 
-        Object convertedObj = null;
-        // process null object
-        if ( fieldValue != null )
-        {
-            if ( fieldType.equals( Integer.class ) )
-            {
-                convertedObj = convert( fieldValue, DataType.INTEGER_TYPE );
-            }
-            else if ( fieldType.equals( Double.class ) )
-            {
-                convertedObj = convert( fieldValue, DataType.DOUBLE_TYPE );
-            }
-            else if ( fieldType.equals( BigDecimal.class ) )
-            {
-                convertedObj = convert( fieldValue, DataType.DECIMAL_TYPE );
-            }
-            else if ( Date.class.isAssignableFrom( fieldType ) )
-            {
-                convertedObj = convert( fieldValue, DataType.DATE_TYPE );
-            }
-            else if ( fieldType.equals( Boolean.class ) )
-            {
-                convertedObj = convert( fieldValue, DataType.BOOLEAN_TYPE );
-            }
-            else
-            {
-                convertedObj = fieldValue;
-            }
-        }
+        Object convertedObj = convertValue( fieldValue, fieldType );
 
         char leadingChar = 0;
         if ( convertedObj == null )
@@ -461,6 +515,42 @@ public class ResultObjectUtil
 		}
 	}
 	
+	/**
+	 * Convert the value to the data type of the column before it is written.
+	 * 
+	 * @param fieldValue
+	 * @param fieldType
+	 * @return
+	 * @throws DataException
+	 */
+	static Object convertValue( Object fieldValue, Class fieldType )
+			throws DataException
+	{
+		if ( fieldValue == null )
+			return null;
+		if ( fieldType.equals( Integer.class ) )
+		{
+			return convert( fieldValue, DataType.INTEGER_TYPE );
+		}
+		else if ( fieldType.equals( Double.class ) )
+		{
+			return convert( fieldValue, DataType.DOUBLE_TYPE );
+		}
+		else if ( fieldType.equals( BigDecimal.class ) )
+		{
+			return convert( fieldValue, DataType.DECIMAL_TYPE );
+		}
+		else if ( Date.class.isAssignableFrom( fieldType ) )
+		{
+			return convert( fieldValue, DataType.DATE_TYPE );
+		}
+		else if ( fieldType.equals( Boolean.class ) )
+		{
+			return convert( fieldValue, DataType.BOOLEAN_TYPE );
+		}
+		return fieldValue;
+	}
+	
 	private static Object convert( Object o, int type ) throws DataException
 	{
 		try
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Measures the size of memory occupied by the objects of the classes whose
+ * size is not known by SizeOfUtil.
+ * <p>
+ * The first values of a class and then one of every SAMPLE_INTERVAL values are
+ * measured by walking the objects reachable from their fields, and the average
+ * of the measured sizes is used for the other values. The fields which can not
+ * be accessed, such as those of the JDK classes on a modular runtime, are
+ * counted without the objects they refer to.
+ * <p>
+ * The layouts are kept by weak class keys and do not refer to the classes
+ * strongly, so the class loaders of the redeployed reports and drivers are not
+ * pinned by them.
+ */
+final class SampledSizeOf
+{
+	private static final int FULL_SAMPLE_COUNT = 16;
+	private static final int SAMPLE_INTERVAL = 64;
+	private static final int MAX_VISITED_OBJECTS = 1024;
+
+	private static Map<Class, ClassLayout> layouts = Collections.synchronizedMap( new WeakHashMap<Class, ClassLayout>( ) );
+
+	private SampledSizeOf( )
+	{
+	}
+
+	/**
+	 * Return the sampled size of memory occupied by the object.
+	 *
+	 * @param object
+	 * @return
+	 */
+	static int sizeOf( Object object )
+	{
+		return getLayout( object.getClass( ) ).sample( object );
+	}
+
+	/**
+	 * Return the size of memory occupied by the object and the objects
+	 * reachable from it.
+	 *
+	 * @param root
+	 * @return
+	 */
+	static long deepSizeOf( Object root )
+	{
+		Map<Object, Object> visited = new IdentityHashMap<Object, Object>( );
+		List<Object> stack = new ArrayList<Object>( );
+		stack.add( root );
+		visited.put( root, root );
+		long size = 0;
+		while ( !stack.isEmpty( ) )
+		{
+			Object object = stack.remove( stack.size( ) - 1 );
+			Class objectClass = object.getClass( );
+			if ( objectClass.isArray( ) )
+			{
+				size += sizeOfArray( object );
+				if ( !objectClass.getComponentType( ).isPrimitive( ) )
+				{
+					Object[] elements = (Object[]) object;
+					for ( int i = 0; i < elements.length; i++ )
+					{
+						push( elements[i], visited, stack );
+					}
+				}
+				continue;
+			}
+			ClassLayout layout = getLayout( objectClass );
+			size += layout.shallowSize;
+			Field[] references = layout.getReferences( objectClass );
+			for ( int i = 0; i < references.length; i++ )
+			{
+				try
+				{
+					push( references[i].get( object ), visited, stack );
+				}
+				catch ( IllegalAccessException e )
+				{
+				}
+			}
+		}
+		return size;
+	}
+
+	private static void push( Object object, Map<Object, Object> visited,
+			List<Object> stack )
+	{
+		// the shared objects such as the classes are not part of the value
+		if ( object == null
+				|| object instanceof Class || object instanceof ClassLoader
+				|| object instanceof Thread
+				|| visited.size( ) >= MAX_VISITED_OBJECTS
+				|| visited.containsKey( object ) )
+		{
+			return;
+		}
+		visited.put( object, object );
+		stack.add( object );
+	}
+
+	private static long sizeOfArray( Object array )
+	{
+		Class componentType = array.getClass( ).getComponentType( );
+		int elementSize = componentType.isPrimitive( )
+				? sizeOfPrimitive( componentType ) : SizeOfUtil.POINTER_SIZE;
+		int overhead = componentType.isPrimitive( )
+				? SizeOfUtil.PRIMITIVE_ARRAY_OVERHEAD
+				: SizeOfUtil.OBJECT_ARRAY_OVERHEAD;
+		return align( overhead + (long) Array.getLength( array ) * elementSize );
+	}
+
+	private static int sizeOfPrimitive( Class type )
+	{
+		if ( type == long.class || type == double.class )
+			return 8;
+		if ( type == int.class || type == float.class )
+			return 4;
+		if ( type == short.class || type == char.class )
+			return 2;
+		return 1;
+	}
+
+	private static long align( long size )
+	{
+		return ( size + 7 ) / 8 * 8;
+	}
+
+	private static ClassLayout getLayout( Class objectClass )
+	{
+		ClassLayout layout = layouts.get( objectClass );
+		if ( layout == null )
+		{
+			layout = new ClassLayout( objectClass );
+			layouts.put( objectClass, layout );
+		}
+		return layout;
+	}
+
+	/**
+	 * The size of the instances of a class without the objects they refer to,
+	 * the reference fields which can be accessed, and the sampled sizes. The
+	 * fields refer to their class, so they are weakly kept and found again
+	 * once they are collected.
+	 */
+	private static class ClassLayout
+	{
+		private final long shallowSize;
+		private volatile WeakReference<Field[]> references;
+
+		private int count;
+		private int sampleCount;
+		private long sampledSize;
+
+		ClassLayout( Class objectClass )
+		{
+			long size = SizeOfUtil.POINTER_SIZE * 2;
+			for ( Class c = objectClass; c != null; c = c.getSuperclass( ) )
+			{
+				Field[] declaredFields = c.getDeclaredFields( );
+				for ( int i = 0; i < declaredFields.length; i++ )
+				{
+					Field field = declaredFields[i];
+					if ( Modifier.isStatic( field.getModifiers( ) ) )
+						continue;
+					size += field.getType( ).isPrimitive( )
+							? sizeOfPrimitive( field.getType( ) )
+							: SizeOfUtil.POINTER_SIZE;
+				}
+			}
+			this.shallowSize = align( size );
+			this.references = new WeakReference<Field[]>( null );
+		}
+
+		Field[] getReferences( Class objectClass )
+		{
+			Field[] fields = references.get( );
+			if ( fields == null )
+			{
+				fields = findReferences( objectClass );
+				references = new WeakReference<Field[]>( fields );
+			}
+			return fields;
+		}
+
+		private static Field[] findReferences( Class objectClass )
+		{
+			List<Field> fields = new ArrayList<Field>( );
+			for ( Class c = objectClass; c != null; c = c.getSuperclass( ) )
+			{
+				Field[] declaredFields = c.getDeclaredFields( );
+				for ( int i = 0; i < declaredFields.length; i++ )
+				{
+					Field field = declaredFields[i];
+					if ( Modifier.isStatic( field.getModifiers( ) )
+							|| field.getType( ).isPrimitive( ) )
+						continue;
+					try
+					{
+						field.setAccessible( true );
+						fields.add( field );
+					}
+					catch ( RuntimeException e )
+					{
+						// the field is counted without the object it refers to
+					}
+				}
+			}
+			return fields.toArray( new Field[fields.size( )] );
+		}
+
+		synchronized int sample( Object object )
+		{
+			count++;
+			if ( sampleCount < FULL_SAMPLE_COUNT
+					|| count % SAMPLE_INTERVAL == 0 )
+			{
+				sampledSize += deepSizeOf( object );
+				sampleCount++;
+			}
+			return (int) ( sampledSize / sampleCount );
+		}
+	}
+}
@@ -29,8 +29,12 @@ import org.eclipse.birt.data.engine.odi.IResultObject;
 public class SizeOfUtil
 {
 	private static int INTEGER_SIZE = 16;
+	private static int LONG_SIZE = 16;
 	private static int DOUBLE_SIZE = 16;
+	private static int BOOLEAN_SIZE = 16;
 	private static int BIGDECIMAL_SIZE = 200;
+	private static int BIGDECIMAL_OVERHEAD = 32;
+	private static int BIGINTEGER_OVERHEAD = 32;
 	private static int DATE_SIZE = 24;
 	private static int TIME_SIZE = 24;
 	private static int SQL_DATE_SIZE = 24;
@@ -64,8 +68,12 @@ public class SizeOfUtil
 				if( DataTypeUtil.toInteger( JVMBit ) == 64 )
 				{
 					INTEGER_SIZE = 24;
+					LONG_SIZE = 24;
 					DOUBLE_SIZE = 24;
+					BOOLEAN_SIZE = 24;
 					BIGDECIMAL_SIZE = 216;
+					BIGDECIMAL_OVERHEAD = 48;
+					BIGINTEGER_OVERHEAD = 48;
 					DATE_SIZE = 32;
 					TIME_SIZE = 32;
 					SQL_DATE_SIZE = 32;
@@ -119,8 +127,9 @@ public class SizeOfUtil
 	private static boolean isFixedSizeClass( Class objectClass )
 	{
 		return objectClass.equals( Integer.class )
+				|| objectClass.equals( Long.class )
 				|| objectClass.equals( Double.class )
-				|| objectClass.equals( BigDecimal.class )
+				|| objectClass.equals( Boolean.class )
 				|| objectClass.equals( Date.class )
 				|| objectClass.equals( java.sql.Date.class )
 				|| objectClass.equals( Time.class )
@@ -139,10 +148,18 @@ public class SizeOfUtil
 		{
 			return SizeOfUtil.INTEGER_SIZE;
 		}
+		else if ( objectClass.equals( Long.class ) )
+		{
+			return SizeOfUtil.LONG_SIZE;
+		}
 		else if ( objectClass.equals( Double.class ) )
 		{
 			return SizeOfUtil.DOUBLE_SIZE;
 		}
+		else if ( objectClass.equals( Boolean.class ) )
+		{
+			return SizeOfUtil.BOOLEAN_SIZE;
+		}
 		else if ( objectClass.equals( BigDecimal.class ) )
 		{
 			return SizeOfUtil.BIGDECIMAL_SIZE;
@@ -197,8 +214,10 @@ public class SizeOfUtil
 				}
 			}
 		}
-		int fieldsSize = POINTER_SIZE * 2 + 8 + ( 4 + fieldCount * 4 - 1 ) / 8 * 8;
-		returnValue += POINTER_SIZE * 2 + 8 + ( 4 + fieldsSize - 1 ) / 8 * 8;
+		// the result object, its field array and the reference to it
+		returnValue += align( POINTER_SIZE * 4 )
+				+ align( OBJECT_ARRAY_OVERHEAD + fieldCount * POINTER_SIZE )
+				+ POINTER_SIZE;
 		return returnValue;
 	}
 	
@@ -255,7 +274,9 @@ public class SizeOfUtil
 	}
 
 	/**
-	 * Return the size of memory occupied by variable size class object.
+	 * Return the size of memory occupied by variable size class object. The
+	 * strings, arrays and decimals are measured from their values, and the
+	 * objects of the classes without a known size are measured by sampling.
 	 * 
 	 * @param objectClass
 	 * @param object
@@ -277,10 +298,42 @@ public class SizeOfUtil
 			int byteLen = ( (byte[]) object ).length;
 			return POINTER_SIZE * 2 + 8 + ( 4 + byteLen - 1 ) / 8 * 8;
 		}
-		else
+		else if ( objectClass.equals( BigDecimal.class ) )
+		{
+			return sizeOf( (BigDecimal) object );
+		}
+		else if ( isFixedSizeClass( objectClass ) )
 		{
 			return sizeOf( objectClass );
 		}
+		else
+		{
+			return SampledSizeOf.sizeOf( object );
+		}
+	}
+
+	/**
+	 * Return the size of memory occupied by a decimal, the unscaled values of
+	 * up to 18 digits are kept in a long and the others in a BigInteger.
+	 * 
+	 * @param decimal
+	 * @return
+	 */
+	private static int sizeOf( BigDecimal decimal )
+	{
+		if ( decimal.precision( ) <= 18 )
+		{
+			return BIGDECIMAL_OVERHEAD;
+		}
+		int magnitudeLength = ( decimal.unscaledValue( ).bitLength( ) + 31 ) / 32;
+		return BIGDECIMAL_OVERHEAD
+				+ BIGINTEGER_OVERHEAD
+				+ align( PRIMITIVE_ARRAY_OVERHEAD + magnitudeLength * 4 );
+	}
+
+	private static int align( int size )
+	{
+		return ( size + 7 ) / 8 * 8;
 	}
 
 }
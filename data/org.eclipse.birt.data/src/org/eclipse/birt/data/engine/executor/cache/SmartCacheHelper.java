@@ -12,10 +12,12 @@
 package org.eclipse.birt.data.engine.executor.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.logging.Logger;
 
+import org.eclipse.birt.data.engine.api.IResultSetMemoryListener;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ResultObject;
 import org.eclipse.birt.data.engine.executor.cache.disk.DiskCache;
@@ -306,6 +308,12 @@ class SmartCacheHelper
 				: CacheUtil.computeMemoryBufferSize( eventHandler.getAppContext( ) );
 		int maxRows = CacheUtil.getMaxRows( eventHandler == null ? null
 				: eventHandler.getAppContext( ) );
+		ColumnarMemoryCache columnarCache = CacheUtil.isColumnarResultBuffer( eventHandler == null
+				? null : eventHandler.getAppContext( ) )
+				? new ColumnarMemoryCache( rsMeta ) : null;
+		IResultSetMemoryListener memoryListener = CacheUtil.getResultSetMemoryListener( eventHandler == null
+				? null : eventHandler.getAppContext( ) );
+		boolean measureMemory = memoryCacheSize != 0 || memoryListener != null;
 		
 		IResultObject odaObject;
 		IResultObject[] resultObjects;
@@ -327,7 +335,20 @@ class SmartCacheHelper
 				//the followed variable is for performance
 				int odaObjectFieldCount = odaObject.getResultClass( ).getFieldCount( );
 				int metaFieldCount = rsMeta.getFieldCount( );
-				if(odaObjectFieldCount < metaFieldCount)
+				if ( columnarCache != null
+						&& odaObjectFieldCount > metaFieldCount )
+				{
+					// the rows with the extra fields are kept as they are
+					resultObjectsList.addAll( Arrays.asList( columnarCache.getResultObjects( ) ) );
+					columnarCache = null;
+				}
+				if ( columnarCache != null )
+				{
+					columnarCache.add( odaObject );
+					if ( measureMemory )
+						usedMemorySize = columnarCache.getMemorySize( );
+				}
+				else if(odaObjectFieldCount < metaFieldCount)
 				{
 					//Populate Data according to the given meta data.
 					Object[] obs = new Object[metaFieldCount];
@@ -337,13 +358,13 @@ class SmartCacheHelper
 					}
 					ResultObject temp = new ResultObject( rsMeta, obs );
 					resultObjectsList.add( temp );
-					if( memoryCacheSize != 0 )
+					if ( measureMemory )
 						usedMemorySize += sizeOfUtil.sizeOf( temp );
 				}
 				else
 				{
 					resultObjectsList.add( odaObject );
-					if( memoryCacheSize != 0 )
+					if ( measureMemory )
 						usedMemorySize += sizeOfUtil.sizeOf( odaObject );
 				}
 				
@@ -351,8 +372,20 @@ class SmartCacheHelper
 			else
 			{
 				logger.fine( "DiskCache is used" );
+				if ( memoryListener != null )
+					memoryListener.resultSetCached( dataCount,
+							usedMemorySize,
+							true );
 
+				if ( columnarCache != null )
+				{
+					resultObjectsList.addAll( Arrays.asList( columnarCache.getResultObjects( ) ) );
+					columnarCache = null;
+				}
 				resultObjects = (IResultObject[]) resultObjectsList.toArray( new IResultObject[0] );
+				// the disk cache releases the rows of the array once they
+				// are exported, the list should not keep them either
+				resultObjectsList.clear( );
 				// the order is: resultObjects, odaObject, rowResultSet
 				resultSetCache = new DiskCache( resultObjects,
 						odaObject,
@@ -361,20 +394,51 @@ class SmartCacheHelper
 						getComparator( sortSpec, eventHandler ),
 						dataCount,
 						maxRows,
-						this.session );
+						this.session,
+						eventHandler == null ? null
+								: eventHandler.getAppContext( ) );
 				break;
 			}
 		}
 
-		if ( resultSetCache == null )
+		if ( resultSetCache == null && columnarCache != null )
+		{
+			logger.fine( "ColumnarMemoryCache is used" );
+
+			boolean sorted = false;
+			if ( HashGroupSorter.accept( sortSpec ) )
+			{
+				IResultObject[] columnarObjects = columnarCache.getResultObjects( );
+				sorted = HashGroupSorter.sort( columnarObjects,
+						sortSpec,
+						eventHandler );
+				if ( sorted )
+					columnarCache.sort( columnarObjects );
+			}
+			if ( !sorted )
+				columnarCache.sort( getComparator( sortSpec, eventHandler ) );
+			resultSetCache = columnarCache;
+			if ( memoryListener != null )
+				memoryListener.resultSetCached( dataCount,
+						columnarCache.getMemorySize( ),
+						false );
+		}
+		else if ( resultSetCache == null )
 		{
 			logger.fine( "MemoryCache is used" );
+			if ( memoryListener != null )
+				memoryListener.resultSetCached( dataCount,
+						usedMemorySize,
+						false );
 
 			resultObjects = (IResultObject[]) resultObjectsList.toArray( new IResultObject[0] );
 
+			// the rows which are sorted by hashing their group keys need no
+			// comparator
 			resultSetCache = new MemoryCache( resultObjects,
 					rsMeta,
-					getComparator( sortSpec, eventHandler ) );
+					HashGroupSorter.sort( resultObjects, sortSpec, eventHandler )
+							? null : getComparator( sortSpec, eventHandler ) );
 		}
 
 		odaObject = null;
@@ -391,7 +455,7 @@ class SmartCacheHelper
 	 * @return Comparator based on specified sortSpec, null indicates there is
 	 *         no need to do sorting
 	 */
-	private static Comparator getComparator( SortSpec sortSpec,
+	static Comparator getComparator( SortSpec sortSpec,
 			final IEventHandler eventHandler )
 	{
 		if ( sortSpec == null )
@@ -23,6 +23,7 @@ public class SortSpec
 	private String[] sortKeyColumns;
 	private int[] sortAscending;
 	private CompareHints[] comparator;
+	private int groupKeyCount;
 
     public static final int SORT_DISABLE = IGroupDefinition.NO_SORT; 
     public static final int SORT_ASC = IGroupDefinition.SORT_ASC; 
@@ -40,6 +41,21 @@ public class SortSpec
 		this.setSortAscending( sortAscending );
 		this.setComparator( comparator );
 	}
+
+	/**
+	 * @param sortKeyIndexes
+	 * @param sortKeyColumns
+	 * @param sortAscending
+	 * @param comparator
+	 * @param groupKeyCount
+	 *            the number of the first sort keys which are group keys
+	 */
+	public SortSpec( int[] sortKeyIndexes, String[] sortKeyColumns,
+			int[] sortAscending, CompareHints[] comparator, int groupKeyCount )
+	{
+		this( sortKeyIndexes, sortKeyColumns, sortAscending, comparator );
+		this.groupKeyCount = groupKeyCount;
+	}
 	
 	/**
 	 * @return
@@ -91,5 +107,13 @@ public class SortSpec
 	{
 		return sortKeyIndexes;
 	}
+
+	/**
+	 * @return the number of the first sort keys which are group keys
+	 */
+	public int getGroupKeyCount( )
+	{
+		return groupKeyCount;
+	}
 	
 }
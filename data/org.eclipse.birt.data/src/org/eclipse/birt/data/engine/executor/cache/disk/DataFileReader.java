@@ -18,20 +18,26 @@ import java.io.IOException;
 
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.core.security.FileSecurity;
+import org.eclipse.birt.data.engine.executor.cache.CompactRowReader;
 import org.eclipse.birt.data.engine.executor.cache.ResultObjectUtil;
 import org.eclipse.birt.data.engine.odi.IResultObject;
 
 /**
  * A utility file reader handler, which keeps the file stream and input stream
- * for reading data.
+ * for reading data. The rows are read from the compact row format.
  */
 class DataFileReader
 {
+	// the size of the read buffer, large enough for the sequential reads of
+	// the files merged at the same time
+	static final int BUFFER_SIZE = 32 * 1024;
+
 	private File file;
 	private boolean isOpen;
 
 	private FileInputStream fis;
 	private BufferedInputStream bis;
+	private CompactRowReader rowReader;
 
 	private ResultObjectUtil resultObjectUtil;
 	
@@ -46,7 +52,7 @@ class DataFileReader
 	{
 		return new DataFileReader( file, resultObjectUtil );
 	}
-	
+
 	/**
 	 * Construction
 	 * 
@@ -97,11 +103,14 @@ class DataFileReader
 				// normally this exception will never be thrown
 				// since file will always exist
 			}
-			bis = new BufferedInputStream( fis );
+			bis = new BufferedInputStream( fis, BUFFER_SIZE );
+			if ( !CompactRowReader.readHeader( bis ) )
+				throw new IOException( "Not a row file: " + file );
+			rowReader = resultObjectUtil.newCompactRowReader( bis, null );
 			isOpen = true;
 		}
 
-		return resultObjectUtil.readData( bis, null, length );
+		return resultObjectUtil.readData( rowReader, length );
 	}
 
 	/**
@@ -115,6 +124,8 @@ class DataFileReader
 		{
 			try
 			{
+				rowReader.close( );
+				rowReader = null;
 				bis.close( );
 				fis.close( );
 				isOpen = false;
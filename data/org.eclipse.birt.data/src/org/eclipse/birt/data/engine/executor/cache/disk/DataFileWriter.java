@@ -18,20 +18,23 @@ import java.io.IOException;
 
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.core.security.FileSecurity;
+import org.eclipse.birt.data.engine.executor.cache.CompactRowWriter;
 import org.eclipse.birt.data.engine.executor.cache.ResultObjectUtil;
 import org.eclipse.birt.data.engine.odi.IResultObject;
 
 /**
  * A utility file writer handler, which keeps the file stream and output stream
- * for reading data.
+ * for reading data. The rows are written in the compact row format.
  */
 class DataFileWriter
 {
 	private File file;
 	private boolean isOpen;
+	private boolean compressed;
 
 	private FileOutputStream fos;
 	private BufferedOutputStream bos;
+	private CompactRowWriter rowWriter;
 
 	private ResultObjectUtil resultObjectUtil;
 	
@@ -47,6 +50,24 @@ class DataFileWriter
 		return new DataFileWriter( file, resultObjectUtil );
 	}
 
+	/**
+	 * A util method to new instance of DataFileWriter
+	 * 
+	 * @param file
+	 * @param resultObjectUtil
+	 * @param compressed
+	 *            whether the blocks of rows are compressed with the fastest
+	 *            deflate level
+	 * @return DataFileWriter instance
+	 */
+	static DataFileWriter newInstance( File file,
+			ResultObjectUtil resultObjectUtil, boolean compressed )
+	{
+		DataFileWriter writer = new DataFileWriter( file, resultObjectUtil );
+		writer.compressed = compressed;
+		return writer;
+	}
+
 	/**
 	 * Construction
 	 * 
@@ -98,11 +119,14 @@ class DataFileWriter
 				// normally this exception will never be thrown
 				// since file will always exist
 			}
-			bos = new BufferedOutputStream( fos );
+			bos = new BufferedOutputStream( fos, DataFileReader.BUFFER_SIZE );
+			rowWriter = resultObjectUtil.newCompactRowWriter( bos,
+					compressed,
+					false );
 			isOpen = true;
 		}
 
-		resultObjectUtil.writeData( bos, resultObjects, count );
+		resultObjectUtil.writeData( rowWriter, resultObjects, count );
 	}
 
 	/**
@@ -116,6 +140,8 @@ class DataFileWriter
 		{
 			try
 			{
+				rowWriter.finish( );
+				rowWriter = null;
 				bos.close( );
 				fos.close( );
 				isOpen = false;
@@ -77,6 +77,10 @@ public class DiskCache implements ResultSetCache
 	
 	private boolean needCache;
 	private BufferedStructureArray cache;
+	
+	// whether the temporary files of merge sort are compressed
+	private boolean compressTempFile;
+	
 	/**
 	 * The MemoryCacheRowCount indicates the upper limitation of how many rows
 	 * can be loaded into memory. Note this value is included as well. Look at
@@ -99,9 +103,40 @@ public class DiskCache implements ResultSetCache
 			IRowResultSet rowResultSet, IResultClass rsMeta,
 			Comparator comparator, int MemoryCacheRowCount,int maxRows, DataEngineSession session )
 			throws DataException
+	{
+		this( resultObjects,
+				resultObject,
+				rowResultSet,
+				rsMeta,
+				comparator,
+				MemoryCacheRowCount,
+				maxRows,
+				session,
+				null );
+	}
+	
+	/**
+	 * @param resultObjects
+	 * @param resultObject
+	 * @param rowResultSet
+	 * @param rsMeta
+	 * @param comparator
+	 * @param MemoryCacheRowCount
+	 * @param maxRows
+	 * @param session
+	 * @param appContext
+	 *            the application context of the query, which decides whether
+	 *            the temporary files of merge sort are compressed
+	 * @throws DataException
+	 */
+	public DiskCache( IResultObject[] resultObjects, IResultObject resultObject,
+			IRowResultSet rowResultSet, IResultClass rsMeta,
+			Comparator comparator, int MemoryCacheRowCount, int maxRows,
+			DataEngineSession session, Map appContext ) throws DataException
 	{
 		//this.rsMeta = rsMeta;
 		this.MemoryCacheRowCount = MemoryCacheRowCount;
+		this.compressTempFile = CacheUtil.isSortRunCompressed( appContext );
 		this.rsMeta = rsMeta;
 		this.session = session;
 		this.diskBasedResultSet = new DiskCacheResultSet( getInfoMap( ), session );
@@ -359,6 +394,7 @@ public class DiskCache implements ResultSetCache
 		goalFileStr = getGoalFileStr( );
 		infoMap.put( "goalFile", goalFileStr );
 		infoMap.put( "dataCountOfUnit", "" + MemoryCacheRowCount );
+		infoMap.put( "compressTempFile", String.valueOf( compressTempFile ) );
 
 		return infoMap;
 	}
@@ -13,11 +13,20 @@ package org.eclipse.birt.data.engine.executor.cache.disk;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.DaemonThreadFactory;
 import org.eclipse.birt.data.engine.executor.cache.IRowResultSet;
 import org.eclipse.birt.data.engine.executor.cache.ResultObjectUtil;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
@@ -29,6 +38,16 @@ import org.eclipse.birt.data.engine.odi.IResultObject;
  */
 class DiskSortExport2 extends DiskDataExport
 {
+	private static final int PROCESSORS = Runtime.getRuntime( )
+			.availableProcessors( );
+
+	// the threads writing the sorted runs to the temp files, shared by all the
+	// sorts. They are used only if there is more than one processor. There is
+	// one thread less than the processors, and when all of them are busy the
+	// sort writes its run itself rather than queuing it.
+	private static ExecutorService runWriters = PROCESSORS > 1
+			? createRunWriters( ) : null;
+
 	private int dataCountOfUnit;
 	private int dataCountOfTotal;
 
@@ -39,11 +58,19 @@ class DiskSortExport2 extends DiskDataExport
 	// private SortDataProvider dataProvider;
 	private MergeSortUtil mergeSortUtil;
 
-	// buffer for merger sort. The lentgh of objectBuffer is dataCountOfUnit
+	// buffer of the rows of the current run
 	private IResultObject[] rowBuffer = null;
 	
-	// The positions from 0 to rowBufferPtr of buffer are free.
-	private int inMemoryPos;
+	// the count of rows in the buffer
+	private int rowBufferCount;
+	
+	// the count of rows of a run. When the runs are written by another
+	// thread, two runs are in memory at the same time and each of them has
+	// half of the rows which can be accommodated.
+	private int dataCountOfRun;
+	
+	// the run being written by another thread
+	private Future pendingRun;
 
 	// the goal file
 	private IRowIterator goalRowIterator = null;
@@ -63,26 +90,66 @@ class DiskSortExport2 extends DiskDataExport
 					+ ", and then merge sort on file can not be done" );
 		}
 
-		rowBuffer = new IResultObject[dataCountOfUnit];
+		dataCountOfRun = runWriters == null || dataCountOfUnit < 4
+				? dataCountOfUnit : dataCountOfUnit / 2;
 
 		tempFileUtil = new MergeTempFileUtil( (String) ( infoMap.get( "tempDir" ) ),
-				resultObjectUtil );
+				resultObjectUtil,
+				"true".equals( infoMap.get( "compressTempFile" ) ) );
 
 		mergeSortUtil = MergeSortUtil.getUtil( comparator );
 		
 		this.currRowFiles = new ArrayList( );
-		this.inMemoryPos = -1;
 	}
 
-	/*
+	/**
+	 * The start rows are split into the runs of the same size as the later
+	 * ones, so that no more than two runs are in memory when the runs are
+	 * written by another thread. The rows are released from the array once
+	 * they are copied into the runs.
+	 * 
 	 * @see org.eclipse.birt.data.engine.executor.resultset.DataBaseExport#exportStartDataToDisk(org.eclipse.birt.data.engine.executor.ResultObject[])
 	 */
 	public void exportStartDataToDisk( IResultObject[] resultObjects )
-			throws IOException
+			throws IOException, DataException
 	{
 		dataCountOfTotal = resultObjects.length;
-		System.arraycopy( resultObjects, 0, rowBuffer, 0, resultObjects.length );
-		inMemoryPos = this.dataCountOfUnit - 1;
+		if ( resultObjects.length <= dataCountOfRun )
+		{
+			rowBuffer = resultObjects;
+			rowBufferCount = resultObjects.length;
+			return;
+		}
+		int start = 0;
+		try
+		{
+			while ( resultObjects.length - start > dataCountOfRun )
+			{
+				rowBuffer = new IResultObject[dataCountOfRun];
+				System.arraycopy( resultObjects,
+						start,
+						rowBuffer,
+						0,
+						dataCountOfRun );
+				rowBufferCount = dataCountOfRun;
+				writeRun( );
+				start += dataCountOfRun;
+			}
+		}
+		catch ( IOException ie )
+		{
+			closeRowFiles( );
+			throw ie;
+		}
+		catch ( DataException de )
+		{
+			closeRowFiles( );
+			throw de;
+		}
+		rowBuffer = new IResultObject[dataCountOfRun];
+		rowBufferCount = resultObjects.length - start;
+		System.arraycopy( resultObjects, start, rowBuffer, 0, rowBufferCount );
+		Arrays.fill( resultObjects, null );
 	}
 
 	/*
@@ -110,16 +177,37 @@ class DiskSortExport2 extends DiskDataExport
 		}
 		catch( IOException ie )
 		{
-			for( int i = 0; i < currRowFiles.size( ); i++ )
-			{
-				( ( RowFile )currRowFiles.get( i ) ).close( );
-			}
+			closeRowFiles( );
 			throw ie;
 		}
+		catch( DataException de )
+		{
+			closeRowFiles( );
+			throw de;
+		}
 
 		return dataCountOfRest;
 	}
 
+	/**
+	 * Close the temp files after the run being written is done.
+	 */
+	private void closeRowFiles( )
+	{
+		try
+		{
+			waitForPendingRun( );
+		}
+		catch ( Exception e )
+		{
+			// the exception of the run is superseded by the thrown one
+		}
+		for( int i = 0; i < currRowFiles.size( ); i++ )
+		{
+			( ( RowFile )currRowFiles.get( i ) ).close( );
+		}
+	}
+
 	/*
 	 * A util method for sub class
 	 * 
@@ -164,86 +252,127 @@ class DiskSortExport2 extends DiskDataExport
 	 */
 	private void addNewRow( IResultObject resultObject ) throws IOException, DataException
 	{
-		if ( inMemoryPos == dataCountOfUnit - 1 )
+		if ( rowBufferCount == rowBuffer.length )
 		{
-			prepareNewTempRowFile( 0 );
-			mergeSortUtil.sortSelf( rowBuffer );
-			inMemoryPos = -1;
+			writeRun( );
+			rowBuffer = new IResultObject[dataCountOfRun];
+			rowBufferCount = 0;
 		}
 		
-		inMemoryPos++;
-		getCurrTempFile( currRowFiles ).write( rowBuffer[inMemoryPos] );
-
-		rowBuffer[inMemoryPos] = resultObject;
+		rowBuffer[rowBufferCount++] = resultObject;
 	}
 	
 	/**
+	 * Sort the full buffer in the current thread since the comparator might
+	 * evaluate the sort keys with the script context of this thread, and write
+	 * it to a new temp file in another thread while the next run is fetched.
+	 * 
 	 * @throws IOException
-	 * @throws DataException 
+	 * @throws DataException
 	 */
-	private void processLastUnit( ) throws IOException, DataException
+	private void writeRun( ) throws IOException, DataException
 	{
-		// Now all the rest rows exist in memory.
-		rowBuffer = interchange( rowBuffer, inMemoryPos );
-		mergeSortUtil.sortSelf( rowBuffer );
-		
-		int cacheSize = 0;
-		if ( currRowFiles.size( ) <= dataCountOfUnit )
-			cacheSize = dataCountOfUnit - currRowFiles.size( );
-		prepareNewTempRowFile( cacheSize );
+		final IResultObject[] sortedRows = rowBuffer;
+		mergeSortUtil.sortSelf( sortedRows );
 		
-		// Output the rest rows
-		inMemoryPos = -1;
-		getCurrTempFile( currRowFiles ).writeRows( rowBuffer, rowBuffer.length );
-		getCurrTempFile( currRowFiles ).endWrite( );
-	}
+		waitForPendingRun( );
+		final RowFile rowFile = tempFileUtil.newTempFile( 0 );
+		currRowFiles.add( rowFile );
+		if ( runWriters == null )
+		{
+			rowFile.writeRows( sortedRows, sortedRows.length );
+			rowFile.endWrite( );
+			return;
+		}
+		pendingRun = runWriters.submit( new Callable( ) {
 
+			public Object call( ) throws Exception
+			{
+				rowFile.writeRows( sortedRows, sortedRows.length );
+				rowFile.endWrite( );
+				return null;
+			}
+		} );
+	}
+	
 	/**
-	 * To switch the place of rows in array by a postion.
+	 * Creates the bounded pool of the threads writing the runs.
 	 * 
-	 * @param objectArray
-	 * @param position
 	 * @return
 	 */
-	private static IResultObject[] interchange( IResultObject[] objectArray,
-			int position )
+	private static ExecutorService createRunWriters( )
 	{
-		IResultObject[] tempBuffer = new IResultObject[objectArray.length];
-		System.arraycopy( objectArray,
-				position + 1,
-				tempBuffer,
-				0,
-				objectArray.length - ( position + 1 ) );
-		System.arraycopy( objectArray, 0, tempBuffer, objectArray.length
-				- ( position + 1 ), ( position + 1 ) );
-		return tempBuffer;
+		ThreadPoolExecutor executor = new ThreadPoolExecutor( PROCESSORS - 1,
+				PROCESSORS - 1,
+				60,
+				TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>( ),
+				new DaemonThreadFactory( "BIRT Disk Sort Writer" ),
+				new ThreadPoolExecutor.CallerRunsPolicy( ) );
+		executor.allowCoreThreadTimeOut( true );
+		return executor;
 	}
 	
 	/**
-	 * End write operation of the last temporary file and create a new temporary
-	 * file and initialize row buffer.
+	 * Wait until the run being written by another thread is done.
 	 * 
-	 * @param cacheSize
+	 * @throws IOException
+	 * @throws DataException
 	 */
-	private void prepareNewTempRowFile( int cacheSize )
+	private void waitForPendingRun( ) throws IOException, DataException
 	{
-		if ( currRowFiles.size( ) > 0 )
+		if ( pendingRun == null )
+			return;
+		Future run = pendingRun;
+		pendingRun = null;
+		try
 		{
-			RowFile lastRowFile = (RowFile) ( currRowFiles.get( currRowFiles.size( ) - 1 ) );
-			lastRowFile.endWrite( );
+			run.get( );
+		}
+		catch ( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+			throw new DataException( ResourceConstants.WRITE_TEMPFILE_ERROR, e );
+		}
+		catch ( ExecutionException e )
+		{
+			Throwable cause = e.getCause( );
+			if ( cause instanceof IOException )
+				throw (IOException) cause;
+			if ( cause instanceof DataException )
+				throw (DataException) cause;
+			throw new DataException( ResourceConstants.WRITE_TEMPFILE_ERROR,
+					cause );
 		}
-
-		RowFile rowFile = tempFileUtil.newTempFile( cacheSize );
-		currRowFiles.add( rowFile );
 	}
 	
 	/**
-	 * 
-	 * @return
+	 * @throws IOException
+	 * @throws DataException 
 	 */
-	private static RowFile getCurrTempFile( List files )
+	private void processLastUnit( ) throws IOException, DataException
 	{
-		return (RowFile) ( files.get( files.size( ) - 1 ) );
+		// Now all the rest rows exist in memory.
+		IResultObject[] lastRows = rowBuffer;
+		if ( rowBufferCount < rowBuffer.length )
+		{
+			lastRows = new IResultObject[rowBufferCount];
+			System.arraycopy( rowBuffer, 0, lastRows, 0, rowBufferCount );
+		}
+		rowBuffer = null;
+		mergeSortUtil.sortSelf( lastRows );
+		waitForPendingRun( );
+		
+		// the last run is kept in memory as much as possible
+		int cacheSize = 0;
+		if ( currRowFiles.size( ) <= dataCountOfUnit )
+			cacheSize = dataCountOfUnit - currRowFiles.size( );
+		RowFile rowFile = tempFileUtil.newTempFile( cacheSize );
+		currRowFiles.add( rowFile );
+		
+		// Output the rest rows
+		rowFile.writeRows( lastRows, lastRows.length );
+		rowFile.endWrite( );
 	}
 
 	/*
@@ -12,7 +12,6 @@
 package org.eclipse.birt.data.engine.executor.cache.disk;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Comparator;
 
 import org.eclipse.birt.data.engine.core.DataException;
@@ -27,8 +26,8 @@ class MergeSortRowFiles implements IRowIterator
 {
 	private IRowIterator[] subRowIterators = null;
 	private MergeSortUtil mergeSortUtil = null;
+	// the binary heap of the current rows of the files
 	private ValueIndex[] rowBuffer = null;
-	private ValueIndex mValueIndex = null;
 	private int rowBufferSize = 0;
 	
 	/**
@@ -42,7 +41,6 @@ class MergeSortRowFiles implements IRowIterator
 		
 		this.subRowIterators = subRowIterators;
 		this.mergeSortUtil = mergeSortUtil;
-		this.mValueIndex = new ValueIndex( null, 0, mergeSortUtil.getComparator( ) );
 	}
 	
 	/*
@@ -74,6 +72,8 @@ class MergeSortRowFiles implements IRowIterator
 			return null;
 		}
 		
+		// the smallest row is at the top of the heap, which is replaced by the
+		// next row of the same file
 		ValueIndex reObj = rowBuffer[0];
 		IResultObject value = reObj.value;
 		
@@ -81,35 +81,16 @@ class MergeSortRowFiles implements IRowIterator
 		if( readValue == null )
 		{
 			rowBufferSize--;
-			if( rowBufferSize > 0 )
-			{
-				ValueIndex[] tBuffer = new ValueIndex[rowBufferSize];
-				System.arraycopy( rowBuffer, 1, tBuffer, 0, rowBufferSize );
-				rowBuffer = tBuffer;
-			}
+			rowBuffer[0] = rowBuffer[rowBufferSize];
+			rowBuffer[rowBufferSize] = null;
 		}
 		else
 		{
-			int pos = 0;
-			mValueIndex.value = readValue;
-			mValueIndex.index = reObj.index;
-			if( rowBufferSize > 1 )
-			{
-				pos = Arrays.binarySearch( rowBuffer, mValueIndex );
-				
-				if( pos < 0 )
-					pos = ( pos + 1 ) * -1;
-				pos--;
-				if( pos == -1 )
-					pos = 0;
-
-				if( pos > 0 )
-				{
-					System.arraycopy( rowBuffer, 1 , rowBuffer, 0, pos );
-				}
-			}
-			rowBuffer[pos] = mValueIndex;
-			mValueIndex = reObj;
+			reObj.value = readValue;
+		}
+		if ( rowBufferSize > 1 )
+		{
+			siftDown( 0 );
 		}
 		return value;
 	}
@@ -122,23 +103,45 @@ class MergeSortRowFiles implements IRowIterator
 	{
 		rowBuffer = new ValueIndex[subRowIterators.length];
 		
+		rowBufferSize = 0;
 		for ( int i = 0; i < rowBuffer.length; i++ )
 		{
 			IResultObject value = subRowIterators[i].fetch( );
 			if( value != null )
-				rowBuffer[i] = new ValueIndex( value, i, this.mergeSortUtil.getComparator( ) );;
+				rowBuffer[rowBufferSize++] = new ValueIndex( value, i, this.mergeSortUtil.getComparator( ) );
 		}
-		rowBufferSize = 0;
-		for ( int i = 0; i < rowBuffer.length; i++ )
+		for ( int i = rowBufferSize / 2 - 1; i >= 0; i-- )
 		{
-			if( rowBuffer[i] != null )
+			siftDown( i );
+		}
+	}
+	
+	/**
+	 * Move the row at the position down the heap until it is not greater than
+	 * its children.
+	 * 
+	 * @param pos
+	 */
+	private void siftDown( int pos )
+	{
+		ValueIndex valueIndex = rowBuffer[pos];
+		int half = rowBufferSize / 2;
+		while ( pos < half )
+		{
+			int child = 2 * pos + 1;
+			if ( child + 1 < rowBufferSize
+					&& rowBuffer[child + 1].compareTo( rowBuffer[child] ) < 0 )
 			{
-				rowBuffer[rowBufferSize] = rowBuffer[i];
-				rowBufferSize++;
+				child++;
 			}
+			if ( valueIndex.compareTo( rowBuffer[child] ) <= 0 )
+			{
+				break;
+			}
+			rowBuffer[pos] = rowBuffer[child];
+			pos = child;
 		}
-		Arrays.sort( rowBuffer, 0, rowBufferSize );
-		
+		rowBuffer[pos] = valueIndex;
 	}
 	
 	/*
@@ -26,6 +26,9 @@ class MergeTempFileUtil
 	
 	// result object util
 	private ResultObjectUtil resultObjectUtil;
+	
+	// whether the temp files are compressed
+	private boolean compressed;
 
 	// record current level and index of temp file. They are used to produce
 	// file name for temp file.
@@ -48,6 +51,18 @@ class MergeTempFileUtil
 		if ( FileSecurity.fileExist( tempDir ) == false )
 			FileSecurity.fileMakeDirs( tempDir );
 	}
+	
+	/**
+	 * @param tempDirStr
+	 * @param resultObjectUtil
+	 * @param compressed
+	 */
+	MergeTempFileUtil( String tempDirStr, ResultObjectUtil resultObjectUtil,
+			boolean compressed )
+	{
+		this( tempDirStr, resultObjectUtil );
+		this.compressed = compressed;
+	}
 
 	/**
 	 * Get temp file for external sorting, template file is automatic
@@ -62,7 +77,8 @@ class MergeTempFileUtil
 		return new RowFile( new File( tempDirStr, tempFilePrefix
 				+ "_" + curLevel + "_" + curIndex++ ),
 				resultObjectUtil,
-				cacheSize );
+				cacheSize,
+				compressed );
 	}
 	
 	/**
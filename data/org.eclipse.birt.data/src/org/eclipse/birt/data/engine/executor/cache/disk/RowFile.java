@@ -39,6 +39,8 @@ class RowFile implements IRowIterator, ICloseListener
 	private DataFileReader dfr = null;
 	private DataFileWriter dfw = null;
 	
+	private boolean compressed;
+	
 	/**
 	 * 
 	 * @param file
@@ -55,6 +57,21 @@ class RowFile implements IRowIterator, ICloseListener
 		DataEngineThreadLocal.getInstance( ).getCloseListener( ).add( this );
 	}
 	
+	/**
+	 * 
+	 * @param file
+	 * @param resultObjectUtil
+	 * @param cacheSize
+	 * @param compressed
+	 *            whether the rows written to the file are compressed
+	 */
+	RowFile( File file, ResultObjectUtil resultObjectUtil, int cacheSize,
+			boolean compressed )
+	{
+		this( file, resultObjectUtil, cacheSize );
+		this.compressed = compressed;
+	}
+	
 	//-------------------------write-----------------------
 	/**
 	 * Set cache size and initialize cache.
@@ -164,7 +181,7 @@ class RowFile implements IRowIterator, ICloseListener
 	 */
 	private void createWriter( )
 	{
-		dfw = DataFileWriter.newInstance( tempFile, resultObjectUtil );
+		dfw = DataFileWriter.newInstance( tempFile, resultObjectUtil, compressed );
 	}
 
 	/**
@@ -47,6 +47,8 @@ import org.eclipse.birt.data.engine.executor.MemoryDataSetCacheObject;
 import org.eclipse.birt.data.engine.executor.ResultClass;
 import org.eclipse.birt.data.engine.executor.ResultObject;
 import org.eclipse.birt.data.engine.executor.cache.CacheUtil;
+import org.eclipse.birt.data.engine.executor.cache.CompactRowReader;
+import org.eclipse.birt.data.engine.executor.cache.CompactRowWriter;
 import org.eclipse.birt.data.engine.executor.cache.ResultObjectUtil;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.impl.DataEngineSession;
@@ -136,7 +138,8 @@ class CacheUtilFactory
 	
 	/**
 	 * Util class to save the original data retrieved from ODA driver into cache
-	 * file.
+	 * file. The rows are saved in the compact row format with the compressed
+	 * blocks.
 	 */
 	private static class DiskSaveUtil implements ISaveUtil
 	{
@@ -147,6 +150,7 @@ class CacheUtilFactory
 		
 		private IResultClass rsClass;
 		private ResultObjectUtil roUtil;
+		private CompactRowWriter rowWriter;
 		
 		private int rowCount;
 		private String tempFolder;
@@ -184,8 +188,9 @@ class CacheUtilFactory
 				{
 					fos = FileSecurity.createFileOutputStream( file );
 					bos = new BufferedOutputStream( fos );
+					rowWriter = roUtil.newCompactRowWriter( bos, true, false );
 				}
-				catch ( FileNotFoundException e )
+				catch ( IOException e )
 				{
 					throw new DataException( ResourceConstants.DATASETCACHE_SAVE_ERROR,
 							e );
@@ -195,7 +200,7 @@ class CacheUtilFactory
 			try
 			{
 				rowCount ++;
-				roUtil.writeData( bos, resultObject );
+				rowWriter.write( resultObject );
 			}
 			catch ( IOException e )
 			{
@@ -213,6 +218,7 @@ class CacheUtilFactory
 			{
 				if ( bos != null )
 				{
+					rowWriter.finish( );
 					bos.close( );
 					fos.close( );
 				}
@@ -516,6 +522,7 @@ class CacheUtilFactory
 		private BufferedInputStream bis;
 		
 		private ResultObjectUtil roUtil;
+		private CompactRowReader rowReader;
 		private IResultClass rsClass;
 		
 		private DiskDataSetCacheObject cacheObject;
@@ -556,6 +563,8 @@ class CacheUtilFactory
 					return null;
 				
 				currIndex++;
+				if ( rowReader != null )
+					return roUtil.readData( rowReader, 1 )[0];
 				return roUtil.readData( bis, this.session.getEngineContext( ).getClassLoader( ), 1 )[0];
 			}
 			catch ( IOException e )
@@ -598,6 +607,12 @@ class CacheUtilFactory
 					roUtil = ResultObjectUtil.newInstance( rsClass, session );
 					fis = FileSecurity.createFileInputStream( file );
 					bis = new BufferedInputStream( fis );
+					// the file saved by the earlier version is not in the
+					// compact row format
+					if ( CompactRowReader.readHeader( bis ) )
+						rowReader = roUtil.newCompactRowReader( bis,
+								this.session.getEngineContext( )
+										.getClassLoader( ) );
 				}
 			}
 			catch ( FileNotFoundException e )
@@ -617,6 +632,11 @@ class CacheUtilFactory
 		 */
 		public void close( ) throws DataException
 		{
+			if ( rowReader != null )
+			{
+				rowReader.close( );
+				rowReader = null;
+			}
 			if ( bis != null )
 			{
 				try
@@ -956,6 +976,27 @@ class CacheUtilFactory
 		}
 	}
 
+	/**
+	 * Whether the rows in the cache file are saved in the compact row format.
+	 * 
+	 * @param dataFile
+	 * @return
+	 * @throws IOException
+	 */
+	private static boolean isCompactRowFile( File dataFile )
+			throws IOException, DataException
+	{
+		BufferedInputStream bis = new BufferedInputStream( FileSecurity.createFileInputStream( dataFile ) );
+		try
+		{
+			return CompactRowReader.readHeader( bis );
+		}
+		finally
+		{
+			bis.close( );
+		}
+	}
+
 	/**
 	 * Util class to help merge delta data with the local existed data and
 	 * update the revalent information in cache file.
@@ -971,6 +1012,7 @@ class CacheUtilFactory
 		private BufferedOutputStream bos;
 
 		private ResultObjectUtil roUtil;
+		private CompactRowWriter rowWriter;
 
 		private int rowCount;
 		private DataEngineSession session;
@@ -1039,10 +1081,19 @@ class CacheUtilFactory
 				roUtil = ResultObjectUtil.newInstance( rsClass, session );
 				try
 				{
+					// the rows are appended in the format of the saved rows,
+					// which is not the compact row format if they are saved
+					// by the earlier version
+					boolean append = rowCount > 0;
+					boolean compact = !append || isCompactRowFile( dataFile );
 					fos = FileSecurity.createFileOutputStream( dataFile, true );
 					bos = new BufferedOutputStream( fos );
+					if ( compact )
+						rowWriter = roUtil.newCompactRowWriter( bos,
+								true,
+								append );
 				}
-				catch ( FileNotFoundException e )
+				catch ( IOException e )
 				{
 					throw new DataException( ResourceConstants.DATASETCACHE_SAVE_ERROR,
 							e );
@@ -1052,7 +1103,10 @@ class CacheUtilFactory
 			try
 			{
 				rowCount++;
-				roUtil.writeData( bos, resultObject );
+				if ( rowWriter != null )
+					rowWriter.write( resultObject );
+				else
+					roUtil.writeData( bos, resultObject );
 			}
 			catch ( IOException e )
 			{
@@ -1072,6 +1126,8 @@ class CacheUtilFactory
 			{
 				if ( bos != null )
 				{
+					if ( rowWriter != null )
+						rowWriter.finish( );
 					bos.close( );
 					fos.close( );
 				}
@@ -271,9 +271,11 @@ public class DataSetToCache
 	{
 		if ( saveUtil != null )
 		{
-			getDataSetCacheManager( ).saveFinished( dataSetCachedObject );
+			// the cache is put into the cache map after its files are closed
+			// so that its size can be measured
 			saveUtil.close( );
 			saveUtil = null;
+			getDataSetCacheManager( ).saveFinished( dataSetCachedObject );
 		}
 	}
 
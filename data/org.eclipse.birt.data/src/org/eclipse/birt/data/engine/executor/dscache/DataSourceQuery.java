@@ -161,7 +161,8 @@ public class DataSourceQuery extends BaseQuery
 			Strategy strategy = QueryExecutionStrategyUtil.getQueryExecutionStrategy( this.session, queryDefn,
 					queryDefn.getDataSetName( ) == null
 					? null
-					: ( (DataEngineImpl) this.session.getEngine( ) ).getDataSetDesign( queryDefn.getDataSetName( ) ) );
+					: ( (DataEngineImpl) this.session.getEngine( ) ).getDataSetDesign( queryDefn.getDataSetName( ) ) ,
+						eventHandler == null ? null : eventHandler.getAppContext( ) );
 			if ( strategy  != Strategy.Complex )
 			{
 				SimpleResultSet simpleResult = new SimpleResultSet( this,
@@ -370,7 +370,13 @@ public class GroupCalculationUtil
 			comparator[groupCount + i] = new CompareHints( query.getOrdering( )[i].getComparator( ), null );
 		}
 
-		return new SortSpec( sortKeyIndexes, sortKeyColumns, sortAscending, comparator );
+		// the rows can be grouped by hashing the group keys when every group
+		// has a key column
+		return new SortSpec( sortKeyIndexes,
+				sortKeyColumns,
+				sortAscending,
+				comparator,
+				groupCount == groupDefs.length ? groupCount : 0 );
 	}
 	
 	private boolean needSortingOnGroupKeys( )
@@ -463,6 +463,12 @@ abstract class AbstractExpressionCompiler
 			CompiledExpression expr )
 	{
 		assert ( expr instanceof BytecodeExpression );
+		if ( expr instanceof ComplexExpression )
+		{
+			// the code generation may transform the tree, so compile the Java
+			// form first
+			( (ComplexExpression) expr ).setJavaExpression( new JavaExpressionCompiler( rowIndicator ).compile( tree ) );
+		}
 		CompilerEnvirons compilerEnv = getCompilerEnv( context );
 		Interpreter compiler = new Interpreter( );
 		Object compiledOb = compiler.compile( compilerEnv, tree, null, false );
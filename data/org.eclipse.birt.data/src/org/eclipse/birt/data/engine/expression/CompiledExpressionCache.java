@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of the compiled expressions shared by all the data engines in the
+ * JVM. An expression is identified by its text and the row indicator it is
+ * compiled with. Only the expressions which contain no aggregation are
+ * cached, since the compiled form of the others refers to the aggregate
+ * registry of their query.
+ * <p>
+ * The cached expressions are evaluated by the queries of all the engines at
+ * the same time, so their evaluation must not change them. The state which
+ * depends on a query, such as the column types checked by
+ * <code>ComplexExpression</code>, is kept for the result class it is derived
+ * from.
+ */
+public class CompiledExpressionCache
+{
+
+	private final LinkedHashMap<Key, CompiledExpression> expressions = new LinkedHashMap<Key, CompiledExpression>( 16,
+			0.75f,
+			true ) {
+
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(
+				Map.Entry<Key, CompiledExpression> eldest )
+		{
+			if ( size( ) > maxSize )
+			{
+				evictionCount++;
+				return true;
+			}
+			return false;
+		}
+	};
+
+	private int maxSize;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * @param maxSize
+	 *            the max count of the cached expressions, 0 disables the
+	 *            cache.
+	 */
+	public CompiledExpressionCache( int maxSize )
+	{
+		setMaxSize( maxSize );
+	}
+
+	/**
+	 * Set the max count of the cached expressions.
+	 *
+	 * @param maxSize
+	 *            the max count, 0 disables the cache and releases all the
+	 *            cached expressions.
+	 */
+	public synchronized void setMaxSize( int maxSize )
+	{
+		this.maxSize = maxSize < 0 ? 0 : maxSize;
+		while ( expressions.size( ) > this.maxSize )
+		{
+			expressions.remove( expressions.keySet( ).iterator( ).next( ) );
+			evictionCount++;
+		}
+	}
+
+	public synchronized int getMaxSize( )
+	{
+		return maxSize;
+	}
+
+	/**
+	 * Get the compiled expression.
+	 *
+	 * @param rowIndicator
+	 *            the name of the row object in the expression
+	 * @param text
+	 *            the text of the expression
+	 * @return the compiled expression, null if it is not cached.
+	 */
+	public synchronized CompiledExpression get( String rowIndicator,
+			String text )
+	{
+		if ( maxSize == 0 )
+			return null;
+		CompiledExpression expr = expressions.get( new Key( rowIndicator,
+				text ) );
+		if ( expr == null )
+			missCount++;
+		else
+			hitCount++;
+		return expr;
+	}
+
+	/**
+	 * Add the compiled expression into the cache.
+	 *
+	 * @param rowIndicator
+	 *            the name of the row object in the expression
+	 * @param text
+	 *            the text of the expression
+	 * @param expr
+	 *            the compiled expression, which contains no aggregation.
+	 */
+	public synchronized void put( String rowIndicator, String text,
+			CompiledExpression expr )
+	{
+		if ( maxSize == 0 )
+			return;
+		expressions.put( new Key( rowIndicator, text ), expr );
+	}
+
+	/**
+	 * Remove all the cached expressions.
+	 */
+	public synchronized void clear( )
+	{
+		expressions.clear( );
+	}
+
+	/**
+	 * @return the count of the cached expressions.
+	 */
+	public synchronized int size( )
+	{
+		return expressions.size( );
+	}
+
+	public synchronized long getHitCount( )
+	{
+		return hitCount;
+	}
+
+	public synchronized long getMissCount( )
+	{
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount( )
+	{
+		return evictionCount;
+	}
+
+	public synchronized void resetStatistics( )
+	{
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+	}
+
+	public String toString( )
+	{
+		return "CompiledExpressionCache[size=" + size( ) + ", maxSize=" //$NON-NLS-1$ //$NON-NLS-2$
+				+ getMaxSize( ) + ", hit=" + getHitCount( ) + ", miss=" //$NON-NLS-1$ //$NON-NLS-2$
+				+ getMissCount( ) + ", eviction=" + getEvictionCount( ) + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static class Key
+	{
+
+		private final String rowIndicator;
+		private final String text;
+
+		Key( String rowIndicator, String text )
+		{
+			this.rowIndicator = rowIndicator;
+			this.text = text;
+		}
+
+		public int hashCode( )
+		{
+			return rowIndicator.hashCode( ) * 31 + text.hashCode( );
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( !( obj instanceof Key ) )
+				return false;
+			Key key = (Key) obj;
+			return rowIndicator.equals( key.rowIndicator )
+					&& text.equals( key.text );
+		}
+	}
+}
@@ -15,6 +15,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 
+import org.eclipse.birt.core.script.ScriptContext;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.mozilla.javascript.Scriptable;
+
 /**
  * A Javascript expression that cannot be reduced to other simpler types of 
  * CompiledExpression. An expression of this type has been compiled to Rhino
@@ -25,6 +31,8 @@ public final class ComplexExpression extends BytecodeExpression
     private ArrayList m_subExpressions;
     private ArrayList m_tokenList;
     private ArrayList m_constantExpressions;
+    private JavaExpression m_javaExpression;
+    private volatile ColumnTypeCheck m_columnTypeCheck;
 
     ComplexExpression()
 	{
@@ -87,6 +95,83 @@ public final class ComplexExpression extends BytecodeExpression
 		return true;
 	}
 
+	/**
+	 * Sets the Java form of this expression, which is null if the expression
+	 * can only be evaluated by Rhino. It is set when the expression is
+	 * compiled, and never changed after.
+	 * 
+	 * @param javaExpression
+	 */
+	void setJavaExpression( JavaExpression javaExpression )
+	{
+		m_javaExpression = javaExpression;
+	}
+
+	/**
+	 * Evaluates the expression against the current result object. The simple
+	 * expression is evaluated in Java, and the others execute the compiled
+	 * script. The row whose values the Java form does not handle executes the
+	 * script, the later rows still try the Java form. Only the columns
+	 * declared with other types turn the Java form off, for the rows of their
+	 * result class.
+	 * 
+	 * @param row
+	 *            the result object which the row object in scope refers to.
+	 * @param context
+	 * @param scope
+	 * @return
+	 * @throws DataException
+	 */
+	public Object evaluate( IResultObject row, ScriptContext context,
+			Scriptable scope ) throws DataException
+	{
+		JavaExpression javaExpression = m_javaExpression;
+		if ( javaExpression != null && row != null
+				&& acceptsColumnTypes( javaExpression, row.getResultClass( ) ) )
+		{
+			Object value = javaExpression.evaluate( row, scope );
+			if ( value != JavaExpression.UNSUPPORTED )
+			{
+				return value;
+			}
+		}
+		return evaluate( context, scope );
+	}
+
+	/**
+	 * Checks the column types once for each result class. The check only
+	 * depends on the result class, so the expression shared by the threads
+	 * stays correct whichever check they see.
+	 */
+	private boolean acceptsColumnTypes( JavaExpression javaExpression,
+			IResultClass resultClass )
+	{
+		if ( resultClass == null )
+		{
+			return true;
+		}
+		ColumnTypeCheck check = m_columnTypeCheck;
+		if ( check == null || check.resultClass != resultClass )
+		{
+			check = new ColumnTypeCheck( resultClass,
+					javaExpression.acceptsColumnTypes( resultClass ) );
+			m_columnTypeCheck = check;
+		}
+		return check.accepted;
+	}
+
+	/**
+	 * @param resultClass
+	 * @return true if the expression is evaluated in Java for the rows of the
+	 *         result class.
+	 */
+	boolean isJavaEvaluated( IResultClass resultClass )
+	{
+		JavaExpression javaExpression = m_javaExpression;
+		return javaExpression != null
+				&& acceptsColumnTypes( javaExpression, resultClass );
+	}
+
 	/**
 	 * Adds a <code>Collection</code> of subexpressions to this 
 	 * <code>ComplexExpression</code>.  This is a helper method to 
@@ -230,4 +315,20 @@ public final class ComplexExpression extends BytecodeExpression
 		}
 		return result;
 	}
+
+	/**
+	 * The result of the column type check for a result class.
+	 */
+	private static final class ColumnTypeCheck
+	{
+
+		private final IResultClass resultClass;
+		private final boolean accepted;
+
+		ColumnTypeCheck( IResultClass resultClass, boolean accepted )
+		{
+			this.resultClass = resultClass;
+			this.accepted = accepted;
+		}
+	}
 }
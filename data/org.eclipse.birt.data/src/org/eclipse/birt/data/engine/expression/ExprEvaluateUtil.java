@@ -214,6 +214,10 @@ public class ExprEvaluateUtil
 					return null;
 			}
 		}
+		else if ( expr instanceof ComplexExpression )
+		{
+			return ( (ComplexExpression) expr ).evaluate( ro, cx, scope );
+		}
 		else
 		{
 			return expr.evaluate( cx, scope );
@@ -664,6 +668,10 @@ public class ExprEvaluateUtil
 			ColumnReferenceExpression colref = (ColumnReferenceExpression) expr;
 			return evaluateColumnReferenceExpression( roObject, index, colref );
 		}
+		else if ( expr instanceof ComplexExpression )
+		{
+			return ( (ComplexExpression) expr ).evaluate( roObject, cx, scope );
+		}
 		else
 		{
 			return  expr.evaluate( cx, scope );
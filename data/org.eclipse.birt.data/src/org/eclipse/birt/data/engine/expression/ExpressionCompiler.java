@@ -11,9 +11,15 @@
 
 package org.eclipse.birt.data.engine.expression;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import org.eclipse.birt.core.script.ScriptContext;
+import org.eclipse.birt.data.engine.api.IScriptExpression;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.querydefn.BaseExpression;
 import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.core.security.PropertySecurity;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.impl.aggregation.AggregateRegistry;
 import org.eclipse.birt.data.engine.script.ScriptConstants;
@@ -30,12 +36,55 @@ import org.mozilla.javascript.ast.AstRoot;
  * its derived class. The expression handle is used by the factory to evaluate
  * the expression after the report query is executed. <br>
  * ExpressionCompiler compiles the expression into Rhino byte code for faster
- * evaluation at runtime.
+ * evaluation at runtime. <br>
+ * The expressions without aggregation are compiled once and shared by all the
+ * queries in the JVM through the compiled expression cache, so a query which
+ * is prepared again does not parse and compile its expressions again.
  */
 public class ExpressionCompiler extends AbstractExpressionCompiler
 {
+	private static Logger logger = Logger.getLogger( ExpressionCompiler.class.getName( ) );
+
+	/**
+	 * The system property to change the size of the compiled expression
+	 * cache.
+	 */
+	public static final String PROPERTY_EXPRESSION_CACHE_SIZE = "org.eclipse.birt.data.engine.expression.EXPRESSION_CACHE_SIZE"; //$NON-NLS-1$
+
+	private static final int EXPRESSION_CACHE_SIZE = 1000;
+	private static final CompiledExpressionCache expressionCache = new CompiledExpressionCache( getDefaultCacheSize( ) );
+
 	private AggregateRegistry registry;
+	private boolean hasAggregate;
 	private final static String AGGR_VALUE = "_aggr_value";
+
+	private static int getDefaultCacheSize( )
+	{
+		String value = PropertySecurity.getSystemProperty( PROPERTY_EXPRESSION_CACHE_SIZE );
+		if ( value != null )
+		{
+			try
+			{
+				return Integer.parseInt( value.trim( ) );
+			}
+			catch ( NumberFormatException e )
+			{
+				logger.log( Level.WARNING, "invalid expression cache size: " //$NON-NLS-1$
+						+ value, e );
+			}
+		}
+		return EXPRESSION_CACHE_SIZE;
+	}
+
+	/**
+	 * @return the compiled expression cache shared by all the threads, it can
+	 *         be used to change its size and to get the hit, miss and
+	 *         eviction statistics.
+	 */
+	public static CompiledExpressionCache getExpressionCache( )
+	{
+		return expressionCache;
+	}
 	
 	/**
 	 * Compiles a Javascript expression to produce a subclass of
@@ -65,7 +114,7 @@ public class ExpressionCompiler extends AbstractExpressionCompiler
 				throw new DataException( ResourceConstants.EXPRESSION_CANNOT_BE_NULL_OR_BLANK );
 
 			this.registry = registry;
-			return super.compileExpression( expression, context );
+			return compileExpression( expression, context );
 		}
 		catch ( Exception e )
 		{
@@ -86,6 +135,49 @@ public class ExpressionCompiler extends AbstractExpressionCompiler
 		}
 	}
 	
+	/*
+	 * @see org.eclipse.birt.data.engine.expression.AbstractExpressionCompiler#compileExpression(org.eclipse.birt.data.engine.api.IScriptExpression, org.eclipse.birt.core.script.ScriptContext)
+	 */
+	protected CompiledExpression compileExpression( IScriptExpression baseExpr,
+			ScriptContext context ) throws DataException
+	{
+		String text = baseExpr.getText( );
+		if ( text == null
+				|| BaseExpression.constantId.equals( baseExpr.getScriptId( ) ) )
+			return super.compileExpression( baseExpr, context );
+
+		CompiledExpression expr = expressionCache.get( rowIndicator, text );
+		if ( expr == null )
+		{
+			hasAggregate = false;
+			expr = super.compileExpression( baseExpr, context );
+			if ( !hasAggregate )
+				expressionCache.put( rowIndicator, text, expr );
+		}
+		return expr;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.expression.AbstractExpressionCompiler#compileExpression(java.lang.String, org.eclipse.birt.core.script.ScriptContext)
+	 */
+	protected CompiledExpression compileExpression( String expression,
+			ScriptContext context ) throws DataException
+	{
+		if ( expression == null )
+			return null;
+
+		CompiledExpression expr = expressionCache.get( rowIndicator,
+				expression );
+		if ( expr == null )
+		{
+			hasAggregate = false;
+			expr = super.compileExpression( expression, context );
+			if ( !hasAggregate )
+				expressionCache.put( rowIndicator, expression, expr );
+		}
+		return expr;
+	}
+
 	/**
 	 * @param context
 	 * @param aggregateExpression
@@ -161,6 +253,7 @@ public class ExpressionCompiler extends AbstractExpressionCompiler
 		if( aggregation == null )
 			return null;
 		
+		hasAggregate = true;
 		AggregateExpression aggregateExpression = 
 			new AggregateExpression( aggregation );
 		
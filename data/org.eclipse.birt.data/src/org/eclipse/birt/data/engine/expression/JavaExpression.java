@@ -0,0 +1,411 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.expression;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.script.JavascriptEvalUtil;
+import org.eclipse.birt.core.script.functionservice.IScriptFunction;
+import org.eclipse.birt.core.script.functionservice.IScriptFunctionContext;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.mozilla.javascript.ScriptRuntime;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.Token;
+import org.mozilla.javascript.UniqueTag;
+
+/**
+ * The Java form of a simple Javascript expression, which is evaluated against
+ * the result object directly instead of executing the Rhino script.
+ * <p>
+ * Only the Javascript primitive values ( number, string, boolean and null ) are
+ * handled, and the operators follow the conversion rules of Rhino. Once an
+ * operand has any other type, or a column or function fails, the evaluation
+ * returns <code>UNSUPPORTED</code> and the caller should evaluate the script
+ * instead. The expression is immutable, so it can be shared by the threads.
+ */
+abstract class JavaExpression
+{
+
+	/**
+	 * the value returned if the expression can't be evaluated in Java.
+	 */
+	static final Object UNSUPPORTED = new Object( );
+
+	/**
+	 * evaluate the expression.
+	 *
+	 * @param row
+	 *            the current result object.
+	 * @param scope
+	 *            the scope to find the script function context.
+	 * @return the value of the expression, or <code>UNSUPPORTED</code>.
+	 */
+	abstract Object evaluate( IResultObject row, Scriptable scope );
+
+	/**
+	 * check the declared types of the referred columns.
+	 *
+	 * @param resultClass
+	 *            the result class of the rows.
+	 * @return false if any referred column is declared with a type other than
+	 *         the Javascript primitive ones, so the expression is always
+	 *         evaluated by the script for the rows.
+	 */
+	abstract boolean acceptsColumnTypes( IResultClass resultClass );
+
+	/**
+	 * @return true if the value is a Javascript primitive value.
+	 */
+	static boolean isPrimitive( Object value )
+	{
+		return value == null || value instanceof Number
+				|| value instanceof String || value instanceof Boolean;
+	}
+
+	static class Constant extends JavaExpression
+	{
+
+		private Object value;
+
+		Constant( Object value )
+		{
+			this.value = value;
+		}
+
+		Object evaluate( IResultObject row, Scriptable scope )
+		{
+			return value;
+		}
+
+		boolean acceptsColumnTypes( IResultClass resultClass )
+		{
+			return true;
+		}
+	}
+
+	static class ColumnReference extends JavaExpression
+	{
+
+		private String name;
+		private int index;
+
+		ColumnReference( String name )
+		{
+			this.name = name;
+			this.index = -1;
+		}
+
+		ColumnReference( int index )
+		{
+			this.index = index;
+		}
+
+		Object evaluate( IResultObject row, Scriptable scope )
+		{
+			try
+			{
+				Object value = name != null
+						? row.getFieldValue( name )
+						: row.getFieldValue( index );
+				// the date and the other objects are wrapped in script
+				return isPrimitive( value ) ? value : UNSUPPORTED;
+			}
+			catch ( DataException e )
+			{
+				// let the script report the invalid column
+				return UNSUPPORTED;
+			}
+		}
+
+		boolean acceptsColumnTypes( IResultClass resultClass )
+		{
+			int fieldIndex = name != null
+					? resultClass.getFieldIndex( name ) : index;
+			if ( fieldIndex < 1 || fieldIndex > resultClass.getFieldCount( ) )
+			{
+				// the invalid column is reported by the script
+				return true;
+			}
+			try
+			{
+				Class type = resultClass.getFieldValueClass( fieldIndex );
+				// the columns of any type are checked by their values
+				return type == null || type == Object.class
+						|| Number.class.isAssignableFrom( type )
+						|| type == String.class || type == Boolean.class;
+			}
+			catch ( DataException e )
+			{
+				return true;
+			}
+		}
+	}
+
+	static class Unary extends JavaExpression
+	{
+
+		private int operator;
+		private JavaExpression operand;
+
+		Unary( int operator, JavaExpression operand )
+		{
+			this.operator = operator;
+			this.operand = operand;
+		}
+
+		Object evaluate( IResultObject row, Scriptable scope )
+		{
+			Object value = operand.evaluate( row, scope );
+			if ( value == UNSUPPORTED )
+			{
+				return UNSUPPORTED;
+			}
+			switch ( operator )
+			{
+				case Token.NOT :
+					return Boolean.valueOf( !ScriptRuntime.toBoolean( value ) );
+				case Token.NEG :
+					return new Double( -ScriptRuntime.toNumber( value ) );
+				case Token.POS :
+					return new Double( ScriptRuntime.toNumber( value ) );
+			}
+			return UNSUPPORTED;
+		}
+
+		boolean acceptsColumnTypes( IResultClass resultClass )
+		{
+			return operand.acceptsColumnTypes( resultClass );
+		}
+	}
+
+	static class Binary extends JavaExpression
+	{
+
+		private int operator;
+		private JavaExpression left;
+		private JavaExpression right;
+
+		Binary( int operator, JavaExpression left, JavaExpression right )
+		{
+			this.operator = operator;
+			this.left = left;
+			this.right = right;
+		}
+
+		Object evaluate( IResultObject row, Scriptable scope )
+		{
+			Object lhs = left.evaluate( row, scope );
+			if ( lhs == UNSUPPORTED )
+			{
+				return UNSUPPORTED;
+			}
+			Object rhs = right.evaluate( row, scope );
+			if ( rhs == UNSUPPORTED )
+			{
+				return UNSUPPORTED;
+			}
+			switch ( operator )
+			{
+				case Token.ADD :
+					if ( lhs instanceof String || rhs instanceof String )
+					{
+						return ScriptRuntime.toString( lhs )
+								+ ScriptRuntime.toString( rhs );
+					}
+					return new Double( ScriptRuntime.toNumber( lhs )
+							+ ScriptRuntime.toNumber( rhs ) );
+				case Token.SUB :
+					return new Double( ScriptRuntime.toNumber( lhs )
+							- ScriptRuntime.toNumber( rhs ) );
+				case Token.MUL :
+					return new Double( ScriptRuntime.toNumber( lhs )
+							* ScriptRuntime.toNumber( rhs ) );
+				case Token.DIV :
+					return new Double( ScriptRuntime.toNumber( lhs )
+							/ ScriptRuntime.toNumber( rhs ) );
+				case Token.MOD :
+					return new Double( ScriptRuntime.toNumber( lhs )
+							% ScriptRuntime.toNumber( rhs ) );
+				case Token.EQ :
+					return Boolean.valueOf( ScriptRuntime.eq( lhs, rhs ) );
+				case Token.NE :
+					return Boolean.valueOf( !ScriptRuntime.eq( lhs, rhs ) );
+				case Token.SHEQ :
+					return Boolean.valueOf( ScriptRuntime.shallowEq( lhs, rhs ) );
+				case Token.SHNE :
+					return Boolean.valueOf( !ScriptRuntime.shallowEq( lhs, rhs ) );
+				case Token.LT :
+					return Boolean.valueOf( ScriptRuntime.cmp_LT( lhs, rhs ) );
+				case Token.LE :
+					return Boolean.valueOf( ScriptRuntime.cmp_LE( lhs, rhs ) );
+				case Token.GT :
+					return Boolean.valueOf( ScriptRuntime.cmp_LT( rhs, lhs ) );
+				case Token.GE :
+					return Boolean.valueOf( ScriptRuntime.cmp_LE( rhs, lhs ) );
+			}
+			return UNSUPPORTED;
+		}
+
+		boolean acceptsColumnTypes( IResultClass resultClass )
+		{
+			return left.acceptsColumnTypes( resultClass )
+					&& right.acceptsColumnTypes( resultClass );
+		}
+	}
+
+	/**
+	 * the &amp;&amp; and || operators, which return one of the operands and
+	 * evaluate the right one only if needed.
+	 */
+	static class Logical extends JavaExpression
+	{
+
+		private boolean isAnd;
+		private JavaExpression left;
+		private JavaExpression right;
+
+		Logical( boolean isAnd, JavaExpression left, JavaExpression right )
+		{
+			this.isAnd = isAnd;
+			this.left = left;
+			this.right = right;
+		}
+
+		Object evaluate( IResultObject row, Scriptable scope )
+		{
+			Object lhs = left.evaluate( row, scope );
+			if ( lhs == UNSUPPORTED )
+			{
+				return UNSUPPORTED;
+			}
+			if ( ScriptRuntime.toBoolean( lhs ) != isAnd )
+			{
+				return lhs;
+			}
+			return right.evaluate( row, scope );
+		}
+
+		boolean acceptsColumnTypes( IResultClass resultClass )
+		{
+			return left.acceptsColumnTypes( resultClass )
+					&& right.acceptsColumnTypes( resultClass );
+		}
+	}
+
+	static class Conditional extends JavaExpression
+	{
+
+		private JavaExpression condition;
+		private JavaExpression ifTrue;
+		private JavaExpression ifFalse;
+
+		Conditional( JavaExpression condition, JavaExpression ifTrue,
+				JavaExpression ifFalse )
+		{
+			this.condition = condition;
+			this.ifTrue = ifTrue;
+			this.ifFalse = ifFalse;
+		}
+
+		Object evaluate( IResultObject row, Scriptable scope )
+		{
+			Object value = condition.evaluate( row, scope );
+			if ( value == UNSUPPORTED )
+			{
+				return UNSUPPORTED;
+			}
+			return ScriptRuntime.toBoolean( value ) ? ifTrue.evaluate( row,
+					scope ) : ifFalse.evaluate( row, scope );
+		}
+
+		boolean acceptsColumnTypes( IResultClass resultClass )
+		{
+			return condition.acceptsColumnTypes( resultClass )
+					&& ifTrue.acceptsColumnTypes( resultClass )
+					&& ifFalse.acceptsColumnTypes( resultClass );
+		}
+	}
+
+	/**
+	 * call of the script function registered by the function service, such as
+	 * BirtMath.add() and BirtStr.trim().
+	 */
+	static class FunctionCall extends JavaExpression
+	{
+
+		private IScriptFunction function;
+		private JavaExpression[] arguments;
+
+		FunctionCall( IScriptFunction function, JavaExpression[] arguments )
+		{
+			this.function = function;
+			this.arguments = arguments;
+		}
+
+		Object evaluate( IResultObject row, Scriptable scope )
+		{
+			Object[] values = new Object[arguments.length];
+			for ( int i = 0; i < arguments.length; i++ )
+			{
+				values[i] = arguments[i].evaluate( row, scope );
+				if ( values[i] == UNSUPPORTED )
+				{
+					return UNSUPPORTED;
+				}
+			}
+			try
+			{
+				Object value = function.execute( values,
+						getScriptFunctionContext( scope ) );
+				return isPrimitive( value ) ? value : UNSUPPORTED;
+			}
+			catch ( BirtException e )
+			{
+				// let the script report the error
+				return UNSUPPORTED;
+			}
+		}
+
+		boolean acceptsColumnTypes( IResultClass resultClass )
+		{
+			for ( int i = 0; i < arguments.length; i++ )
+			{
+				if ( !arguments[i].acceptsColumnTypes( resultClass ) )
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * find the function context in the scope chain in the same way as the
+		 * function wrapper defined in the scope.
+		 */
+		private IScriptFunctionContext getScriptFunctionContext(
+				Scriptable scope )
+		{
+			while ( scope != null )
+			{
+				Object obj = scope.get( IScriptFunctionContext.FUNCTION_BEAN_NAME,
+						scope );
+				if ( obj != UniqueTag.NOT_FOUND )
+				{
+					return (IScriptFunctionContext) JavascriptEvalUtil.convertJavascriptValue( obj );
+				}
+				scope = scope.getParentScope( );
+			}
+			return null;
+		}
+	}
+}
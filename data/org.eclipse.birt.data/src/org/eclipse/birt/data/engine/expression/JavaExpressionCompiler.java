@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.script.functionservice.IScriptFunction;
+import org.eclipse.birt.core.script.functionservice.impl.FunctionProvider;
+import org.eclipse.birt.data.engine.script.JSRowObject;
+import org.eclipse.birt.data.engine.script.ScriptConstants;
+import org.mozilla.javascript.Node;
+import org.mozilla.javascript.Token;
+import org.mozilla.javascript.ast.ScriptNode;
+
+/**
+ * Compiles the parsed tree of a simple expression to
+ * <code>JavaExpression</code>. The expression may contain the column
+ * references, constants, arithmetic, comparison and logical operators, and the
+ * calls of the BirtMath and BirtStr functions. Any other expression is left to
+ * Rhino.
+ */
+class JavaExpressionCompiler
+{
+
+	private static final List<String> FUNCTION_CATEGORIES = Arrays.asList( new String[]{
+			"BirtMath", "BirtStr"
+	} );
+
+	/**
+	 * the properties of the row object which are not columns.
+	 */
+	private static final List<String> RESERVED_NAMES = Arrays.asList( new String[]{
+			"0",
+			"_rownum",
+			"dataSet",
+			"columnDefns",
+			JSRowObject.ROW_POSITION,
+			ScriptConstants.OUTER_RESULT_KEYWORD,
+			ScriptConstants.ROW_NUM_KEYWORD
+	} );
+
+	private String rowIndicator;
+
+	/**
+	 * @param rowIndicator
+	 *            the name of the row object, "row" or "dataSetRow".
+	 */
+	JavaExpressionCompiler( String rowIndicator )
+	{
+		this.rowIndicator = rowIndicator;
+	}
+
+	/**
+	 * compile the script tree.
+	 *
+	 * @param tree
+	 *            the script tree with a single expression statement.
+	 * @return the Java expression, null if the expression is not supported.
+	 */
+	JavaExpression compile( ScriptNode tree )
+	{
+		Node exprNode = tree.getFirstChild( );
+		if ( exprNode == null || exprNode != tree.getLastChild( )
+				|| exprNode.getType( ) != Token.EXPR_RESULT )
+		{
+			return null;
+		}
+		Node child = exprNode.getFirstChild( );
+		if ( child == null || child.getNext( ) != null )
+		{
+			return null;
+		}
+		return compileNode( child );
+	}
+
+	private JavaExpression compileNode( Node node )
+	{
+		switch ( node.getType( ) )
+		{
+			case Token.NUMBER :
+				return new JavaExpression.Constant( new Double( node.getDouble( ) ) );
+			case Token.STRING :
+				return new JavaExpression.Constant( node.getString( ) );
+			case Token.TRUE :
+				return new JavaExpression.Constant( Boolean.TRUE );
+			case Token.FALSE :
+				return new JavaExpression.Constant( Boolean.FALSE );
+			case Token.NULL :
+				return new JavaExpression.Constant( null );
+
+			case Token.GETPROP :
+			case Token.GETELEM :
+				return compileColumnReference( node );
+
+			case Token.NOT :
+			case Token.NEG :
+			case Token.POS :
+			{
+				JavaExpression[] operands = compileChildren( node, 1 );
+				return operands == null ? null : new JavaExpression.Unary( node.getType( ),
+						operands[0] );
+			}
+
+			case Token.ADD :
+			case Token.SUB :
+			case Token.MUL :
+			case Token.DIV :
+			case Token.MOD :
+			case Token.EQ :
+			case Token.NE :
+			case Token.SHEQ :
+			case Token.SHNE :
+			case Token.LT :
+			case Token.LE :
+			case Token.GT :
+			case Token.GE :
+			{
+				JavaExpression[] operands = compileChildren( node, 2 );
+				return operands == null ? null : new JavaExpression.Binary( node.getType( ),
+						operands[0],
+						operands[1] );
+			}
+
+			case Token.AND :
+			case Token.OR :
+			{
+				JavaExpression[] operands = compileChildren( node, 2 );
+				return operands == null ? null : new JavaExpression.Logical( node.getType( ) == Token.AND,
+						operands[0],
+						operands[1] );
+			}
+
+			case Token.HOOK :
+			{
+				JavaExpression[] operands = compileChildren( node, 3 );
+				return operands == null ? null : new JavaExpression.Conditional( operands[0],
+						operands[1],
+						operands[2] );
+			}
+
+			case Token.CALL :
+				return compileFunctionCall( node );
+		}
+		return null;
+	}
+
+	/**
+	 * compile the children of the operator node.
+	 *
+	 * @return the compiled children, null if the count of the children is not
+	 *         the expected one or any child is not supported.
+	 */
+	private JavaExpression[] compileChildren( Node node, int count )
+	{
+		JavaExpression[] operands = new JavaExpression[count];
+		Node child = node.getFirstChild( );
+		for ( int i = 0; i < count; i++ )
+		{
+			if ( child == null )
+			{
+				return null;
+			}
+			operands[i] = compileNode( child );
+			if ( operands[i] == null )
+			{
+				return null;
+			}
+			child = child.getNext( );
+		}
+		return child == null ? operands : null;
+	}
+
+	/**
+	 * row.name, row["name"] or row[index].
+	 */
+	private JavaExpression compileColumnReference( Node node )
+	{
+		Node rowName = node.getFirstChild( );
+		if ( rowName.getType( ) != Token.NAME
+				|| !rowIndicator.equals( rowName.getString( ) ) )
+		{
+			return null;
+		}
+		Node column = rowName.getNext( );
+		if ( column.getType( ) == Token.STRING )
+		{
+			String name = column.getString( );
+			if ( RESERVED_NAMES.contains( name ) )
+			{
+				return null;
+			}
+			return new JavaExpression.ColumnReference( name );
+		}
+		if ( node.getType( ) == Token.GETELEM
+				&& column.getType( ) == Token.NUMBER )
+		{
+			double value = column.getDouble( );
+			int index = (int) value;
+			// row[0] refers to the row id
+			if ( index != value || index <= 0 )
+			{
+				return null;
+			}
+			return new JavaExpression.ColumnReference( index );
+		}
+		return null;
+	}
+
+	/**
+	 * Category.function( arguments ) of the supported categories.
+	 */
+	private JavaExpression compileFunctionCall( Node node )
+	{
+		Node target = node.getFirstChild( );
+		if ( target.getType( ) != Token.GETPROP )
+		{
+			return null;
+		}
+		Node category = target.getFirstChild( );
+		Node name = target.getLastChild( );
+		if ( category.getType( ) != Token.NAME
+				|| name.getType( ) != Token.STRING
+				|| !FUNCTION_CATEGORIES.contains( category.getString( ) ) )
+		{
+			return null;
+		}
+		IScriptFunction function = findFunction( category.getString( ),
+				name.getString( ) );
+		if ( function == null )
+		{
+			return null;
+		}
+
+		List<JavaExpression> arguments = new ArrayList<JavaExpression>( );
+		for ( Node arg = target.getNext( ); arg != null; arg = arg.getNext( ) )
+		{
+			JavaExpression argument = compileNode( arg );
+			if ( argument == null )
+			{
+				return null;
+			}
+			arguments.add( argument );
+		}
+		return new JavaExpression.FunctionCall( function,
+				arguments.toArray( new JavaExpression[arguments.size( )] ) );
+	}
+
+	private IScriptFunction findFunction( String category, String name )
+	{
+		try
+		{
+			IScriptFunction[] functions = FunctionProvider.getFunctions( category );
+			for ( int i = 0; i < functions.length; i++ )
+			{
+				if ( name.equals( functions[i].getName( ) ) )
+				{
+					return functions[i];
+				}
+			}
+		}
+		catch ( BirtException e )
+		{
+			// the call is evaluated by the script
+		}
+		return null;
+	}
+}
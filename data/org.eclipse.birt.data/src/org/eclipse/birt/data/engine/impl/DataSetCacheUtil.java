@@ -63,14 +63,14 @@ public class DataSetCacheUtil
 			if( option != null )
 			{
 				int rowLimit = getIntValueFromString(option);
-				return DataSetCacheConfig.getInstacne( DataSetCacheMode.IN_DISK, rowLimit, tempDir);
+				return getDiskDataSetCacheConfig( appContext, rowLimit, tempDir );
 			}
 		}
 		
 		int cacheOption = context.getCacheOption( );
 		if ( cacheOption == DataEngineContext.CACHE_USE_ALWAYS )
 		{
-			return DataSetCacheConfig.getInstacne( DataSetCacheMode.IN_DISK, context.getCacheCount( ), tempDir);
+			return getDiskDataSetCacheConfig( appContext, context.getCacheCount( ), tempDir );
 		}
 		else if ( cacheOption == DataEngineContext.CACHE_USE_DISABLE )
 		{
@@ -86,13 +86,109 @@ public class DataSetCacheUtil
 				{
 					cacheCount = context.getCacheCount( );
 				}
-				return DataSetCacheConfig.getInstacne( DataSetCacheMode.IN_DISK, cacheCount, tempDir);
+				return getDiskDataSetCacheConfig( appContext, cacheCount, tempDir );
 			}
 		}
 		return null;
 	}
 	
 	
+	/**
+	 * Return the config of the JVM level disk cache, which is saved in the
+	 * persistent directory if it is set in app context.
+	 * 
+	 * @param appContext
+	 * @param countConfig
+	 * @param tempDir
+	 * @return
+	 */
+	private static DataSetCacheConfig getDiskDataSetCacheConfig( Map appContext,
+			int countConfig, String tempDir )
+	{
+		Object persistentDir = appContext == null ? null
+				: appContext.get( DataEngine.DATA_SET_CACHE_PERSISTENT_DIR );
+		if ( persistentDir == null || persistentDir.toString( ).length( ) == 0 )
+		{
+			return DataSetCacheConfig.getInstacne( DataSetCacheMode.IN_DISK, countConfig, tempDir );
+		}
+		long timeToLive = 0;
+		Object option = appContext.get( DataEngine.DATA_SET_CACHE_PERSISTENT_TIME_TO_LIVE );
+		if ( option != null )
+		{
+			try
+			{
+				timeToLive = Long.parseLong( option.toString( ).trim( ) );
+			}
+			catch ( NumberFormatException e )
+			{
+				// the caches never expire as the default
+			}
+		}
+		int maxEntries = 0;
+		option = appContext.get( DataEngine.DATA_SET_CACHE_PERSISTENT_MAX_ENTRIES );
+		if ( option != null )
+		{
+			try
+			{
+				maxEntries = Integer.parseInt( option.toString( ).trim( ) );
+			}
+			catch ( NumberFormatException e )
+			{
+				// the count is not limited as the default
+			}
+		}
+		StringBuffer persistentKey = new StringBuffer( );
+		option = appContext.get( DataEngine.DATA_SET_CACHE_PERSISTENT_KEYS );
+		if ( option != null )
+		{
+			String[] keys = option.toString( ).split( "," );
+			for ( int i = 0; i < keys.length; i++ )
+			{
+				String key = keys[i].trim( );
+				if ( key.length( ) == 0 )
+					continue;
+				String value = String.valueOf( appContext.get( key ) );
+				persistentKey.append( key.length( ) )
+						.append( ':' )
+						.append( key )
+						.append( value.length( ) )
+						.append( ':' )
+						.append( value );
+			}
+		}
+		return DataSetCacheConfig.getPersistentInstance( countConfig,
+				tempDir,
+				persistentDir.toString( ),
+				timeToLive,
+				maxEntries,
+				persistentKey.toString( ) );
+	}
+	
+	/**
+	 * Return the milliseconds an execution of a data set cached in JVM waits
+	 * for an identical execution in flight.
+	 * 
+	 * @param appContext
+	 * @return 0 if the executions do not wait, or the option is not a number
+	 */
+	public static long getInFlightWait( Map appContext )
+	{
+		Object option = appContext == null ? null
+				: appContext.get( DataEngine.DATA_SET_CACHE_IN_FLIGHT_WAIT );
+		if ( option == null || option.toString( ).trim( ).length( ) == 0 )
+		{
+			return 0;
+		}
+		try
+		{
+			return Math.max( 0, Long.parseLong( option.toString( ).trim( ) ) );
+		}
+		catch ( NumberFormatException e )
+		{
+			return 0;
+		}
+	}
+	
 	/**
 	 * @param queryExecutionHints
 	 * @param dataSetDesign
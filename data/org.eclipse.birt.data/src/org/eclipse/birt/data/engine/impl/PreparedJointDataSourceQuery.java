@@ -43,6 +43,7 @@ import org.eclipse.birt.data.engine.executor.DataSetCacheManager;
 import org.eclipse.birt.data.engine.executor.JointDataSetQuery;
 import org.eclipse.birt.data.engine.executor.ResultClass;
 import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.cache.CacheUtil;
 import org.eclipse.birt.data.engine.executor.dscache.DataSetToCache;
 import org.eclipse.birt.data.engine.executor.dscache.DataSourceQuery;
 import org.eclipse.birt.data.engine.executor.transform.CachedResultSet;
@@ -50,6 +51,7 @@ import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.impl.jointdataset.IJoinConditionMatcher;
 import org.eclipse.birt.data.engine.impl.jointdataset.JoinConditionMatcher;
 import org.eclipse.birt.data.engine.impl.jointdataset.JointDataSetPopulatorFactory;
+import org.eclipse.birt.data.engine.impl.jointdataset.JointDataSetUtil;
 import org.eclipse.birt.data.engine.impl.jointdataset.JointResultMetadata;
 import org.eclipse.birt.data.engine.odi.IDataSetPopulator;
 import org.eclipse.birt.data.engine.odi.IDataSource;
@@ -542,11 +544,15 @@ public class PreparedJointDataSourceQuery extends PreparedDataSourceQuery
 				isLeftDataSet,
 				queryDefinition );
 
-		for ( int i = 0; i < conditions.size( ); i++ )
+		// the hash join does not need the data sets sorted by the join keys
+		if ( !JointDataSetUtil.isHashJoin( appContext ) )
 		{
-			addSortToQuery( (IJoinCondition) conditions.get( i ),
-					isLeftDataSet,
-					queryDefinition );
+			for ( int i = 0; i < conditions.size( ); i++ )
+			{
+				addSortToQuery( (IJoinCondition) conditions.get( i ),
+						isLeftDataSet,
+						queryDefinition );
+			}
 		}
 
 		IPreparedQuery preparedQuery = PreparedQueryUtil.newInstance( dataEngine,
@@ -651,12 +657,21 @@ public class PreparedJointDataSourceQuery extends PreparedDataSourceQuery
 			JointResultMetadata jrm = getJointResultMetadata( left.getResultMetaData( ),
 					right.getResultMetaData( ) );
 			resultClass = jrm.getResultClass( );
-			populator = JointDataSetPopulatorFactory.getBinaryTreeDataSetPopulator( left.getOdiResult( ),
-					right.getOdiResult( ),
-					jrm,
-					matcher,
-					joinType, dataEngine.getSession( ),
-					dataSetDesign.getRowFetchLimit( ) );
+			if ( JointDataSetUtil.isHashJoin( appContext ) )
+				populator = JointDataSetPopulatorFactory.getHashJointDataSetPopulator( left.getOdiResult( ),
+						right.getOdiResult( ),
+						jrm,
+						matcher,
+						joinType, dataEngine.getSession( ),
+						dataSetDesign.getRowFetchLimit( ),
+						CacheUtil.computeMemoryBufferSize( appContext ) );
+			else
+				populator = JointDataSetPopulatorFactory.getBinaryTreeDataSetPopulator( left.getOdiResult( ),
+						right.getOdiResult( ),
+						jrm,
+						matcher,
+						joinType, dataEngine.getSession( ),
+						dataSetDesign.getRowFetchLimit( ) );
 			
 			DataSetCacheManager dscm = dataEngine.getSession( ).getDataSetCacheManager( );
 			dscm.setDataSourceAndDataSet( 
@@ -712,6 +727,18 @@ public class PreparedJointDataSourceQuery extends PreparedDataSourceQuery
 			
 		}
 		
+		/*
+		 * @see org.eclipse.birt.data.engine.impl.QueryExecutor#finishInFlightExecution()
+		 */
+		protected void finishInFlightExecution( )
+		{
+			super.finishInFlightExecution( );
+			getDataSetCacheManager( ).finishInFlightExecution( null,
+					dataSetDesign,
+					parameterHints,
+					appContext );
+		}
+
 		/**
 		 * @return
 		 * @throws DataException 
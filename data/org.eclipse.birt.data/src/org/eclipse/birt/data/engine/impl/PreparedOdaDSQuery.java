@@ -63,6 +63,9 @@ public class PreparedOdaDSQuery extends PreparedDataSourceQuery
 	};
 	
 	private ValidateStatus validateStatus;
+	
+	// the plan of the push down into the SQL of the JDBC data set
+	private Map<String, Object> sqlPushDown;
 	/**
 	 * @param dataEngine
 	 * @param queryDefn
@@ -85,6 +88,15 @@ public class PreparedOdaDSQuery extends PreparedDataSourceQuery
 		validateStatus = ValidateStatus.unknown; 
 	}
 	
+	/**
+	 * @param sqlPushDown
+	 *            the plan passed to the JDBC driver to rewrite the SQL
+	 */
+	void setSqlPushDown( Map<String, Object> sqlPushDown )
+	{
+		this.sqlPushDown = sqlPushDown;
+	}
+	
 	private void populateComputedColumnDataType( IBaseDataSetDesign dataSetDesign )
 	{
 		List computedColumns = dataSetDesign.getComputedColumns( );
@@ -500,6 +512,16 @@ public class PreparedOdaDSQuery extends PreparedDataSourceQuery
 					throw new DataException( ResourceConstants.FAIL_PUSH_DOWM_FILTER );
 			}
 			
+			if ( sqlPushDown != null && combinedQuerySpec == null )
+			{
+				if ( querySpec == null )
+					querySpec = new QuerySpecHelper( extDataSet.getDataSource( )
+							.getExtensionID( ), dataSetType ).getFactoryHelper( )
+							.createQuerySpecification( );
+				querySpec.setProperty( SqlPushDownUtil.PUSH_DOWN_PROPERTY,
+						sqlPushDown );
+			}
+			
 			odiQuery = odiDataSource.newQuery( dataSetType, dataText, this.fromCache(), this.contextVisitor );
 			
 			if ( odiQuery instanceof IPreparedDSQuery )
@@ -220,8 +220,20 @@ public class PreparedQueryUtil
                 }
                 else
                 {
-                    preparedQuery = new PreparedOdaDSQuery( dataEngine,
-                            queryDefn, dset, appContext, contextVisitor );
+                    SqlPushDownUtil.PushDown pushDown = SqlPushDownUtil.pushDown( dataEngine,
+                            queryDefn, dset, appContext );
+                    if ( pushDown != null )
+                    {
+                        PreparedOdaDSQuery preparedOdaQuery = new PreparedOdaDSQuery( dataEngine,
+                                pushDown.getQuery( ), dset, appContext, contextVisitor );
+                        preparedOdaQuery.setSqlPushDown( pushDown.getPlan( ) );
+                        preparedQuery = preparedOdaQuery;
+                    }
+                    else
+                    {
+                        preparedQuery = new PreparedOdaDSQuery( dataEngine,
+                                queryDefn, dset, appContext, contextVisitor );
+                    }
                 }
             }
         }
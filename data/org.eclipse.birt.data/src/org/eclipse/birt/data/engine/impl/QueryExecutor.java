@@ -53,6 +53,7 @@ import org.eclipse.birt.data.engine.api.script.IDataSourceInstanceHandle;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.BaseQuery;
 import org.eclipse.birt.data.engine.executor.JointDataSetQuery;
+import org.eclipse.birt.data.engine.executor.QueryExecutionStrategyUtil;
 import org.eclipse.birt.data.engine.expression.CompareHints;
 import org.eclipse.birt.data.engine.expression.ExpressionCompilerUtil;
 import org.eclipse.birt.data.engine.expression.ExpressionProcessor;
@@ -99,6 +100,9 @@ public abstract class QueryExecutor implements IQueryExecutor
 	protected boolean loadFromCache;
 	protected boolean ignoreDataSetFilter = false;
 	
+	// the parameters the data set is looked up in the cache with
+	private Collection cacheParameterHints;
+	
 	private Map queryAppContext;
 
 	/** Query nesting level, 1 - outermost query */
@@ -284,6 +288,26 @@ public abstract class QueryExecutor implements IQueryExecutor
 		if ( isPrepared )
 			return;
 
+		try
+		{
+			doPrepareExecution( outerRts, targetScope );
+		}
+		finally
+		{
+			if ( !isPrepared )
+				finishInFlightExecution( );
+		}
+	}
+
+	/**
+	 * 
+	 * @param outerRts
+	 * @param targetScope
+	 * @throws DataException
+	 */
+	private void doPrepareExecution( IBaseQueryResults outerRts,
+			Scriptable targetScope ) throws DataException
+	{
 		this.parentScope = targetScope;
 		dataSource = findDataSource( );
 
@@ -391,19 +415,37 @@ public abstract class QueryExecutor implements IQueryExecutor
 			return false;
 		if ( !( this.baseQueryDefn instanceof IQueryDefinition ) )
 			return false;
+		this.cacheParameterHints = new ParameterUtil( this.tabularOuterResults == null
+				? null
+				: this.tabularOuterResults.getQueryScope( ),
+				this.dataSet,
+				( IQueryDefinition )this.baseQueryDefn,
+				this.getQueryScope( ),
+				session.getEngineContext( ).getScriptContext( )).resolveDataSetParameters( true );
 		return this.session.getDataSetCacheManager( )
 			.doesLoadFromCache( ((DataEngineImpl)session.getEngine( )).getDataSourceDesign( this.dataSet.getDesign( ).getDataSourceName( ) ),
 				this.dataSet.getDesign( ),
-				new ParameterUtil( this.tabularOuterResults == null
-						? null
-						: this.tabularOuterResults.getQueryScope( ),
-						this.dataSet,
-						( IQueryDefinition )this.baseQueryDefn,
-						this.getQueryScope( ),
-						session.getEngineContext( ).getScriptContext( )).resolveDataSetParameters( true ),
+				this.cacheParameterHints,
 				this.queryAppContext );
 	}
 
+	/**
+	 * Release the identical executions waiting for this one in flight if the
+	 * data set is not saved into the cache, such as when the execution fails,
+	 * so that they do not wait until the wait time is over.
+	 */
+	protected void finishInFlightExecution( )
+	{
+		if ( this.loadFromCache || this.cacheParameterHints == null )
+			return;
+		this.session.getDataSetCacheManager( )
+				.finishInFlightExecution( ( (DataEngineImpl) session.getEngine( ) ).getDataSourceDesign( this.dataSet.getDesign( )
+						.getDataSourceName( ) ),
+						this.dataSet.getDesign( ),
+						this.cacheParameterHints,
+						this.queryAppContext );
+	}
+
 	/**
 	 * Open the required DataSource. This method should be called after
 	 * "dataSource" is initialized by findDataSource() method.
@@ -827,6 +869,11 @@ public abstract class QueryExecutor implements IQueryExecutor
 		{
 			@SuppressWarnings("unchecked")
 			Map<String, IBinding> bindings = this.baseQueryDefn.getBindings( );
+			// without aggregations, the filters which do not update them are
+			// applied while the rows are streamed from the data set
+			boolean streaming = this.baseQueryDefn instanceof IQueryDefinition
+					&& QueryExecutionStrategyUtil.isStreaming( (IQueryDefinition) this.baseQueryDefn,
+							getAppContext( ) );
 			for ( int i = 0; i < filters.size( ); i++ )
 			{
 				IFilterDefinition filter = filters.get( i );
@@ -852,7 +899,7 @@ public abstract class QueryExecutor implements IQueryExecutor
 							} );
 				}
 				
-				if ( !filter.updateAggregation( ) )
+				if ( !filter.updateAggregation( ) && !streaming )
 				{
 					aggrNoUpdateFilters.add( filter );
 				}
@@ -1248,7 +1295,15 @@ public abstract class QueryExecutor implements IQueryExecutor
 		}
 		    
 		// Execute the query
-		odiResult = executeOdiQuery( eventHandler );
+		try
+		{
+			odiResult = executeOdiQuery( eventHandler );
+		}
+		finally
+		{
+			// the data set has been saved into the cache if it is to be saved
+			finishInFlightExecution( );
+		}
 
 		helper.setScriptable( this.dataSet.getJSResultRowObject( ) );
 		
@@ -1294,6 +1349,9 @@ public abstract class QueryExecutor implements IQueryExecutor
 			return;
 		}
 
+		// the executor may be closed without being executed
+		finishInFlightExecution( );
+
 		// Close the data set and associated odi query
 		try
 		{
@@ -0,0 +1,847 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.data.ExpressionUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
+import org.eclipse.birt.data.engine.api.IBaseExpression;
+import org.eclipse.birt.data.engine.api.IBaseQueryDefinition;
+import org.eclipse.birt.data.engine.api.IBinding;
+import org.eclipse.birt.data.engine.api.IColumnDefinition;
+import org.eclipse.birt.data.engine.api.ICombinedOdaDataSetDesign;
+import org.eclipse.birt.data.engine.api.IComputedColumn;
+import org.eclipse.birt.data.engine.api.IConditionalExpression;
+import org.eclipse.birt.data.engine.api.IExpressionCollection;
+import org.eclipse.birt.data.engine.api.IFilterDefinition;
+import org.eclipse.birt.data.engine.api.IGroupDefinition;
+import org.eclipse.birt.data.engine.api.IOdaDataSetDesign;
+import org.eclipse.birt.data.engine.api.IQueryDefinition;
+import org.eclipse.birt.data.engine.api.IScriptExpression;
+import org.eclipse.birt.data.engine.api.ISortDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.Binding;
+import org.eclipse.birt.data.engine.api.querydefn.QueryDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.transform.FilterUtil;
+import org.eclipse.birt.data.engine.expression.ExpressionCompilerUtil;
+
+/**
+ * Plans the push down of the filters, the sorts, the top/bottom N filters and
+ * the grouping with the built-in aggregations of a query on a plain JDBC select
+ * data set into the SQL. The plan is passed to the JDBC driver as a property of
+ * the query specification, and the driver wraps the query text of the data set
+ * in a query which evaluates it.
+ * <p>
+ * The pushed filters and sorts are still evaluated by the data engine, so that
+ * the database only needs to return a superset of the rows in any order. When
+ * the grouping is pushed, the query is rewritten to aggregate the grouped rows
+ * returned by the database instead, which requires the SQL to be exact.
+ */
+final class SqlPushDownUtil
+{
+	/**
+	 * The name of the query specification property which carries the plan. The
+	 * names below are shared with the JDBC driver.
+	 */
+	static final String PUSH_DOWN_PROPERTY = "org.eclipse.birt.data.sqlPushDown";
+
+	static final String FILTERS = "filters";
+	static final String SORTS = "sorts";
+	static final String GROUP_COLUMNS = "groupColumns";
+	static final String AGGREGATES = "aggregates";
+	static final String MAX_ROWS = "maxRows";
+
+	static final String COLUMN = "column";
+	static final String OPERATOR = "operator";
+	static final String VALUES = "values";
+	static final String OR_NULL = "orNull";
+	static final String ASCENDING = "ascending";
+	static final String FUNCTION = "function";
+	static final String ALIAS = "alias";
+
+	private static final String JDBC_DATA_SET_TYPE = "org.eclipse.birt.report.data.oda.jdbc.JdbcSelectDataSet";
+	private static final String AGGREGATE_ALIAS = "BIRT_AGG_";
+
+	private static final Pattern NUMBER = Pattern.compile( "-?\\d+(\\.\\d+)?" );
+
+	private SqlPushDownUtil( )
+	{
+	}
+
+	/**
+	 * The result of the push down.
+	 */
+	static class PushDown
+	{
+		private IQueryDefinition query;
+		private Map<String, Object> plan;
+
+		private PushDown( IQueryDefinition query, Map<String, Object> plan )
+		{
+			this.query = query;
+			this.plan = plan;
+		}
+
+		/**
+		 * @return the query to be prepared, which is rewritten if the grouping
+		 *         is pushed down
+		 */
+		IQueryDefinition getQuery( )
+		{
+			return query;
+		}
+
+		/**
+		 * @return the plan passed to the JDBC driver
+		 */
+		Map<String, Object> getPlan( )
+		{
+			return plan;
+		}
+	}
+
+	/**
+	 * @param appContext
+	 * @return whether the push down into the SQL is enabled
+	 */
+	static boolean isEnabled( Map appContext )
+	{
+		if ( appContext == null )
+			return false;
+		Object value = appContext.get( DataEngine.SQL_PUSH_DOWN );
+		return value != null && Boolean.valueOf( value.toString( ) ).booleanValue( );
+	}
+
+	/**
+	 * Plan the push down of the query. The filters of the data set design,
+	 * which is a copy for this query, are removed if the grouping is pushed.
+	 *
+	 * @param dataEngine
+	 * @param query
+	 * @param dataSet
+	 * @param appContext
+	 * @return null if nothing can be pushed down
+	 * @throws DataException
+	 */
+	static PushDown pushDown( DataEngineImpl dataEngine, IQueryDefinition query,
+			IBaseDataSetDesign dataSet, Map appContext ) throws DataException
+	{
+		if ( !isEnabled( appContext ) || !isPlainSelect( dataSet ) )
+			return null;
+		// the data in the report documents and the data set caches may be
+		// reused by the other queries
+		if ( dataEngine.getContext( ).getMode( ) != DataEngineContext.DIRECT_PRESENTATION
+				|| dataEngine.getSession( )
+						.getDataSetCacheManager( )
+						.needsToCache( dataSet, appContext ) )
+			return null;
+		if ( query.getQueryResultsID( ) != null
+				|| query.getStartingRow( ) > 0
+				|| !isEmpty( query.getResultSetExpressions( ) ) )
+			return null;
+
+		Map<String, IColumnDefinition> columns = getColumns( dataSet );
+		if ( columns == null )
+			return null;
+
+		Map<String, Object> plan = new HashMap<String, Object>( );
+		List<Map<String, Object>> conditions = new ArrayList<Map<String, Object>>( );
+		FilterLevel dataSetLevel = new FilterLevel( dataSet.getFilters( ),
+				null,
+				columns );
+		FilterLevel queryLevel = new FilterLevel( query.getFilters( ),
+				query,
+				columns );
+		Map<String, Object> topN = null;
+		if ( dataSetLevel.pushable )
+		{
+			conditions.addAll( dataSetLevel.conditions );
+			topN = dataSetLevel.topN;
+		}
+		// the query filters are evaluated after the top/bottom N filters of
+		// the data set
+		if ( queryLevel.pushable && !dataSetLevel.multiPass )
+		{
+			if ( queryLevel.topN == null )
+			{
+				conditions.addAll( queryLevel.conditions );
+			}
+			else if ( dataSetLevel.complete )
+			{
+				conditions.addAll( queryLevel.conditions );
+				topN = queryLevel.topN;
+			}
+		}
+
+		IQueryDefinition preparedQuery = query;
+		if ( topN != null )
+		{
+			if ( query.getMaxRows( ) > 0 )
+				return null;
+			Map<String, Object> notNull = new HashMap<String, Object>( );
+			notNull.put( COLUMN, topN.get( COLUMN ) );
+			notNull.put( OPERATOR, "IS NOT NULL" );
+			conditions.add( notNull );
+			List<Map<String, Object>> sorts = new ArrayList<Map<String, Object>>( );
+			sorts.add( newSort( (String) topN.get( COLUMN ),
+					( (Boolean) topN.get( ASCENDING ) ).booleanValue( ) ) );
+			plan.put( SORTS, sorts );
+			plan.put( MAX_ROWS, topN.get( MAX_ROWS ) );
+		}
+		else if ( !query.getGroups( ).isEmpty( )
+				&& dataSetLevel.complete
+				&& queryLevel.complete )
+		{
+			List<String> groupColumns = new ArrayList<String>( );
+			List<Map<String, Object>> aggregates = new ArrayList<Map<String, Object>>( );
+			IQueryDefinition groupedQuery = groupBy( query,
+					dataSet,
+					columns,
+					groupColumns,
+					aggregates );
+			if ( groupedQuery != null )
+			{
+				preparedQuery = groupedQuery;
+				dataSet.getFilters( ).clear( );
+				plan.put( GROUP_COLUMNS, groupColumns );
+				plan.put( AGGREGATES, aggregates );
+			}
+		}
+		if ( preparedQuery == query && topN == null && query.getMaxRows( ) <= 0 )
+		{
+			List<Map<String, Object>> sorts = getSorts( query, columns );
+			if ( !sorts.isEmpty( ) )
+				plan.put( SORTS, sorts );
+		}
+		if ( !conditions.isEmpty( ) )
+			plan.put( FILTERS, conditions );
+		if ( plan.isEmpty( ) )
+			return null;
+		return new PushDown( preparedQuery, plan );
+	}
+
+	/**
+	 * @param dataSet
+	 * @return whether the data set is a JDBC select data set whose rows are not
+	 *         changed by the data engine before they are filtered
+	 */
+	private static boolean isPlainSelect( IBaseDataSetDesign dataSet )
+			throws DataException
+	{
+		if ( !( dataSet instanceof IOdaDataSetDesign )
+				|| dataSet instanceof ICombinedOdaDataSetDesign
+				|| dataSet instanceof IIncreCacheDataSetDesign )
+			return false;
+		IOdaDataSetDesign odaDataSet = (IOdaDataSetDesign) dataSet;
+		String queryText = odaDataSet.getQueryText( );
+		if ( !JDBC_DATA_SET_TYPE.equals( odaDataSet.getExtensionID( ) )
+				|| queryText == null
+				|| !queryText.trim( ).toLowerCase( ).startsWith( "select" ) )
+			return false;
+		if ( !isEmpty( dataSet.getOnFetchScript( ) )
+				|| dataSet.getRowFetchLimit( ) > 0
+				|| dataSet.needDistinctValue( )
+				|| dataSet.getCompareLocale( ) != null )
+			return false;
+		if ( dataSet.getNullsOrdering( ) != null
+				&& !IBaseDataSetDesign.NULLS_ORDERING_NULLS_LOWEST.equals( dataSet.getNullsOrdering( ) ) )
+			return false;
+		List computedColumns = dataSet.getComputedColumns( );
+		if ( computedColumns != null )
+		{
+			for ( int i = 0; i < computedColumns.size( ); i++ )
+			{
+				IComputedColumn computedColumn = (IComputedColumn) computedColumns.get( i );
+				if ( computedColumn.getAggregateFunction( ) != null
+						|| ExpressionCompilerUtil.hasAggregationInExpr( computedColumn.getExpression( ) ) )
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param dataSet
+	 * @return the result set hints of the data set columns by their names and
+	 *         aliases, since the types of the columns are needed to push down
+	 *         the literals safely
+	 */
+	private static Map<String, IColumnDefinition> getColumns(
+			IBaseDataSetDesign dataSet )
+	{
+		List hints = dataSet.getResultSetHints( );
+		if ( isEmpty( hints ) )
+			return null;
+		Map<String, IColumnDefinition> columns = new HashMap<String, IColumnDefinition>( );
+		for ( int i = 0; i < hints.size( ); i++ )
+		{
+			IColumnDefinition column = (IColumnDefinition) hints.get( i );
+			if ( column.getColumnName( ) != null )
+				columns.put( column.getColumnName( ), column );
+			if ( column.getAlias( ) != null )
+				columns.put( column.getAlias( ), column );
+		}
+		List computedColumns = dataSet.getComputedColumns( );
+		if ( computedColumns != null )
+		{
+			for ( int i = 0; i < computedColumns.size( ); i++ )
+			{
+				columns.remove( ( (IComputedColumn) computedColumns.get( i ) ).getName( ) );
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * The filters of the data set or the query, which are pushed down only if
+	 * all of them are evaluated in one pass or the only one top/bottom N
+	 * filter is pushed with the others.
+	 */
+	private static class FilterLevel
+	{
+		private List<Map<String, Object>> conditions = new ArrayList<Map<String, Object>>( );
+		private Map<String, Object> topN;
+		private boolean pushable = true;
+		private boolean complete = true;
+		private boolean multiPass;
+
+		FilterLevel( List filters, IBaseQueryDefinition query,
+				Map<String, IColumnDefinition> columns ) throws DataException
+		{
+			if ( filters == null )
+				return;
+			for ( int i = 0; i < filters.size( ); i++ )
+			{
+				IFilterDefinition filter = (IFilterDefinition) filters.get( i );
+				if ( !filter.updateAggregation( )
+						|| ExpressionCompilerUtil.hasAggregationInExpr( filter.getExpression( ) ) )
+				{
+					pushable = false;
+				}
+				else if ( FilterUtil.isFilterNeedMultiPass( filter ) )
+				{
+					multiPass = true;
+					if ( topN == null )
+						topN = getTopN( filter, query, columns );
+					else
+						pushable = false;
+					if ( topN == null )
+						pushable = false;
+				}
+				else
+				{
+					Map<String, Object> condition = getCondition( filter,
+							query,
+							columns );
+					if ( condition != null )
+						conditions.add( condition );
+					else
+						complete = false;
+				}
+			}
+			if ( !pushable || ( topN != null && !complete ) )
+			{
+				pushable = false;
+				complete = false;
+				conditions.clear( );
+				topN = null;
+			}
+		}
+	}
+
+	/**
+	 * @param filter
+	 * @param query
+	 * @param columns
+	 * @return the pushed condition, or null if the filter can not be pushed
+	 */
+	private static Map<String, Object> getCondition( IFilterDefinition filter,
+			IBaseQueryDefinition query, Map<String, IColumnDefinition> columns )
+			throws DataException
+	{
+		if ( !( filter.getExpression( ) instanceof IConditionalExpression ) )
+			return null;
+		IConditionalExpression expr = (IConditionalExpression) filter.getExpression( );
+		IColumnDefinition column = getColumn( expr.getExpression( ),
+				query,
+				columns );
+		if ( column == null )
+			return null;
+
+		// the null values are less than all the others in the data engine
+		String operator;
+		int operandCount = 1;
+		boolean orNull = false;
+		switch ( expr.getOperator( ) )
+		{
+			case IConditionalExpression.OP_EQ :
+				operator = "=";
+				break;
+			case IConditionalExpression.OP_NE :
+				operator = "<>";
+				orNull = true;
+				break;
+			case IConditionalExpression.OP_LT :
+				operator = "<";
+				orNull = true;
+				break;
+			case IConditionalExpression.OP_LE :
+				operator = "<=";
+				orNull = true;
+				break;
+			case IConditionalExpression.OP_GE :
+				operator = ">=";
+				break;
+			case IConditionalExpression.OP_GT :
+				operator = ">";
+				break;
+			case IConditionalExpression.OP_BETWEEN :
+				operator = "BETWEEN";
+				operandCount = 2;
+				break;
+			case IConditionalExpression.OP_NOT_BETWEEN :
+				operator = "NOT BETWEEN";
+				operandCount = 2;
+				orNull = true;
+				break;
+			case IConditionalExpression.OP_NULL :
+				operator = "IS NULL";
+				operandCount = 0;
+				break;
+			case IConditionalExpression.OP_NOT_NULL :
+				operator = "IS NOT NULL";
+				operandCount = 0;
+				break;
+			case IConditionalExpression.OP_IN :
+				operator = "IN";
+				operandCount = -1;
+				break;
+			case IConditionalExpression.OP_NOT_IN :
+				operator = "NOT IN";
+				operandCount = -1;
+				orNull = true;
+				break;
+			default :
+				return null;
+		}
+
+		List<IBaseExpression> operands = new ArrayList<IBaseExpression>( );
+		if ( operandCount < 0 )
+		{
+			if ( !( expr.getOperand1( ) instanceof IExpressionCollection ) )
+				return null;
+			operands.addAll( ( (IExpressionCollection) expr.getOperand1( ) ).getExpressions( ) );
+			if ( operands.isEmpty( ) )
+				return null;
+		}
+		else
+		{
+			if ( operandCount > 0 )
+				operands.add( expr.getOperand1( ) );
+			if ( operandCount > 1 )
+				operands.add( expr.getOperand2( ) );
+		}
+		List<Object> values = new ArrayList<Object>( );
+		for ( IBaseExpression operand : operands )
+		{
+			Object value = getLiteral( operand );
+			if ( value == null || !isComparable( column, value ) )
+				return null;
+			values.add( value );
+		}
+
+		Map<String, Object> condition = new HashMap<String, Object>( );
+		condition.put( COLUMN, getSqlName( column ) );
+		condition.put( OPERATOR, operator );
+		condition.put( VALUES, values );
+		condition.put( OR_NULL, Boolean.valueOf( orNull ) );
+		return condition;
+	}
+
+	/**
+	 * @param filter
+	 * @param query
+	 * @param columns
+	 * @return the column, the order and the count of the top/bottom N filter
+	 *         on a numeric column, or null if it can not be pushed
+	 */
+	private static Map<String, Object> getTopN( IFilterDefinition filter,
+			IBaseQueryDefinition query, Map<String, IColumnDefinition> columns )
+			throws DataException
+	{
+		if ( !( filter.getExpression( ) instanceof IConditionalExpression ) )
+			return null;
+		IConditionalExpression expr = (IConditionalExpression) filter.getExpression( );
+		if ( expr.getOperator( ) != IConditionalExpression.OP_TOP_N
+				&& expr.getOperator( ) != IConditionalExpression.OP_BOTTOM_N )
+			return null;
+		IColumnDefinition column = getColumn( expr.getExpression( ),
+				query,
+				columns );
+		Object n = getLiteral( expr.getOperand1( ) );
+		if ( column == null
+				|| !isNumeric( column )
+				|| !( n instanceof BigDecimal )
+				|| ( (BigDecimal) n ).scale( ) > 0
+				|| ( (BigDecimal) n ).signum( ) <= 0 )
+			return null;
+		Map<String, Object> topN = new HashMap<String, Object>( );
+		topN.put( COLUMN, getSqlName( column ) );
+		topN.put( ASCENDING,
+				Boolean.valueOf( expr.getOperator( ) == IConditionalExpression.OP_BOTTOM_N ) );
+		topN.put( MAX_ROWS, Integer.valueOf( ( (BigDecimal) n ).intValue( ) ) );
+		return topN;
+	}
+
+	/**
+	 * @param query
+	 * @param columns
+	 * @return the sorts on the leading group keys and sorts which are data set
+	 *         columns, which sort the rows for the data engine in advance
+	 */
+	private static List<Map<String, Object>> getSorts( IQueryDefinition query,
+			Map<String, IColumnDefinition> columns ) throws DataException
+	{
+		List<Map<String, Object>> sorts = new ArrayList<Map<String, Object>>( );
+		List groups = query.getGroups( );
+		for ( int i = 0; i < groups.size( ); i++ )
+		{
+			IGroupDefinition group = (IGroupDefinition) groups.get( i );
+			IColumnDefinition column = getGroupColumn( group, query, columns );
+			if ( column == null
+					|| group.getInterval( ) != IGroupDefinition.NO_INTERVAL )
+				return sorts;
+			sorts.add( newSort( getSqlName( column ),
+					group.getSortDirection( ) != IGroupDefinition.SORT_DESC ) );
+		}
+		List querySorts = query.getSorts( );
+		for ( int i = 0; i < querySorts.size( ); i++ )
+		{
+			ISortDefinition sort = (ISortDefinition) querySorts.get( i );
+			IColumnDefinition column = sort.getColumn( ) != null
+					? getColumn( ExpressionUtil.createJSRowExpression( sort.getColumn( ) ),
+							query,
+							columns )
+					: getColumn( sort.getExpression( ), query, columns );
+			if ( column == null )
+				return sorts;
+			sorts.add( newSort( getSqlName( column ),
+					sort.getSortDirection( ) != ISortDefinition.SORT_DESC ) );
+		}
+		return sorts;
+	}
+
+	/**
+	 * Rewrite the query to aggregate the rows grouped by the database, if the
+	 * groups are on the data set columns and all the bindings are the group
+	 * keys or the built-in aggregations of the data set columns.
+	 *
+	 * @return the rewritten query, or null if the grouping can not be pushed
+	 */
+	private static IQueryDefinition groupBy( IQueryDefinition query,
+			IBaseDataSetDesign dataSet, Map<String, IColumnDefinition> columns,
+			List<String> groupColumns, List<Map<String, Object>> aggregates )
+			throws DataException
+	{
+		if ( !( query instanceof QueryDefinition )
+				|| query.usesDetails( )
+				|| query.needAutoBinding( )
+				|| query.getDistinctValue( )
+				|| query.getMaxRows( ) > 0
+				|| !isEmpty( query.getSorts( ) )
+				|| !isEmpty( query.getSubqueries( ) )
+				|| !isEmpty( dataSet.getComputedColumns( ) ) )
+			return null;
+
+		List groups = query.getGroups( );
+		List<String> groupNames = new ArrayList<String>( );
+		List<String> keyColumns = new ArrayList<String>( );
+		for ( int i = 0; i < groups.size( ); i++ )
+		{
+			IGroupDefinition group = (IGroupDefinition) groups.get( i );
+			IColumnDefinition column = getGroupColumn( group, query, columns );
+			if ( column == null
+					|| group.getName( ) == null
+					|| group.getInterval( ) != IGroupDefinition.NO_INTERVAL
+					|| !isEmpty( group.getFilters( ) )
+					|| !isEmpty( group.getSorts( ) )
+					|| !isEmpty( group.getSubqueries( ) ) )
+				return null;
+			groupNames.add( group.getName( ) );
+			keyColumns.add( column.getColumnName( ) );
+			if ( !groupColumns.contains( getSqlName( column ) ) )
+				groupColumns.add( getSqlName( column ) );
+		}
+
+		IQueryDefinition groupedQuery = query.clone( );
+		Iterator it = query.getBindings( ).values( ).iterator( );
+		while ( it.hasNext( ) )
+		{
+			IBinding binding = (IBinding) it.next( );
+			if ( binding.getAggrFunction( ) == null )
+			{
+				IColumnDefinition column = getColumn( binding.getExpression( ),
+						query,
+						columns );
+				if ( column == null
+						|| !keyColumns.contains( column.getColumnName( ) ) )
+					return null;
+				continue;
+			}
+			IBinding groupedBinding = getGroupedBinding( binding,
+					query,
+					columns,
+					groupNames,
+					aggregates );
+			if ( groupedBinding == null )
+				return null;
+			groupedQuery.getBindings( ).put( binding.getBindingName( ),
+					groupedBinding );
+		}
+		return groupedQuery;
+	}
+
+	/**
+	 * @return the binding which aggregates the column aggregated by the
+	 *         database for the aggregation binding, or null if the aggregation
+	 *         can not be pushed
+	 */
+	private static IBinding getGroupedBinding( IBinding binding,
+			IQueryDefinition query, Map<String, IColumnDefinition> columns,
+			List<String> groupNames, List<Map<String, Object>> aggregates )
+			throws DataException
+	{
+		String function = binding.getAggrFunction( ).toUpperCase( );
+		if ( binding.getFilter( ) != null )
+			return null;
+		List<IBaseExpression> arguments = new ArrayList<IBaseExpression>( );
+		if ( binding.getArguments( ) != null )
+			arguments.addAll( binding.getArguments( ) );
+		if ( binding.getExpression( ) != null )
+			arguments.add( binding.getExpression( ) );
+		IColumnDefinition column = null;
+		if ( arguments.size( ) == 1 )
+			column = getColumn( arguments.get( 0 ), query, columns );
+		if ( arguments.size( ) > 1
+				|| ( column == null && !( "COUNT".equals( function ) && arguments.isEmpty( ) ) ) )
+			return null;
+
+		// the level of the aggregation, where 0 is the whole query
+		int level;
+		List aggregateOns = binding.getAggregatOns( );
+		if ( isEmpty( aggregateOns ) )
+			level = 0;
+		else if ( aggregateOns.size( ) == 1
+				&& groupNames.contains( aggregateOns.get( 0 ) ) )
+			level = groupNames.indexOf( aggregateOns.get( 0 ) ) + 1;
+		else
+			return null;
+		boolean innermost = level == groupNames.size( );
+
+		// the aggregation of the innermost group is the one of the database,
+		// which is aggregated again for the outer groups
+		String sqlFunction;
+		String groupedFunction;
+		if ( "SUM".equals( function ) || "COUNT".equals( function ) )
+		{
+			if ( "SUM".equals( function ) && !isNumeric( column ) )
+				return null;
+			sqlFunction = function;
+			groupedFunction = "SUM";
+		}
+		else if ( "MIN".equals( function ) || "MAX".equals( function ) )
+		{
+			sqlFunction = function;
+			groupedFunction = function;
+		}
+		else if ( "AVE".equals( function ) && innermost && isNumeric( column ) )
+		{
+			sqlFunction = "AVG";
+			groupedFunction = null;
+		}
+		else
+		{
+			return null;
+		}
+		String alias = AGGREGATE_ALIAS + aggregates.size( );
+		Map<String, Object> aggregate = new HashMap<String, Object>( );
+		aggregate.put( FUNCTION, sqlFunction );
+		aggregate.put( COLUMN, column == null ? null : getSqlName( column ) );
+		aggregate.put( ALIAS, alias );
+		aggregates.add( aggregate );
+
+		Binding groupedBinding = new Binding( binding.getBindingName( ),
+				new ScriptExpression( ExpressionUtil.createJSDataSetRowExpression( alias ) ) );
+		groupedBinding.setAggrFunction( innermost ? "FIRST" : groupedFunction );
+		int dataType = binding.getDataType( );
+		if ( "COUNT".equals( function )
+				&& ( dataType == DataType.ANY_TYPE || dataType == DataType.UNKNOWN_TYPE ) )
+			dataType = DataType.INTEGER_TYPE;
+		groupedBinding.setDataType( dataType );
+		groupedBinding.setExportable( binding.exportable( ) );
+		if ( aggregateOns != null )
+		{
+			for ( int i = 0; i < aggregateOns.size( ); i++ )
+			{
+				groupedBinding.addAggregateOn( (String) aggregateOns.get( i ) );
+			}
+		}
+		return groupedBinding;
+	}
+
+	private static IColumnDefinition getGroupColumn( IGroupDefinition group,
+			IQueryDefinition query, Map<String, IColumnDefinition> columns )
+			throws DataException
+	{
+		String keyExpr = group.getKeyColumn( ) != null
+				? ExpressionUtil.createJSRowExpression( group.getKeyColumn( ) )
+				: group.getKeyExpression( );
+		return getColumn( keyExpr, query, columns );
+	}
+
+	private static IColumnDefinition getColumn( IBaseExpression expr,
+			IBaseQueryDefinition query, Map<String, IColumnDefinition> columns )
+			throws DataException
+	{
+		if ( !( expr instanceof IScriptExpression ) )
+			return null;
+		return getColumn( ( (IScriptExpression) expr ).getText( ),
+				query,
+				columns );
+	}
+
+	/**
+	 * @param exprText
+	 * @param query
+	 *            null if the expression is in the data set, where the row
+	 *            refers to the data set row
+	 * @param columns
+	 * @return the data set column which the expression refers to directly
+	 */
+	private static IColumnDefinition getColumn( String exprText,
+			IBaseQueryDefinition query, Map<String, IColumnDefinition> columns )
+			throws DataException
+	{
+		if ( exprText == null )
+			return null;
+		try
+		{
+			String name = ExpressionUtil.getColumnName( exprText );
+			if ( name == null )
+			{
+				name = ExpressionUtil.getColumnBindingName( exprText );
+				if ( name != null && query != null )
+				{
+					Object binding = query.getBindings( ).get( name );
+					name = null;
+					if ( binding instanceof IBinding
+							&& ( (IBinding) binding ).getAggrFunction( ) == null
+							&& ( (IBinding) binding ).getExpression( ) instanceof IScriptExpression )
+					{
+						name = ExpressionUtil.getColumnName( ( (IScriptExpression) ( (IBinding) binding ).getExpression( ) ).getText( ) );
+					}
+				}
+			}
+			return name == null ? null : columns.get( name );
+		}
+		catch ( BirtException e )
+		{
+			throw DataException.wrap( e );
+		}
+	}
+
+	/**
+	 * @param expr
+	 * @return the number or the string of the literal expression, or null if
+	 *         it is not a simple literal
+	 */
+	private static Object getLiteral( IBaseExpression expr )
+	{
+		if ( !( expr instanceof IScriptExpression )
+				|| ( (IScriptExpression) expr ).getText( ) == null )
+			return null;
+		String text = ( (IScriptExpression) expr ).getText( ).trim( );
+		if ( NUMBER.matcher( text ).matches( ) )
+			return new BigDecimal( text );
+		if ( text.length( ) >= 2 )
+		{
+			char quote = text.charAt( 0 );
+			String value = text.substring( 1, text.length( ) - 1 );
+			if ( ( quote == '"' || quote == '\'' )
+					&& text.charAt( text.length( ) - 1 ) == quote
+					&& value.indexOf( quote ) < 0
+					&& value.indexOf( '\\' ) < 0 )
+				return value;
+		}
+		return null;
+	}
+
+	private static boolean isComparable( IColumnDefinition column, Object value )
+	{
+		if ( value instanceof String )
+			return column.getDataType( ) == DataType.STRING_TYPE;
+		return isNumeric( column );
+	}
+
+	private static boolean isNumeric( IColumnDefinition column )
+	{
+		int dataType = column.getDataType( );
+		return dataType == DataType.INTEGER_TYPE
+				|| dataType == DataType.DOUBLE_TYPE
+				|| dataType == DataType.DECIMAL_TYPE;
+	}
+
+	/**
+	 * @return the name of the column in the result set of the SQL
+	 */
+	private static String getSqlName( IColumnDefinition column )
+	{
+		return isEmpty( column.getColumnNativeName( ) )
+				? column.getColumnName( ) : column.getColumnNativeName( );
+	}
+
+	private static Map<String, Object> newSort( String column, boolean ascending )
+	{
+		Map<String, Object> sort = new HashMap<String, Object>( );
+		sort.put( COLUMN, column );
+		sort.put( ASCENDING, Boolean.valueOf( ascending ) );
+		return sort;
+	}
+
+	private static boolean isEmpty( String value )
+	{
+		return value == null || value.trim( ).length( ) == 0;
+	}
+
+	private static boolean isEmpty( Collection collection )
+	{
+		return collection == null || collection.isEmpty( );
+	}
+
+	private static boolean isEmpty( Map map )
+	{
+		return map == null || map.isEmpty( );
+	}
+}
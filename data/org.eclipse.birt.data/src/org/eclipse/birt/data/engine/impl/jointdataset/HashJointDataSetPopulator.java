@@ -0,0 +1,1067 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.impl.jointdataset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.IJointDataSetDesign;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.core.security.FileSecurity;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.executor.cache.CacheUtil;
+import org.eclipse.birt.data.engine.executor.cache.CompactRowReader;
+import org.eclipse.birt.data.engine.executor.cache.CompactRowWriter;
+import org.eclipse.birt.data.engine.executor.cache.ResultObjectUtil;
+import org.eclipse.birt.data.engine.executor.cache.SizeOfUtil;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.DataEngineSession;
+import org.eclipse.birt.data.engine.odi.IDataSetPopulator;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultIterator;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+/**
+ * An implementation of IDataSetPopulator which joins the data sets with a hash
+ * table on the join keys of the secondary data set, so that neither of the data
+ * sets needs to be sorted. The rows of the primary data set are returned in the
+ * order they are fetched, and those of the secondary data set in each match in
+ * the order they are fetched.
+ * <p>
+ * If the secondary rows exceed the memory buffer, both data sets are split to
+ * the partition files by the hash of the join keys, and the partitions are
+ * joined one by one. A partition whose secondary rows still exceed the memory
+ * buffer is split again by another hash of the join keys, up to a bounded
+ * depth, unless all its rows have the same join keys.
+ * <p>
+ * The join keys are equal if they are both null, or they are the numbers of the
+ * same value, the dates of the same time, or the equal values of the other
+ * types. If a join key is a string column on one side and a number, date or
+ * boolean column on the other, the strings are converted to that type first,
+ * as the sort merge join compares them. Otherwise a string does not match a
+ * value of the other types.
+ */
+public class HashJointDataSetPopulator implements IDataSetPopulator
+{
+	private static final int PARTITION_COUNT = 16;
+
+	// the times a partition can be split again, 16^4 partitions at most
+	private static final int MAX_PARTITION_LEVEL = 3;
+
+	// the memory occupied by a hash table entry besides the row
+	private static final int ENTRY_OVERHEAD = 64;
+
+	private JointResultMetadata meta;
+
+	private IResultIterator primaryIterator;
+	private IResultIterator secondaryIterator;
+	private int joinType;
+
+	private IJoinConditionMatcher jcm;
+
+	// the types the string join keys are converted to, null if not converted
+	private Class[] keyConvertClasses;
+
+	private DataEngineSession session;
+
+	private int rowFetchLimit;
+
+	private int rowCount;
+
+	private long memoryBufferSize;
+
+	private SizeOfUtil sizeOfUtil;
+
+	// indicate whether the hash table is built.
+	private boolean beInitialized = false;
+
+	private Map<JoinKey, List<BuildRow>> hashTable;
+
+	// the primary row and its matched secondary rows being joined
+	private IResultObject curPrimaryResultObject;
+	private JoinKey curPrimaryKey;
+	private List<BuildRow> curMatches;
+	private int curMatchIndex;
+
+	// the secondary rows to be checked whether they are unmatched
+	private Iterator<List<BuildRow>> unmatchedIterator;
+	private List<BuildRow> curUnmatchedRows;
+	private int curUnmatchedIndex;
+
+	// the partitions if the secondary rows exceed the memory buffer
+	private String partitionDir;
+	private int partitionFileCount;
+	private Partition[] buildPartitions;
+	private Partition[] probePartitions;
+	private LinkedList<PartitionPair> partitionQueue;
+	private PartitionPair curPartition;
+	private PartitionReader curProbeReader;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param left
+	 * @param right
+	 * @param meta
+	 * @param jcm
+	 * @param joinType
+	 * @param session
+	 * @param rowFetchLimit
+	 * @param memoryBufferSize
+	 *            the size of memory in bytes the secondary rows can occupy,
+	 *            or 0 if it is not limited
+	 */
+	public HashJointDataSetPopulator( IResultIterator left,
+			IResultIterator right, JointResultMetadata meta,
+			IJoinConditionMatcher jcm, int joinType,
+			DataEngineSession session, int rowFetchLimit,
+			long memoryBufferSize )
+	{
+		this.meta = meta;
+		this.joinType = joinType;
+		this.jcm = jcm;
+		this.session = session;
+		if ( isPrimaryLeft( ) )
+		{
+			this.primaryIterator = left;
+			this.secondaryIterator = right;
+		}
+		else
+		{
+			this.primaryIterator = right;
+			this.secondaryIterator = left;
+		}
+		this.rowFetchLimit = rowFetchLimit;
+		this.memoryBufferSize = memoryBufferSize;
+	}
+
+	/**
+	 * Return whether primary iterator is left.
+	 *
+	 * @return
+	 */
+	private boolean isPrimaryLeft( )
+	{
+		return joinType != IJointDataSetDesign.RIGHT_OUTER_JOIN;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.odi.IDataSetPopulator#next()
+	 */
+	public IResultObject next( ) throws DataException
+	{
+		if ( this.rowFetchLimit > 0 && this.rowCount >= this.rowFetchLimit )
+		{
+			clearPartitions( );
+			return null;
+		}
+		IResultObject result = doNext( );
+		if ( result != null )
+			this.rowCount++;
+		else
+			clearPartitions( );
+		return result;
+	}
+
+	/**
+	 *
+	 * @return
+	 * @throws DataException
+	 */
+	private IResultObject doNext( ) throws DataException
+	{
+		if ( !beInitialized )
+		{
+			buildHashTable( );
+			beInitialized = true;
+		}
+
+		while ( true )
+		{
+			if ( curMatches != null )
+			{
+				if ( curMatchIndex < curMatches.size( ) )
+				{
+					BuildRow match = curMatches.get( curMatchIndex++ );
+					match.matched = true;
+					return createResultObject( curPrimaryResultObject,
+							match.row );
+				}
+				curMatches = null;
+			}
+
+			if ( unmatchedIterator != null )
+			{
+				IResultObject unmatched = nextUnmatchedRow( );
+				if ( unmatched != null )
+					return createResultObject( null, unmatched );
+				unmatchedIterator = null;
+				if ( !loadNextPartition( ) )
+					return null;
+				continue;
+			}
+
+			if ( !fetchPrimaryObject( ) )
+			{
+				if ( joinType == IJointDataSetDesign.FULL_OUTER_JOIN )
+				{
+					unmatchedIterator = hashTable.values( ).iterator( );
+					curUnmatchedRows = null;
+					continue;
+				}
+				if ( !loadNextPartition( ) )
+					return null;
+				continue;
+			}
+
+			List<BuildRow> matches = hashTable.get( curPrimaryKey );
+			if ( matches != null )
+			{
+				curMatches = matches;
+				curMatchIndex = 0;
+			}
+			else if ( joinType != IJointDataSetDesign.INNER_JOIN )
+			{
+				return createResultObject( curPrimaryResultObject, null );
+			}
+		}
+	}
+
+	/**
+	 * Fetch the next primary object and its join key.
+	 *
+	 * @return false if there is no more primary object
+	 * @throws DataException
+	 */
+	private boolean fetchPrimaryObject( ) throws DataException
+	{
+		if ( curProbeReader != null )
+		{
+			Object[][] row = curProbeReader.read( );
+			if ( row == null )
+				return false;
+			curPrimaryResultObject = new ResultObject( primaryIterator.getResultClass( ),
+					row[0] );
+			curPrimaryKey = new JoinKey( row[1] );
+			return true;
+		}
+		if ( partitionQueue != null
+				|| primaryIterator.getCurrentResult( ) == null )
+			return false;
+		curPrimaryResultObject = primaryIterator.getCurrentResult( );
+		curPrimaryKey = new JoinKey( getKeyValues( isPrimaryLeft( ) ) );
+		primaryIterator.next( );
+		return true;
+	}
+
+	/**
+	 * Return the next secondary object which does not match any primary
+	 * object.
+	 *
+	 * @return
+	 */
+	private IResultObject nextUnmatchedRow( )
+	{
+		while ( true )
+		{
+			if ( curUnmatchedRows != null )
+			{
+				while ( curUnmatchedIndex < curUnmatchedRows.size( ) )
+				{
+					BuildRow row = curUnmatchedRows.get( curUnmatchedIndex++ );
+					if ( !row.matched )
+						return row.row;
+				}
+			}
+			if ( !unmatchedIterator.hasNext( ) )
+				return null;
+			curUnmatchedRows = unmatchedIterator.next( );
+			curUnmatchedIndex = 0;
+		}
+	}
+
+	/**
+	 * Build the hash table with all the secondary objects. If they exceed the
+	 * memory buffer, the secondary objects and then all the primary objects
+	 * are written to the partitions.
+	 *
+	 * @throws DataException
+	 */
+	private void buildHashTable( ) throws DataException
+	{
+		keyConvertClasses = getKeyConvertClasses( jcm.getCompareValueClass( true ),
+				jcm.getCompareValueClass( false ) );
+		hashTable = new HashMap<JoinKey, List<BuildRow>>( );
+		sizeOfUtil = memoryBufferSize > 0
+				? new SizeOfUtil( secondaryIterator.getResultClass( ) ) : null;
+		long usedMemorySize = 0;
+		while ( secondaryIterator.getCurrentResult( ) != null )
+		{
+			IResultObject row = secondaryIterator.getCurrentResult( );
+			Object[] keyValues = getKeyValues( !isPrimaryLeft( ) );
+			if ( buildPartitions != null )
+			{
+				write( buildPartitions, row, keyValues, 0 );
+			}
+			else
+			{
+				addToHashTable( new BuildRow( row, keyValues ) );
+				if ( sizeOfUtil != null )
+				{
+					usedMemorySize += sizeOfUtil.sizeOf( row ) + ENTRY_OVERHEAD;
+					if ( usedMemorySize > memoryBufferSize )
+						spillHashTable( keyValues.length );
+				}
+			}
+			secondaryIterator.next( );
+		}
+
+		if ( buildPartitions == null )
+			return;
+
+		while ( primaryIterator.getCurrentResult( ) != null )
+		{
+			write( probePartitions,
+					primaryIterator.getCurrentResult( ),
+					getKeyValues( isPrimaryLeft( ) ),
+					0 );
+			primaryIterator.next( );
+		}
+		endWrite( buildPartitions, probePartitions, 0 );
+		buildPartitions = null;
+		probePartitions = null;
+		hashTable = null;
+		loadNextPartition( );
+	}
+
+	/**
+	 * Return the types the string join keys are converted to. A string key is
+	 * converted if the key of the other data set is a number, date or boolean
+	 * column.
+	 *
+	 * @param leftClasses
+	 * @param rightClasses
+	 * @return
+	 */
+	private static Class[] getKeyConvertClasses( Class[] leftClasses,
+			Class[] rightClasses )
+	{
+		Class[] convertClasses = new Class[leftClasses.length];
+		for ( int i = 0; i < convertClasses.length; i++ )
+		{
+			if ( leftClasses[i] == String.class )
+				convertClasses[i] = getConvertClass( rightClasses[i] );
+			else if ( rightClasses[i] == String.class )
+				convertClasses[i] = getConvertClass( leftClasses[i] );
+		}
+		return convertClasses;
+	}
+
+	private static Class getConvertClass( Class keyClass )
+	{
+		if ( keyClass == null )
+			return null;
+		if ( BigDecimal.class.isAssignableFrom( keyClass ) )
+			return BigDecimal.class;
+		if ( Number.class.isAssignableFrom( keyClass ) )
+			return Double.class;
+		if ( Date.class.isAssignableFrom( keyClass ) )
+			return Date.class;
+		if ( keyClass == Boolean.class )
+			return Boolean.class;
+		return null;
+	}
+
+	/**
+	 * Return the values of the join keys of the current row, with the string
+	 * values converted as the sort merge join compares them. The strings
+	 * which can not be converted are kept.
+	 *
+	 * @param left
+	 * @return
+	 * @throws DataException
+	 */
+	private Object[] getKeyValues( boolean left ) throws DataException
+	{
+		Object[] keyValues = jcm.getCompareValue( left );
+		for ( int i = 0; i < keyValues.length; i++ )
+		{
+			if ( keyConvertClasses[i] == null
+					|| !( keyValues[i] instanceof String ) )
+				continue;
+			try
+			{
+				if ( keyConvertClasses[i] == BigDecimal.class )
+					keyValues[i] = DataTypeUtil.toBigDecimal( keyValues[i] );
+				else if ( keyConvertClasses[i] == Double.class )
+					keyValues[i] = DataTypeUtil.toDouble( keyValues[i] );
+				else if ( keyConvertClasses[i] == Date.class )
+					keyValues[i] = DataTypeUtil.toDate( keyValues[i] );
+				else
+					keyValues[i] = DataTypeUtil.toBoolean( keyValues[i] );
+			}
+			catch ( BirtException e )
+			{
+				// the sort merge join compares them as strings
+			}
+		}
+		return keyValues;
+	}
+
+	private void addToHashTable( BuildRow row )
+	{
+		List<BuildRow> rows = hashTable.get( row.key );
+		if ( rows == null )
+		{
+			rows = new ArrayList<BuildRow>( 1 );
+			hashTable.put( row.key, rows );
+		}
+		rows.add( row );
+	}
+
+	/**
+	 * Create the partitions and write the secondary objects in the hash table
+	 * to them.
+	 *
+	 * @param keyCount
+	 * @throws DataException
+	 */
+	private void spillHashTable( int keyCount ) throws DataException
+	{
+		partitionDir = CacheUtil.createTempRootDir( session.getTempDir( ) );
+		partitionQueue = new LinkedList<PartitionPair>( );
+		buildPartitions = createPartitions( secondaryIterator.getResultClass( ),
+				"build",
+				keyCount );
+		probePartitions = createPartitions( primaryIterator.getResultClass( ),
+				"probe",
+				keyCount );
+		Iterator<List<BuildRow>> it = hashTable.values( ).iterator( );
+		while ( it.hasNext( ) )
+		{
+			List<BuildRow> rows = it.next( );
+			for ( int i = 0; i < rows.size( ); i++ )
+			{
+				BuildRow row = rows.get( i );
+				write( buildPartitions, row.row, row.keyValues, 0 );
+			}
+		}
+		hashTable = null;
+	}
+
+	/**
+	 * Finish writing the partitions, and queue them to be joined.
+	 * 
+	 * @param builds
+	 * @param probes
+	 * @param level
+	 *            the times the rows have been split
+	 * @throws DataException
+	 */
+	private void endWrite( Partition[] builds, Partition[] probes, int level )
+			throws DataException
+	{
+		int nonEmptyCount = 0;
+		try
+		{
+			for ( int i = 0; i < PARTITION_COUNT; i++ )
+			{
+				builds[i].endWrite( );
+				probes[i].endWrite( );
+				if ( builds[i].rowCount > 0 )
+					nonEmptyCount++;
+			}
+		}
+		catch ( IOException e )
+		{
+			throw new DataException( ResourceConstants.WRITE_TEMPFILE_ERROR, e );
+		}
+		for ( int i = PARTITION_COUNT - 1; i >= 0; i-- )
+		{
+			// all the rows have the same hash, most likely the same join
+			// keys, which are not split by splitting again
+			int partitionLevel = level > 0 && nonEmptyCount == 1
+					? MAX_PARTITION_LEVEL : level;
+			partitionQueue.addFirst( new PartitionPair( builds[i],
+					probes[i],
+					partitionLevel ) );
+		}
+	}
+
+	private Partition[] createPartitions( IResultClass resultClass,
+			String prefix, int keyCount ) throws DataException
+	{
+		IResultClass partitionClass = createPartitionClass( resultClass,
+				keyCount );
+		Partition[] partitions = new Partition[PARTITION_COUNT];
+		for ( int i = 0; i < PARTITION_COUNT; i++ )
+		{
+			partitions[i] = new Partition( new File( partitionDir, prefix
+					+ "_" + ( partitionFileCount++ ) ),
+					partitionClass,
+					resultClass.getFieldCount( ) );
+		}
+		return partitions;
+	}
+
+	/**
+	 * Create the result class of the rows in the partitions, which have the
+	 * values of the join keys after the fields of the data set.
+	 *
+	 * @param resultClass
+	 * @param keyCount
+	 * @return
+	 * @throws DataException
+	 */
+	private IResultClass createPartitionClass( IResultClass resultClass,
+			int keyCount ) throws DataException
+	{
+		List fields = new ArrayList( );
+		int fieldCount = resultClass.getFieldCount( );
+		for ( int i = 1; i <= fieldCount; i++ )
+		{
+			fields.add( new ResultFieldMetadata( i,
+					resultClass.getFieldName( i ),
+					resultClass.getFieldLabel( i ),
+					resultClass.getFieldValueClass( i ),
+					resultClass.getFieldNativeTypeName( i ),
+					resultClass.isCustomField( i ) ) );
+		}
+		for ( int i = 1; i <= keyCount; i++ )
+		{
+			fields.add( new ResultFieldMetadata( fieldCount + i,
+					"_joinKey_" + i,
+					null,
+					Object.class,
+					null,
+					false ) );
+		}
+		return new ResultClass( fields );
+	}
+
+	/**
+	 * Write the row to the partition of its join keys. The rows are split by
+	 * a different hash at each level, so that the rows of a partition are
+	 * spread when it is split again.
+	 * 
+	 * @param partitions
+	 * @param row
+	 * @param keyValues
+	 * @param level
+	 * @throws DataException
+	 */
+	private void write( Partition[] partitions, IResultObject row,
+			Object[] keyValues, int level ) throws DataException
+	{
+		int hash = new JoinKey( keyValues ).hashCode( ) + level * 0x9E3779B9;
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		int index = ( hash & 0x7FFFFFFF ) % PARTITION_COUNT;
+		try
+		{
+			partitions[index].write( row, keyValues );
+		}
+		catch ( IOException e )
+		{
+			throw new DataException( ResourceConstants.WRITE_TEMPFILE_ERROR, e );
+		}
+	}
+
+	/**
+	 * Load the secondary objects of the next partition to the hash table, and
+	 * start to read the primary objects of it. The partition whose secondary
+	 * objects exceed the memory buffer is split again first.
+	 *
+	 * @return false if there is no more partition
+	 * @throws DataException
+	 */
+	private boolean loadNextPartition( ) throws DataException
+	{
+		if ( partitionQueue == null )
+			return false;
+		if ( curPartition != null )
+		{
+			curProbeReader.close( );
+			curProbeReader = null;
+			curPartition.delete( );
+			curPartition = null;
+		}
+		while ( !partitionQueue.isEmpty( ) )
+		{
+			PartitionPair partition = partitionQueue.removeFirst( );
+			if ( loadPartition( partition ) )
+			{
+				curPartition = partition;
+				curProbeReader = partition.probe.openReader( );
+				return true;
+			}
+			splitPartition( partition );
+		}
+		clearPartitions( );
+		return false;
+	}
+
+	/**
+	 * Load the secondary objects of the partition to the hash table.
+	 * 
+	 * @param partition
+	 * @return false if they exceed the memory buffer and the partition can be
+	 *         split again
+	 * @throws DataException
+	 */
+	private boolean loadPartition( PartitionPair partition )
+			throws DataException
+	{
+		boolean splittable = sizeOfUtil != null
+				&& partition.level < MAX_PARTITION_LEVEL;
+		long usedMemorySize = 0;
+		hashTable = new HashMap<JoinKey, List<BuildRow>>( );
+		PartitionReader buildReader = partition.build.openReader( );
+		try
+		{
+			IResultClass resultClass = secondaryIterator.getResultClass( );
+			Object[][] row;
+			while ( ( row = buildReader.read( ) ) != null )
+			{
+				ResultObject resultObject = new ResultObject( resultClass,
+						row[0] );
+				addToHashTable( new BuildRow( resultObject, row[1] ) );
+				if ( splittable )
+				{
+					usedMemorySize += sizeOfUtil.sizeOf( resultObject )
+							+ ENTRY_OVERHEAD;
+					if ( usedMemorySize > memoryBufferSize )
+					{
+						hashTable = null;
+						return false;
+					}
+				}
+			}
+		}
+		finally
+		{
+			buildReader.close( );
+		}
+		return true;
+	}
+
+	/**
+	 * Split the partition to the partitions of the next level, which are
+	 * joined before the other partitions.
+	 * 
+	 * @param partition
+	 * @throws DataException
+	 */
+	private void splitPartition( PartitionPair partition )
+			throws DataException
+	{
+		int keyCount = keyConvertClasses.length;
+		int level = partition.level + 1;
+		Partition[] builds = createPartitions( secondaryIterator.getResultClass( ),
+				"build",
+				keyCount );
+		Partition[] probes = createPartitions( primaryIterator.getResultClass( ),
+				"probe",
+				keyCount );
+		try
+		{
+			copy( partition.build,
+					secondaryIterator.getResultClass( ),
+					builds,
+					level );
+			copy( partition.probe,
+					primaryIterator.getResultClass( ),
+					probes,
+					level );
+			endWrite( builds, probes, level );
+		}
+		finally
+		{
+			partition.delete( );
+		}
+	}
+
+	/**
+	 * Write the rows of the partition to the partitions of the next level.
+	 * 
+	 * @param partition
+	 * @param resultClass
+	 * @param partitions
+	 * @param level
+	 * @throws DataException
+	 */
+	private void copy( Partition partition, IResultClass resultClass,
+			Partition[] partitions, int level ) throws DataException
+	{
+		PartitionReader reader = partition.openReader( );
+		try
+		{
+			Object[][] row;
+			while ( ( row = reader.read( ) ) != null )
+			{
+				write( partitions,
+						new ResultObject( resultClass, row[0] ),
+						row[1],
+						level );
+			}
+		}
+		finally
+		{
+			reader.close( );
+		}
+	}
+
+	/**
+	 * Delete the partition files.
+	 */
+	private void clearPartitions( )
+	{
+		if ( partitionDir == null )
+			return;
+		if ( curProbeReader != null )
+		{
+			curProbeReader.close( );
+			curProbeReader = null;
+		}
+		if ( curPartition != null )
+		{
+			curPartition.delete( );
+			curPartition = null;
+		}
+		for ( int i = 0; buildPartitions != null && i < PARTITION_COUNT; i++ )
+		{
+			buildPartitions[i].delete( );
+			probePartitions[i].delete( );
+		}
+		while ( !partitionQueue.isEmpty( ) )
+		{
+			partitionQueue.removeFirst( ).delete( );
+		}
+		FileSecurity.fileDelete( new File( partitionDir ) );
+		partitionDir = null;
+	}
+
+	/**
+	 * Create an instance of IResultObject.
+	 *
+	 * @param primary
+	 * @param secondary
+	 * @return
+	 * @throws DataException
+	 */
+	private IResultObject createResultObject( IResultObject primary,
+			IResultObject secondary ) throws DataException
+	{
+		Object[] fields = new Object[meta.getResultClass( ).getFieldCount( )];
+		for ( int i = 1; i <= fields.length; i++ )
+		{
+			IResultObject ri = null;
+
+			if ( meta.getColumnSource( i ) == JointResultMetadata.COLUMN_TYPE_LEFT )
+			{
+				ri = isPrimaryLeft( ) ? primary : secondary;
+			}
+			else if ( meta.getColumnSource( i ) == JointResultMetadata.COLUMN_TYPE_RIGHT )
+			{
+				ri = isPrimaryLeft( ) ? secondary : primary;
+			}
+
+			fields[i - 1] = ri == null ? null
+					: ri.getFieldValue( meta.getSourceIndex( i ) );
+		}
+		return new ResultObject( meta.getResultClass( ), fields );
+	}
+
+	/**
+	 * A secondary object in the hash table.
+	 */
+	private static class BuildRow
+	{
+		private IResultObject row;
+		private Object[] keyValues;
+		private JoinKey key;
+		private boolean matched;
+
+		BuildRow( IResultObject row, Object[] keyValues )
+		{
+			this.row = row;
+			this.keyValues = keyValues;
+			this.key = new JoinKey( keyValues );
+		}
+	}
+
+	/**
+	 * The values of the join keys of a row, which are converted so that the
+	 * numbers and the dates of the same value are equal.
+	 */
+	static class JoinKey
+	{
+		private static final Object NULL_VALUE = new Object( );
+
+		private Object[] values;
+		private int hashCode;
+
+		JoinKey( Object[] keyValues )
+		{
+			this.values = new Object[keyValues.length];
+			for ( int i = 0; i < keyValues.length; i++ )
+			{
+				this.values[i] = toKeyValue( keyValues[i] );
+			}
+			this.hashCode = Arrays.hashCode( this.values );
+		}
+
+		private static Object toKeyValue( Object value )
+		{
+			if ( value == null )
+				return NULL_VALUE;
+			if ( value instanceof Number )
+			{
+				if ( ( value instanceof Double || value instanceof Float )
+						&& ( Double.isNaN( ( (Number) value ).doubleValue( ) ) || Double.isInfinite( ( (Number) value ).doubleValue( ) ) ) )
+					return Double.valueOf( ( (Number) value ).doubleValue( ) );
+				BigDecimal decimal;
+				if ( value instanceof BigDecimal )
+					decimal = (BigDecimal) value;
+				else if ( value instanceof BigInteger )
+					decimal = new BigDecimal( (BigInteger) value );
+				else if ( value instanceof Double || value instanceof Float )
+					decimal = new BigDecimal( String.valueOf( ( (Number) value ).doubleValue( ) ) );
+				else
+					decimal = BigDecimal.valueOf( ( (Number) value ).longValue( ) );
+				return decimal.signum( ) == 0 ? BigDecimal.ZERO
+						: decimal.stripTrailingZeros( );
+			}
+			if ( value instanceof Date )
+				return new Date( ( (Date) value ).getTime( ) );
+			return value;
+		}
+
+		public int hashCode( )
+		{
+			return hashCode;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( !( obj instanceof JoinKey ) )
+				return false;
+			JoinKey key = (JoinKey) obj;
+			return hashCode == key.hashCode
+					&& Arrays.equals( values, key.values );
+		}
+	}
+
+	/**
+	 * A partition file of the rows and the values of their join keys.
+	 */
+	private class Partition
+	{
+		private File file;
+		private IResultClass partitionClass;
+		private int fieldCount;
+		private ResultObjectUtil resultObjectUtil;
+
+		private BufferedOutputStream bos;
+		private CompactRowWriter writer;
+		private int rowCount;
+
+		Partition( File file, IResultClass partitionClass, int fieldCount )
+		{
+			this.file = file;
+			this.partitionClass = partitionClass;
+			this.fieldCount = fieldCount;
+			this.resultObjectUtil = ResultObjectUtil.newInstance( partitionClass,
+					session );
+		}
+
+		void write( IResultObject row, Object[] keyValues )
+				throws IOException, DataException
+		{
+			if ( writer == null )
+			{
+				bos = new BufferedOutputStream( FileSecurity.createFileOutputStream( file ) );
+				writer = resultObjectUtil.newCompactRowWriter( bos,
+						false,
+						false );
+			}
+			Object[] values = new Object[partitionClass.getFieldCount( )];
+			for ( int i = 0; i < fieldCount; i++ )
+			{
+				values[i] = row.getFieldValue( i + 1 );
+			}
+			System.arraycopy( keyValues,
+					0,
+					values,
+					fieldCount,
+					keyValues.length );
+			writer.write( new ResultObject( partitionClass, values ) );
+			rowCount++;
+		}
+
+		void endWrite( ) throws IOException
+		{
+			if ( writer != null )
+			{
+				writer.finish( );
+				bos.close( );
+				writer = null;
+			}
+		}
+
+		PartitionReader openReader( ) throws DataException
+		{
+			if ( !FileSecurity.fileExist( file ) )
+				return new PartitionReader( null, null, fieldCount );
+			try
+			{
+				BufferedInputStream bis = new BufferedInputStream( FileSecurity.createFileInputStream( file ) );
+				CompactRowReader.readHeader( bis );
+				return new PartitionReader( bis,
+						resultObjectUtil.newCompactRowReader( bis,
+								session.getEngineContext( ).getClassLoader( ) ),
+						fieldCount );
+			}
+			catch ( IOException e )
+			{
+				throw new DataException( ResourceConstants.READ_TEMPFILE_ERROR,
+						e );
+			}
+		}
+
+		void delete( )
+		{
+			try
+			{
+				endWrite( );
+			}
+			catch ( IOException e )
+			{
+				// the file is deleted anyway
+			}
+			if ( FileSecurity.fileExist( file ) )
+				FileSecurity.fileDelete( file );
+		}
+	}
+
+	/**
+	 * The partitions of the secondary and the primary objects of the same
+	 * join keys.
+	 */
+	private static class PartitionPair
+	{
+		private Partition build;
+		private Partition probe;
+		// the times the rows have been split
+		private int level;
+
+		PartitionPair( Partition build, Partition probe, int level )
+		{
+			this.build = build;
+			this.probe = probe;
+			this.level = level;
+		}
+
+		void delete( )
+		{
+			build.delete( );
+			probe.delete( );
+		}
+	}
+
+	/**
+	 * The reader of the rows and the values of their join keys in a
+	 * partition file.
+	 */
+	private static class PartitionReader
+	{
+		private BufferedInputStream bis;
+		private CompactRowReader reader;
+		private int fieldCount;
+
+		PartitionReader( BufferedInputStream bis, CompactRowReader reader,
+				int fieldCount )
+		{
+			this.bis = bis;
+			this.reader = reader;
+			this.fieldCount = fieldCount;
+		}
+
+		/**
+		 * @return the values of the row and the values of its join keys, or
+		 *         null if there is no more row
+		 * @throws DataException
+		 */
+		Object[][] read( ) throws DataException
+		{
+			if ( reader == null )
+				return null;
+			Object[] values;
+			try
+			{
+				values = reader.read( );
+			}
+			catch ( IOException e )
+			{
+				throw new DataException( ResourceConstants.READ_TEMPFILE_ERROR,
+						e );
+			}
+			if ( values == null )
+				return null;
+			Object[] fields = new Object[fieldCount];
+			Object[] keyValues = new Object[values.length - fieldCount];
+			System.arraycopy( values, 0, fields, 0, fieldCount );
+			System.arraycopy( values,
+					fieldCount,
+					keyValues,
+					0,
+					keyValues.length );
+			return new Object[][]{
+					fields, keyValues
+			};
+		}
+
+		void close( )
+		{
+			if ( reader == null )
+				return;
+			reader.close( );
+			try
+			{
+				bis.close( );
+			}
+			catch ( IOException e )
+			{
+				// ignore
+			}
+			reader = null;
+		}
+	}
+}
@@ -43,4 +43,14 @@ public interface IJoinConditionMatcher
 	 * @throws DataException
 	 */
 	Object[] getCompareValue( boolean left ) throws DataException;
+	
+	/**
+	 * Get list of the value classes of the compare values.
+	 * 
+	 * @param left
+	 * @return the value classes, the class is null if the compare value is
+	 *         not a column of the data set
+	 * @throws DataException
+	 */
+	Class[] getCompareValueClass( boolean left ) throws DataException;
 }
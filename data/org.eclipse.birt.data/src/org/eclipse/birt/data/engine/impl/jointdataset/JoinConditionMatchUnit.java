@@ -10,10 +10,13 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.impl.jointdataset;
 
+import org.eclipse.birt.core.data.ExpressionUtil;
+import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.script.ScriptContext;
 import org.eclipse.birt.core.script.ScriptExpression;
 import org.eclipse.birt.data.engine.api.IScriptExpression;
 import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.odi.IResultClass;
 import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
 import org.mozilla.javascript.Scriptable;
 
@@ -54,4 +57,31 @@ public class JoinConditionMatchUnit
 				
 			return leftValue;
 	}
+	
+	/**
+	 * Get the value class of current column.
+	 * 
+	 * @param resultClass
+	 *            the result class of the data set
+	 * @return the value class, or null if the expression is not a column of
+	 *         the data set
+	 * @throws DataException
+	 */
+	public Class getColumnValueClass( IResultClass resultClass )
+			throws DataException
+	{
+		String columnName;
+		try
+		{
+			columnName = ExpressionUtil.getColumnName( this.expr.getText( ) );
+		}
+		catch ( BirtException e )
+		{
+			return null;
+		}
+		if ( columnName == null || resultClass == null
+				|| resultClass.getFieldIndex( columnName ) <= 0 )
+			return null;
+		return resultClass.getFieldValueClass( columnName );
+	}
 }
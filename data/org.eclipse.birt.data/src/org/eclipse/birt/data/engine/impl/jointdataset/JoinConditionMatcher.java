@@ -28,6 +28,8 @@ public class JoinConditionMatcher implements IJoinConditionMatcher
 	//
 	private JoinConditionMatchUnit[] left = new JoinConditionMatchUnit[0];
 	private JoinConditionMatchUnit[] right = new JoinConditionMatchUnit[0];
+	private IResultIterator leftRi;
+	private IResultIterator rightRi;
 	
 	/**
 	 * Constructor.
@@ -40,6 +42,8 @@ public class JoinConditionMatcher implements IJoinConditionMatcher
 	 */
 	public JoinConditionMatcher( IResultIterator leftRi, IResultIterator rightRi, Scriptable leftScope, Scriptable rightScope, ScriptContext cx, List joinConditions)
 	{
+		this.leftRi = leftRi;
+		this.rightRi = rightRi;
 		this.left = new JoinConditionMatchUnit[joinConditions.size( )];
 		this.right = new JoinConditionMatchUnit[joinConditions.size( )];
 		
@@ -124,5 +128,22 @@ public class JoinConditionMatcher implements IJoinConditionMatcher
 		return result;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.impl.jointdataset.IJoinConditionMatcher#getCompareValueClass(boolean)
+	 */
+	public Class[] getCompareValueClass( boolean isLeft ) throws DataException
+	{
+		JoinConditionMatchUnit[] array = isLeft ? left : right;
+		IResultIterator ri = isLeft ? leftRi : rightRi;
+
+		Class[] result = new Class[array.length];
+		for ( int i = 0; i < result.length; i++ )
+		{
+			result[i] = array[i].getColumnValueClass( ri.getResultClass( ) );
+		}
+		return result;
+	}
+
 
 }
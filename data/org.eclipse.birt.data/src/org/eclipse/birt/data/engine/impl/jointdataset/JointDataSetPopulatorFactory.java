@@ -54,4 +54,27 @@ public class JointDataSetPopulatorFactory
 	{
 		return new BaseJointDataSetPopulator( left, right, meta, jcm , joinType, null, session, rowFetchLimit );
 	}
+	
+	/**
+	 * Return instance of IJointDataSetPopulator which is used for equi-join
+	 * of the data sets which are not sorted by the join keys.
+	 * 
+	 * @param left
+	 * @param right
+	 * @param meta
+	 * @param jcm
+	 * @param joinType
+	 * @param session
+	 * @param rowFetchLimit
+	 * @param memoryBufferSize
+	 *            the size of memory in bytes the rows of the hash table can
+	 *            occupy before they are spilled to disk, or 0 if it is not
+	 *            limited
+	 * @return
+	 * @throws DataException
+	 */
+	public static IDataSetPopulator getHashJointDataSetPopulator( IResultIterator left, IResultIterator right, JointResultMetadata meta, IJoinConditionMatcher jcm , int joinType, DataEngineSession session, int rowFetchLimit, long memoryBufferSize ) throws DataException
+	{
+		return new HashJointDataSetPopulator( left, right, meta, jcm , joinType, session, rowFetchLimit, memoryBufferSize );
+	}
 }
@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.impl.jointdataset;
 
+import java.util.Map;
+
+import org.eclipse.birt.data.engine.api.DataEngine;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
 
@@ -55,4 +58,17 @@ public class JointDataSetUtil
 		return 0;
 		
 	}
+
+	/**
+	 * 
+	 * @param appContext
+	 * @return whether the joint data sets are joined with a hash table.
+	 */
+	public static boolean isHashJoin( Map appContext )
+	{
+		if ( appContext == null )
+			return false;
+		Object value = appContext.get( DataEngine.JOINT_DATA_SET_HASH_JOIN );
+		return value != null && Boolean.valueOf( value.toString( ) ).booleanValue( );
+	}
 }
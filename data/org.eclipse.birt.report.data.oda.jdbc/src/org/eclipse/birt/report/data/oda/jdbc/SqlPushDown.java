@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.data.oda.jdbc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites the query text of a data set with the filters, the sorts, the
+ * grouping and the aggregations pushed down by the data engine. The original
+ * query is wrapped in a derived table, so that the pushed expressions only
+ * refer to the columns of its result set.
+ */
+final class SqlPushDown
+{
+	/**
+	 * The name of the query specification property which carries the plan.
+	 * The names below are shared with the data engine.
+	 */
+	static final String PUSH_DOWN_PROPERTY = "org.eclipse.birt.data.sqlPushDown";
+
+	private static final String FILTERS = "filters";
+	private static final String SORTS = "sorts";
+	private static final String GROUP_COLUMNS = "groupColumns";
+	private static final String AGGREGATES = "aggregates";
+	private static final String MAX_ROWS = "maxRows";
+
+	private static final String COLUMN = "column";
+	private static final String OPERATOR = "operator";
+	private static final String VALUES = "values";
+	private static final String OR_NULL = "orNull";
+	private static final String ASCENDING = "ascending";
+	private static final String FUNCTION = "function";
+	private static final String ALIAS = "alias";
+
+	private static final String TABLE_ALIAS = "BIRT_PUSH_DOWN";
+
+	private Map plan;
+	private String quote;
+
+	/**
+	 * @param plan
+	 *            the plan of the data engine
+	 * @param quote
+	 *            the string to quote the identifiers, or null if they are not
+	 *            quoted
+	 */
+	SqlPushDown( Map plan, String quote )
+	{
+		this.plan = plan;
+		this.quote = quote == null || quote.trim( ).length( ) == 0
+				? null : quote.trim( );
+	}
+
+	/**
+	 * @return whether the rows are grouped by the database, in which case the
+	 *         original query can not be used instead
+	 */
+	boolean isGrouped( )
+	{
+		return plan.get( GROUP_COLUMNS ) != null;
+	}
+
+	/**
+	 * @return the max rows of the pushed top/bottom N filter, or 0 if there is
+	 *         no limit
+	 */
+	int getMaxRows( )
+	{
+		Object maxRows = plan.get( MAX_ROWS );
+		return maxRows instanceof Number ? ( (Number) maxRows ).intValue( ) : 0;
+	}
+
+	/**
+	 * @param query
+	 *            the query text of the data set
+	 * @return the query text which evaluates the plan
+	 */
+	String getQueryText( String query )
+	{
+		String text = query.trim( );
+		while ( text.endsWith( ";" ) )
+			text = text.substring( 0, text.length( ) - 1 ).trim( );
+
+		StringBuffer sql = new StringBuffer( "SELECT " );
+		List groupColumns = (List) plan.get( GROUP_COLUMNS );
+		if ( groupColumns == null )
+		{
+			sql.append( "*" );
+		}
+		else
+		{
+			for ( int i = 0; i < groupColumns.size( ); i++ )
+			{
+				if ( i > 0 )
+					sql.append( ", " );
+				sql.append( quote( (String) groupColumns.get( i ) ) );
+			}
+			List aggregates = (List) plan.get( AGGREGATES );
+			for ( int i = 0; i < aggregates.size( ); i++ )
+			{
+				if ( groupColumns.size( ) > 0 || i > 0 )
+					sql.append( ", " );
+				appendAggregate( sql, (Map) aggregates.get( i ) );
+			}
+		}
+		// the line break ends the comment at the end of the query, if any
+		sql.append( " FROM ( " ).append( text ).append( "\n) " ).append( TABLE_ALIAS );
+
+		List filters = (List) plan.get( FILTERS );
+		if ( filters != null )
+		{
+			for ( int i = 0; i < filters.size( ); i++ )
+			{
+				sql.append( i == 0 ? " WHERE " : " AND " );
+				appendCondition( sql, (Map) filters.get( i ) );
+			}
+		}
+		if ( groupColumns != null && groupColumns.size( ) > 0 )
+		{
+			sql.append( " GROUP BY " );
+			for ( int i = 0; i < groupColumns.size( ); i++ )
+			{
+				if ( i > 0 )
+					sql.append( ", " );
+				sql.append( quote( (String) groupColumns.get( i ) ) );
+			}
+		}
+		List sorts = (List) plan.get( SORTS );
+		if ( sorts != null )
+		{
+			for ( int i = 0; i < sorts.size( ); i++ )
+			{
+				Map sort = (Map) sorts.get( i );
+				sql.append( i == 0 ? " ORDER BY " : ", " );
+				sql.append( quote( (String) sort.get( COLUMN ) ) );
+				sql.append( Boolean.FALSE.equals( sort.get( ASCENDING ) )
+						? " DESC" : " ASC" );
+			}
+		}
+		return sql.toString( );
+	}
+
+	private void appendAggregate( StringBuffer sql, Map aggregate )
+	{
+		String function = (String) aggregate.get( FUNCTION );
+		String column = (String) aggregate.get( COLUMN );
+		if ( column == null )
+			sql.append( function ).append( "( * )" );
+		else if ( "SUM".equals( function ) )
+			// the sum of no values is 0 in the data engine
+			sql.append( "COALESCE( SUM( " )
+					.append( quote( column ) )
+					.append( " ), 0 )" );
+		else if ( "AVG".equals( function ) )
+			// avoid the integer division of the integer columns
+			sql.append( "AVG( " ).append( quote( column ) ).append( " * 1.0E0 )" );
+		else
+			sql.append( function )
+					.append( "( " )
+					.append( quote( column ) )
+					.append( " )" );
+		sql.append( " AS " ).append( quote( (String) aggregate.get( ALIAS ) ) );
+	}
+
+	private void appendCondition( StringBuffer sql, Map condition )
+	{
+		String column = quote( (String) condition.get( COLUMN ) );
+		String operator = (String) condition.get( OPERATOR );
+		List values = (List) condition.get( VALUES );
+		boolean orNull = Boolean.TRUE.equals( condition.get( OR_NULL ) );
+
+		sql.append( "( " ).append( column ).append( " " ).append( operator );
+		if ( operator.endsWith( "BETWEEN" ) )
+		{
+			sql.append( " " ).append( literal( values.get( 0 ) ) );
+			sql.append( " AND " ).append( literal( values.get( 1 ) ) );
+		}
+		else if ( operator.endsWith( "IN" ) )
+		{
+			sql.append( " ( " );
+			for ( int i = 0; i < values.size( ); i++ )
+			{
+				if ( i > 0 )
+					sql.append( ", " );
+				sql.append( literal( values.get( i ) ) );
+			}
+			sql.append( " )" );
+		}
+		else if ( values != null && !values.isEmpty( ) )
+		{
+			sql.append( " " ).append( literal( values.get( 0 ) ) );
+		}
+		// the null values pass the filters of the data engine on the lower
+		// values
+		if ( orNull )
+			sql.append( " OR " ).append( column ).append( " IS NULL" );
+		sql.append( " )" );
+	}
+
+	private String quote( String identifier )
+	{
+		if ( quote == null )
+			return identifier;
+		return quote + identifier.replace( quote, quote + quote ) + quote;
+	}
+
+	private static String literal( Object value )
+	{
+		if ( value instanceof BigDecimal )
+			return ( (BigDecimal) value ).toPlainString( );
+		if ( value instanceof Number )
+			return value.toString( );
+		return "'" + String.valueOf( value ).replace( "'", "''" ) + "'";
+	}
+}
@@ -17,6 +17,7 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -60,6 +61,9 @@ public class Statement implements IQuery
 	private IResultSet cachedResultSet;
 	private QuerySpecification querySpec;
 	
+	/** the max rows of the top/bottom N filter pushed down, 0 if none */
+	private int pushDownMaxRows;
+	
 	/**
 	 * assertNull(Object o)
 	 * 
@@ -128,6 +132,31 @@ public class Statement implements IQuery
 			 * call the JDBC Connection.prepareStatement(String) method to get
 			 * the preparedStatement
 			 */
+			this.pushDownMaxRows = 0;
+			SqlPushDown pushDown = getSqlPushDown( );
+			if ( pushDown != null )
+			{
+				String pushDownCommand = pushDown.getQueryText( command );
+				logger.logp( java.util.logging.Level.FINE,
+						Statement.class.getName( ),
+						"prepare",
+						"Push down into the query: " + pushDownCommand );
+				try
+				{
+					this.preStat = conn.prepareStatement( pushDownCommand );
+					this.pushDownMaxRows = pushDown.getMaxRows( );
+					setMaxRows( this.maxrows );
+					return;
+				}
+				catch ( SQLException e )
+				{
+					// the rows are still filtered and sorted by the data
+					// engine if they are not grouped
+					if ( pushDown.isGrouped( ) )
+						throw e;
+					logger.log( Level.FINE, "Push down into the query failed", e );
+				}
+			}
 			this.preStat = conn.prepareStatement( command );
 		}
 		catch ( SQLException e )
@@ -208,10 +237,12 @@ public class Statement implements IQuery
 		else if ( name.equals( ConnectionProfileProperty.PROFILE_NAME_PROP_KEY )
 				|| name.equals( ConnectionProfileProperty.PROFILE_STORE_FILE_PROP_KEY )
 				|| name.equals( ConnectionProfileProperty.PROFILE_STORE_FILE_PATH_PROP_KEY )
-				|| name.equals( "addListFile" ) )
+				|| name.equals( "addListFile" )
+				|| name.equals( SqlPushDown.PUSH_DOWN_PROPERTY ) )
 		{
 			//do nothing here. These are valid ODA properties. See Eclipse bug 176140
 			// Bypass Hive connection property addListFile.
+			// The push down is passed in the query specification.
 		}
 		else
 		{
@@ -270,6 +301,9 @@ public class Statement implements IQuery
 				Statement.class.getName( ),
 				"setMaxRows",
 				"Statement.setMaxRows( " + max + " )" );
+		// the top/bottom N filter pushed down limits the rows as well
+		if ( pushDownMaxRows > 0 && ( max <= 0 || max > pushDownMaxRows ) )
+			max = pushDownMaxRows;
 		if ( max != maxrows && max >= 0 )
 		{
 			maxrows = max;
@@ -989,6 +1023,22 @@ public class Statement implements IQuery
        return this.querySpec;
     }
 
+    /**
+     * @return the push down of the data engine in the query specification, or
+     *         null if there is none
+     */
+    @SuppressWarnings("restriction")
+    private SqlPushDown getSqlPushDown( ) throws SQLException
+    {
+        if ( this.querySpec == null )
+            return null;
+        Object plan = this.querySpec.getProperty( SqlPushDown.PUSH_DOWN_PROPERTY );
+        if ( !( plan instanceof Map ) )
+            return null;
+        return new SqlPushDown( (Map) plan, conn.getMetaData( )
+                .getIdentifierQuoteString( ) );
+    }
+
     /* (non-Javadoc)
      * @see org.eclipse.datatools.connectivity.oda.IQuery#getEffectiveQueryText()
      */
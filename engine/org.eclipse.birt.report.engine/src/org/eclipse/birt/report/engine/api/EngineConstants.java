@@ -68,4 +68,11 @@ public class EngineConstants {
 	 * OOM
 	 */
 	public final static String APPCONTEXT_MAX_PAGE_BREAK_INTERVAL = "MAX_PAGE_BREAK_INTERVAL";
+
+	/**
+	 * the max count of the compiled scripts cached by the JVM. It can be set
+	 * in the engine configuration or the app context of the engine
+	 * configuration. 0 disables the cache.
+	 */
+	public final static String PROPERTY_SCRIPT_CACHE_SIZE = "SCRIPT_CACHE_SIZE"; //$NON-NLS-1$
 }
@@ -29,6 +29,7 @@ import java.util.logging.Logger;
 import org.eclipse.birt.core.archive.IDocArchiveReader;
 import org.eclipse.birt.core.archive.compound.IArchiveFile;
 import org.eclipse.birt.core.framework.URLClassLoader;
+import org.eclipse.birt.core.script.JavascriptEvalUtil;
 import org.eclipse.birt.report.engine.api.DataExtractionFormatInfo;
 import org.eclipse.birt.report.engine.api.EmitterInfo;
 import org.eclipse.birt.report.engine.api.EngineConfig;
@@ -134,6 +135,7 @@ public class ReportEngine implements IReportEngine
 		mergeConfigToAppContext( );
 
 		intializeLogger( );
+		setupScriptCache( );
 
 		logger.log( Level.FINE, "ReportEngine created. EngineConfig: {0} ",
 				config );
@@ -156,6 +158,33 @@ public class ReportEngine implements IReportEngine
 		mergeSystemProperty( EngineConstants.WORKSPACE_CLASSPATH_KEY );
 	}
 
+	/**
+	 * set the size of the compiled script cache. The cache is shared by all
+	 * the engines, so the setting of the last created engine is used.
+	 */
+	private void setupScriptCache( )
+	{
+		Object size = config.getAppContext( ).get(
+				EngineConstants.PROPERTY_SCRIPT_CACHE_SIZE );
+		if ( size == null )
+		{
+			size = config.getProperty( EngineConstants.PROPERTY_SCRIPT_CACHE_SIZE );
+		}
+		if ( size != null )
+		{
+			try
+			{
+				JavascriptEvalUtil.setScriptCacheSize( Integer.parseInt( size
+						.toString( ).trim( ) ) );
+			}
+			catch ( NumberFormatException ex )
+			{
+				logger.log( Level.WARNING, "invalid script cache size: "
+						+ size, ex );
+			}
+		}
+	}
+
 	private void mergeConfigProperty( String property )
 	{
 		Map appContext = config.getAppContext( );
@@ -459,6 +488,8 @@ public class ReportEngine implements IReportEngine
 	public void destroy( )
 	{
 		logger.fine( "ReportEngine.destroy" );
+		logger.log( Level.FINE, "script cache statistics: {0}",
+				JavascriptEvalUtil.getScriptCache( ) );
 		rootScope = null;
 		helper = null;
 		synchronized ( openedDocuments )
@@ -179,7 +179,8 @@ public class BookmarkManager
 
 		protected void flush( ) throws IOException
 		{
-			if ( btree == null )
+			boolean isEmpty = btree == null;
+			if ( isEmpty )
 			{
 				btree = createBtree( );
 			}
@@ -195,6 +196,12 @@ public class BookmarkManager
 						}
 					} );
 
+			if ( isEmpty )
+			{
+				// build the new tree from the sorted entries directly
+				btree.bulkLoad( entries.iterator( ) );
+				return;
+			}
 			for ( Map.Entry<String, Integer> entry : entries )
 			{
 				btree.insert( entry.getKey( ), VALUE );
@@ -11,15 +11,18 @@
 
 package org.eclipse.birt.report.engine.internal.document;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * read a index (binary search) 
- *
+ * read a index (binary search)
+ * 
+ * The index is loaded into the primitive arrays once it is opened, so the
+ * find needn't seek the file or create any object.
  */
 public class OffsetIndexReader
 {
@@ -29,7 +32,8 @@ public class OffsetIndexReader
 	protected static Logger logger = Logger.getLogger( OffsetIndexReader.class.getName( ) );
 	
 	protected String indexFile;
-	protected RandomAccessFile index;
+	protected long[] offsets;
+	protected long[] values;
 
 	public OffsetIndexReader( String indexFile )
 	{
@@ -39,69 +43,59 @@ public class OffsetIndexReader
 	public void open( ) throws IOException
 	{
 		File file = new File( indexFile );
-		index = new RandomAccessFile( file, "r" );
-	}
-
-	public void close( )
-	{
-		if ( index != null )
+		int count = (int) ( file.length( ) / 16 );
+		long[] offsets = new long[count];
+		long[] values = new long[count];
+		DataInputStream input = new DataInputStream( new BufferedInputStream(
+				new FileInputStream( file ) ) );
+		try
 		{
-			try
-			{
-				index.close( );
-			}
-			catch ( Exception ex )
+			for ( int i = 0; i < count; i++ )
 			{
+				offsets[i] = input.readLong( );
+				values[i] = input.readLong( );
 			}
 		}
+		finally
+		{
+			input.close( );
+		}
+		this.offsets = offsets;
+		this.values = values;
+	}
+
+	public void close( )
+	{
+		offsets = null;
+		values = null;
 	}
 
 	public long find( long target )
 	{
-		try
+		if ( offsets == null )
 		{
-			long length = index.length( );
-			if ( length < 16 )
+			return -1;
+		}
+		// use binary search to find the target, the offsets are written in
+		// ascending order.
+		int min = 0;
+		int max = offsets.length - 1;
+		while ( min <= max )
+		{
+			int ref = ( min + max ) >>> 1;
+			long offset = offsets[ref];
+			if ( target == offset )
 			{
-				return -1;
+				return values[ref];
 			}
-
-			// the first one
-			if ( target == 0 )
+			if ( target > offset )
 			{
-				index.seek( 8 );
-				return index.readLong( );
+				min = ref + 1;
 			}
-
-			// use binary search to find the target
-
-			long min = 1;
-			long max = length / 16 - 1;
-			long ref = ( min + max ) / 2;
-			do
+			else
 			{
-				index.seek( 16 * ref );
-				long offset = index.readLong( );
-				if ( target == offset )
-				{
-					return index.readLong( );
-				}
-				if ( target > offset )
-				{
-					min = ref + 1;
-					ref = ( min + max ) / 2;
-
-				}
-				else
-				{
-					max = ref - 1;
-					ref = ( min + max ) / 2;
-				}
-			} while ( min <= max );
-		}
-		catch ( Exception ex )
-		{
-			logger.log( Level.WARNING, ex.getMessage( ), ex );
+				max = ref - 1;
+			}
 		}
 		return -1;
 	}
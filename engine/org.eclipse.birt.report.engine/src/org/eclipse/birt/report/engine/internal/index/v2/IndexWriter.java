@@ -132,7 +132,8 @@ public class IndexWriter implements IndexConstants
 
 	protected void flushBtree( ) throws IOException
 	{
-		if ( btree == null )
+		boolean isEmpty = btree == null;
+		if ( isEmpty )
 		{
 			btree = BTreeMap.createTreeMap( archive, name, type );
 		}
@@ -148,6 +149,12 @@ public class IndexWriter implements IndexConstants
 					}
 				} );
 
+		if ( isEmpty )
+		{
+			// build the new tree from the sorted entries directly
+			btree.bulkLoad( entries.iterator( ) );
+			return;
+		}
 		for ( Map.Entry<String, Object> entry : entries )
 		{
 			btree.insert( entry.getKey( ), entry.getValue( ) );